@@ -58,6 +58,8 @@ public class FlattenJSONBenchmark
   Parser jqParser;
   Parser fieldDiscoveryParser;
   Parser forcedPathParser;
+  Parser streamingFlatParser;
+  Parser streamingNestedParser;
   int flatCounter = 0;
   int nestedCounter = 0;
   int jqCounter = 0;
@@ -84,6 +86,8 @@ public class FlattenJSONBenchmark
     jqParser = gen.getJqParser();
     fieldDiscoveryParser = gen.getFieldDiscoveryParser();
     forcedPathParser = gen.getForcedPathParser();
+    streamingFlatParser = gen.getFlatParser(true);
+    streamingNestedParser = gen.getNestedParser(true);
   }
 
   @Benchmark
@@ -151,6 +155,32 @@ public class FlattenJSONBenchmark
     return parsed;
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Map<String, Object> baselineStreaming(final Blackhole blackhole)
+  {
+    Map<String, Object> parsed = streamingFlatParser.parseToMap(flatInputs.get(flatCounter));
+    for (String s : parsed.keySet()) {
+      blackhole.consume(parsed.get(s));
+    }
+    flatCounter = (flatCounter + 1) % numEvents;
+    return parsed;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Map<String, Object> flattenStreaming(final Blackhole blackhole)
+  {
+    Map<String, Object> parsed = streamingNestedParser.parseToMap(nestedInputs.get(nestedCounter));
+    for (String s : parsed.keySet()) {
+      blackhole.consume(parsed.get(s));
+    }
+    nestedCounter = (nestedCounter + 1) % numEvents;
+    return parsed;
+  }
+
   public static void main(String[] args) throws RunnerException
   {
     Options opt = new OptionsBuilder()
@@ -52,12 +52,18 @@ public class FlattenJSONBenchmarkUtil
   }
 
   public Parser getFlatParser()
+  {
+    return getFlatParser(false);
+  }
+
+  public Parser getFlatParser(boolean streaming)
   {
     JSONParseSpec spec = new JSONParseSpec(
         new TimestampSpec("ts", "iso", null),
         new DimensionsSpec(null, null, null),
         null,
-        null
+        null,
+        streaming
     );
     return spec.makeParser();
   }
@@ -78,6 +84,11 @@ public class FlattenJSONBenchmarkUtil
   }
 
   public Parser getNestedParser()
+  {
+    return getNestedParser(false);
+  }
+
+  public Parser getNestedParser(boolean streaming)
   {
     List<JSONPathFieldSpec> fields = new ArrayList<>();
     fields.add(JSONPathFieldSpec.createRootField("ts"));
@@ -114,7 +125,8 @@ public class FlattenJSONBenchmarkUtil
         new TimestampSpec("ts", "iso", null),
         new DimensionsSpec(null, null, null),
         flattenSpec,
-        null
+        null,
+        streaming
     );
 
     return spec.makeParser();
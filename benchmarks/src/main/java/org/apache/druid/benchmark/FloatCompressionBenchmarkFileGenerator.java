@@ -49,6 +49,7 @@ public class FloatCompressionBenchmarkFileGenerator
   public static final List<CompressionStrategy> compressions =
       ImmutableList.of(
           CompressionStrategy.LZ4,
+          CompressionStrategy.ZSTD,
           CompressionStrategy.NONE
       );
 
@@ -49,6 +49,7 @@ public class LongCompressionBenchmarkFileGenerator
   public static final List<CompressionStrategy> compressions =
       ImmutableList.of(
           CompressionStrategy.LZ4,
+          CompressionStrategy.ZSTD,
           CompressionStrategy.NONE);
   public static final List<CompressionFactory.LongEncodingStrategy> encodings =
       ImmutableList.of(CompressionFactory.LongEncodingStrategy.AUTO, CompressionFactory.LongEncodingStrategy.LONGS);
@@ -0,0 +1,605 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.benchmark.query;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Ordering;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.Futures;
+import org.apache.druid.benchmark.datagen.BenchmarkDataGenerator;
+import org.apache.druid.benchmark.datagen.BenchmarkSchemaInfo;
+import org.apache.druid.benchmark.datagen.BenchmarkSchemas;
+import org.apache.druid.client.BrokerParallelMergeConfig;
+import org.apache.druid.client.CachingClusteredClient;
+import org.apache.druid.client.DruidServer;
+import org.apache.druid.client.ImmutableDruidServer;
+import org.apache.druid.client.JsonParserIterator;
+import org.apache.druid.client.TimelineServerView;
+import org.apache.druid.client.cache.Cache;
+import org.apache.druid.client.cache.CacheConfig;
+import org.apache.druid.client.cache.CachePopulatorStats;
+import org.apache.druid.client.cache.ForegroundCachePopulator;
+import org.apache.druid.client.cache.MapCache;
+import org.apache.druid.client.selector.HighestPriorityTierSelectorStrategy;
+import org.apache.druid.client.selector.QueryableDruidServer;
+import org.apache.druid.client.selector.RandomServerSelectorStrategy;
+import org.apache.druid.client.selector.ServerSelector;
+import org.apache.druid.collections.BlockingPool;
+import org.apache.druid.collections.DefaultBlockingPool;
+import org.apache.druid.collections.NonBlockingPool;
+import org.apache.druid.collections.StupidPool;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.guice.http.DruidHttpClientConfig;
+import org.apache.druid.hll.HyperLogLogHash;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.guava.BaseSequence;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Yielder;
+import org.apache.druid.java.util.common.guava.Yielders;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.java.util.emitter.core.NoopEmitter;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.offheap.OffheapBufferGenerator;
+import org.apache.druid.query.DataSource;
+import org.apache.druid.query.Druids;
+import org.apache.druid.query.DruidProcessingConfig;
+import org.apache.druid.query.MapQueryToolChestWarehouse;
+import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.query.QueryRunner;
+import org.apache.druid.query.QueryRunnerFactory;
+import org.apache.druid.query.QueryToolChest;
+import org.apache.druid.query.QueryToolChestWarehouse;
+import org.apache.druid.query.RetryQueryRunnerConfig;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.aggregation.hyperloglog.HyperUniquesSerde;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.groupby.GroupByQuery;
+import org.apache.druid.query.groupby.GroupByQueryConfig;
+import org.apache.druid.query.groupby.GroupByQueryEngine;
+import org.apache.druid.query.groupby.GroupByQueryQueryToolChest;
+import org.apache.druid.query.groupby.GroupByQueryRunnerFactory;
+import org.apache.druid.query.groupby.strategy.GroupByStrategySelector;
+import org.apache.druid.query.groupby.strategy.GroupByStrategyV1;
+import org.apache.druid.query.groupby.strategy.GroupByStrategyV2;
+import org.apache.druid.query.spec.MultipleIntervalSegmentSpec;
+import org.apache.druid.query.spec.QuerySegmentSpec;
+import org.apache.druid.query.timeseries.TimeseriesQuery;
+import org.apache.druid.query.timeseries.TimeseriesQueryEngine;
+import org.apache.druid.query.timeseries.TimeseriesQueryQueryToolChest;
+import org.apache.druid.query.timeseries.TimeseriesQueryRunnerFactory;
+import org.apache.druid.query.topn.TopNQuery;
+import org.apache.druid.query.topn.TopNQueryBuilder;
+import org.apache.druid.query.topn.TopNQueryConfig;
+import org.apache.druid.query.topn.TopNQueryQueryToolChest;
+import org.apache.druid.query.topn.TopNQueryRunnerFactory;
+import org.apache.druid.segment.IncrementalIndexSegment;
+import org.apache.druid.segment.incremental.IncrementalIndex;
+import org.apache.druid.segment.serde.ComplexMetrics;
+import org.apache.druid.server.ClientQuerySegmentWalker;
+import org.apache.druid.server.coordination.ServerType;
+import org.apache.druid.server.initialization.ServerConfig;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.SegmentId;
+import org.apache.druid.timeline.VersionedIntervalTimeline;
+import org.apache.druid.timeline.partition.NumberedPartitionChunk;
+import org.apache.druid.timeline.partition.NumberedShardSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the Broker side of queries: fan-out and merging in {@link CachingClusteredClient}, deserialization of
+ * data server responses in {@link JsonParserIterator}, the result-level cache, and serialization of the response the
+ * way QueryResource does. Data servers are simulated in-process: each one answers with the Smile encoded results of
+ * the query on its own generated segment, which are computed during setup.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 25)
+public class CachingClusteredClientBenchmark
+{
+  @Param({"8"})
+  private int numServers;
+
+  @Param({"75000"})
+  private int rowsPerSegment;
+
+  @Param({"timeseries", "topN", "groupBy"})
+  private String queryType;
+
+  @Param({"false", "true"})
+  private boolean useResultLevelCache;
+
+  private static final Logger log = new Logger(CachingClusteredClientBenchmark.class);
+  private static final int RNG_SEED = 9999;
+  private static final String DATA_SOURCE = "blah";
+  private static final ObjectMapper JSON_MAPPER = new DefaultObjectMapper();
+  private static final ObjectMapper SMILE_MAPPER = new DefaultObjectMapper(new SmileFactory());
+
+  private final Closer resourceCloser = Closer.create();
+
+  private QueryToolChestWarehouse warehouse;
+  private ClientQuerySegmentWalker walker;
+  private ObjectWriter responseWriter;
+  private Query<?> query;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException
+  {
+    log.info("SETUP CALLED AT " + System.currentTimeMillis());
+
+    ComplexMetrics.registerSerde("hyperUnique", () -> new HyperUniquesSerde(HyperLogLogHash.getDefault()));
+
+    final ExecutorService executorService = Execs.singleThreaded("CachingClusteredClientBenchmark-%d");
+    resourceCloser.register(executorService::shutdownNow);
+
+    final BenchmarkSchemaInfo schemaInfo = BenchmarkSchemas.SCHEMA_MAP.get("basic");
+    final Map<Class<? extends Query>, QueryRunnerFactory> factories = makeQueryRunnerFactories();
+    final Map<Class<? extends Query>, QueryToolChest> toolChests = new HashMap<>();
+    for (Map.Entry<Class<? extends Query>, QueryRunnerFactory> entry : factories.entrySet()) {
+      toolChests.put(entry.getKey(), entry.getValue().getToolchest());
+    }
+    warehouse = new MapQueryToolChestWarehouse(toolChests);
+    query = makeQuery(schemaInfo);
+
+    final VersionedIntervalTimeline<String, ServerSelector> timeline =
+        new VersionedIntervalTimeline<>(Ordering.natural());
+    final Map<String, List<?>> serverResults = new HashMap<>();
+    final QueryRunnerFactory factory = factories.get(query.getClass());
+    for (int i = 0; i < numServers; i++) {
+      log.info("Generating rows and results for server " + i);
+
+      final DataSegment segment = DataSegment.builder()
+                                             .dataSource(DATA_SOURCE)
+                                             .interval(schemaInfo.getDataInterval())
+                                             .version("1")
+                                             .shardSpec(new NumberedShardSpec(i, numServers))
+                                             .build();
+      final DruidServer server = new DruidServer(
+          "server" + i,
+          "host" + i,
+          null,
+          Long.MAX_VALUE,
+          ServerType.HISTORICAL,
+          DruidServer.DEFAULT_TIER,
+          0
+      );
+      final ServerSelector selector = new ServerSelector(
+          segment,
+          new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy())
+      );
+      selector.addServerAndUpdateSegment(new QueryableDruidServer(server, null), segment);
+      timeline.add(segment.getInterval(), segment.getVersion(), NumberedPartitionChunk.make(i, numServers, selector));
+
+      serverResults.put(server.getName(), runQueryOnServer(factory, executorService, schemaInfo, RNG_SEED + i));
+    }
+
+    final Cache cache = MapCache.create(1_000_000_000L);
+    final CacheConfig cacheConfig = new CacheConfig()
+    {
+      @Override
+      public boolean isPopulateResultLevelCache()
+      {
+        return useResultLevelCache;
+      }
+
+      @Override
+      public boolean isUseResultLevelCache()
+      {
+        return useResultLevelCache;
+      }
+
+      @Override
+      public int getResultLevelCacheLimit()
+      {
+        return Integer.MAX_VALUE;
+      }
+    };
+
+    final BrokerParallelMergeConfig parallelMergeConfig = new BrokerParallelMergeConfig();
+    final ForkJoinPool forkJoinPool = new ForkJoinPool(parallelMergeConfig.getParallelism());
+    resourceCloser.register(forkJoinPool::shutdownNow);
+
+    final CachingClusteredClient client = new CachingClusteredClient(
+        warehouse,
+        new SimulatedServerView(timeline, serverResults),
+        cache,
+        SMILE_MAPPER,
+        new ForegroundCachePopulator(JSON_MAPPER, new CachePopulatorStats(), -1),
+        cacheConfig,
+        new DruidHttpClientConfig(),
+        parallelMergeConfig,
+        forkJoinPool,
+        new ServiceEmitter("broker", "localhost", new NoopEmitter())
+    );
+
+    walker = new ClientQuerySegmentWalker(
+        new ServiceEmitter("broker", "localhost", new NoopEmitter()),
+        client,
+        warehouse,
+        new RetryQueryRunnerConfig(),
+        JSON_MAPPER,
+        new ServerConfig(),
+        cache,
+        cacheConfig
+    );
+
+    responseWriter = JSON_MAPPER.writer();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException
+  {
+    resourceCloser.close();
+  }
+
+  private Map<Class<? extends Query>, QueryRunnerFactory> makeQueryRunnerFactories()
+  {
+    final NonBlockingPool<ByteBuffer> bufferPool = new StupidPool<>(
+        "CachingClusteredClientBenchmark-computeBufferPool",
+        new OffheapBufferGenerator("compute", 250_000_000),
+        0,
+        Integer.MAX_VALUE
+    );
+    final BlockingPool<ByteBuffer> mergePool = new DefaultBlockingPool<>(
+        new OffheapBufferGenerator("merge", 250_000_000),
+        2
+    );
+
+    final GroupByQueryConfig config = new GroupByQueryConfig()
+    {
+      @Override
+      public String getDefaultStrategy()
+      {
+        return GroupByStrategySelector.STRATEGY_V2;
+      }
+    };
+    final DruidProcessingConfig processingConfig = new DruidProcessingConfig()
+    {
+      @Override
+      public String getFormatString()
+      {
+        return null;
+      }
+    };
+    final Supplier<GroupByQueryConfig> configSupplier = Suppliers.ofInstance(config);
+    final GroupByStrategySelector strategySelector = new GroupByStrategySelector(
+        configSupplier,
+        new GroupByStrategyV1(
+            configSupplier,
+            new GroupByQueryEngine(configSupplier, bufferPool),
+            QueryBenchmarkUtil.NOOP_QUERYWATCHER,
+            bufferPool
+        ),
+        new GroupByStrategyV2(
+            processingConfig,
+            configSupplier,
+            bufferPool,
+            mergePool,
+            SMILE_MAPPER,
+            QueryBenchmarkUtil.NOOP_QUERYWATCHER
+        )
+    );
+
+    return ImmutableMap.of(
+        TimeseriesQuery.class,
+        new TimeseriesQueryRunnerFactory(
+            new TimeseriesQueryQueryToolChest(QueryBenchmarkUtil.noopIntervalChunkingQueryRunnerDecorator()),
+            new TimeseriesQueryEngine(),
+            QueryBenchmarkUtil.NOOP_QUERYWATCHER
+        ),
+        TopNQuery.class,
+        new TopNQueryRunnerFactory(
+            bufferPool,
+            new TopNQueryQueryToolChest(
+                new TopNQueryConfig(),
+                QueryBenchmarkUtil.noopIntervalChunkingQueryRunnerDecorator()
+            ),
+            QueryBenchmarkUtil.NOOP_QUERYWATCHER
+        ),
+        GroupByQuery.class,
+        new GroupByQueryRunnerFactory(
+            strategySelector,
+            new GroupByQueryQueryToolChest(
+                strategySelector,
+                QueryBenchmarkUtil.noopIntervalChunkingQueryRunnerDecorator()
+            )
+        )
+    );
+  }
+
+  private Query<?> makeQuery(final BenchmarkSchemaInfo schemaInfo)
+  {
+    final QuerySegmentSpec intervalSpec =
+        new MultipleIntervalSegmentSpec(Collections.singletonList(schemaInfo.getDataInterval()));
+    final List<AggregatorFactory> queryAggs = Arrays.asList(
+        new LongSumAggregatorFactory("rows", "rows"),
+        new LongSumAggregatorFactory("sumLongSequential", "sumLongSequential"),
+        new DoubleSumAggregatorFactory("sumFloatNormal", "sumFloatNormal")
+    );
+
+    switch (queryType) {
+      case "timeseries":
+        return Druids.newTimeseriesQueryBuilder()
+                     .dataSource(DATA_SOURCE)
+                     .intervals(intervalSpec)
+                     .granularity(Granularities.HOUR)
+                     .aggregators(queryAggs)
+                     .build();
+      case "topN":
+        return new TopNQueryBuilder()
+            .dataSource(DATA_SOURCE)
+            .intervals(intervalSpec)
+            .granularity(Granularities.ALL)
+            .dimension("dimUniform")
+            .metric("sumLongSequential")
+            .threshold(1000)
+            .aggregators(queryAggs)
+            .build();
+      case "groupBy":
+        return GroupByQuery.builder()
+                           .setDataSource(DATA_SOURCE)
+                           .setQuerySegmentSpec(intervalSpec)
+                           .setGranularity(Granularities.ALL)
+                           .setDimensions(
+                               new DefaultDimensionSpec("dimSequential", "dimSequential"),
+                               new DefaultDimensionSpec("dimZipf", "dimZipf")
+                           )
+                           .setAggregatorSpecs(queryAggs)
+                           .build();
+      default:
+        throw new IllegalArgumentException("Unknown queryType: " + queryType);
+    }
+  }
+
+  /**
+   * Returns the results that a data server would send for the query on a segment generated with the given seed.
+   */
+  private List<?> runQueryOnServer(
+      final QueryRunnerFactory factory,
+      final ExecutorService executorService,
+      final BenchmarkSchemaInfo schemaInfo,
+      final int seed
+  )
+  {
+    final BenchmarkDataGenerator gen = new BenchmarkDataGenerator(
+        schemaInfo.getColumnSchemas(),
+        seed,
+        schemaInfo.getDataInterval(),
+        rowsPerSegment
+    );
+
+    try (final IncrementalIndex incIndex = new IncrementalIndex.Builder()
+        .setSimpleTestingIndexSchema(schemaInfo.getAggsArray())
+        .setReportParseExceptions(false)
+        .setMaxRowCount(rowsPerSegment)
+        .buildOnheap()) {
+      for (int j = 0; j < rowsPerSegment; j++) {
+        final InputRow row = gen.nextRow();
+        incIndex.add(row);
+      }
+
+      final QueryToolChest toolChest = factory.getToolchest();
+      final QueryRunner runner = toolChest.mergeResults(
+          factory.mergeRunners(
+              executorService,
+              Collections.singletonList(
+                  factory.createRunner(new IncrementalIndexSegment(incIndex, SegmentId.dummy("incIndex")))
+              )
+          )
+      );
+      // Data servers don't finalize results for the Broker.
+      final Query<?> serverQuery = query.withOverriddenContext(ImmutableMap.of("finalize", false));
+      return runner.run(QueryPlus.wrap(serverQuery), new HashMap<>()).toList();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void queryMerge(Blackhole blackhole)
+  {
+    final Sequence<?> results = QueryPlus.wrap(query).run(walker, new HashMap<>());
+    blackhole.consume(results.toList());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void queryMergeAndSerialize(Blackhole blackhole) throws IOException
+  {
+    final Sequence<?> results = QueryPlus.wrap(query).run(walker, new HashMap<>());
+    final CountingOutputStream os = new CountingOutputStream(ByteStreams.nullOutputStream());
+    final Yielder<?> yielder = Yielders.each(results);
+    try {
+      responseWriter.writeValue(os, yielder);
+    }
+    finally {
+      yielder.close();
+    }
+    blackhole.consume(os.getCount());
+  }
+
+  /**
+   * Server view with one segment per server, whose query runners deserialize responses like DirectDruidClient does.
+   */
+  private class SimulatedServerView implements TimelineServerView
+  {
+    private final VersionedIntervalTimeline<String, ServerSelector> timeline;
+    private final Map<String, List<?>> serverResults;
+    private final Map<String, QueryRunner> runners = new HashMap<>();
+
+    SimulatedServerView(
+        final VersionedIntervalTimeline<String, ServerSelector> timeline,
+        final Map<String, List<?>> serverResults
+    )
+    {
+      this.timeline = timeline;
+      this.serverResults = serverResults;
+    }
+
+    @Override
+    public VersionedIntervalTimeline<String, ServerSelector> getTimeline(DataSource dataSource)
+    {
+      return timeline;
+    }
+
+    @Override
+    public List<ImmutableDruidServer> getDruidServers()
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T> QueryRunner<T> getQueryRunner(DruidServer server)
+    {
+      return runners.computeIfAbsent(
+          server.getName(),
+          name -> new SimulatedServerQueryRunner<>(server.getHost(), (List<T>) serverResults.get(name))
+      );
+    }
+
+    @Override
+    public void registerTimelineCallback(Executor exec, TimelineCallback callback)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void registerServerRemovedCallback(Executor exec, ServerRemovedCallback callback)
+    {
+    }
+
+    @Override
+    public void registerSegmentCallback(Executor exec, SegmentCallback callback)
+    {
+    }
+  }
+
+  /**
+   * Answers with canned results, which are serialized once with the mapper that a data server would use for the
+   * query, and deserialized on every run.
+   */
+  private class SimulatedServerQueryRunner<T> implements QueryRunner<T>
+  {
+    private final String host;
+    private final List<T> results;
+    @Nullable
+    private volatile byte[] serializedResults;
+
+    SimulatedServerQueryRunner(final String host, final List<T> results)
+    {
+      this.host = host;
+      this.results = results;
+    }
+
+    @Override
+    public Sequence<T> run(final QueryPlus<T> queryPlus, final Map<String, Object> responseContext)
+    {
+      final Query<T> query = queryPlus.getQuery();
+      final QueryToolChest<T, Query<T>> toolChest = warehouse.getToolChest(query);
+      final ObjectMapper mapper = toolChest.decorateObjectMapper(SMILE_MAPPER, query);
+      final JavaType resultType = QueryContexts.isBySegment(query)
+                                  ? toolChest.getBySegmentResultType()
+                                  : toolChest.getBaseResultType();
+
+      if (serializedResults == null) {
+        try {
+          serializedResults = mapper.writeValueAsBytes(results);
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+      final byte[] bytes = serializedResults;
+
+      return new BaseSequence<>(
+          new BaseSequence.IteratorMaker<T, JsonParserIterator<T>>()
+          {
+            @Override
+            public JsonParserIterator<T> make()
+            {
+              return new JsonParserIterator<>(
+                  resultType,
+                  Futures.immediateFuture(new ByteArrayInputStream(bytes)),
+                  "http://" + host + "/druid/v2/",
+                  query,
+                  host,
+                  mapper,
+                  null
+              );
+            }
+
+            @Override
+            public void cleanup(JsonParserIterator<T> iterFromMake)
+            {
+              try {
+                iterFromMake.close();
+              }
+              catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            }
+          }
+      );
+    }
+  }
+}
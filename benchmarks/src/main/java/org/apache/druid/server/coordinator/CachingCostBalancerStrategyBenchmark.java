@@ -31,13 +31,16 @@ import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
@@ -53,36 +56,44 @@ public class CachingCostBalancerStrategyBenchmark
 {
   private static final Logger log = new Logger(CachingCostBalancerStrategyBenchmark.class);
 
-  private static final int NUMBER_OF_SEGMENTS = 100000;
   private static final int NUMBER_OF_QUERIES = 500;
+  private static final int NUMBER_OF_UPDATES = 100;
 
-  private static final long DAYS_IN_MONTH = 30;
+  @Param({"100000", "1000000"})
+  private int numberOfSegments;
+
+  @Param({"30", "365"})
+  private int numberOfDays;
 
   private final DateTime referenceTime = DateTimes.of("2014-01-01T00:00:00");
   private final Set<DataSegment> segments = new HashSet<>();
   private final Set<DataSegment> segmentQueries = new HashSet<>();
+  private final List<DataSegment> segmentUpdates = new ArrayList<>();
 
+  private SegmentsCostCache.Builder segmentsCostCacheBuilder;
   private SegmentsCostCache segmentsCostCache;
 
   @Setup
   public void createSegments()
   {
     Random random = ThreadLocalRandom.current();
-    SegmentsCostCache.Builder prototype = SegmentsCostCache.builder();
-    for (int i = 0; i < NUMBER_OF_SEGMENTS; ++i) {
-      DataSegment segment = createSegment(random.nextInt((int) TimeUnit.DAYS.toHours(DAYS_IN_MONTH)));
+    final int numberOfHours = (int) TimeUnit.DAYS.toHours(numberOfDays);
+    segmentsCostCacheBuilder = SegmentsCostCache.builder();
+    for (int i = 0; i < numberOfSegments; ++i) {
+      DataSegment segment = createSegment(random.nextInt(numberOfHours));
       segments.add(segment);
+      segmentsCostCacheBuilder.addSegment(segment);
     }
-    segmentsCostCache = prototype.build();
+    segmentsCostCache = segmentsCostCacheBuilder.build();
     for (int i = 0; i < NUMBER_OF_QUERIES; ++i) {
-      DataSegment segment = createSegment(random.nextInt((int) TimeUnit.DAYS.toHours(DAYS_IN_MONTH)));
+      DataSegment segment = createSegment(random.nextInt(numberOfHours));
       segmentQueries.add(segment);
     }
-    for (DataSegment segment : segments) {
-      prototype.addSegment(segment);
+    for (int i = 0; i < NUMBER_OF_UPDATES; ++i) {
+      segmentUpdates.add(createSegment(random.nextInt(numberOfHours)));
     }
 
-    log.info("GENERATING SEGMENTS : %d / %d", NUMBER_OF_SEGMENTS, NUMBER_OF_QUERIES);
+    log.info("GENERATING SEGMENTS : %d / %d", numberOfSegments, NUMBER_OF_QUERIES);
   }
 
   @Benchmark
@@ -105,6 +116,23 @@ public class CachingCostBalancerStrategyBenchmark
     return cost;
   }
 
+  /**
+   * Measures loading and dropping a few segments, as between two coordinator runs, followed by building the cache
+   * that is used by the next run.
+   */
+  @Benchmark
+  public SegmentsCostCache measureCachingCostStrategyUpdate()
+  {
+    for (DataSegment segment : segmentUpdates) {
+      segmentsCostCacheBuilder.addSegment(segment);
+    }
+    segmentsCostCacheBuilder.build();
+    for (DataSegment segment : segmentUpdates) {
+      segmentsCostCacheBuilder.removeSegment(segment);
+    }
+    return segmentsCostCacheBuilder.build();
+  }
+
   private DataSegment createSegment(int shift)
   {
     return new DataSegment(
@@ -25,12 +25,16 @@ import com.fasterxml.jackson.core.JsonParser.Feature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.druid.java.util.common.parsers.JSONPathParser;
 import org.apache.druid.java.util.common.parsers.JSONPathSpec;
+import org.apache.druid.java.util.common.parsers.JSONStreamingParser;
 import org.apache.druid.java.util.common.parsers.Parser;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  */
@@ -38,24 +42,46 @@ public class JSONParseSpec extends NestedDataParseSpec<JSONPathSpec>
 {
   private final ObjectMapper objectMapper;
   private final Map<String, Boolean> featureSpec;
+  private final boolean streaming;
 
+  /**
+   * @param streaming whether to parse rows with {@link JSONStreamingParser}, which reads them token by token. Its
+   *                  rows return the same values as the rows of {@link JSONPathParser} for the timestamp, the
+   *                  dimensions and the fields excluded from the dimensions, which include the input fields of the
+   *                  metrics, and have the same keys if there are no custom dimensions. Other root fields are skipped
+   *                  unless they are discovered, so fields only read by transforms must be listed in the flattenSpec.
+   *                  Falls back to {@link JSONPathParser} if the flattenSpec has JQ fields or paths that aren't
+   *                  plain field names and array indexes.
+   */
   @JsonCreator
   public JSONParseSpec(
       @JsonProperty("timestampSpec") TimestampSpec timestampSpec,
       @JsonProperty("dimensionsSpec") DimensionsSpec dimensionsSpec,
       @JsonProperty("flattenSpec") JSONPathSpec flattenSpec,
-      @JsonProperty("featureSpec") Map<String, Boolean> featureSpec
+      @JsonProperty("featureSpec") Map<String, Boolean> featureSpec,
+      @JsonProperty("streaming") @Nullable Boolean streaming
   )
   {
     super(timestampSpec, dimensionsSpec, flattenSpec != null ? flattenSpec : JSONPathSpec.DEFAULT);
     this.objectMapper = new ObjectMapper();
     this.featureSpec = (featureSpec == null) ? new HashMap<>() : featureSpec;
+    this.streaming = streaming != null && streaming;
     for (Map.Entry<String, Boolean> entry : this.featureSpec.entrySet()) {
       Feature feature = Feature.valueOf(entry.getKey());
       objectMapper.configure(feature, entry.getValue());
     }
   }
 
+  public JSONParseSpec(
+      TimestampSpec timestampSpec,
+      DimensionsSpec dimensionsSpec,
+      JSONPathSpec flattenSpec,
+      Map<String, Boolean> featureSpec
+  )
+  {
+    this(timestampSpec, dimensionsSpec, flattenSpec, featureSpec, null);
+  }
+
   @Deprecated
   public JSONParseSpec(TimestampSpec ts, DimensionsSpec dims)
   {
@@ -70,19 +96,39 @@ public class JSONParseSpec extends NestedDataParseSpec<JSONPathSpec>
   @Override
   public Parser<String, Object> makeParser()
   {
+    if (streaming && JSONStreamingParser.isSupported(getFlattenSpec())) {
+      final DimensionsSpec dimensionsSpec = getDimensionsSpec();
+      final Set<String> requiredFields = new HashSet<>(dimensionsSpec.getDimensionExclusions());
+      for (DimensionSchema dimension : dimensionsSpec.getDimensions()) {
+        requiredFields.add(dimension.getName());
+        if (dimension instanceof NewSpatialDimensionSchema) {
+          requiredFields.addAll(((NewSpatialDimensionSchema) dimension).getDims());
+        }
+      }
+      if (getTimestampSpec() != null) {
+        requiredFields.add(getTimestampSpec().getTimestampColumn());
+      }
+      // Only schemaless ingestion takes the dimensions from the discovered fields
+      return new JSONStreamingParser(
+          getFlattenSpec(),
+          objectMapper,
+          requiredFields,
+          dimensionsSpec.hasCustomDimensions()
+      );
+    }
     return new JSONPathParser(getFlattenSpec(), objectMapper);
   }
 
   @Override
   public ParseSpec withTimestampSpec(TimestampSpec spec)
   {
-    return new JSONParseSpec(spec, getDimensionsSpec(), getFlattenSpec(), getFeatureSpec());
+    return new JSONParseSpec(spec, getDimensionsSpec(), getFlattenSpec(), getFeatureSpec(), isStreaming());
   }
 
   @Override
   public ParseSpec withDimensionsSpec(DimensionsSpec spec)
   {
-    return new JSONParseSpec(getTimestampSpec(), spec, getFlattenSpec(), getFeatureSpec());
+    return new JSONParseSpec(getTimestampSpec(), spec, getFlattenSpec(), getFeatureSpec(), isStreaming());
   }
 
   @JsonProperty
@@ -91,6 +137,12 @@ public class JSONParseSpec extends NestedDataParseSpec<JSONPathSpec>
     return featureSpec;
   }
 
+  @JsonProperty
+  public boolean isStreaming()
+  {
+    return streaming;
+  }
+
   @Override
   public boolean equals(final Object o)
   {
@@ -104,13 +156,14 @@ public class JSONParseSpec extends NestedDataParseSpec<JSONPathSpec>
       return false;
     }
     final JSONParseSpec that = (JSONParseSpec) o;
-    return Objects.equals(featureSpec, that.featureSpec);
+    return streaming == that.streaming &&
+           Objects.equals(featureSpec, that.featureSpec);
   }
 
   @Override
   public int hashCode()
   {
-    return Objects.hash(super.hashCode(), featureSpec);
+    return Objects.hash(super.hashCode(), featureSpec, streaming);
   }
 
   @Override
@@ -121,6 +174,7 @@ public class JSONParseSpec extends NestedDataParseSpec<JSONPathSpec>
            ", dimensionsSpec=" + getDimensionsSpec() +
            ", flattenSpec=" + getFlattenSpec() +
            ", featureSpec=" + featureSpec +
+           ", streaming=" + streaming +
            '}';
   }
 }
@@ -84,6 +84,17 @@ public class StringUtils
     }
   }
 
+  public static String fromUtf8(final byte[] bytes, final int offset, final int length)
+  {
+    try {
+      return new String(bytes, offset, length, UTF8_STRING);
+    }
+    catch (UnsupportedEncodingException e) {
+      // Should never happen
+      throw new RuntimeException(e);
+    }
+  }
+
   public static String fromUtf8(final ByteBuffer buffer, final int numBytes)
   {
     final byte[] bytes = new byte[numBytes];
@@ -25,6 +25,7 @@ import com.google.common.io.Files;
 import org.apache.druid.java.util.common.ByteBufferUtils;
 import org.apache.druid.java.util.common.ISE;
 
+import javax.annotation.Nullable;
 import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.File;
@@ -33,7 +34,9 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -93,6 +96,9 @@ public class SmooshedFileMapper implements Closeable
     }
   }
 
+  private static final int WARMUP_BUFFER_SIZE = 1 << 20;
+  private static final int RESIDENCY_SAMPLE_PAGE_SIZE = 4096;
+
   private final List<File> outFiles;
   private final Map<String, Metadata> internalFiles;
   private final List<MappedByteBuffer> buffersList = new ArrayList<>();
@@ -138,6 +144,74 @@ public class SmooshedFileMapper implements Closeable
     return retVal.slice();
   }
 
+  /**
+   * Reads all the chunk files sequentially, so that they are in the page cache when they are accessed through the
+   * mapped buffers later, instead of faulting every page in on first access.
+   *
+   * @return number of bytes read
+   */
+  public long warmup() throws IOException
+  {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(WARMUP_BUFFER_SIZE);
+    try {
+      long bytesRead = 0;
+      for (File file : outFiles) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+          int read;
+          while ((read = channel.read(buffer)) >= 0) {
+            bytesRead += read;
+            buffer.clear();
+          }
+        }
+      }
+      return bytesRead;
+    }
+    finally {
+      ByteBufferUtils.free(buffer);
+    }
+  }
+
+  /**
+   * Estimates which fraction of the smooshed file with the given name is in the page cache, by checking up to
+   * numSamples pages spread evenly over it with {@link MappedByteBuffer#isLoaded}. Every sample maps and unmaps a
+   * single page, so this is cheap but not free.
+   *
+   * @return fraction of the sampled pages which are resident, between 0 and 1, or null if there is no such file
+   */
+  @Nullable
+  public Double sampleResidency(String name, int numSamples) throws IOException
+  {
+    final Metadata metadata = internalFiles.get(name);
+    if (metadata == null) {
+      return null;
+    }
+
+    final long length = metadata.getEndOffset() - metadata.getStartOffset();
+    if (length == 0) {
+      return 1.0;
+    }
+
+    final int samples = (int) Math.max(1, Math.min(numSamples, length / RESIDENCY_SAMPLE_PAGE_SIZE));
+    final File file = outFiles.get(metadata.getFileNum());
+    int resident = 0;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      for (int i = 0; i < samples; i++) {
+        // Middle of the i-th of samples equally sized parts of the file.
+        final long offset = metadata.getStartOffset() + (length * (2 * i + 1)) / (2 * samples);
+        final MappedByteBuffer page = channel.map(FileChannel.MapMode.READ_ONLY, offset, 1);
+        try {
+          if (page.isLoaded()) {
+            resident++;
+          }
+        }
+        finally {
+          ByteBufferUtils.unmap(page);
+        }
+      }
+    }
+    return (double) resident / samples;
+  }
+
   @Override
   public void close()
   {
@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.java.util.common.parsers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.StringUtils;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON parser class that reads the input token by token, instead of building a
+ * {@link com.fasterxml.jackson.databind.JsonNode} tree like {@link JSONPathParser}. The paths of the
+ * {@link JSONPathSpec} are compiled once into a tree of field names and array indexes, so that only the parts of the
+ * input they reference, the discovered root fields and the root fields the caller requires are converted, and
+ * everything else is skipped. The values are converted the same way as {@link JSONFlattenerMaker} does.
+ *
+ * The returned rows have the same keys as the rows of {@link JSONPathParser}: the flattenSpec fields and, with field
+ * discovery, the root fields with flat values. Like those rows, get() also returns the required root fields that
+ * aren't keys of the row, e. g. because their values are objects or because discovery is off.
+ *
+ * Only ROOT fields and PATH fields made of plain field names and array indexes, such as "$.a.b", "$['a'].b" or
+ * "$.a[0]", are supported, see {@link #isSupported}.
+ */
+public class JSONStreamingParser implements Parser<String, Object>
+{
+  private final JsonFactory jsonFactory;
+  private final boolean useFieldDiscovery;
+  private final Set<String> requiredFields;
+  private final boolean discoverRequiredFieldsOnly;
+  private final List<String> fieldNames;
+  private final PathNode root = new PathNode();
+  private final CharsetEncoder enc = StandardCharsets.UTF_8.newEncoder();
+
+  /**
+   * @param flattenSpec                the paths to extract, must be {@link #isSupported supported}
+   * @param mapper                     Optionally provide an ObjectMapper, used by the parser for reading the input
+   *                                   JSON.
+   * @param requiredFields             root fields the caller reads, for example the input fields of metrics, which
+   *                                   get() returns whether or not they are discovered
+   * @param discoverRequiredFieldsOnly whether field discovery skips the root fields that aren't required, for
+   *                                   callers that never look at the keys of the rows
+   */
+  public JSONStreamingParser(
+      JSONPathSpec flattenSpec,
+      @Nullable ObjectMapper mapper,
+      @Nullable Set<String> requiredFields,
+      boolean discoverRequiredFieldsOnly
+  )
+  {
+    this.jsonFactory = (mapper == null ? new ObjectMapper() : mapper).getFactory();
+    this.useFieldDiscovery = flattenSpec.isUseFieldDiscovery();
+    this.requiredFields = requiredFields == null ? Collections.emptySet() : requiredFields;
+    this.discoverRequiredFieldsOnly = discoverRequiredFieldsOnly;
+    this.fieldNames = new ArrayList<>();
+    for (JSONPathFieldSpec fieldSpec : flattenSpec.getFields()) {
+      final List<Object> path = compilePath(fieldSpec);
+      if (path == null) {
+        throw new IAE("Field[%s] with expr[%s] is not supported", fieldSpec.getName(), fieldSpec.getExpr());
+      }
+      if (fieldNames.contains(fieldSpec.getName())) {
+        throw new IAE("Cannot have duplicate field definition: %s", fieldSpec.getName());
+      }
+      fieldNames.add(fieldSpec.getName());
+      PathNode node = root;
+      for (Object segment : path) {
+        node = node.child(segment);
+      }
+      node.names.add(fieldSpec.getName());
+    }
+  }
+
+  /**
+   * Returns whether every field of the given flattenSpec can be extracted by this parser.
+   */
+  public static boolean isSupported(JSONPathSpec flattenSpec)
+  {
+    for (JSONPathFieldSpec fieldSpec : flattenSpec.getFields()) {
+      if (compilePath(fieldSpec) == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the path of the given field as a list of field names and array indexes, or null if it's not supported.
+   */
+  @Nullable
+  private static List<Object> compilePath(JSONPathFieldSpec fieldSpec)
+  {
+    switch (fieldSpec.getType()) {
+      case ROOT:
+        return Collections.singletonList(fieldSpec.getExpr());
+      case PATH:
+        return compileJsonPath(fieldSpec.getExpr());
+      default:
+        return null;
+    }
+  }
+
+  @Nullable
+  static List<Object> compileJsonPath(String expr)
+  {
+    if (!expr.startsWith("$")) {
+      return null;
+    }
+    final List<Object> path = new ArrayList<>();
+    int i = 1;
+    while (i < expr.length()) {
+      final char c = expr.charAt(i);
+      if (c == '.') {
+        int end = i + 1;
+        while (end < expr.length() && expr.charAt(end) != '.' && expr.charAt(end) != '[') {
+          end++;
+        }
+        final String name = expr.substring(i + 1, end);
+        if (name.isEmpty() || !isPlainFieldName(name)) {
+          return null;
+        }
+        path.add(name);
+        i = end;
+      } else if (c == '[' && expr.startsWith("'", i + 1)) {
+        final int end = expr.indexOf("']", i + 2);
+        if (end < 0) {
+          return null;
+        }
+        final String name = expr.substring(i + 2, end);
+        if (name.indexOf('\'') >= 0) {
+          return null;
+        }
+        path.add(name);
+        i = end + 2;
+      } else if (c == '[') {
+        final int end = expr.indexOf(']', i);
+        if (end < 0 || end == i + 1) {
+          return null;
+        }
+        for (int j = i + 1; j < end; j++) {
+          if (!Character.isDigit(expr.charAt(j))) {
+            return null;
+          }
+        }
+        path.add(Integer.parseInt(expr.substring(i + 1, end)));
+        i = end + 1;
+      } else {
+        return null;
+      }
+    }
+    return path.isEmpty() ? null : path;
+  }
+
+  private static boolean isPlainFieldName(String name)
+  {
+    for (int i = 0; i < name.length(); i++) {
+      final char c = name.charAt(i);
+      if (c == '*' || c == '(' || c == ')' || c == '@' || c == '?' || c == '\'' || c == '"' || c == ']' || c == ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public List<String> getFieldNames()
+  {
+    return null;
+  }
+
+  @Override
+  public void setFieldNames(Iterable<String> fieldNames)
+  {
+  }
+
+  /**
+   * @param input JSON string. The root must be a JSON object, not an array.
+   *
+   * @return A map of field names and values
+   */
+  @Override
+  public Map<String, Object> parseToMap(String input)
+  {
+    try (JsonParser parser = jsonFactory.createParser(input)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IAE("Root must be a JSON object");
+      }
+      final Row row = new Row();
+      // Fields of the flattenSpec come first and are present even if their paths don't match
+      for (String fieldName : fieldNames) {
+        row.put(fieldName, null);
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String fieldName = parser.getCurrentName();
+        final JsonToken token = parser.nextToken();
+        final PathNode node = root.fields.get(fieldName);
+        if (isDiscovered(fieldName, token, row)) {
+          final Object value = read(parser, node, true, row);
+          if (isFlat(value)) {
+            row.put(fieldName, value);
+          } else if (requiredFields.contains(fieldName)) {
+            row.putHiddenRootField(fieldName, value);
+          }
+        } else if (requiredFields.contains(fieldName) && !row.containsKey(fieldName)) {
+          row.putHiddenRootField(fieldName, read(parser, node, true, row));
+        } else {
+          read(parser, node, false, row);
+        }
+      }
+      return row;
+    }
+    catch (Exception e) {
+      throw new ParseException(e, "Unable to parse row [%s]", input);
+    }
+  }
+
+  private boolean isDiscovered(String fieldName, JsonToken token, Map<String, Object> row)
+  {
+    // Objects and nulls are never discovered, see JSONFlattenerMaker.discoverRootFields()
+    return useFieldDiscovery
+           && token != JsonToken.START_OBJECT
+           && token != JsonToken.VALUE_NULL
+           && !row.containsKey(fieldName)
+           && (!discoverRequiredFieldsOnly || requiredFields.contains(fieldName));
+  }
+
+  private static boolean isFlat(@Nullable Object value)
+  {
+    if (value == null || value instanceof Map) {
+      return false;
+    }
+    if (value instanceof List) {
+      for (Object element : (List<?>) value) {
+        if (element instanceof Map || element instanceof List) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the value the parser is at, putting the values of the paths ending in node, or under it, into row.
+   *
+   * @param materialize whether to return the converted value, values that are neither materialized nor under a
+   *                    path of the flattenSpec are skipped
+   */
+  @Nullable
+  private Object read(JsonParser parser, @Nullable PathNode node, boolean materialize, Map<String, Object> row)
+      throws IOException
+  {
+    if (node == null && !materialize) {
+      parser.skipChildren();
+      return null;
+    }
+    final boolean materializeValue = materialize || (node != null && !node.names.isEmpty());
+    final Object value;
+    switch (parser.getCurrentToken()) {
+      case START_OBJECT: {
+        final Map<String, Object> map = materializeValue ? new LinkedHashMap<>() : null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String fieldName = parser.getCurrentName();
+          parser.nextToken();
+          final PathNode fieldNode = node == null ? null : node.fields.get(fieldName);
+          final Object fieldValue = read(parser, fieldNode, materializeValue, row);
+          if (map != null) {
+            map.put(fieldName, fieldValue);
+          }
+        }
+        value = map;
+        break;
+      }
+      case START_ARRAY: {
+        final List<Object> list = materializeValue ? new ArrayList<>() : null;
+        for (int index = 0; parser.nextToken() != JsonToken.END_ARRAY; index++) {
+          final PathNode elementNode = node == null ? null : node.elements.get(index);
+          final Object element = read(parser, elementNode, materializeValue, row);
+          // Null elements are dropped, see JSONFlattenerMaker.valueConversionFunction()
+          if (list != null && element != null) {
+            list.add(element);
+          }
+        }
+        value = list;
+        break;
+      }
+      default:
+        value = materializeValue ? readScalar(parser) : null;
+    }
+    if (node != null) {
+      for (String name : node.names) {
+        row.put(name, value);
+      }
+    }
+    return value;
+  }
+
+  @Nullable
+  private Object readScalar(JsonParser parser) throws IOException
+  {
+    switch (parser.getCurrentToken()) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_NUMBER_INT: {
+        final JsonParser.NumberType numberType = parser.getNumberType();
+        if (numberType == JsonParser.NumberType.INT || numberType == JsonParser.NumberType.LONG) {
+          return parser.getLongValue();
+        }
+        // Like BigIntegerNode.asDouble()
+        return parser.getDoubleValue();
+      }
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_STRING:
+        return charsetFix(parser.getText());
+      case VALUE_TRUE:
+        return BooleanNode.TRUE;
+      case VALUE_FALSE:
+        return BooleanNode.FALSE;
+      default:
+        return parser.getEmbeddedObject();
+    }
+  }
+
+  @Nullable
+  private String charsetFix(String s)
+  {
+    if (s != null && !enc.canEncode(s)) {
+      // See JSONFlattenerMaker.charsetFix()
+      return StringUtils.fromUtf8(StringUtils.toUtf8(s));
+    } else {
+      return s;
+    }
+  }
+
+  /**
+   * Row whose get() also returns the required root fields that aren't keys of the row, like the rows of
+   * {@link JSONPathParser} return any root field, see {@link ObjectFlatteners#create}.
+   */
+  private static class Row extends LinkedHashMap<String, Object>
+  {
+    @Nullable
+    private Map<String, Object> hiddenRootFields;
+
+    private void putHiddenRootField(String fieldName, @Nullable Object value)
+    {
+      if (hiddenRootFields == null) {
+        hiddenRootFields = new HashMap<>();
+      }
+      hiddenRootFields.put(fieldName, value);
+    }
+
+    @Override
+    public Object get(Object key)
+    {
+      final Object value = super.get(key);
+      if (value != null || hiddenRootFields == null || containsKey(key)) {
+        return value;
+      }
+      return hiddenRootFields.get(key);
+    }
+  }
+
+  /**
+   * Node of the tree of compiled paths. Paths ending in a node are extracted with its whole value, and the nodes
+   * under it by field name or array index.
+   */
+  private static class PathNode
+  {
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, PathNode> fields = new HashMap<>();
+    private final Map<Integer, PathNode> elements = new HashMap<>();
+
+    private PathNode child(Object segment)
+    {
+      if (segment instanceof Integer) {
+        return elements.computeIfAbsent((Integer) segment, index -> new PathNode());
+      } else {
+        return fields.computeIfAbsent((String) segment, name -> new PathNode());
+      }
+    }
+  }
+}
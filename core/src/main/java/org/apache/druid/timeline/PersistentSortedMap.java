@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.timeline;
+
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable sorted map backed by a persistent AVL tree. {@link #put} and {@link #remove} return a new map that
+ * shares every node off the updated path with this one, so an update costs O(log n) time and space and never
+ * disturbs threads that are still reading an older version.
+ */
+final class PersistentSortedMap<K, V> implements Iterable<Map.Entry<K, V>>
+{
+  private final Comparator<? super K> comparator;
+  @Nullable
+  private final Node<K, V> root;
+
+  static <K, V> PersistentSortedMap<K, V> empty(Comparator<? super K> comparator)
+  {
+    return new PersistentSortedMap<>(comparator, null);
+  }
+
+  private PersistentSortedMap(Comparator<? super K> comparator, @Nullable Node<K, V> root)
+  {
+    this.comparator = comparator;
+    this.root = root;
+  }
+
+  boolean isEmpty()
+  {
+    return root == null;
+  }
+
+  @Nullable
+  V get(K key)
+  {
+    Node<K, V> node = root;
+    while (node != null) {
+      final int compare = comparator.compare(key, node.getKey());
+      if (compare == 0) {
+        return node.getValue();
+      }
+      node = compare < 0 ? node.left : node.right;
+    }
+    return null;
+  }
+
+  @Nullable
+  K floorKey(K key)
+  {
+    return keyOrNull(floorNode(key, true));
+  }
+
+  @Nullable
+  K lowerKey(K key)
+  {
+    return keyOrNull(floorNode(key, false));
+  }
+
+  @Nullable
+  K higherKey(K key)
+  {
+    Node<K, V> result = null;
+    Node<K, V> node = root;
+    while (node != null) {
+      if (comparator.compare(key, node.getKey()) < 0) {
+        result = node;
+        node = node.left;
+      } else {
+        node = node.right;
+      }
+    }
+    return keyOrNull(result);
+  }
+
+  @Nullable
+  Map.Entry<K, V> firstEntry()
+  {
+    Node<K, V> node = root;
+    while (node != null && node.left != null) {
+      node = node.left;
+    }
+    return node;
+  }
+
+  @Nullable
+  Map.Entry<K, V> lastEntry()
+  {
+    Node<K, V> node = root;
+    while (node != null && node.right != null) {
+      node = node.right;
+    }
+    return node;
+  }
+
+  PersistentSortedMap<K, V> put(K key, V value)
+  {
+    return new PersistentSortedMap<>(comparator, put(root, key, value));
+  }
+
+  PersistentSortedMap<K, V> remove(K key)
+  {
+    final Node<K, V> newRoot = remove(root, key);
+    return newRoot == root ? this : new PersistentSortedMap<>(comparator, newRoot);
+  }
+
+  @Override
+  public Iterator<Map.Entry<K, V>> iterator()
+  {
+    return iterator(null);
+  }
+
+  /**
+   * Returns an iterator over the entries whose keys are greater than or equal to fromKey, in ascending key order, or
+   * over all entries if fromKey is null.
+   */
+  Iterator<Map.Entry<K, V>> iterator(@Nullable K fromKey)
+  {
+    final Deque<Node<K, V>> stack = new ArrayDeque<>();
+    Node<K, V> node = root;
+    while (node != null) {
+      if (fromKey == null || comparator.compare(node.getKey(), fromKey) >= 0) {
+        stack.push(node);
+        node = node.left;
+      } else {
+        node = node.right;
+      }
+    }
+
+    return new Iterator<Map.Entry<K, V>>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        return !stack.isEmpty();
+      }
+
+      @Override
+      public Map.Entry<K, V> next()
+      {
+        if (stack.isEmpty()) {
+          throw new NoSuchElementException();
+        }
+        final Node<K, V> next = stack.pop();
+        for (Node<K, V> child = next.right; child != null; child = child.left) {
+          stack.push(child);
+        }
+        return next;
+      }
+    };
+  }
+
+  @Nullable
+  private Node<K, V> floorNode(K key, boolean inclusive)
+  {
+    Node<K, V> result = null;
+    Node<K, V> node = root;
+    while (node != null) {
+      final int compare = comparator.compare(key, node.getKey());
+      if (compare > 0 || (inclusive && compare == 0)) {
+        result = node;
+        if (compare == 0) {
+          break;
+        }
+        node = node.right;
+      } else {
+        node = node.left;
+      }
+    }
+    return result;
+  }
+
+  private Node<K, V> put(@Nullable Node<K, V> node, K key, V value)
+  {
+    if (node == null) {
+      return new Node<>(key, value, null, null);
+    }
+    final int compare = comparator.compare(key, node.getKey());
+    if (compare < 0) {
+      return balance(node, put(node.left, key, value), node.right);
+    } else if (compare > 0) {
+      return balance(node, node.left, put(node.right, key, value));
+    } else {
+      return new Node<>(key, value, node.left, node.right);
+    }
+  }
+
+  @Nullable
+  private Node<K, V> remove(@Nullable Node<K, V> node, K key)
+  {
+    if (node == null) {
+      return null;
+    }
+    final int compare = comparator.compare(key, node.getKey());
+    if (compare < 0) {
+      final Node<K, V> left = remove(node.left, key);
+      return left == node.left ? node : balance(node, left, node.right);
+    } else if (compare > 0) {
+      final Node<K, V> right = remove(node.right, key);
+      return right == node.right ? node : balance(node, node.left, right);
+    } else if (node.left == null) {
+      return node.right;
+    } else if (node.right == null) {
+      return node.left;
+    } else {
+      Node<K, V> successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      return balance(successor, node.left, removeFirst(node.right));
+    }
+  }
+
+  @Nullable
+  private static <K, V> Node<K, V> removeFirst(Node<K, V> node)
+  {
+    if (node.left == null) {
+      return node.right;
+    }
+    return balance(node, removeFirst(node.left), node.right);
+  }
+
+  /**
+   * Returns a copy of node with the given children, rotated if the heights of the children differ by more than one.
+   */
+  private static <K, V> Node<K, V> balance(Node<K, V> node, @Nullable Node<K, V> left, @Nullable Node<K, V> right)
+  {
+    final int leftHeight = height(left);
+    final int rightHeight = height(right);
+
+    if (leftHeight > rightHeight + 1) {
+      if (height(left.left) >= height(left.right)) {
+        return left.withChildren(left.left, node.withChildren(left.right, right));
+      } else {
+        final Node<K, V> leftRight = left.right;
+        return leftRight.withChildren(
+            left.withChildren(left.left, leftRight.left),
+            node.withChildren(leftRight.right, right)
+        );
+      }
+    } else if (rightHeight > leftHeight + 1) {
+      if (height(right.right) >= height(right.left)) {
+        return right.withChildren(node.withChildren(left, right.left), right.right);
+      } else {
+        final Node<K, V> rightLeft = right.left;
+        return rightLeft.withChildren(
+            node.withChildren(left, rightLeft.left),
+            right.withChildren(rightLeft.right, right.right)
+        );
+      }
+    } else {
+      return node.withChildren(left, right);
+    }
+  }
+
+  private static int height(@Nullable Node<?, ?> node)
+  {
+    return node == null ? 0 : node.height;
+  }
+
+  @Nullable
+  private static <K> K keyOrNull(@Nullable Node<K, ?> node)
+  {
+    return node == null ? null : node.getKey();
+  }
+
+  private static class Node<K, V> extends AbstractMap.SimpleImmutableEntry<K, V>
+  {
+    @Nullable
+    private final Node<K, V> left;
+    @Nullable
+    private final Node<K, V> right;
+    private final int height;
+
+    Node(K key, V value, @Nullable Node<K, V> left, @Nullable Node<K, V> right)
+    {
+      super(key, value);
+      this.left = left;
+      this.right = right;
+      this.height = Math.max(height(left), height(right)) + 1;
+    }
+
+    Node<K, V> withChildren(@Nullable Node<K, V> left, @Nullable Node<K, V> right)
+    {
+      return new Node<>(getKey(), getValue(), left, right);
+    }
+  }
+}
@@ -40,7 +40,6 @@ import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
@@ -63,17 +62,19 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * they are overshadowed by some other object.  This can be used in conjunction with the add() and remove() methods
  * to achieve "atomic" updates.  First add new items, then check if those items caused anything to be overshadowed, if
  * so, remove the overshadowed elements and you have effectively updated your data set without any user impact.
+ *
+ * Writers are serialized by a lock, but lookup(), isOvershadowed() and the other methods that only read the
+ * chunked timelines never block: each timeline is a {@link PersistentSortedMap} that writers update by path copying
+ * and publish once an add or remove is done, and readers use the latest published version. TimelineEntries are
+ * immutable: adding chunks to or removing chunks from an existing entry replaces it with a new entry, holding an
+ * updated copy of its PartitionHolder, which readers only see once the timelines are published.
  */
 public class VersionedIntervalTimeline<VersionType, ObjectType> implements TimelineLookup<VersionType, ObjectType>
 {
   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
 
-  final NavigableMap<Interval, TimelineEntry> completePartitionsTimeline = new TreeMap<Interval, TimelineEntry>(
-      Comparators.intervalsByStartThenEnd()
-  );
-  final NavigableMap<Interval, TimelineEntry> incompletePartitionsTimeline = new TreeMap<Interval, TimelineEntry>(
-      Comparators.intervalsByStartThenEnd()
-  );
+  final PartitionsTimeline completePartitionsTimeline = new PartitionsTimeline();
+  final PartitionsTimeline incompletePartitionsTimeline = new PartitionsTimeline();
   private final Map<Interval, TreeMap<VersionType, TimelineEntry>> allTimelineEntries = new HashMap<>();
 
   private final Comparator<? super VersionType> versionComparator;
@@ -130,6 +131,9 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
 
     try {
       final IdentityHashMap<TimelineEntry, Interval> allEntries = new IdentityHashMap<>();
+      // Readers may be using existing entries, so chunks are added to copies of their holders, and the entries are
+      // replaced with new ones holding the copies below.
+      final IdentityHashMap<TimelineEntry, PartitionHolder<ObjectType>> updatedHolders = new IdentityHashMap<>();
 
       while (objects.hasNext()) {
         PartitionChunk<ObjectType> object = objects.next();
@@ -150,14 +154,19 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
             entry = new TimelineEntry(interval, version, new PartitionHolder<>(object));
             exists.put(version, entry);
           } else {
-            PartitionHolder<ObjectType> partitionHolder = entry.getPartitionHolder();
-            partitionHolder.add(object);
+            updatedHolders.computeIfAbsent(entry, e -> new PartitionHolder<>(e.getPartitionHolder())).add(object);
           }
         }
 
         allEntries.put(entry, interval);
       }
 
+      for (Map.Entry<TimelineEntry, PartitionHolder<ObjectType>> entry : updatedHolders.entrySet()) {
+        final TimelineEntry oldEntry = entry.getKey();
+        final TimelineEntry newEntry = replaceEntry(oldEntry, entry.getValue());
+        allEntries.put(newEntry, allEntries.remove(oldEntry));
+      }
+
       // "isComplete" is O(objects in holder) so defer it to the end of addAll.
       for (Map.Entry<TimelineEntry, Interval> entry : allEntries.entrySet()) {
         Interval interval = entry.getValue();
@@ -170,6 +179,8 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
       }
     }
     finally {
+      completePartitionsTimeline.publish();
+      incompletePartitionsTimeline.publish();
       lock.writeLock().unlock();
     }
   }
@@ -184,26 +195,32 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
         return null;
       }
 
-      TimelineEntry entry = versionEntries.get(version);
+      final TimelineEntry entry = versionEntries.get(version);
       if (entry == null) {
         return null;
       }
 
-      PartitionChunk<ObjectType> retVal = entry.getPartitionHolder().remove(chunk);
-      if (entry.getPartitionHolder().isEmpty()) {
+      // Readers may be using the entry, so the chunk is removed from a copy of its holder.
+      final PartitionHolder<ObjectType> partitionHolder = new PartitionHolder<>(entry.getPartitionHolder());
+      PartitionChunk<ObjectType> retVal = partitionHolder.remove(chunk);
+      if (partitionHolder.isEmpty()) {
         versionEntries.remove(version);
         if (versionEntries.isEmpty()) {
           allTimelineEntries.remove(interval);
         }
 
         remove(incompletePartitionsTimeline, interval, entry, true);
+        remove(completePartitionsTimeline, interval, entry, false);
+      } else {
+        // The entry replacing the given one may not be complete anymore.
+        remove(completePartitionsTimeline, interval, replaceEntry(entry, partitionHolder), false);
       }
 
-      remove(completePartitionsTimeline, interval, entry, false);
-
       return retVal;
     }
     finally {
+      completePartitionsTimeline.publish();
+      incompletePartitionsTimeline.publish();
       lock.writeLock().unlock();
     }
   }
@@ -243,58 +260,28 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
   @Override
   public List<TimelineObjectHolder<VersionType, ObjectType>> lookup(Interval interval)
   {
-    try {
-      lock.readLock().lock();
-      return lookup(interval, false);
-    }
-    finally {
-      lock.readLock().unlock();
-    }
+    return lookup(interval, false);
   }
 
   @Override
   public List<TimelineObjectHolder<VersionType, ObjectType>> lookupWithIncompletePartitions(Interval interval)
   {
-    try {
-      lock.readLock().lock();
-      return lookup(interval, true);
-    }
-    finally {
-      lock.readLock().unlock();
-    }
+    return lookup(interval, true);
   }
 
   public boolean isEmpty()
   {
-    try {
-      lock.readLock().lock();
-      return completePartitionsTimeline.isEmpty();
-    }
-    finally {
-      lock.readLock().unlock();
-    }
+    return completePartitionsTimeline.snapshot().isEmpty();
   }
 
   public TimelineObjectHolder<VersionType, ObjectType> first()
   {
-    try {
-      lock.readLock().lock();
-      return timelineEntryToObjectHolder(completePartitionsTimeline.firstEntry().getValue());
-    }
-    finally {
-      lock.readLock().unlock();
-    }
+    return timelineEntryToObjectHolder(completePartitionsTimeline.snapshot().firstEntry().getValue());
   }
 
   public TimelineObjectHolder<VersionType, ObjectType> last()
   {
-    try {
-      lock.readLock().lock();
-      return timelineEntryToObjectHolder(completePartitionsTimeline.lastEntry().getValue());
-    }
-    finally {
-      lock.readLock().unlock();
-    }
+    return timelineEntryToObjectHolder(completePartitionsTimeline.snapshot().lastEntry().getValue());
   }
 
   private TimelineObjectHolder<VersionType, ObjectType> timelineEntryToObjectHolder(TimelineEntry entry)
@@ -320,7 +307,7 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
         overShadowed.put(versionEntry.getKey(), versionCopy);
       }
 
-      for (Map.Entry<Interval, TimelineEntry> entry : completePartitionsTimeline.entrySet()) {
+      for (Map.Entry<Interval, TimelineEntry> entry : completePartitionsTimeline.snapshot()) {
         Map<VersionType, TimelineEntry> versionEntry = overShadowed.get(entry.getValue().getTrueInterval());
         if (versionEntry != null) {
           versionEntry.remove(entry.getValue().getVersion());
@@ -330,7 +317,7 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
         }
       }
 
-      for (Map.Entry<Interval, TimelineEntry> entry : incompletePartitionsTimeline.entrySet()) {
+      for (Map.Entry<Interval, TimelineEntry> entry : incompletePartitionsTimeline.snapshot()) {
         Map<VersionType, TimelineEntry> versionEntry = overShadowed.get(entry.getValue().getTrueInterval());
         if (versionEntry != null) {
           versionEntry.remove(entry.getValue().getVersion());
@@ -356,48 +343,59 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
 
   public boolean isOvershadowed(Interval interval, VersionType version)
   {
-    try {
-      lock.readLock().lock();
+    final PersistentSortedMap<Interval, TimelineEntry> timeline = completePartitionsTimeline.snapshot();
 
-      TimelineEntry entry = completePartitionsTimeline.get(interval);
-      if (entry != null) {
-        return versionComparator.compare(version, entry.getVersion()) < 0;
-      }
+    TimelineEntry entry = timeline.get(interval);
+    if (entry != null) {
+      return versionComparator.compare(version, entry.getVersion()) < 0;
+    }
 
-      Interval lower = completePartitionsTimeline.floorKey(
-          new Interval(interval.getStart(), DateTimes.MAX)
-      );
+    Interval lower = timeline.floorKey(
+        new Interval(interval.getStart(), DateTimes.MAX)
+    );
+
+    if (lower == null || !lower.overlaps(interval)) {
+      return false;
+    }
+
+    Interval prev = null;
+    Interval curr = lower;
 
-      if (lower == null || !lower.overlaps(interval)) {
+    do {
+      if (curr == null ||  //no further keys
+          (prev != null && curr.getStartMillis() > prev.getEndMillis()) || //a discontinuity
+          //lower or same version
+          versionComparator.compare(version, timeline.get(curr).getVersion()) >= 0
+          ) {
         return false;
       }
 
-      Interval prev = null;
-      Interval curr = lower;
+      prev = curr;
+      curr = timeline.higherKey(curr);
 
-      do {
-        if (curr == null ||  //no further keys
-            (prev != null && curr.getStartMillis() > prev.getEndMillis()) || //a discontinuity
-            //lower or same version
-            versionComparator.compare(version, completePartitionsTimeline.get(curr).getVersion()) >= 0
-            ) {
-          return false;
-        }
-
-        prev = curr;
-        curr = completePartitionsTimeline.higherKey(curr);
+    } while (interval.getEndMillis() > prev.getEndMillis());
 
-      } while (interval.getEndMillis() > prev.getEndMillis());
+    return true;
+  }
 
-      return true;
-    }
-    finally {
-      lock.readLock().unlock();
-    }
+  /**
+   * Replaces the given entry with a new one holding the given PartitionHolder, in {@link #allTimelineEntries} and in
+   * the working versions of both timelines.
+   *
+   * @return the new entry
+   */
+  private TimelineEntry replaceEntry(TimelineEntry oldEntry, PartitionHolder<ObjectType> partitionHolder)
+  {
+    final Interval interval = oldEntry.getTrueInterval();
+    final TimelineEntry newEntry = new TimelineEntry(interval, oldEntry.getVersion(), partitionHolder);
+    allTimelineEntries.get(interval).put(oldEntry.getVersion(), newEntry);
+    completePartitionsTimeline.replace(oldEntry, newEntry);
+    incompletePartitionsTimeline.replace(oldEntry, newEntry);
+    return newEntry;
   }
 
   private void add(
-      NavigableMap<Interval, TimelineEntry> timeline,
+      PartitionsTimeline timeline,
       Interval interval,
       TimelineEntry entry
   )
@@ -439,7 +437,7 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
    * @return boolean flag indicating whether or not we inserted or discarded something
    */
   private boolean addAtKey(
-      NavigableMap<Interval, TimelineEntry> timeline,
+      PartitionsTimeline timeline,
       Interval key,
       TimelineEntry entry
   )
@@ -514,7 +512,7 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
   private void addIntervalToTimeline(
       Interval interval,
       TimelineEntry entry,
-      NavigableMap<Interval, TimelineEntry> timeline
+      PartitionsTimeline timeline
   )
   {
     if (interval != null && interval.toDurationMillis() > 0) {
@@ -523,7 +521,7 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
   }
 
   private void remove(
-      NavigableMap<Interval, TimelineEntry> timeline,
+      PartitionsTimeline timeline,
       Interval interval,
       TimelineEntry entry,
       boolean incompleteOk
@@ -533,9 +531,7 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
     TimelineEntry removed = timeline.get(interval);
 
     if (removed == null) {
-      Iterator<Map.Entry<Interval, TimelineEntry>> iter = timeline.entrySet().iterator();
-      while (iter.hasNext()) {
-        Map.Entry<Interval, TimelineEntry> timelineEntry = iter.next();
+      for (Map.Entry<Interval, TimelineEntry> timelineEntry : timeline.working) {
         if (timelineEntry.getValue() == entry) {
           intervalsToRemove.add(timelineEntry.getKey());
         }
@@ -550,7 +546,7 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
   }
 
   private void remove(
-      NavigableMap<Interval, TimelineEntry> timeline,
+      PartitionsTimeline timeline,
       Interval interval,
       boolean incompleteOk
   )
@@ -577,14 +573,24 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
   private List<TimelineObjectHolder<VersionType, ObjectType>> lookup(Interval interval, boolean incompleteOk)
   {
     List<TimelineObjectHolder<VersionType, ObjectType>> retVal = new ArrayList<TimelineObjectHolder<VersionType, ObjectType>>();
-    NavigableMap<Interval, TimelineEntry> timeline = (incompleteOk)
-                                                     ? incompletePartitionsTimeline
-                                                     : completePartitionsTimeline;
-
-    for (Map.Entry<Interval, TimelineEntry> entry : timeline.entrySet()) {
+    PersistentSortedMap<Interval, TimelineEntry> timeline = (incompleteOk)
+                                                            ? incompletePartitionsTimeline.snapshot()
+                                                            : completePartitionsTimeline.snapshot();
+
+    // Intervals in the timeline don't overlap each other, so the ones overlapping the given interval are contiguous,
+    // starting at the last one that starts no later than it.
+    Iterator<Map.Entry<Interval, TimelineEntry>> iterator = timeline.iterator(
+        timeline.floorKey(new Interval(interval.getStart(), DateTimes.MAX))
+    );
+    while (iterator.hasNext()) {
+      Map.Entry<Interval, TimelineEntry> entry = iterator.next();
       Interval timelineInterval = entry.getKey();
       TimelineEntry val = entry.getValue();
 
+      if (timelineInterval.getStartMillis() >= interval.getEndMillis()) {
+        break;
+      }
+
       if (timelineInterval.overlaps(interval)) {
         retVal.add(
             new TimelineObjectHolder<>(
@@ -631,6 +637,78 @@ public class VersionedIntervalTimeline<VersionType, ObjectType> implements Timel
     return retVal;
   }
 
+  /**
+   * One of the chunked timelines. Writers update {@link #working} while holding the write lock, and {@link #publish}
+   * it for readers once they are done, so that readers never see the intermediate states of an add or remove.
+   */
+  class PartitionsTimeline
+  {
+    private PersistentSortedMap<Interval, TimelineEntry> working =
+        PersistentSortedMap.empty(Comparators.intervalsByStartThenEnd());
+    private volatile PersistentSortedMap<Interval, TimelineEntry> published = working;
+
+    PersistentSortedMap<Interval, TimelineEntry> snapshot()
+    {
+      return published;
+    }
+
+    private void publish()
+    {
+      published = working;
+    }
+
+    private TimelineEntry get(Interval interval)
+    {
+      return working.get(interval);
+    }
+
+    private Interval lowerKey(Interval interval)
+    {
+      return working.lowerKey(interval);
+    }
+
+    private Interval higherKey(Interval interval)
+    {
+      return working.higherKey(interval);
+    }
+
+    private void put(Interval interval, TimelineEntry entry)
+    {
+      working = working.put(interval, entry);
+    }
+
+    private TimelineEntry remove(Interval interval)
+    {
+      final TimelineEntry removed = working.get(interval);
+      working = working.remove(interval);
+      return removed;
+    }
+
+    /**
+     * Puts newEntry at all intervals of oldEntry. These are all within the true interval of oldEntry.
+     */
+    private void replace(TimelineEntry oldEntry, TimelineEntry newEntry)
+    {
+      final Interval trueInterval = oldEntry.getTrueInterval();
+      final List<Interval> intervals = new ArrayList<>();
+      final Iterator<Map.Entry<Interval, TimelineEntry>> iterator = working.iterator(
+          working.floorKey(new Interval(trueInterval.getStart(), DateTimes.MAX))
+      );
+      while (iterator.hasNext()) {
+        final Map.Entry<Interval, TimelineEntry> entry = iterator.next();
+        if (entry.getKey().getStartMillis() >= trueInterval.getEndMillis()) {
+          break;
+        }
+        if (entry.getValue() == oldEntry) {
+          intervals.add(entry.getKey());
+        }
+      }
+      for (Interval interval : intervals) {
+        working = working.put(interval, newEntry);
+      }
+    }
+  }
+
   public class TimelineEntry
   {
     private final Interval trueInterval;
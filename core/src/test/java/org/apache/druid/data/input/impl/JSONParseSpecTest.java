@@ -21,10 +21,15 @@ package org.apache.druid.data.input.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import org.apache.druid.TestObjectMapper;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.parsers.JSONPathFieldSpec;
 import org.apache.druid.java.util.common.parsers.JSONPathFieldType;
+import org.apache.druid.java.util.common.parsers.JSONPathParser;
 import org.apache.druid.java.util.common.parsers.JSONPathSpec;
+import org.apache.druid.java.util.common.parsers.JSONStreamingParser;
 import org.apache.druid.java.util.common.parsers.Parser;
 import org.junit.Assert;
 import org.junit.Test;
@@ -34,6 +39,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class JSONParseSpecTest
@@ -110,6 +116,112 @@ public class JSONParseSpecTest
     Assert.assertEquals(expected, parsedRow);
   }
 
+  @Test
+  public void testParseRowStreaming()
+  {
+    final JSONParseSpec parseSpec = new JSONParseSpec(
+        new TimestampSpec("timestamp", "iso", null),
+        new DimensionsSpec(
+            DimensionsSpec.getDefaultSchemas(ImmutableList.of("bar", "foo")),
+            ImmutableList.of("met"),
+            null
+        ),
+        new JSONPathSpec(
+            true,
+            ImmutableList.of(
+                new JSONPathFieldSpec(JSONPathFieldType.ROOT, "root_baz", "baz"),
+                new JSONPathFieldSpec(JSONPathFieldType.ROOT, "root_baz2", "baz2"),
+                new JSONPathFieldSpec(JSONPathFieldType.PATH, "path_omg", "$.o.mg"),
+                new JSONPathFieldSpec(JSONPathFieldType.PATH, "path_omg2", "$.o.mg2")
+            )
+        ),
+        null,
+        true
+    );
+
+    final Map<String, Object> expected = new HashMap<>();
+    expected.put("timestamp", "2019-01-01");
+    expected.put("foo", "x");
+    expected.put("met", 2.5);
+    expected.put("root_baz", 4L);
+    expected.put("root_baz2", null);
+    expected.put("path_omg", 1L);
+    expected.put("path_omg2", null);
+
+    final Parser<String, Object> parser = parseSpec.makeParser();
+    Assert.assertTrue(parser instanceof JSONStreamingParser);
+    final Map<String, Object> parsedRow = parser.parseToMap(
+        "{\"timestamp\":\"2019-01-01\",\"bar\":null,\"foo\":\"x\",\"baz\":4,\"met\":2.5,\"buzz\":\"y\","
+        + "\"o\":{\"mg\":1}}"
+    );
+    Assert.assertEquals(expected, parsedRow);
+  }
+
+  @Test
+  public void testStreamingIngestsSameRows()
+  {
+    final String json = "{\"timestamp\":\"2019-01-01\",\"foo\":\"x\",\"obj\":{\"a\":1},\"nested\":[1,[2]],"
+                        + "\"list\":[\"y\",\"z\"],\"nul\":null,\"met\":2.5,\"metObj\":{\"b\":2},\"other\":3,"
+                        + "\"o\":{\"mg\":1}}";
+    final List<String> dimensions = ImmutableList.of("foo", "obj", "nested", "list", "nul", "path_omg", "other");
+    final List<DimensionsSpec> dimensionsSpecs = ImmutableList.of(
+        new DimensionsSpec(DimensionsSpec.getDefaultSchemas(dimensions), ImmutableList.of("met", "metObj"), null),
+        new DimensionsSpec(null, ImmutableList.of("met", "metObj"), null)
+    );
+
+    for (DimensionsSpec dimensionsSpec : dimensionsSpecs) {
+      for (boolean useFieldDiscovery : Arrays.asList(true, false)) {
+        final JSONPathSpec flattenSpec = new JSONPathSpec(
+            useFieldDiscovery,
+            ImmutableList.of(
+                new JSONPathFieldSpec(JSONPathFieldType.ROOT, "timestamp", "timestamp"),
+                new JSONPathFieldSpec(JSONPathFieldType.PATH, "path_omg", "$.o.mg")
+            )
+        );
+        final InputRow expected = parseRow(
+            new JSONParseSpec(new TimestampSpec("timestamp", "iso", null), dimensionsSpec, flattenSpec, null, false),
+            json
+        );
+        final InputRow actual = parseRow(
+            new JSONParseSpec(new TimestampSpec("timestamp", "iso", null), dimensionsSpec, flattenSpec, null, true),
+            json
+        );
+
+        final String message = StringUtils.format(
+            "customDimensions[%s], useFieldDiscovery[%s]",
+            dimensionsSpec.hasCustomDimensions(),
+            useFieldDiscovery
+        );
+        Assert.assertEquals(message, expected.getTimestamp(), actual.getTimestamp());
+        Assert.assertEquals(message, expected.getDimensions(), actual.getDimensions());
+        for (String column : Iterables.concat(expected.getDimensions(), ImmutableList.of("met", "metObj"))) {
+          Assert.assertEquals(message + " " + column, expected.getDimension(column), actual.getDimension(column));
+          Assert.assertEquals(message + " " + column, expected.getRaw(column), actual.getRaw(column));
+        }
+      }
+    }
+  }
+
+  private static InputRow parseRow(JSONParseSpec parseSpec, String json)
+  {
+    final List<InputRow> rows = new MapInputRowParser(parseSpec).parseBatch(parseSpec.makeParser().parseToMap(json));
+    Assert.assertEquals(1, rows.size());
+    return rows.get(0);
+  }
+
+  @Test
+  public void testStreamingFallsBackForJq()
+  {
+    final JSONParseSpec parseSpec = new JSONParseSpec(
+        new TimestampSpec("timestamp", "iso", null),
+        new DimensionsSpec(DimensionsSpec.getDefaultSchemas(ImmutableList.of("foo")), null, null),
+        new JSONPathSpec(true, ImmutableList.of(new JSONPathFieldSpec(JSONPathFieldType.JQ, "jq_omg", ".o.mg"))),
+        null,
+        true
+    );
+    Assert.assertTrue(parseSpec.makeParser() instanceof JSONPathParser);
+  }
+
   @Test
   public void testSerde() throws IOException
   {
@@ -131,5 +243,25 @@ public class JSONParseSpecTest
 
     Assert.assertEquals(Arrays.asList("bar", "foo"), serde.getDimensionsSpec().getDimensionNames());
     Assert.assertEquals(feature, serde.getFeatureSpec());
+    Assert.assertFalse(serde.isStreaming());
+  }
+
+  @Test
+  public void testSerdeStreaming() throws IOException
+  {
+    JSONParseSpec spec = new JSONParseSpec(
+        new TimestampSpec("timestamp", "iso", null),
+        new DimensionsSpec(DimensionsSpec.getDefaultSchemas(ImmutableList.of("bar", "foo")), null, null),
+        null,
+        null,
+        true
+    );
+
+    final JSONParseSpec serde = (JSONParseSpec) jsonMapper.readValue(
+        jsonMapper.writeValueAsString(spec),
+        ParseSpec.class
+    );
+    Assert.assertTrue(serde.isStreaming());
+    Assert.assertEquals(spec, serde);
   }
 }
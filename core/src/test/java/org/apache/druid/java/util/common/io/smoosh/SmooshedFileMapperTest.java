@@ -192,6 +192,28 @@ public class SmooshedFileMapperTest
     Assert.assertEquals(totalMemoryUsedBeforeAddingFile, totalMemoryUsedAfterAddingFile);
   }
 
+  @Test
+  public void testWarmupAndResidency() throws Exception
+  {
+    File baseDir = folder.newFolder("base");
+
+    try (FileSmoosher smoosher = new FileSmoosher(baseDir, 21)) {
+      for (int i = 0; i < 20; ++i) {
+        File tmpFile = folder.newFile(StringUtils.format("smoosh-%s.bin", i));
+        Files.write(Ints.toByteArray(i), tmpFile);
+        smoosher.add(StringUtils.format("%d", i), tmpFile);
+      }
+    }
+
+    try (SmooshedFileMapper mapper = SmooshedFileMapper.load(baseDir)) {
+      Assert.assertEquals(80, mapper.warmup());
+      // Just written and read, so these must be in the page cache.
+      Assert.assertEquals(1.0, mapper.sampleResidency("0", 4), 0.0);
+      Assert.assertEquals(1.0, mapper.sampleResidency("19", 4), 0.0);
+      Assert.assertNull(mapper.sampleResidency("foo", 4));
+    }
+  }
+
   private void validateOutput(File baseDir) throws IOException
   {
     File[] files = baseDir.listFiles();
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.java.util.common.parsers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class JSONStreamingParserTest
+{
+  private static final String nestedJson =
+      "{\"simpleVal\":\"text\", \"ignore_me\":[1, {\"x\":2}], \"blah\":[4,5,6], \"newmet\":5, " +
+      "\"foo\":{\"bar1\":\"aaa\", \"bar2\":\"bbb\"}, " +
+      "\"baz\":[1,2,3], \"timestamp\":\"2999\", \"foo.bar1\":\"Hello world!\", " +
+      "\"testListConvert\":[1234567890000000000000, \"foo\\uD900\"], " +
+      "\"testListConvert2\":[1234567890000000000000, \"foo\\uD900\", [1234567890000000000000]], " +
+      "\"testMapConvert\":{\"big\": 1234567890000000000000, \"big2\":{\"big2\":1234567890000000000000}}, " +
+      "\"testEmptyList\": [], \"testNull\": null, \"testBool\": true, " +
+      "\"hey\":[{\"barx\":\"asdf\"}], \"met\":{\"a\":[7,8,9]}}";
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void testSameAsJSONPathParser()
+  {
+    final List<JSONPathFieldSpec> fields = new ArrayList<>();
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.ROOT, "baz", "baz"));
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.PATH, "nested-foo.bar1", "$.foo.bar1"));
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.PATH, "nested-foo.bar2", "$['foo'].bar2"));
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.PATH, "heybarx0", "$.hey[0].barx"));
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.PATH, "met-array", "$.met.a"));
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.PATH, "met-array-1", "$.met.a[1]"));
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.PATH, "met-map", "$.met"));
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.ROOT, "testListConvert2", "testListConvert2"));
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.ROOT, "testMapConvert", "testMapConvert"));
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.ROOT, "missing", "missing"));
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.PATH, "missing-path", "$.foo.missing"));
+
+    final Set<String> requiredFields = ImmutableSet.of("newmet", "met", "testNull", "ignore_me", "missing", "baz");
+
+    for (boolean useFieldDiscovery : Arrays.asList(true, false)) {
+      final JSONPathSpec flattenSpec = new JSONPathSpec(useFieldDiscovery, fields);
+      Assert.assertTrue(JSONStreamingParser.isSupported(flattenSpec));
+      final Map<String, Object> expected = new JSONPathParser(flattenSpec, null).parseToMap(nestedJson);
+      final Map<String, Object> actual =
+          new JSONStreamingParser(flattenSpec, null, requiredFields, false).parseToMap(nestedJson);
+      Assert.assertEquals(new HashMap<>(expected), new HashMap<>(actual));
+      for (String field : requiredFields) {
+        Assert.assertEquals(field, expected.get(field), actual.get(field));
+      }
+    }
+  }
+
+  @Test
+  public void testRequiredFields()
+  {
+    final List<JSONPathFieldSpec> fields = new ArrayList<>();
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.PATH, "nested-foo.bar1", "$.foo.bar1"));
+    final Set<String> requiredFields = ImmutableSet.of("newmet", "blah", "met", "ignore_me", "testNull");
+
+    // Only flat required fields are discovered, the others are only returned by get()
+    final Map<String, Object> discovered = new JSONStreamingParser(
+        new JSONPathSpec(true, fields),
+        null,
+        requiredFields,
+        true
+    ).parseToMap(nestedJson);
+    Assert.assertEquals(
+        ImmutableMap.of(
+            "nested-foo.bar1", "aaa",
+            "newmet", 5L,
+            "blah", ImmutableList.of(4L, 5L, 6L)
+        ),
+        new HashMap<>(discovered)
+    );
+    Assert.assertEquals(ImmutableMap.of("a", ImmutableList.of(7L, 8L, 9L)), discovered.get("met"));
+    Assert.assertEquals(ImmutableList.of(1L, ImmutableMap.of("x", 2L)), discovered.get("ignore_me"));
+    Assert.assertNull(discovered.get("testNull"));
+    Assert.assertNull(discovered.get("simpleVal"));
+
+    // Without field discovery, required fields aren't keys of the row
+    final Map<String, Object> notDiscovered = new JSONStreamingParser(
+        new JSONPathSpec(false, fields),
+        null,
+        requiredFields,
+        true
+    ).parseToMap(nestedJson);
+    Assert.assertEquals(ImmutableMap.of("nested-foo.bar1", "aaa"), new HashMap<>(notDiscovered));
+    Assert.assertEquals(5L, notDiscovered.get("newmet"));
+    Assert.assertEquals(ImmutableMap.of("a", ImmutableList.of(7L, 8L, 9L)), notDiscovered.get("met"));
+  }
+
+  @Test
+  public void testCompileJsonPath()
+  {
+    Assert.assertEquals(ImmutableList.of("a", "b"), JSONStreamingParser.compileJsonPath("$.a.b"));
+    Assert.assertEquals(ImmutableList.of("a.b", 0, "c"), JSONStreamingParser.compileJsonPath("$['a.b'][0].c"));
+    Assert.assertNull(JSONStreamingParser.compileJsonPath("$"));
+    Assert.assertNull(JSONStreamingParser.compileJsonPath("$.a[*]"));
+    Assert.assertNull(JSONStreamingParser.compileJsonPath("$..a"));
+    Assert.assertNull(JSONStreamingParser.compileJsonPath("$.a[?(@.b)]"));
+    Assert.assertNull(JSONStreamingParser.compileJsonPath("a.b"));
+  }
+
+  @Test
+  public void testJqNotSupported()
+  {
+    final List<JSONPathFieldSpec> fields = new ArrayList<>();
+    fields.add(new JSONPathFieldSpec(JSONPathFieldType.JQ, "jq-nested-foo.bar1", ".foo.bar1"));
+    final JSONPathSpec flattenSpec = new JSONPathSpec(true, fields);
+    Assert.assertFalse(JSONStreamingParser.isSupported(flattenSpec));
+
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Field[jq-nested-foo.bar1] with expr[.foo.bar1] is not supported");
+    new JSONStreamingParser(flattenSpec, null, null, false);
+  }
+
+  @Test
+  public void testParseFail()
+  {
+    thrown.expect(ParseException.class);
+    thrown.expectMessage("Unable to parse row [[1, 2]]");
+    new JSONStreamingParser(JSONPathSpec.DEFAULT, null, null, false).parseToMap("[1, 2]");
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.timeline;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class PersistentSortedMapTest
+{
+  @Test
+  public void testSameAsTreeMap()
+  {
+    final Random random = new Random(1234);
+    final TreeMap<Integer, Integer> expected = new TreeMap<>();
+    PersistentSortedMap<Integer, Integer> map = PersistentSortedMap.empty(Ordering.natural());
+
+    for (int i = 0; i < 50_000; i++) {
+      final int key = random.nextInt(200);
+      if (random.nextBoolean()) {
+        expected.put(key, i);
+        map = map.put(key, i);
+      } else {
+        expected.remove(key);
+        map = map.remove(key);
+      }
+
+      final int probe = random.nextInt(220) - 10;
+      Assert.assertEquals(expected.get(probe), map.get(probe));
+      Assert.assertEquals(expected.floorKey(probe), map.floorKey(probe));
+      Assert.assertEquals(expected.lowerKey(probe), map.lowerKey(probe));
+      Assert.assertEquals(expected.higherKey(probe), map.higherKey(probe));
+      Assert.assertEquals(expected.firstEntry(), map.firstEntry());
+      Assert.assertEquals(expected.lastEntry(), map.lastEntry());
+      Assert.assertEquals(expected.isEmpty(), map.isEmpty());
+
+      if (i % 100 == 0) {
+        Assert.assertEquals(Lists.newArrayList(expected.entrySet()), Lists.newArrayList(map));
+        Assert.assertEquals(
+            Lists.newArrayList(expected.tailMap(probe, true).entrySet()),
+            Lists.newArrayList(map.iterator(probe))
+        );
+      }
+    }
+  }
+
+  @Test
+  public void testUpdatesDoNotAffectOlderVersions()
+  {
+    PersistentSortedMap<Integer, String> map = PersistentSortedMap.empty(Ordering.natural());
+    for (int i = 0; i < 10; i++) {
+      map = map.put(i, String.valueOf(i));
+    }
+
+    final PersistentSortedMap<Integer, String> snapshot = map;
+    map = map.remove(3).remove(4).put(5, "five").put(10, "10");
+
+    Assert.assertEquals(
+        ImmutableList.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9),
+        Lists.transform(Lists.newArrayList(snapshot), Map.Entry::getKey)
+    );
+    Assert.assertEquals("5", snapshot.get(5));
+    Assert.assertEquals(
+        ImmutableList.of(0, 1, 2, 5, 6, 7, 8, 9, 10),
+        Lists.transform(Lists.newArrayList(map), Map.Entry::getKey)
+    );
+    Assert.assertEquals("five", map.get(5));
+    Assert.assertSame(map, map.remove(3));
+  }
+}
@@ -46,6 +46,8 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  */
@@ -206,7 +208,7 @@ public class VersionedIntervalTimelineTest
 
     Assert.assertTrue(
         "These timestamps have to be at the end AND include now for this test to work.",
-        overallStart.isAfter(timeline.incompletePartitionsTimeline.lastEntry().getKey().getEnd())
+        overallStart.isAfter(timeline.incompletePartitionsTimeline.snapshot().lastEntry().getKey().getEnd())
     );
 
     final Interval oneHourInterval1 = new Interval(overallStart.plus(Hours.THREE), overallStart.plus(Hours.FOUR));
@@ -1559,6 +1561,54 @@ public class VersionedIntervalTimelineTest
     );
   }
 
+  @Test
+  public void testConcurrentLookupOnlySeesCompleteHolders() throws InterruptedException
+  {
+    timeline = makeStringIntegerTimeline();
+
+    add("2011-04-01/2011-04-02", "1", IntegerPartitionChunk.make(null, 1, 0, 77));
+    add("2011-04-01/2011-04-02", "1", IntegerPartitionChunk.make(1, null, 1, 88));
+
+    final AtomicBoolean done = new AtomicBoolean();
+    final AtomicReference<String> failure = new AtomicReference<>();
+    final Thread writer = new Thread(
+        () -> {
+          for (int i = 0; i < 10_000; i++) {
+            timeline.remove(
+                Intervals.of("2011-04-01/2011-04-02"),
+                "1",
+                IntegerPartitionChunk.make(1, null, 1, 88)
+            );
+            add("2011-04-01/2011-04-02", "1", IntegerPartitionChunk.make(1, null, 1, 88));
+          }
+          done.set(true);
+        }
+    );
+    writer.start();
+
+    while (!done.get() && failure.get() == null) {
+      for (TimelineObjectHolder<String, Integer> holder : timeline.lookup(Intervals.of("2011-04-01/2011-04-02"))) {
+        if (!holder.getObject().isComplete()) {
+          failure.set("Incomplete holder: " + holder);
+        }
+      }
+    }
+    writer.join();
+
+    Assert.assertNull(failure.get());
+    assertValues(
+        ImmutableList.of(
+            createExpected("2011-04-01/2011-04-02", "1",
+                           Arrays.asList(
+                               IntegerPartitionChunk.make(null, 1, 0, 77),
+                               IntegerPartitionChunk.make(1, null, 1, 88)
+                           )
+            )
+        ),
+        timeline.lookup(Intervals.of("2011-04-01/2011-04-02"))
+    );
+  }
+
   @Test
   public void testIsOvershadowedWithNonOverlappingSegmentsInTimeline()
   {
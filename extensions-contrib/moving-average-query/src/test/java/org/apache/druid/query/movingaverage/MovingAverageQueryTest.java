@@ -28,6 +28,7 @@ import com.google.inject.Injector;
 import com.google.inject.Module;
 import com.google.inject.name.Names;
 import com.google.inject.util.Providers;
+import org.apache.druid.client.BrokerParallelMergeConfig;
 import org.apache.druid.client.CachingClusteredClient;
 import org.apache.druid.client.DruidServer;
 import org.apache.druid.client.ImmutableDruidServer;
@@ -84,6 +85,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Base class for implementing MovingAverageQuery tests
@@ -351,6 +353,15 @@ public class MovingAverageQueryTest
           {
             return 0L;
           }
+        },
+        new BrokerParallelMergeConfig(),
+        ForkJoinPool.commonPool(),
+        new ServiceEmitter("", "", null)
+        {
+          @Override
+          public void emit(Event event)
+          {
+          }
         }
     );
 
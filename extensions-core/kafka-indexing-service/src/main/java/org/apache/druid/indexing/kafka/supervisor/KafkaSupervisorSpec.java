@@ -86,6 +86,7 @@ public class KafkaSupervisorSpec extends SeekableStreamSupervisorSpec
             null,
             null,
             null,
+            null,
             null
         ),
         ioConfig,
@@ -69,6 +69,7 @@ public class KafkaIndexTaskTuningConfigTest
     Assert.assertEquals(new IndexSpec(), config.getIndexSpecForIntermediatePersists());
     Assert.assertEquals(false, config.isReportParseExceptions());
     Assert.assertEquals(0, config.getHandoffConditionTimeout());
+    Assert.assertEquals(1, config.getNumPushThreads());
   }
 
   @Test
@@ -84,6 +85,7 @@ public class KafkaIndexTaskTuningConfigTest
                      + "  \"maxPendingPersists\": 100,\n"
                      + "  \"reportParseExceptions\": true,\n"
                      + "  \"handoffConditionTimeout\": 100,\n"
+                     + "  \"numPushThreads\": 4,\n"
                      + "  \"indexSpec\": { \"metricCompression\" : \"NONE\" },\n"
                      + "  \"indexSpecForIntermediatePersists\": { \"dimensionCompression\" : \"uncompressed\" }\n"
                      + "}";
@@ -107,6 +109,7 @@ public class KafkaIndexTaskTuningConfigTest
     Assert.assertEquals(100, config.getMaxPendingPersists());
     Assert.assertEquals(true, config.isReportParseExceptions());
     Assert.assertEquals(100, config.getHandoffConditionTimeout());
+    Assert.assertEquals(4, config.getNumPushThreads());
     Assert.assertEquals(new IndexSpec(null, null, CompressionStrategy.NONE, null), config.getIndexSpec());
     Assert.assertEquals(new IndexSpec(null, CompressionStrategy.UNCOMPRESSED, null, null), config.getIndexSpecForIntermediatePersists());
   }
@@ -138,6 +141,7 @@ public class KafkaIndexTaskTuningConfigTest
         null,
         null,
         null,
+        null,
         null
     );
     KafkaIndexTaskTuningConfig copy = (KafkaIndexTaskTuningConfig) original.convertToTaskTuningConfig();
@@ -175,7 +179,8 @@ public class KafkaIndexTaskTuningConfigTest
         null,
         true,
         42,
-        42
+        42,
+        null
     );
 
     String serialized = mapper.writeValueAsString(base);
@@ -224,6 +229,7 @@ public class KafkaIndexTaskTuningConfigTest
         true,
         42,
         42,
+        2,
         "extra string"
     );
 
@@ -248,6 +254,7 @@ public class KafkaIndexTaskTuningConfigTest
     Assert.assertEquals(base.isLogParseExceptions(), deserialized.isLogParseExceptions());
     Assert.assertEquals(base.getMaxParseExceptions(), deserialized.getMaxParseExceptions());
     Assert.assertEquals(base.getMaxSavedParseExceptions(), deserialized.getMaxSavedParseExceptions());
+    Assert.assertEquals(base.getNumPushThreads(), deserialized.getNumPushThreads());
   }
 
   private static KafkaIndexTaskTuningConfig copy(KafkaIndexTaskTuningConfig config)
@@ -270,7 +277,8 @@ public class KafkaIndexTaskTuningConfigTest
         config.getIntermediateHandoffPeriod(),
         config.isLogParseExceptions(),
         config.getMaxParseExceptions(),
-        config.getMaxSavedParseExceptions()
+        config.getMaxSavedParseExceptions(),
+        config.getNumPushThreads()
     );
   }
 }
@@ -97,6 +97,7 @@ public class KinesisSupervisorSpec extends SeekableStreamSupervisorSpec
             null,
             null,
             null,
+            null,
             null
         ),
         ioConfig,
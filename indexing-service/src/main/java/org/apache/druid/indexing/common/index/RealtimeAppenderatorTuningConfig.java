@@ -47,6 +47,8 @@ public class RealtimeAppenderatorTuningConfig implements TuningConfig, Appendera
   private static final Boolean defaultReportParseExceptions = Boolean.FALSE;
   private static final long defaultPublishAndHandoffTimeout = 0;
   private static final long defaultAlertTimeout = 0;
+  private static final boolean defaultOffheapFacts = false;
+  private static final long defaultMaxOffheapFactsBytes = 0;
 
   private static File createNewBasePersistDirectory()
   {
@@ -74,6 +76,9 @@ public class RealtimeAppenderatorTuningConfig implements TuningConfig, Appendera
   private final int maxParseExceptions;
   private final int maxSavedParseExceptions;
 
+  private final boolean offheapFacts;
+  private final long maxOffheapFactsBytes;
+
   @JsonCreator
   public RealtimeAppenderatorTuningConfig(
       @JsonProperty("maxRowsInMemory") Integer maxRowsInMemory,
@@ -92,7 +97,9 @@ public class RealtimeAppenderatorTuningConfig implements TuningConfig, Appendera
       @JsonProperty("segmentWriteOutMediumFactory") @Nullable SegmentWriteOutMediumFactory segmentWriteOutMediumFactory,
       @JsonProperty("logParseExceptions") @Nullable Boolean logParseExceptions,
       @JsonProperty("maxParseExceptions") @Nullable Integer maxParseExceptions,
-      @JsonProperty("maxSavedParseExceptions") @Nullable Integer maxSavedParseExceptions
+      @JsonProperty("maxSavedParseExceptions") @Nullable Integer maxSavedParseExceptions,
+      @JsonProperty("offheapFacts") @Nullable Boolean offheapFacts,
+      @JsonProperty("maxOffheapFactsBytes") @Nullable Long maxOffheapFactsBytes
   )
   {
     this.maxRowsInMemory = maxRowsInMemory == null ? defaultMaxRowsInMemory : maxRowsInMemory;
@@ -136,6 +143,10 @@ public class RealtimeAppenderatorTuningConfig implements TuningConfig, Appendera
     this.logParseExceptions = logParseExceptions == null
                               ? TuningConfig.DEFAULT_LOG_PARSE_EXCEPTIONS
                               : logParseExceptions;
+
+    this.offheapFacts = offheapFacts == null ? defaultOffheapFacts : offheapFacts;
+    this.maxOffheapFactsBytes = maxOffheapFactsBytes == null ? defaultMaxOffheapFactsBytes : maxOffheapFactsBytes;
+    Preconditions.checkArgument(this.maxOffheapFactsBytes >= 0, "maxOffheapFactsBytes must be >= 0");
   }
 
   @Override
@@ -252,6 +263,20 @@ public class RealtimeAppenderatorTuningConfig implements TuningConfig, Appendera
     return maxSavedParseExceptions;
   }
 
+  @Override
+  @JsonProperty
+  public boolean isOffheapFacts()
+  {
+    return offheapFacts;
+  }
+
+  @Override
+  @JsonProperty
+  public long getMaxOffheapFactsBytes()
+  {
+    return maxOffheapFactsBytes;
+  }
+
   public RealtimeAppenderatorTuningConfig withBasePersistDirectory(File dir)
   {
     return new RealtimeAppenderatorTuningConfig(
@@ -271,7 +296,9 @@ public class RealtimeAppenderatorTuningConfig implements TuningConfig, Appendera
         segmentWriteOutMediumFactory,
         logParseExceptions,
         maxParseExceptions,
-        maxSavedParseExceptions
+        maxSavedParseExceptions,
+        offheapFacts,
+        maxOffheapFactsBytes
     );
   }
 }
@@ -107,6 +107,8 @@ public class YeOldePlumberSchool implements PlumberSchool
         version,
         config.getMaxRowsInMemory(),
         TuningConfigs.getMaxBytesInMemoryOrDefault(config.getMaxBytesInMemory()),
+        config.isOffheapFacts(),
+        config.getMaxOffheapFactsBytes(),
         config.isReportParseExceptions(),
         config.getDedupColumn()
     );
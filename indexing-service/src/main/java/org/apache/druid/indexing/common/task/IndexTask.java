@@ -1259,6 +1259,8 @@ public class IndexTask extends AbstractTask implements ChatHandler
     private static final boolean DEFAULT_GUARANTEE_ROLLUP = false;
     private static final boolean DEFAULT_REPORT_PARSE_EXCEPTIONS = false;
     private static final long DEFAULT_PUSH_TIMEOUT = 0;
+    private static final boolean DEFAULT_OFFHEAP_FACTS = false;
+    private static final long DEFAULT_MAX_OFFHEAP_FACTS_BYTES = 0;
 
     @Nullable
     private final Integer maxRowsPerSegment;
@@ -1290,6 +1292,12 @@ public class IndexTask extends AbstractTask implements ChatHandler
     @Nullable
     private final SegmentWriteOutMediumFactory segmentWriteOutMediumFactory;
 
+    @Nullable
+    private final Integer maxMergeFanIn;
+
+    private final boolean offheapFacts;
+    private final long maxOffheapFactsBytes;
+
     public static IndexTuningConfig createDefault()
     {
       return new IndexTuningConfig();
@@ -1318,7 +1326,10 @@ public class IndexTask extends AbstractTask implements ChatHandler
             SegmentWriteOutMediumFactory segmentWriteOutMediumFactory,
         @JsonProperty("logParseExceptions") @Nullable Boolean logParseExceptions,
         @JsonProperty("maxParseExceptions") @Nullable Integer maxParseExceptions,
-        @JsonProperty("maxSavedParseExceptions") @Nullable Integer maxSavedParseExceptions
+        @JsonProperty("maxSavedParseExceptions") @Nullable Integer maxSavedParseExceptions,
+        @JsonProperty("maxMergeFanIn") @Nullable Integer maxMergeFanIn,
+        @JsonProperty("offheapFacts") @Nullable Boolean offheapFacts,
+        @JsonProperty("maxOffheapFactsBytes") @Nullable Long maxOffheapFactsBytes
     )
     {
       this(
@@ -1338,7 +1349,10 @@ public class IndexTask extends AbstractTask implements ChatHandler
           segmentWriteOutMediumFactory,
           logParseExceptions,
           maxParseExceptions,
-          maxSavedParseExceptions
+          maxSavedParseExceptions,
+          maxMergeFanIn,
+          offheapFacts,
+          maxOffheapFactsBytes
       );
 
       Preconditions.checkArgument(
@@ -1349,7 +1363,28 @@ public class IndexTask extends AbstractTask implements ChatHandler
 
     private IndexTuningConfig()
     {
-      this(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+      this(
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null,
+          null
+      );
     }
 
     private IndexTuningConfig(
@@ -1369,7 +1404,10 @@ public class IndexTask extends AbstractTask implements ChatHandler
         @Nullable SegmentWriteOutMediumFactory segmentWriteOutMediumFactory,
         @Nullable Boolean logParseExceptions,
         @Nullable Integer maxParseExceptions,
-        @Nullable Integer maxSavedParseExceptions
+        @Nullable Integer maxSavedParseExceptions,
+        @Nullable Integer maxMergeFanIn,
+        @Nullable Boolean offheapFacts,
+        @Nullable Long maxOffheapFactsBytes
     )
     {
       Preconditions.checkArgument(
@@ -1414,6 +1452,19 @@ public class IndexTask extends AbstractTask implements ChatHandler
       this.logParseExceptions = logParseExceptions == null
                                 ? TuningConfig.DEFAULT_LOG_PARSE_EXCEPTIONS
                                 : logParseExceptions;
+
+      Preconditions.checkArgument(
+          maxMergeFanIn == null || maxMergeFanIn > 1,
+          "maxMergeFanIn[%s] must be greater than 1",
+          maxMergeFanIn
+      );
+      this.maxMergeFanIn = maxMergeFanIn;
+
+      this.offheapFacts = offheapFacts == null ? DEFAULT_OFFHEAP_FACTS : offheapFacts;
+      this.maxOffheapFactsBytes = maxOffheapFactsBytes == null
+                                  ? DEFAULT_MAX_OFFHEAP_FACTS_BYTES
+                                  : maxOffheapFactsBytes;
+      Preconditions.checkArgument(this.maxOffheapFactsBytes >= 0, "maxOffheapFactsBytes must be >= 0");
     }
 
     public IndexTuningConfig withBasePersistDirectory(File dir)
@@ -1435,7 +1486,10 @@ public class IndexTask extends AbstractTask implements ChatHandler
           segmentWriteOutMediumFactory,
           logParseExceptions,
           maxParseExceptions,
-          maxSavedParseExceptions
+          maxSavedParseExceptions,
+          maxMergeFanIn,
+          offheapFacts,
+          maxOffheapFactsBytes
       );
     }
 
@@ -1458,7 +1512,10 @@ public class IndexTask extends AbstractTask implements ChatHandler
           segmentWriteOutMediumFactory,
           logParseExceptions,
           maxParseExceptions,
-          maxSavedParseExceptions
+          maxSavedParseExceptions,
+          maxMergeFanIn,
+          offheapFacts,
+          maxOffheapFactsBytes
       );
     }
 
@@ -1481,7 +1538,10 @@ public class IndexTask extends AbstractTask implements ChatHandler
           segmentWriteOutMediumFactory,
           logParseExceptions,
           maxParseExceptions,
-          maxSavedParseExceptions
+          maxSavedParseExceptions,
+          maxMergeFanIn,
+          offheapFacts,
+          maxOffheapFactsBytes
       );
     }
 
@@ -1623,6 +1683,28 @@ public class IndexTask extends AbstractTask implements ChatHandler
       return segmentWriteOutMediumFactory;
     }
 
+    @Nullable
+    @Override
+    @JsonProperty
+    public Integer getMaxMergeFanIn()
+    {
+      return maxMergeFanIn;
+    }
+
+    @Override
+    @JsonProperty
+    public boolean isOffheapFacts()
+    {
+      return offheapFacts;
+    }
+
+    @Override
+    @JsonProperty
+    public long getMaxOffheapFactsBytes()
+    {
+      return maxOffheapFactsBytes;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -1642,6 +1724,8 @@ public class IndexTask extends AbstractTask implements ChatHandler
              logParseExceptions == that.logParseExceptions &&
              maxParseExceptions == that.maxParseExceptions &&
              maxSavedParseExceptions == that.maxSavedParseExceptions &&
+             offheapFacts == that.offheapFacts &&
+             maxOffheapFactsBytes == that.maxOffheapFactsBytes &&
              Objects.equals(maxRowsPerSegment, that.maxRowsPerSegment) &&
              Objects.equals(maxTotalRows, that.maxTotalRows) &&
              Objects.equals(numShards, that.numShards) &&
@@ -1649,7 +1733,8 @@ public class IndexTask extends AbstractTask implements ChatHandler
              Objects.equals(indexSpec, that.indexSpec) &&
              Objects.equals(indexSpecForIntermediatePersists, that.indexSpecForIntermediatePersists) &&
              Objects.equals(basePersistDirectory, that.basePersistDirectory) &&
-             Objects.equals(segmentWriteOutMediumFactory, that.segmentWriteOutMediumFactory);
+             Objects.equals(segmentWriteOutMediumFactory, that.segmentWriteOutMediumFactory) &&
+             Objects.equals(maxMergeFanIn, that.maxMergeFanIn);
     }
 
     @Override
@@ -1672,7 +1757,10 @@ public class IndexTask extends AbstractTask implements ChatHandler
           logParseExceptions,
           maxParseExceptions,
           maxSavedParseExceptions,
-          segmentWriteOutMediumFactory
+          segmentWriteOutMediumFactory,
+          maxMergeFanIn,
+          offheapFacts,
+          maxOffheapFactsBytes
       );
     }
 
@@ -1697,6 +1785,9 @@ public class IndexTask extends AbstractTask implements ChatHandler
              ", maxParseExceptions=" + maxParseExceptions +
              ", maxSavedParseExceptions=" + maxSavedParseExceptions +
              ", segmentWriteOutMediumFactory=" + segmentWriteOutMediumFactory +
+             ", maxMergeFanIn=" + maxMergeFanIn +
+             ", offheapFacts=" + offheapFacts +
+             ", maxOffheapFactsBytes=" + maxOffheapFactsBytes +
              '}';
     }
   }
@@ -343,7 +343,10 @@ public class ParallelIndexSupervisorTask extends AbstractTask implements ChatHan
         tuningConfig.getSegmentWriteOutMediumFactory(),
         tuningConfig.isLogParseExceptions(),
         tuningConfig.getMaxParseExceptions(),
-        tuningConfig.getMaxSavedParseExceptions()
+        tuningConfig.getMaxSavedParseExceptions(),
+        tuningConfig.getMaxMergeFanIn(),
+        tuningConfig.isOffheapFacts(),
+        tuningConfig.getMaxOffheapFactsBytes()
     );
   }
 
@@ -72,6 +72,9 @@ public class ParallelIndexTuningConfig extends IndexTuningConfig
         null,
         null,
         null,
+        null,
+        null,
+        null,
         null
     );
   }
@@ -98,7 +101,10 @@ public class ParallelIndexTuningConfig extends IndexTuningConfig
       @JsonProperty("chatHandlerNumRetries") @Nullable Integer chatHandlerNumRetries,
       @JsonProperty("logParseExceptions") @Nullable Boolean logParseExceptions,
       @JsonProperty("maxParseExceptions") @Nullable Integer maxParseExceptions,
-      @JsonProperty("maxSavedParseExceptions") @Nullable Integer maxSavedParseExceptions
+      @JsonProperty("maxSavedParseExceptions") @Nullable Integer maxSavedParseExceptions,
+      @JsonProperty("maxMergeFanIn") @Nullable Integer maxMergeFanIn,
+      @JsonProperty("offheapFacts") @Nullable Boolean offheapFacts,
+      @JsonProperty("maxOffheapFactsBytes") @Nullable Long maxOffheapFactsBytes
   )
   {
     super(
@@ -121,7 +127,10 @@ public class ParallelIndexTuningConfig extends IndexTuningConfig
         segmentWriteOutMediumFactory,
         logParseExceptions,
         maxParseExceptions,
-        maxSavedParseExceptions
+        maxSavedParseExceptions,
+        maxMergeFanIn,
+        offheapFacts,
+        maxOffheapFactsBytes
     );
 
     this.maxNumSubTasks = maxNumSubTasks == null ? DEFAULT_MAX_NUM_BATCH_TASKS : maxNumSubTasks;
@@ -63,7 +63,6 @@ import org.apache.druid.indexing.seekablestream.supervisor.SeekableStreamSupervi
 import org.apache.druid.java.util.common.DateTimes;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.StringUtils;
-import org.apache.druid.java.util.common.collect.Utils;
 import org.apache.druid.java.util.common.parsers.ParseException;
 import org.apache.druid.java.util.emitter.EmittingLogger;
 import org.apache.druid.segment.indexing.RealtimeIOConfig;
@@ -102,6 +101,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -142,6 +142,13 @@ public abstract class SeekableStreamIndexTaskRunner<PartitionIdType, SequenceOff
   static final String METADATA_NEXT_PARTITIONS = "nextPartitions";
   static final String METADATA_PUBLISH_PARTITIONS = "publishPartitions";
 
+  /**
+   * Task context key for the number of threads parsing the polled records, see {@link StreamRecordParser}. Rows are
+   * still added to the appenderator in the stream order on the task runner thread. Defaults to 1, i. e. parsing on
+   * the task runner thread.
+   */
+  public static final String CTX_KEY_NUM_PARSE_THREADS = "numParseThreads";
+
   private final Map<PartitionIdType, SequenceOffsetType> endOffsets;
 
   // lastReadOffsets are the last offsets that were read and processed.
@@ -256,6 +263,17 @@ public abstract class SeekableStreamIndexTaskRunner<PartitionIdType, SequenceOff
     }
   }
 
+  private int getNumParseThreads()
+  {
+    final Object numParseThreads = task.getContextValue(CTX_KEY_NUM_PARSE_THREADS);
+    if (numParseThreads == null) {
+      return 1;
+    }
+    return numParseThreads instanceof Number
+           ? ((Number) numParseThreads).intValue()
+           : Integer.parseInt(numParseThreads.toString());
+  }
+
   private Set<PartitionIdType> computeExclusiveStartPartitionsForSequence(
       Map<PartitionIdType, SequenceOffsetType> sequenceStartOffsets
   )
@@ -375,7 +393,10 @@ public abstract class SeekableStreamIndexTaskRunner<PartitionIdType, SequenceOff
     );
 
     Throwable caughtExceptionOuter = null;
-    try (final RecordSupplier<PartitionIdType, SequenceOffsetType> recordSupplier = task.newTaskRecordSupplier()) {
+    try (
+        final RecordSupplier<PartitionIdType, SequenceOffsetType> recordSupplier = task.newTaskRecordSupplier();
+        final StreamRecordParser recordParser = new StreamRecordParser(parser, getNumParseThreads())
+    ) {
       toolbox.getDataSegmentServerAnnouncer().announce();
       toolbox.getDruidNodeAnnouncer().announce(discoveryDruidNode);
 
@@ -538,6 +559,22 @@ public abstract class SeekableStreamIndexTaskRunner<PartitionIdType, SequenceOff
           // note: getRecords() also updates assignment
           stillReading = !assignment.isEmpty();
 
+          // Only records in the range of the task are parsed. The loop below checks the range again, since reading a
+          // record moves the offsets the check is based on, which can only take later records out of the range.
+          final List<OrderedPartitionableRecord<PartitionIdType, SequenceOffsetType>> recordsToParse =
+              new ArrayList<>(records.size());
+          for (OrderedPartitionableRecord<PartitionIdType, SequenceOffsetType> record : records) {
+            if (verifyRecordInRange(record.getPartitionId(), record.getSequenceNumber())) {
+              recordsToParse.add(record);
+            }
+          }
+          final List<StreamRecordParser.ParsedRecord> parsedRecordsList = recordParser.parse(recordsToParse);
+          final Map<OrderedPartitionableRecord<PartitionIdType, SequenceOffsetType>, StreamRecordParser.ParsedRecord>
+              parsedRecords = new IdentityHashMap<>();
+          for (int i = 0; i < recordsToParse.size(); i++) {
+            parsedRecords.put(recordsToParse.get(i), parsedRecordsList.get(i));
+          }
+
           SequenceMetadata<PartitionIdType, SequenceOffsetType> sequenceToCheckpoint = null;
           for (OrderedPartitionableRecord<PartitionIdType, SequenceOffsetType> record : records) {
             final boolean shouldProcess = verifyRecordInRange(record.getPartitionId(), record.getSequenceNumber());
@@ -552,16 +589,7 @@ public abstract class SeekableStreamIndexTaskRunner<PartitionIdType, SequenceOff
 
             if (shouldProcess) {
               try {
-                final List<byte[]> valueBytess = record.getData();
-                final List<InputRow> rows;
-                if (valueBytess == null || valueBytess.isEmpty()) {
-                  rows = Utils.nullableListOf((InputRow) null);
-                } else {
-                  rows = new ArrayList<>();
-                  for (byte[] valueBytes : valueBytess) {
-                    rows.addAll(parser.parseBatch(ByteBuffer.wrap(valueBytes)));
-                  }
-                }
+                final List<InputRow> rows = parsedRecords.get(record).getRows();
                 boolean isPersistRequired = false;
 
                 final SequenceMetadata<PartitionIdType, SequenceOffsetType> sequenceToUse = sequences
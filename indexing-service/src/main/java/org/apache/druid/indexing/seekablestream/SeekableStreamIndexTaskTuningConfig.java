@@ -20,6 +20,7 @@
 package org.apache.druid.indexing.seekablestream;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
 import org.apache.druid.segment.IndexSpec;
 import org.apache.druid.segment.indexing.RealtimeTuningConfig;
 import org.apache.druid.segment.indexing.TuningConfig;
@@ -36,6 +37,7 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
   private static final int DEFAULT_MAX_ROWS_PER_SEGMENT = 5_000_000;
   private static final boolean DEFAULT_RESET_OFFSET_AUTOMATICALLY = false;
   private static final boolean DEFAULT_SKIP_SEQUENCE_NUMBER_AVAILABILITY_CHECK = false;
+  private static final int DEFAULT_NUM_PUSH_THREADS = 1;
 
   private final int maxRowsInMemory;
   private final long maxBytesInMemory;
@@ -59,6 +61,7 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
   private final boolean logParseExceptions;
   private final int maxParseExceptions;
   private final int maxSavedParseExceptions;
+  private final int numPushThreads;
 
   public SeekableStreamIndexTaskTuningConfig(
       @Nullable Integer maxRowsInMemory,
@@ -80,7 +83,8 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
       @Nullable Period intermediateHandoffPeriod,
       @Nullable Boolean logParseExceptions,
       @Nullable Integer maxParseExceptions,
-      @Nullable Integer maxSavedParseExceptions
+      @Nullable Integer maxSavedParseExceptions,
+      @Nullable Integer numPushThreads
   )
   {
     // Cannot be a static because default basePersistDirectory is unique per-instance
@@ -131,6 +135,8 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
     this.logParseExceptions = logParseExceptions == null
                               ? TuningConfig.DEFAULT_LOG_PARSE_EXCEPTIONS
                               : logParseExceptions;
+    this.numPushThreads = numPushThreads == null ? DEFAULT_NUM_PUSH_THREADS : numPushThreads;
+    Preconditions.checkArgument(this.numPushThreads > 0, "numPushThreads must be positive");
   }
 
   @Override
@@ -265,6 +271,13 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
     return skipSequenceNumberAvailabilityCheck;
   }
 
+  @Override
+  @JsonProperty
+  public int getNumPushThreads()
+  {
+    return numPushThreads;
+  }
+
   public abstract SeekableStreamIndexTaskTuningConfig withBasePersistDirectory(File dir);
 
   @Override
@@ -288,6 +301,7 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
            logParseExceptions == that.logParseExceptions &&
            maxParseExceptions == that.maxParseExceptions &&
            maxSavedParseExceptions == that.maxSavedParseExceptions &&
+           numPushThreads == that.numPushThreads &&
            Objects.equals(maxTotalRows, that.maxTotalRows) &&
            Objects.equals(intermediatePersistPeriod, that.intermediatePersistPeriod) &&
            Objects.equals(basePersistDirectory, that.basePersistDirectory) &&
@@ -318,7 +332,8 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
         skipSequenceNumberAvailabilityCheck,
         logParseExceptions,
         maxParseExceptions,
-        maxSavedParseExceptions
+        maxSavedParseExceptions,
+        numPushThreads
     );
   }
 
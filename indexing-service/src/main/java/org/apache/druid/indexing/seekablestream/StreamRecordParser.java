@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.indexing.seekablestream;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.data.input.impl.InputRowParser;
+import org.apache.druid.indexing.seekablestream.common.OrderedPartitionableRecord;
+import org.apache.druid.java.util.common.collect.Utils;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.common.parsers.ParseException;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Parses the records returned by a single {@link
+ * org.apache.druid.indexing.seekablestream.common.RecordSupplier#poll} call that are in the range of the task,
+ * optionally splitting them into contiguous chunks parsed by several threads. The results are returned in the order
+ * of the records, so the caller can keep adding rows and advancing offsets in the stream order on a single thread.
+ * Exceptions thrown while parsing a record are not thrown by {@link #parse}, but by {@link ParsedRecord#getRows()} of
+ * that record, i. e. at the same point of the record processing as when parsing on the caller thread.
+ *
+ * {@link InputRowParser} implementations are generally not thread-safe, so each chunk is parsed with its own copy of
+ * the parser made via {@link InputRowParser#withParseSpec}.
+ */
+class StreamRecordParser implements Closeable
+{
+  /**
+   * Polls smaller than this are not worth the hand-off to parsing threads.
+   */
+  private static final int MIN_RECORDS_PER_CHUNK = 64;
+
+  private final List<InputRowParser<ByteBuffer>> parsers;
+  @Nullable
+  private final ListeningExecutorService exec;
+
+  @SuppressWarnings("unchecked")
+  StreamRecordParser(InputRowParser<ByteBuffer> parser, int numThreads)
+  {
+    Preconditions.checkArgument(numThreads > 0, "numThreads[%s] should be positive", numThreads);
+    this.parsers = new ArrayList<>(numThreads);
+    this.parsers.add(parser);
+    for (int i = 1; i < numThreads; i++) {
+      parsers.add(parser.withParseSpec(parser.getParseSpec()));
+    }
+    this.exec = numThreads > 1
+                ? MoreExecutors.listeningDecorator(Execs.multiThreaded(numThreads, "StreamRecordParser-%d"))
+                : null;
+  }
+
+  List<ParsedRecord> parse(List<? extends OrderedPartitionableRecord<?, ?>> records) throws InterruptedException
+  {
+    final ParsedRecord[] parsedRecords = new ParsedRecord[records.size()];
+    final int numChunks = Math.min(parsers.size(), records.size() / MIN_RECORDS_PER_CHUNK);
+    if (exec == null || numChunks <= 1) {
+      parseChunk(parsers.get(0), records, parsedRecords, 0, records.size());
+      return Arrays.asList(parsedRecords);
+    }
+
+    final List<ListenableFuture<?>> futures = new ArrayList<>(numChunks);
+    for (int chunk = 0; chunk < numChunks; chunk++) {
+      final InputRowParser<ByteBuffer> chunkParser = parsers.get(chunk);
+      final int start = (int) ((long) records.size() * chunk / numChunks);
+      final int end = (int) ((long) records.size() * (chunk + 1) / numChunks);
+      futures.add(exec.submit(() -> parseChunk(chunkParser, records, parsedRecords, start, end)));
+    }
+    try {
+      Futures.allAsList(futures).get();
+    }
+    catch (ExecutionException e) {
+      // parseChunk() catches exceptions per record, so this is unexpected.
+      throw Throwables.propagate(e.getCause());
+    }
+    catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw e;
+    }
+    // Futures.allAsList().get() establishes happens-before between the writes to parsedRecords and the reads below.
+    return Arrays.asList(parsedRecords);
+  }
+
+  private static void parseChunk(
+      InputRowParser<ByteBuffer> parser,
+      List<? extends OrderedPartitionableRecord<?, ?>> records,
+      ParsedRecord[] parsedRecords,
+      int start,
+      int end
+  )
+  {
+    for (int i = start; i < end; i++) {
+      parsedRecords[i] = parseRecord(parser, records.get(i));
+    }
+  }
+
+  private static ParsedRecord parseRecord(InputRowParser<ByteBuffer> parser, OrderedPartitionableRecord<?, ?> record)
+  {
+    try {
+      final List<byte[]> valueBytess = record.getData();
+      final List<InputRow> rows;
+      if (valueBytess == null || valueBytess.isEmpty()) {
+        rows = Utils.nullableListOf((InputRow) null);
+      } else {
+        rows = new ArrayList<>();
+        for (byte[] valueBytes : valueBytess) {
+          rows.addAll(parser.parseBatch(ByteBuffer.wrap(valueBytes)));
+        }
+      }
+      return new ParsedRecord(rows, null);
+    }
+    catch (RuntimeException e) {
+      return new ParsedRecord(null, e);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    if (exec != null) {
+      exec.shutdownNow();
+    }
+  }
+
+  static class ParsedRecord
+  {
+    @Nullable
+    private final List<InputRow> rows;
+    @Nullable
+    private final RuntimeException exception;
+
+    private ParsedRecord(@Nullable List<InputRow> rows, @Nullable RuntimeException exception)
+    {
+      this.rows = rows;
+      this.exception = exception;
+    }
+
+    /**
+     * Returns the rows parsed from the record, or rethrows the exception thrown while parsing it, e. g. {@link
+     * ParseException}.
+     */
+    List<InputRow> getRows()
+    {
+      if (exception != null) {
+        throw exception;
+      }
+      return rows;
+    }
+  }
+}
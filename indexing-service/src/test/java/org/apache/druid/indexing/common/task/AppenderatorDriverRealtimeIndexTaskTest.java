@@ -1423,7 +1423,9 @@ public class AppenderatorDriverRealtimeIndexTaskTest
         null,
         logParseExceptions,
         maxParseExceptions,
-        maxSavedParseExceptions
+        maxSavedParseExceptions,
+        null,
+        null
     );
     return new AppenderatorDriverRealtimeIndexTask(
         taskId,
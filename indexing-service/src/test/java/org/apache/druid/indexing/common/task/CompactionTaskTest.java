@@ -24,6 +24,8 @@ import com.fasterxml.jackson.databind.introspect.AnnotationIntrospectorPair;
 import com.fasterxml.jackson.databind.jsontype.NamedType;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
@@ -86,8 +88,10 @@ import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnCapabilitiesImpl;
 import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.NumericBitmapIndex;
 import org.apache.druid.segment.column.SpatialIndex;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.column.ZoneMapIndex;
 import org.apache.druid.segment.data.CompressionFactory.LongEncodingStrategy;
 import org.apache.druid.segment.data.CompressionStrategy;
 import org.apache.druid.segment.data.ListIndexed;
@@ -298,6 +302,9 @@ public class CompactionTaskTest
         null,
         null,
         null,
+        null,
+        null,
+        null,
         null
     );
   }
@@ -473,6 +480,9 @@ public class CompactionTaskTest
         null,
         null,
         null,
+        null,
+        null,
+        null,
         null
     );
     final List<IndexIngestionSpec> ingestionSpecs = CompactionTask.createIngestionSchema(
@@ -534,6 +544,9 @@ public class CompactionTaskTest
         null,
         null,
         null,
+        null,
+        null,
+        null,
         null
     );
     final List<IndexIngestionSpec> ingestionSpecs = CompactionTask.createIngestionSchema(
@@ -595,6 +608,9 @@ public class CompactionTaskTest
         null,
         null,
         null,
+        null,
+        null,
+        null,
         null
     );
     final List<IndexIngestionSpec> ingestionSpecs = CompactionTask.createIngestionSchema(
@@ -860,6 +876,9 @@ public class CompactionTaskTest
         null,
         null,
         null,
+        null,
+        null,
+        null,
         null
     );
     expectedException.expect(IllegalArgumentException.class);
@@ -1049,6 +1068,9 @@ public class CompactionTaskTest
             null,
             null,
             null,
+            null,
+            null,
+            null,
             null
         ),
         expectedSegmentGranularity
@@ -1231,20 +1253,20 @@ public class CompactionTaskTest
         columnNames.add(ColumnHolder.TIME_COLUMN_NAME);
         columnNames.addAll(segment.getDimensions());
         columnNames.addAll(segment.getMetrics());
-        final Map<String, ColumnHolder> columnMap = new HashMap<>(columnNames.size());
+        final Map<String, Supplier<ColumnHolder>> columnMap = new HashMap<>(columnNames.size());
         final List<AggregatorFactory> aggregatorFactories = new ArrayList<>(segment.getMetrics().size());
 
         for (String columnName : columnNames) {
           if (MIXED_TYPE_COLUMN.equals(columnName)) {
-            columnMap.put(columnName, createColumn(MIXED_TYPE_COLUMN_MAP.get(segment.getInterval())));
+            columnMap.put(columnName, Suppliers.ofInstance(createColumn(MIXED_TYPE_COLUMN_MAP.get(segment.getInterval()))));
           } else if (DIMENSIONS.containsKey(columnName)) {
-            columnMap.put(columnName, createColumn(DIMENSIONS.get(columnName)));
+            columnMap.put(columnName, Suppliers.ofInstance(createColumn(DIMENSIONS.get(columnName))));
           } else {
             final Optional<AggregatorFactory> maybeMetric = AGGREGATORS.stream()
                                                                        .filter(agg -> agg.getName().equals(columnName))
                                                                        .findAny();
             if (maybeMetric.isPresent()) {
-              columnMap.put(columnName, createColumn(maybeMetric.get()));
+              columnMap.put(columnName, Suppliers.ofInstance(createColumn(maybeMetric.get())));
               aggregatorFactories.add(maybeMetric.get());
             }
           }
@@ -1363,5 +1385,17 @@ public class CompactionTaskTest
     {
       return null;
     }
+
+    @Override
+    public ZoneMapIndex getZoneMapIndex()
+    {
+      return null;
+    }
+
+    @Override
+    public NumericBitmapIndex getNumericBitmapIndex()
+    {
+      return null;
+    }
   }
 }
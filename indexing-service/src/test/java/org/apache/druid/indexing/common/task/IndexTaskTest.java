@@ -68,12 +68,14 @@ import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
 import org.apache.druid.query.dimension.DefaultDimensionSpec;
 import org.apache.druid.query.filter.SelectorDimFilter;
+import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.Cursor;
 import org.apache.druid.segment.DimensionSelector;
 import org.apache.druid.segment.IndexIO;
 import org.apache.druid.segment.IndexMergerV9;
 import org.apache.druid.segment.IndexSpec;
 import org.apache.druid.segment.QueryableIndexStorageAdapter;
+import org.apache.druid.segment.StorageAdapter;
 import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.indexing.DataSchema;
 import org.apache.druid.segment.indexing.granularity.ArbitraryGranularitySpec;
@@ -844,6 +846,94 @@ public class IndexTaskTest
     }
   }
 
+  @Test
+  public void testOffheapFacts() throws Exception
+  {
+    File tmpDir = temporaryFolder.newFolder();
+    File tmpFile = File.createTempFile("druid", "index", tmpDir);
+
+    try (BufferedWriter writer = Files.newWriter(tmpFile, StandardCharsets.UTF_8)) {
+      writer.write("2014-01-01T00:00:10Z,a,1\n");
+      writer.write("2014-01-01T00:00:10Z,b,2\n");
+      writer.write("2014-01-01T00:00:10Z,a,3\n");
+      writer.write("2014-01-01T00:00:10Z,b,4\n");
+      writer.write("2014-01-01T00:00:10Z,a,5\n");
+    }
+
+    // The smallest off-heap limit persists after every new row, so rows are only rolled up by the merge
+    final IndexTask.IndexTuningConfig tuningConfig = new IndexTask.IndexTuningConfig(
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        indexSpec,
+        null,
+        null,
+        true,
+        false,
+        true,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        true,
+        1L
+    );
+
+    IndexTask indexTask = new IndexTask(
+        null,
+        null,
+        createIngestionSpec(tmpDir, null, null, tuningConfig, false),
+        null,
+        AuthTestUtils.TEST_AUTHORIZER_MAPPER,
+        null,
+        rowIngestionMetersFactory
+    );
+
+    final List<DataSegment> segments = runTask(indexTask).rhs;
+
+    Assert.assertEquals(1, segments.size());
+
+    final DataSegment segment = segments.get(0);
+    final StorageAdapter adapter = new QueryableIndexStorageAdapter(
+        indexIO.loadIndex(segmentLoader.getSegmentFiles(segment))
+    );
+    final Sequence<Cursor> cursorSequence = adapter.makeCursors(
+        null,
+        segment.getInterval(),
+        VirtualColumns.EMPTY,
+        Granularities.ALL,
+        false,
+        null
+    );
+    final List<Map<String, Object>> rows = cursorSequence
+        .map(cursor -> {
+          final DimensionSelector selector = cursor.getColumnSelectorFactory()
+                                                   .makeDimensionSelector(new DefaultDimensionSpec("dim", "dim"));
+          final ColumnValueSelector<?> valSelector = cursor.getColumnSelectorFactory().makeColumnValueSelector("val");
+          final List<Map<String, Object>> cursorRows = new ArrayList<>();
+          while (!cursor.isDone()) {
+            cursorRows.add(ImmutableMap.of("dim", selector.getObject(), "val", valSelector.getLong()));
+            cursor.advance();
+          }
+          return cursorRows;
+        })
+        .toList()
+        .get(0);
+
+    Assert.assertEquals(
+        ImmutableList.of(ImmutableMap.of("dim", "a", "val", 9L), ImmutableMap.of("dim", "b", "val", 6L)),
+        rows
+    );
+  }
+
   private static void populateRollupTestData(File tmpFile) throws IOException
   {
     try (BufferedWriter writer = Files.newWriter(tmpFile, StandardCharsets.UTF_8)) {
@@ -1013,7 +1103,10 @@ public class IndexTaskTest
         null,
         true,
         7,
-        7
+        7,
+        null,
+        null,
+        null
     );
 
     final IndexIngestionSpec parseExceptionIgnoreSpec = createIngestionSpec(
@@ -1136,7 +1229,10 @@ public class IndexTaskTest
         null,
         true,
         2,
-        5
+        5,
+        null,
+        null,
+        null
     );
 
     final IndexIngestionSpec parseExceptionIgnoreSpec = createIngestionSpec(
@@ -1252,7 +1348,10 @@ public class IndexTaskTest
         null,
         true,
         2,
-        5
+        5,
+        null,
+        null,
+        null
     );
 
     final IndexIngestionSpec parseExceptionIgnoreSpec = createIngestionSpec(
@@ -1718,7 +1817,10 @@ public class IndexTaskTest
         null,
         null,
         null,
-        1
+        1,
+        null,
+        null,
+        null
     );
   }
 
@@ -843,6 +843,8 @@ public class RealtimeIndexTaskTest
         handoffTimeout,
         null,
         null,
+        null,
+        null,
         null
     );
     return new RealtimeIndexTask(
@@ -212,6 +212,9 @@ public class TaskSerdeTest
                 null,
                 null,
                 null,
+                null,
+                null,
+                null,
                 null
             )
         ),
@@ -295,6 +298,9 @@ public class TaskSerdeTest
                 null,
                 null,
                 null,
+                null,
+                null,
+                null,
                 null
             )
         ),
@@ -402,6 +408,8 @@ public class TaskSerdeTest
                 null,
                 null,
                 null,
+                null,
+                null,
                 null
             )
         ),
@@ -196,6 +196,9 @@ public class ParallelIndexSupervisorTaskKillTest extends AbstractParallelIndexSu
             null,
             null,
             null,
+            null,
+            null,
+            null,
             null
         )
     );
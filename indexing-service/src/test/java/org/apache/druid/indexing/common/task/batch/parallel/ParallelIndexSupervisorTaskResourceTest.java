@@ -438,6 +438,9 @@ public class ParallelIndexSupervisorTaskResourceTest extends AbstractParallelInd
             null,
             null,
             null,
+            null,
+            null,
+            null,
             null
         )
     );
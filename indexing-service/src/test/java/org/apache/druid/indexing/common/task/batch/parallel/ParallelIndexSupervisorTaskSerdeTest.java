@@ -146,6 +146,9 @@ public class ParallelIndexSupervisorTaskSerdeTest
             null,
             null,
             null,
+            null,
+            null,
+            null,
             null
         )
     );
@@ -258,6 +258,9 @@ public class ParallelIndexSupervisorTaskTest extends AbstractParallelIndexSuperv
             null,
             null,
             null,
+            null,
+            null,
+            null,
             null
         )
     );
@@ -299,6 +302,9 @@ public class ParallelIndexSupervisorTaskTest extends AbstractParallelIndexSuperv
             null,
             null,
             null,
+            null,
+            null,
+            null,
             null
         )
     );
@@ -84,6 +84,9 @@ public class ParallelIndexTuningConfigTest
         128,
         false,
         null,
+        null,
+        null,
+        null,
         null
     );
     final byte[] json = mapper.writeValueAsBytes(tuningConfig);
@@ -700,6 +700,9 @@ public class TaskLifecycleTest
                 null,
                 null,
                 null,
+                null,
+                null,
+                null,
                 null
             )
         ),
@@ -782,6 +785,9 @@ public class TaskLifecycleTest
                 null,
                 null,
                 null,
+                null,
+                null,
+                null,
                 null
             )
         ),
@@ -1171,6 +1177,9 @@ public class TaskLifecycleTest
                 null,
                 null,
                 null,
+                null,
+                null,
+                null,
                 null
             )
         ),
@@ -1300,6 +1309,8 @@ public class TaskLifecycleTest
         null,
         null,
         null,
+        null,
+        null,
         null
     );
     FireDepartment fireDepartment = new FireDepartment(dataSchema, realtimeIOConfig, realtimeTuningConfig);
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.indexing.seekablestream;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.data.input.impl.DimensionsSpec;
+import org.apache.druid.data.input.impl.JSONParseSpec;
+import org.apache.druid.data.input.impl.StringInputRowParser;
+import org.apache.druid.data.input.impl.TimestampSpec;
+import org.apache.druid.indexing.seekablestream.common.OrderedPartitionableRecord;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.parsers.ParseException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StreamRecordParserTest
+{
+  private static final int NUM_RECORDS = 1000;
+
+  private final StringInputRowParser parser = new StringInputRowParser(
+      new JSONParseSpec(
+          new TimestampSpec("time", "millis", null),
+          new DimensionsSpec(DimensionsSpec.getDefaultSchemas(ImmutableList.of("dim")), null, null),
+          null,
+          null
+      ),
+      null
+  );
+
+  @Test
+  public void testParseSingleThread() throws InterruptedException
+  {
+    try (StreamRecordParser recordParser = new StreamRecordParser(parser, 1)) {
+      assertParsed(recordParser.parse(makeRecords()));
+    }
+  }
+
+  @Test
+  public void testParseMultipleThreads() throws InterruptedException
+  {
+    try (StreamRecordParser recordParser = new StreamRecordParser(parser, 4)) {
+      // Parse several polls with the same StreamRecordParser, as the task runner does
+      for (int i = 0; i < 3; i++) {
+        assertParsed(recordParser.parse(makeRecords()));
+      }
+      Assert.assertTrue(recordParser.parse(ImmutableList.of()).isEmpty());
+    }
+  }
+
+  private static List<OrderedPartitionableRecord<Integer, Long>> makeRecords()
+  {
+    final List<OrderedPartitionableRecord<Integer, Long>> records = new ArrayList<>();
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      final List<byte[]> data;
+      if (i % 100 == 0) {
+        data = null;
+      } else if (i % 100 == 1) {
+        data = ImmutableList.of(StringUtils.toUtf8("unparseable"));
+      } else {
+        data = ImmutableList.of(StringUtils.toUtf8(StringUtils.format("{\"time\": %d, \"dim\": \"v%d\"}", i, i)));
+      }
+      records.add(new OrderedPartitionableRecord<>("stream", i % 3, (long) i, data));
+    }
+    return records;
+  }
+
+  private static void assertParsed(List<StreamRecordParser.ParsedRecord> parsedRecords)
+  {
+    Assert.assertEquals(NUM_RECORDS, parsedRecords.size());
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      final StreamRecordParser.ParsedRecord parsedRecord = parsedRecords.get(i);
+      if (i % 100 == 0) {
+        Assert.assertEquals(1, parsedRecord.getRows().size());
+        Assert.assertNull(parsedRecord.getRows().get(0));
+      } else if (i % 100 == 1) {
+        try {
+          parsedRecord.getRows();
+          Assert.fail("Expected ParseException for record " + i);
+        }
+        catch (ParseException e) {
+          // expected
+        }
+      } else {
+        final List<InputRow> rows = parsedRecord.getRows();
+        Assert.assertEquals(1, rows.size());
+        Assert.assertEquals(i, rows.get(0).getTimestampFromEpoch());
+        Assert.assertEquals(ImmutableList.of("v" + i), rows.get(0).getDimension("dim"));
+      }
+    }
+  }
+}
@@ -23,7 +23,9 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.base.Function;
 import org.apache.druid.guice.annotations.ExtensionPoint;
 import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.joda.time.DateTime;
 
+import javax.annotation.Nullable;
 import java.util.Iterator;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiFunction;
@@ -102,6 +104,21 @@ public interface CacheStrategy<T, CacheType, QueryType extends Query<T>>
     return pullFromCache(false);
   }
 
+  /**
+   * Returns a function extracting the timestamp of a result if the segment-level results of the given query can be
+   * computed and cached separately for each bucket of the query granularity, and concatenated afterwards. That holds
+   * if every result belongs to the granularity bucket of its timestamp and depends only on the rows of that bucket.
+   *
+   * @param query the query to be cached
+   *
+   * @return a function returning the timestamp of a result, or null if results can only be cached per segment
+   */
+  @Nullable
+  default Function<T, DateTime> getGranularityBucketTimestampFn(QueryType query)
+  {
+    return null;
+  }
+
   /**
    * Helper function used by TopN, GroupBy, Timeseries queries in {@link #pullFromCache(boolean)}.
    * When using the result level cache, the agg values seen here are
@@ -303,6 +303,42 @@ public class DefaultQueryMetrics<QueryType extends Query<?>> implements QueryMet
     return this;
   }
 
+  @Override
+  public QueryMetrics<QueryType> reportParallelMergeParallelism(int parallelism)
+  {
+    return reportMetric("query/merge/parallelism", parallelism);
+  }
+
+  @Override
+  public QueryMetrics<QueryType> reportParallelMergeInputSequences(long numSequences)
+  {
+    return reportMetric("query/merge/sequences", numSequences);
+  }
+
+  @Override
+  public QueryMetrics<QueryType> reportParallelMergeInputRows(long numRows)
+  {
+    return reportMetric("query/merge/inputRows", numRows);
+  }
+
+  @Override
+  public QueryMetrics<QueryType> reportParallelMergeOutputRows(long numRows)
+  {
+    return reportMetric("query/merge/outputRows", numRows);
+  }
+
+  @Override
+  public QueryMetrics<QueryType> reportParallelMergeTaskCount(long numTasks)
+  {
+    return reportMetric("query/merge/tasks", numTasks);
+  }
+
+  @Override
+  public QueryMetrics<QueryType> reportParallelMergeTotalTime(long timeNs)
+  {
+    return reportMillisTimeMetric("query/merge/time", timeNs);
+  }
+
   @Override
   public void emit(ServiceEmitter emitter)
   {
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query;
+
+/**
+ * Read-only view of how busy a processing pool is, see {@link PrioritizedExecutorService}.
+ */
+public interface ExecutorLoadStats
+{
+  /** Number of tasks waiting for a thread. */
+  int getQueueSize();
+
+  /** Number of threads currently running a task. */
+  int getActiveCount();
+
+  int getNumThreads();
+
+  /** Moving average of the run time of recent tasks of the pool, across all queries. */
+  long getRecentTaskTimeNanos();
+}
@@ -25,6 +25,7 @@ import com.google.common.util.concurrent.ListeningExecutorService;
 import org.apache.druid.java.util.emitter.service.ServiceEmitter;
 import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
 
+import javax.annotation.Nullable;
 import java.util.concurrent.Callable;
 
 public class MetricsEmittingExecutorService extends ForwardingListeningExecutorService
@@ -48,6 +49,15 @@ public class MetricsEmittingExecutorService extends ForwardingListeningExecutorS
     return delegate;
   }
 
+  /**
+   * Returns how busy the wrapped pool is, or null if it doesn't track that.
+   */
+  @Nullable
+  public ExecutorLoadStats getLoadStats()
+  {
+    return delegate instanceof ExecutorLoadStats ? (ExecutorLoadStats) delegate : null;
+  }
+
   @SuppressWarnings("ParameterPackage")
   @Override
   public <T> ListenableFuture<T> submit(Callable<T> tCallable)
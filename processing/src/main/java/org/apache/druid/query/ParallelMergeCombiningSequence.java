@@ -0,0 +1,523 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Ordering;
+import org.apache.druid.common.guava.CombiningSequence;
+import org.apache.druid.java.util.common.RE;
+import org.apache.druid.java.util.common.guava.BaseSequence;
+import org.apache.druid.java.util.common.guava.CloseQuietly;
+import org.apache.druid.java.util.common.guava.LazySequence;
+import org.apache.druid.java.util.common.guava.MergeSequence;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.java.util.common.guava.Yielder;
+import org.apache.druid.java.util.common.guava.Yielders;
+import org.apache.druid.java.util.common.guava.YieldingAccumulator;
+import org.apache.druid.java.util.common.guava.YieldingSequenceBase;
+import org.apache.druid.java.util.common.guava.nary.BinaryFn;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Merges and combines a set of ordered {@link Sequence}s, like {@link CombiningSequence} over a {@link MergeSequence}
+ * would, but does the bulk of the work in parallel on a {@link ForkJoinPool}.
+ *
+ * The input sequences are split into partitions. Each partition is merged and combined by a chain of
+ * {@link RecursiveAction}s, which hand batches of results to the consumer through a bounded blocking queue. The final
+ * layer of the merge, which merges and combines the outputs of all partitions, runs on the thread consuming this
+ * sequence.
+ *
+ * Partition tasks give their worker thread back to the pool after every {@code yieldAfter} rows by re-submitting a
+ * continuation, so that a few large queries cannot monopolize the pool, and block on a full queue through
+ * {@link ForkJoinPool#managedBlock} so the pool can compensate for the blocked worker.
+ *
+ * Failures of the input sequences are rethrown as they are, and timeouts and interrupts are thrown as
+ * {@link QueryInterruptedException}s, so that they keep their error codes.
+ */
+public class ParallelMergeCombiningSequence<T> extends YieldingSequenceBase<T>
+{
+  private static final int MIN_SEQUENCES_PER_PARTITION = 2;
+  private static final int QUEUE_CAPACITY_BATCHES = 4;
+  private static final long BLOCK_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final ForkJoinPool workerPool;
+  private final List<Sequence<T>> baseSequences;
+  private final Ordering<T> orderingFn;
+  private final BinaryFn<T, T, T> combineFn;
+  private final int parallelism;
+  private final int batchSize;
+  private final int yieldAfter;
+  private final boolean hasTimeout;
+  private final long timeoutMillis;
+  private final Consumer<MergeCombineMetrics> metricsReporter;
+
+  public ParallelMergeCombiningSequence(
+      ForkJoinPool workerPool,
+      List<Sequence<T>> baseSequences,
+      Ordering<T> orderingFn,
+      BinaryFn<T, T, T> combineFn,
+      int parallelism,
+      int batchSize,
+      int yieldAfter,
+      boolean hasTimeout,
+      long timeoutMillis,
+      Consumer<MergeCombineMetrics> metricsReporter
+  )
+  {
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive, got[%s]", parallelism);
+    Preconditions.checkArgument(batchSize > 0, "batchSize must be positive, got[%s]", batchSize);
+    Preconditions.checkArgument(
+        yieldAfter >= batchSize,
+        "yieldAfter[%s] must not be smaller than batchSize[%s]",
+        yieldAfter,
+        batchSize
+    );
+    this.workerPool = Preconditions.checkNotNull(workerPool, "workerPool");
+    this.baseSequences = baseSequences;
+    this.orderingFn = orderingFn;
+    this.combineFn = combineFn;
+    this.parallelism = parallelism;
+    this.batchSize = batchSize;
+    this.yieldAfter = yieldAfter;
+    this.hasTimeout = hasTimeout;
+    this.timeoutMillis = timeoutMillis;
+    this.metricsReporter = metricsReporter;
+  }
+
+  @Override
+  public <OutType> Yielder<OutType> toYielder(OutType initValue, YieldingAccumulator<OutType, T> accumulator)
+  {
+    final int numPartitions = Math.min(parallelism, baseSequences.size() / MIN_SEQUENCES_PER_PARTITION);
+    final MergeState state = new MergeState(
+        Math.max(numPartitions, 1),
+        baseSequences.size(),
+        hasTimeout ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0
+    );
+
+    final Sequence<T> merged;
+    if (numPartitions < 2) {
+      // Not enough inputs to be worth handing results between threads, merge on the calling thread instead.
+      merged = mergeAndCombine(countInputRows(baseSequences, state));
+    } else {
+      merged = new LazySequence<>(() -> {
+        final List<Sequence<T>> partitionOutputs = new ArrayList<>(numPartitions);
+        for (int i = 0; i < numPartitions; i++) {
+          final List<Sequence<T>> partition = new ArrayList<>();
+          for (int j = i; j < baseSequences.size(); j += numPartitions) {
+            partition.add(baseSequences.get(j));
+          }
+          final BlockingQueue<ResultBatch<T>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY_BATCHES);
+          state.tasks.incrementAndGet();
+          workerPool.execute(new PartitionMergeAction(countInputRows(partition, state), queue, state, null));
+          partitionOutputs.add(new BaseSequence<>(new QueueIteratorMaker(queue, state)));
+        }
+        return mergeAndCombine(partitionOutputs);
+      });
+    }
+
+    return Sequences.withBaggage(
+        merged.map(row -> {
+          state.outputRows++;
+          return row;
+        }),
+        () -> {
+          state.cancelled.set(true);
+          metricsReporter.accept(state.toMetrics());
+        }
+    ).toYielder(initValue, accumulator);
+  }
+
+  private Sequence<T> mergeAndCombine(List<Sequence<T>> sequences)
+  {
+    return CombiningSequence.create(
+        new MergeSequence<>(orderingFn, Sequences.simple(sequences)),
+        orderingFn,
+        combineFn
+    );
+  }
+
+  private List<Sequence<T>> countInputRows(List<Sequence<T>> sequences, MergeState state)
+  {
+    final List<Sequence<T>> counted = new ArrayList<>(sequences.size());
+    for (Sequence<T> sequence : sequences) {
+      counted.add(sequence.map(row -> {
+        state.inputRows.increment();
+        return row;
+      }));
+    }
+    return counted;
+  }
+
+  /**
+   * One link in the chain of tasks merging and combining a single partition. Processes at most {@link #yieldAfter}
+   * rows, then re-submits a continuation holding the partially consumed {@link Yielder} to the pool.
+   */
+  private class PartitionMergeAction extends RecursiveAction
+  {
+    private final List<Sequence<T>> sequences;
+    private final BlockingQueue<ResultBatch<T>> queue;
+    private final MergeState state;
+    @Nullable
+    private final Yielder<T> yielder;
+
+    private PartitionMergeAction(
+        List<Sequence<T>> sequences,
+        BlockingQueue<ResultBatch<T>> queue,
+        MergeState state,
+        @Nullable Yielder<T> yielder
+    )
+    {
+      this.sequences = sequences;
+      this.queue = queue;
+      this.state = state;
+      this.yielder = yielder;
+    }
+
+    @Override
+    protected void compute()
+    {
+      Yielder<T> current = yielder;
+      try {
+        if (state.cancelled.get()) {
+          CloseQuietly.close(current);
+          return;
+        }
+        if (current == null) {
+          current = Yielders.each(mergeAndCombine(sequences));
+        }
+
+        int rows = 0;
+        ArrayDeque<T> batch = new ArrayDeque<>(batchSize);
+        while (!current.isDone() && rows < yieldAfter) {
+          batch.add(current.get());
+          current = current.next(null);
+          rows++;
+          if (batch.size() == batchSize) {
+            push(new ResultBatch<>(batch, null));
+            batch = new ArrayDeque<>(batchSize);
+          }
+        }
+        if (!batch.isEmpty()) {
+          push(new ResultBatch<>(batch, null));
+        }
+
+        if (current.isDone()) {
+          current.close();
+          push(ResultBatch.terminal());
+        } else {
+          state.tasks.incrementAndGet();
+          workerPool.execute(new PartitionMergeAction(sequences, queue, state, current));
+        }
+      }
+      catch (Throwable t) {
+        CloseQuietly.close(current);
+        if (!state.cancelled.get()) {
+          try {
+            push(new ResultBatch<>(null, t));
+          }
+          catch (Throwable t2) {
+            t.addSuppressed(t2);
+          }
+        }
+      }
+    }
+
+    private void push(ResultBatch<T> batch) throws InterruptedException
+    {
+      final QueuePusher<T> pusher = new QueuePusher<>(queue, batch, state);
+      ForkJoinPool.managedBlock(pusher);
+      if (!pusher.pushed) {
+        if (state.cancelled.get()) {
+          throw new QueryInterruptedException(new CancellationException("Parallel merge was cancelled"));
+        }
+        throw new QueryInterruptedException(new TimeoutException("Timed out handing off merged results"));
+      }
+    }
+  }
+
+  private static class QueuePusher<T> implements ForkJoinPool.ManagedBlocker
+  {
+    private final BlockingQueue<ResultBatch<T>> queue;
+    private final ResultBatch<T> batch;
+    private final MergeState state;
+    private boolean pushed = false;
+
+    private QueuePusher(BlockingQueue<ResultBatch<T>> queue, ResultBatch<T> batch, MergeState state)
+    {
+      this.queue = queue;
+      this.batch = batch;
+      this.state = state;
+    }
+
+    @Override
+    public boolean block() throws InterruptedException
+    {
+      while (!pushed && !state.cancelled.get()) {
+        final long remainingNanos = state.remainingNanos();
+        if (remainingNanos <= 0) {
+          break;
+        }
+        pushed = queue.offer(batch, Math.min(remainingNanos, BLOCK_POLL_NANOS), TimeUnit.NANOSECONDS);
+      }
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable()
+    {
+      if (!pushed && !state.cancelled.get()) {
+        pushed = queue.offer(batch);
+      }
+      return pushed || state.cancelled.get();
+    }
+  }
+
+  private class QueueIteratorMaker implements BaseSequence.IteratorMaker<T, Iterator<T>>
+  {
+    private final BlockingQueue<ResultBatch<T>> queue;
+    private final MergeState state;
+
+    private QueueIteratorMaker(BlockingQueue<ResultBatch<T>> queue, MergeState state)
+    {
+      this.queue = queue;
+      this.state = state;
+    }
+
+    @Override
+    public Iterator<T> make()
+    {
+      return new Iterator<T>()
+      {
+        @Nullable
+        private ArrayDeque<T> current = null;
+        private boolean done = false;
+
+        @Override
+        public boolean hasNext()
+        {
+          while (!done && (current == null || current.isEmpty())) {
+            final ResultBatch<T> batch = take();
+            if (batch.error instanceof RuntimeException) {
+              throw (RuntimeException) batch.error;
+            } else if (batch.error instanceof Error) {
+              throw (Error) batch.error;
+            } else if (batch.error != null) {
+              throw new RE(batch.error, "Failed to merge results in parallel");
+            }
+            if (batch.values == null) {
+              done = true;
+            } else {
+              current = batch.values;
+            }
+          }
+          return !done;
+        }
+
+        @Override
+        public T next()
+        {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return current.poll();
+        }
+      };
+    }
+
+    @Override
+    public void cleanup(Iterator<T> iterFromMake)
+    {
+      // Partition tasks notice cancellation on close of the outer sequence and release their inputs themselves.
+    }
+
+    private ResultBatch<T> take()
+    {
+      try {
+        final ResultBatch<T> batch;
+        if (hasTimeout) {
+          batch = queue.poll(state.remainingNanos(), TimeUnit.NANOSECONDS);
+          if (batch == null) {
+            throw new QueryInterruptedException(new TimeoutException("Timed out waiting for merged results"));
+          }
+        } else {
+          batch = queue.take();
+        }
+        return batch;
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new QueryInterruptedException(e);
+      }
+    }
+  }
+
+  /**
+   * A batch of merged rows handed from a partition task to the consumer. A batch with neither values nor error marks
+   * the end of a partition.
+   */
+  private static class ResultBatch<T>
+  {
+    private static final ResultBatch<?> TERMINAL = new ResultBatch<>(null, null);
+
+    @Nullable
+    private final ArrayDeque<T> values;
+    @Nullable
+    private final Throwable error;
+
+    private ResultBatch(@Nullable ArrayDeque<T> values, @Nullable Throwable error)
+    {
+      this.values = values;
+      this.error = error;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResultBatch<T> terminal()
+    {
+      return (ResultBatch<T>) TERMINAL;
+    }
+  }
+
+  /**
+   * State shared by all tasks of one run of this sequence.
+   */
+  private static class MergeState
+  {
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final LongAdder inputRows = new LongAdder();
+    private final AtomicLong tasks = new AtomicLong();
+    private final int parallelism;
+    private final int inputSequences;
+    private final long startNanos = System.nanoTime();
+    private final long timeoutAtNanos;
+    // only touched by the consuming thread
+    private long outputRows = 0;
+
+    private MergeState(int parallelism, int inputSequences, long timeoutAtNanos)
+    {
+      this.parallelism = parallelism;
+      this.inputSequences = inputSequences;
+      this.timeoutAtNanos = timeoutAtNanos;
+    }
+
+    private long remainingNanos()
+    {
+      return timeoutAtNanos == 0 ? Long.MAX_VALUE : timeoutAtNanos - System.nanoTime();
+    }
+
+    private MergeCombineMetrics toMetrics()
+    {
+      return new MergeCombineMetrics(
+          parallelism,
+          inputSequences,
+          inputRows.sum(),
+          outputRows,
+          tasks.get(),
+          System.nanoTime() - startNanos
+      );
+    }
+  }
+
+  /**
+   * Metrics of a single run of a {@link ParallelMergeCombiningSequence}, reported once the sequence is closed.
+   */
+  public static class MergeCombineMetrics
+  {
+    private final int parallelism;
+    private final int inputSequences;
+    private final long inputRows;
+    private final long outputRows;
+    private final long taskCount;
+    private final long totalTimeNanos;
+
+    MergeCombineMetrics(
+        int parallelism,
+        int inputSequences,
+        long inputRows,
+        long outputRows,
+        long taskCount,
+        long totalTimeNanos
+    )
+    {
+      this.parallelism = parallelism;
+      this.inputSequences = inputSequences;
+      this.inputRows = inputRows;
+      this.outputRows = outputRows;
+      this.taskCount = taskCount;
+      this.totalTimeNanos = totalTimeNanos;
+    }
+
+    /**
+     * Number of partitions merged concurrently on the pool, 1 if the merge ran on the calling thread only.
+     */
+    public int getParallelism()
+    {
+      return parallelism;
+    }
+
+    public int getInputSequences()
+    {
+      return inputSequences;
+    }
+
+    public long getInputRows()
+    {
+      return inputRows;
+    }
+
+    public long getOutputRows()
+    {
+      return outputRows;
+    }
+
+    /**
+     * Number of {@link RecursiveAction}s run on the pool, including continuations after yielding.
+     */
+    public long getTaskCount()
+    {
+      return taskCount;
+    }
+
+    /**
+     * Wall time from the start of the merge until the sequence was closed.
+     */
+    public long getTotalTimeNanos()
+    {
+      return totalTimeNanos;
+    }
+  }
+}
@@ -43,7 +43,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 
-public class PrioritizedExecutorService extends AbstractExecutorService implements ListeningExecutorService
+public class PrioritizedExecutorService extends AbstractExecutorService
+    implements ListeningExecutorService, ExecutorLoadStats
 {
   public static PrioritizedExecutorService create(Lifecycle lifecycle, DruidProcessingConfig config)
   {
@@ -78,6 +79,11 @@ public class PrioritizedExecutorService extends AbstractExecutorService implemen
     return service;
   }
 
+  /**
+   * Weight of the latest task in {@link #recentTaskTimeNanos}.
+   */
+  private static final double TASK_TIME_DECAY = 0.05;
+
   private final AtomicLong queuePosition = new AtomicLong(Long.MAX_VALUE);
   private final ListeningExecutorService delegate;
   private final BlockingQueue<Runnable> delegateQueue;
@@ -86,6 +92,12 @@ public class PrioritizedExecutorService extends AbstractExecutorService implemen
   private final DruidProcessingConfig config;
   final ThreadPoolExecutor threadPoolExecutor; // Used in unit tests
 
+  /**
+   * Exponentially weighted moving average of the run times of all tasks of the pool, whatever query they belong to.
+   * Updated without synchronization, so concurrent updates may be lost, which is fine for a load signal.
+   */
+  private volatile double recentTaskTimeNanos = 0;
+
   public PrioritizedExecutorService(
       ThreadPoolExecutor threadPoolExecutor,
       DruidProcessingConfig config
@@ -117,7 +129,18 @@ public class PrioritizedExecutorService extends AbstractExecutorService implemen
         "task does not implement PrioritizedRunnable"
     );
     return PrioritizedListenableFutureTask.create(
-        ListenableFutureTask.create(runnable, value),
+        ListenableFutureTask.create(
+            () -> {
+              final long startNs = System.nanoTime();
+              try {
+                runnable.run();
+              }
+              finally {
+                recordTaskTime(System.nanoTime() - startNs);
+              }
+            },
+            value
+        ),
         runnable instanceof PrioritizedRunnable
         ? ((PrioritizedRunnable) runnable).getPriority()
         : defaultPriority,
@@ -133,7 +156,17 @@ public class PrioritizedExecutorService extends AbstractExecutorService implemen
         "task does not implement PrioritizedCallable"
     );
     return PrioritizedListenableFutureTask.create(
-        ListenableFutureTask.create(callable),
+        ListenableFutureTask.create(
+            () -> {
+              final long startNs = System.nanoTime();
+              try {
+                return callable.call();
+              }
+              finally {
+                recordTaskTime(System.nanoTime() - startNs);
+              }
+            }
+        ),
         callable instanceof PrioritizedCallable
         ? ((PrioritizedCallable) callable).getPriority()
         : defaultPriority,
@@ -195,10 +228,35 @@ public class PrioritizedExecutorService extends AbstractExecutorService implemen
     delegate.execute(runnable);
   }
 
+  @Override
   public int getQueueSize()
   {
     return delegateQueue.size();
   }
+
+  @Override
+  public int getActiveCount()
+  {
+    return threadPoolExecutor.getActiveCount();
+  }
+
+  @Override
+  public int getNumThreads()
+  {
+    return threadPoolExecutor.getMaximumPoolSize();
+  }
+
+  @Override
+  public long getRecentTaskTimeNanos()
+  {
+    return (long) recentTaskTimeNanos;
+  }
+
+  private void recordTaskTime(long taskTimeNanos)
+  {
+    final double current = recentTaskTimeNanos;
+    recentTaskTimeNanos = current == 0 ? taskTimeNanos : current + TASK_TIME_DECAY * (taskTimeNanos - current);
+  }
 }
 
 class PrioritizedListenableFutureTask<V> implements RunnableFuture<V>,
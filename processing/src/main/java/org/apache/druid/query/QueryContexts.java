@@ -35,6 +35,10 @@ public class QueryContexts
   public static final String MAX_SCATTER_GATHER_BYTES_KEY = "maxScatterGatherBytes";
   public static final String MAX_QUEUED_BYTES_KEY = "maxQueuedBytes";
   public static final String DEFAULT_TIMEOUT_KEY = "defaultTimeout";
+  public static final String VECTORIZE_KEY = "vectorize";
+  public static final String VECTOR_SIZE_KEY = "vectorSize";
+  public static final String ENABLE_PARALLEL_MERGE_KEY = "enableParallelMerge";
+  public static final String PARALLEL_MERGE_PARALLELISM_KEY = "parallelMergeParallelism";
   @Deprecated
   public static final String CHUNK_PERIOD_KEY = "chunkPeriod";
 
@@ -47,6 +51,8 @@ public class QueryContexts
   public static final int DEFAULT_UNCOVERED_INTERVALS_LIMIT = 0;
   public static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
   public static final long NO_TIMEOUT = 0;
+  public static final boolean DEFAULT_VECTORIZE = false;
+  public static final int DEFAULT_VECTOR_SIZE = 512;
 
   public static <T> boolean isBySegment(Query<T> query)
   {
@@ -113,6 +119,40 @@ public class QueryContexts
     return parseBoolean(query, "serializeDateTimeAsLongInner", defaultValue);
   }
 
+  public static <T> boolean isVectorize(Query<T> query)
+  {
+    return isVectorize(query, DEFAULT_VECTORIZE);
+  }
+
+  public static <T> boolean isVectorize(Query<T> query, boolean defaultValue)
+  {
+    return parseBoolean(query, VECTORIZE_KEY, defaultValue);
+  }
+
+  public static <T> int getVectorSize(Query<T> query)
+  {
+    return getVectorSize(query, DEFAULT_VECTOR_SIZE);
+  }
+
+  public static <T> int getVectorSize(Query<T> query, int defaultValue)
+  {
+    final int vectorSize = parseInt(query, VECTOR_SIZE_KEY, defaultValue);
+    Preconditions.checkState(vectorSize > 0, "Vector size must be positive, but was [%s]", vectorSize);
+    return vectorSize;
+  }
+
+  public static <T> boolean isEnableParallelMerge(Query<T> query, boolean defaultValue)
+  {
+    return parseBoolean(query, ENABLE_PARALLEL_MERGE_KEY, defaultValue);
+  }
+
+  public static <T> int getParallelMergeParallelism(Query<T> query, int defaultValue)
+  {
+    final int parallelism = parseInt(query, PARALLEL_MERGE_PARALLELISM_KEY, defaultValue);
+    Preconditions.checkState(parallelism > 0, "Parallel merge parallelism must be positive, but was [%s]", parallelism);
+    return parallelism;
+  }
+
   public static <T> int getUncoveredIntervalsLimit(Query<T> query)
   {
     return getUncoveredIntervalsLimit(query, DEFAULT_UNCOVERED_INTERVALS_LIMIT);
@@ -316,6 +316,36 @@ public interface QueryMetrics<QueryType extends Query<?>>
    */
   QueryMetrics<QueryType> reportPreFilteredRows(long numRows);
 
+  /**
+   * Reports the number of partitions the Broker merged concurrently when merging results in parallel.
+   */
+  QueryMetrics<QueryType> reportParallelMergeParallelism(int parallelism);
+
+  /**
+   * Reports the number of sequences, one per data node or cached interval, merged in parallel by the Broker.
+   */
+  QueryMetrics<QueryType> reportParallelMergeInputSequences(long numSequences);
+
+  /**
+   * Reports the number of rows fed into the parallel merge on the Broker.
+   */
+  QueryMetrics<QueryType> reportParallelMergeInputRows(long numRows);
+
+  /**
+   * Reports the number of rows produced by the parallel merge on the Broker.
+   */
+  QueryMetrics<QueryType> reportParallelMergeOutputRows(long numRows);
+
+  /**
+   * Reports the number of tasks the Broker ran on its merge pool for the parallel merge of this query.
+   */
+  QueryMetrics<QueryType> reportParallelMergeTaskCount(long numTasks);
+
+  /**
+   * Reports the wall time of the parallel merge on the Broker.
+   */
+  QueryMetrics<QueryType> reportParallelMergeTotalTime(long timeNs);
+
   /**
    * Emits all metrics, registered since the last {@code emit()} call on this QueryMetrics object.
    */
@@ -21,13 +21,17 @@ package org.apache.druid.query;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.google.common.base.Function;
 import org.apache.druid.guice.annotations.ExtensionPoint;
+import org.apache.druid.java.util.common.UOE;
+import org.apache.druid.java.util.common.guava.nary.BinaryFn;
 import org.apache.druid.query.aggregation.MetricManipulationFn;
 import org.apache.druid.timeline.LogicalSegment;
 
 import javax.annotation.Nullable;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -83,6 +87,52 @@ public abstract class QueryToolChest<ResultType, QueryType extends Query<ResultT
    */
   public abstract QueryRunner<ResultType> mergeResults(QueryRunner<ResultType> runner);
 
+  /**
+   * Creates a function that combines two results which are equal according to {@link #createResultComparator} into
+   * one, the same way {@link #mergeResults} would. The Broker uses it to merge and combine results from data nodes in
+   * parallel, see {@link org.apache.druid.query.ParallelMergeCombiningSequence}.
+   * <p>
+   * This is optional. If it returns null (the default), results of this query type are always merged on the single
+   * thread consuming the query results.
+   *
+   * @param query The query whose results will be combined
+   *
+   * @return A function combining two results, or null if not supported
+   */
+  @Nullable
+  public BinaryFn<ResultType, ResultType, ResultType> createMergeFn(Query<ResultType> query)
+  {
+    return null;
+  }
+
+  /**
+   * Creates the ordering in which results are merged and combined by the function returned by
+   * {@link #createMergeFn}. Only called if {@link #createMergeFn} returns non-null for the same query.
+   *
+   * @param query The query whose results will be combined
+   *
+   * @return A comparator for results of the given query
+   */
+  public Comparator<ResultType> createResultComparator(Query<ResultType> query)
+  {
+    throw new UOE("%s doesn't support merging results in parallel", query.getClass().getName());
+  }
+
+  /**
+   * Returns an ObjectMapper to serialize and deserialize the results of the given query, when they are transferred
+   * between data servers and the Broker. Both sides decorate their mapper with the same query, so a query type can use
+   * a more compact wire format than the default one of its results, as long as it can still read the default one.
+   *
+   * @param objectMapper the mapper that would be used otherwise, which must not be modified
+   * @param query        the query whose results are transferred
+   *
+   * @return the given mapper, or a decorated copy of it
+   */
+  public ObjectMapper decorateObjectMapper(final ObjectMapper objectMapper, final QueryType query)
+  {
+    return objectMapper;
+  }
+
   /**
    * Creates a {@link QueryMetrics} object that is used to generate metrics for this specific query type.  This exists
    * to allow for query-specific dimensions and metrics.  That is, the ToolChest is expected to set some
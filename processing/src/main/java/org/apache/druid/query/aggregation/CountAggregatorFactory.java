@@ -24,6 +24,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
@@ -58,6 +59,18 @@ public class CountAggregatorFactory extends AggregatorFactory
     return new CountBufferAggregator();
   }
 
+  @Override
+  public VectorAggregator factorizeVector(VectorColumnSelectorFactory selectorFactory)
+  {
+    return new CountVectorAggregator();
+  }
+
+  @Override
+  public boolean canVectorize()
+  {
+    return true;
+  }
+
   @Override
   public Comparator getComparator()
   {
@@ -26,6 +26,7 @@ import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.math.expr.ExprMacroTable;
 import org.apache.druid.segment.BaseDoubleColumnValueSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
@@ -76,6 +77,12 @@ public class DoubleSumAggregatorFactory extends SimpleDoubleAggregatorFactory
     return new DoubleSumBufferAggregator(selector);
   }
 
+  @Override
+  protected VectorAggregator factorizeVector(VectorValueSelector selector)
+  {
+    return new DoubleSumVectorAggregator(selector);
+  }
+
   @Override
   @Nullable
   public Object combine(@Nullable Object lhs, @Nullable Object rhs)
@@ -26,6 +26,7 @@ import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.math.expr.ExprMacroTable;
 import org.apache.druid.segment.BaseFloatColumnValueSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
@@ -76,6 +77,12 @@ public class FloatMinAggregatorFactory extends SimpleFloatAggregatorFactory
     return new FloatMinBufferAggregator(selector);
   }
 
+  @Override
+  protected VectorAggregator factorizeVector(VectorValueSelector selector)
+  {
+    return new FloatMinVectorAggregator(selector);
+  }
+
   @Override
   @Nullable
   public Object combine(@Nullable Object lhs, @Nullable Object rhs)
@@ -24,12 +24,15 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import org.apache.druid.common.config.NullHandling;
 import org.apache.druid.math.expr.Expr;
 import org.apache.druid.math.expr.ExprMacroTable;
 import org.apache.druid.math.expr.Parser;
 import org.apache.druid.segment.BaseDoubleColumnValueSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
@@ -78,6 +81,22 @@ public abstract class SimpleDoubleAggregatorFactory extends NullableAggregatorFa
     );
   }
 
+  @Override
+  public boolean canVectorize()
+  {
+    // Expressions are not vectorized. In SQL-compatible null handling mode, aggregators need null tracking that is
+    // only implemented on the row-at-a-time path (see NullableBufferAggregator).
+    return fieldName != null && NullHandling.replaceWithDefault();
+  }
+
+  @Override
+  public VectorAggregator factorizeVector(VectorColumnSelectorFactory selectorFactory)
+  {
+    return factorizeVector(selectorFactory.makeValueSelector(fieldName));
+  }
+
+  protected abstract VectorAggregator factorizeVector(VectorValueSelector selector);
+
   @Override
   public Object deserialize(Object object)
   {
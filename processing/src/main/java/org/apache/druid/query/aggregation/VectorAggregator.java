@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * Vectorized counterpart of {@link BufferAggregator}. Rather than aggregating one row at a time, a VectorAggregator
+ * aggregates a range of rows from the current vector of the {@link org.apache.druid.segment.vector.VectorValueSelector}
+ * (or selectors) it was created with.
+ *
+ * Like BufferAggregator, implementations must not change the position, limit or mark of the given buffer.
+ *
+ * @see AggregatorFactory#factorizeVector
+ */
+public interface VectorAggregator
+{
+  /**
+   * Initializes the buffer location. Same contract as {@link BufferAggregator#init}.
+   */
+  void init(ByteBuffer buf, int position);
+
+  /**
+   * Aggregates the rows of the current vector at positions [startRow, endRow) into the aggregate stored at the given
+   * position.
+   */
+  void aggregate(ByteBuffer buf, int position, int startRow, int endRow);
+
+  /**
+   * Returns the intermediate object representation of the given aggregate. Same contract as
+   * {@link BufferAggregator#get}.
+   */
+  @Nullable
+  Object get(ByteBuffer buf, int position);
+
+  /**
+   * Release any resources used by the aggregator.
+   */
+  void close();
+}
@@ -24,6 +24,8 @@ import org.apache.druid.collections.bitmap.BitmapFactory;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.collections.spatial.ImmutableRTree;
 import org.apache.druid.segment.column.BitmapIndex;
+import org.apache.druid.segment.column.NumericBitmapIndex;
+import org.apache.druid.segment.column.ZoneMapIndex;
 import org.apache.druid.segment.data.CloseableIndexed;
 
 import javax.annotation.Nullable;
@@ -42,4 +44,22 @@ public interface BitmapIndexSelector
   @Nullable
   ImmutableBitmap getBitmapIndex(String dimension, String value);
   ImmutableRTree getSpatialIndex(String dimension);
+
+  /**
+   * Returns the {@link ZoneMapIndex} of the given column, or null if the column doesn't have one.
+   */
+  @Nullable
+  default ZoneMapIndex getZoneMapIndex(String column)
+  {
+    return null;
+  }
+
+  /**
+   * Returns the {@link NumericBitmapIndex} of the given column, or null if the column doesn't have one.
+   */
+  @Nullable
+  default NumericBitmapIndex getNumericBitmapIndex(String column)
+  {
+    return null;
+  }
 }
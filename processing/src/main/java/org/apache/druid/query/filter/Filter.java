@@ -24,6 +24,10 @@ import org.apache.druid.query.BitmapResultFactory;
 import org.apache.druid.query.DefaultBitmapResultFactory;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.column.ZoneMapIndex;
+
+import javax.annotation.Nullable;
+import java.util.BitSet;
 
 public interface Filter
 {
@@ -107,4 +111,19 @@ public interface Filter
    * @return true if this Filter supports selectivity estimation, false otherwise.
    */
   boolean supportsSelectivityEstimation(ColumnSelector columnSelector, BitmapIndexSelector indexSelector);
+
+  /**
+   * Returns the blocks of rows, as defined by {@link ZoneMapIndex}, that may contain rows matching this filter, based on
+   * the zone maps of the columns it reads. Rows of the blocks that are not in the returned set can't match this filter,
+   * rows of the blocks in the set still need to be matched with {@link #makeMatcher}.
+   *
+   * @param selector Object used to retrieve zone maps
+   *
+   * @return the candidate blocks, or null if zone maps can't rule out any blocks for this filter.
+   */
+  @Nullable
+  default BitSet getZoneMapCandidateBlocks(BitmapIndexSelector selector)
+  {
+    return null;
+  }
 }
@@ -19,21 +19,39 @@
 
 package org.apache.druid.query.groupby;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.inject.Inject;
 import org.apache.druid.data.input.MapBasedRow;
 import org.apache.druid.data.input.Row;
 import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.granularity.Granularities;
 import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.MappedSequence;
 import org.apache.druid.java.util.common.guava.Sequence;
@@ -62,14 +80,18 @@ import org.apache.druid.segment.DimensionHandlerUtils;
 import org.joda.time.DateTime;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 /**
  */
@@ -85,6 +107,17 @@ public class GroupByQueryQueryToolChest extends QueryToolChest<Row, GroupByQuery
   };
   public static final String GROUP_BY_MERGE_KEY = "groupByMerge";
 
+  private static final int MAX_ARRAY_RESULT_ROWS_MAPPERS_PER_MAPPER = 1000;
+  private static final Callable<Cache<List<String>, ObjectMapper>> ARRAY_RESULT_ROWS_MAPPERS_BY_COLUMNS =
+      () -> CacheBuilder.newBuilder().maximumSize(MAX_ARRAY_RESULT_ROWS_MAPPERS_PER_MAPPER).build();
+
+  /**
+   * Mappers returned by {@link #decorateObjectMapper}, by the identity of the decorated mapper and then by the columns
+   * of the rows they write.
+   */
+  private final Cache<ObjectMapper, Cache<List<String>, ObjectMapper>> arrayResultRowsMappers =
+      CacheBuilder.newBuilder().weakKeys().build();
+
   private final GroupByStrategySelector strategySelector;
   @Deprecated
   private final IntervalChunkingQueryRunnerDecorator intervalChunkingQueryRunnerDecorator;
@@ -400,6 +433,141 @@ public class GroupByQueryQueryToolChest extends QueryToolChest<Row, GroupByQuery
     return TYPE_REFERENCE;
   }
 
+  /**
+   * When {@link GroupByQueryConfig#CTX_KEY_ARRAY_RESULT_ROWS} is set, which the Broker does for the queries it sends
+   * to data servers, rows are written as arrays of the timestamp followed by the values of the dimensions and
+   * aggregators of the query, in that order, instead of objects repeating every column name in every row. Rows with
+   * other columns are written in the default format, which is also still read, so data servers that don't know the
+   * flag can be queried.
+   */
+  @Override
+  public ObjectMapper decorateObjectMapper(final ObjectMapper objectMapper, final GroupByQuery query)
+  {
+    if (!query.getContextBoolean(GroupByQueryConfig.CTX_KEY_ARRAY_RESULT_ROWS, false)) {
+      return objectMapper;
+    }
+
+    final ImmutableList.Builder<String> columnNamesBuilder = ImmutableList.builder();
+    for (DimensionSpec dimensionSpec : query.getDimensions()) {
+      columnNamesBuilder.add(dimensionSpec.getOutputName());
+    }
+    for (AggregatorFactory aggregatorFactory : query.getAggregatorSpecs()) {
+      columnNamesBuilder.add(aggregatorFactory.getName());
+    }
+    final List<String> columnNames = columnNamesBuilder.build();
+
+    // Copies of a mapper start with empty serializer and deserializer caches, so they are shared by all queries with
+    // the same columns instead of being made for every query.
+    try {
+      return arrayResultRowsMappers.get(objectMapper, ARRAY_RESULT_ROWS_MAPPERS_BY_COLUMNS)
+                                   .get(columnNames, () -> makeArrayResultRowsMapper(objectMapper, columnNames));
+    }
+    catch (ExecutionException | UncheckedExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  private static ObjectMapper makeArrayResultRowsMapper(final ObjectMapper objectMapper, final List<String> columnNames)
+  {
+    final JsonSerializer<Row> serializer = new JsonSerializer<Row>()
+    {
+      @Override
+      public void serialize(final Row row, final JsonGenerator gen, final SerializerProvider serializers)
+          throws IOException
+      {
+        if (!(row instanceof MapBasedRow)) {
+          throw new ISE("Unable to serialize row of type[%s]", row.getClass().getName());
+        }
+        final Map<String, Object> event = ((MapBasedRow) row).getEvent();
+
+        final Object[] values = new Object[columnNames.size()];
+        int numFound = 0;
+        for (int i = 0; i < values.length; i++) {
+          final String columnName = columnNames.get(i);
+          values[i] = event.get(columnName);
+          if (values[i] != null || event.containsKey(columnName)) {
+            numFound++;
+          }
+        }
+
+        if (numFound != values.length || numFound != event.size()) {
+          // Rows with missing or additional columns, e.g. post-aggregators, are written in the default format.
+          gen.writeStartObject();
+          gen.writeStringField("version", "v1");
+          serializers.defaultSerializeField("timestamp", row.getTimestamp(), gen);
+          serializers.defaultSerializeField("event", event, gen);
+          gen.writeEndObject();
+          return;
+        }
+
+        gen.writeStartArray();
+        serializers.defaultSerializeValue(row.getTimestamp(), gen);
+        for (Object value : values) {
+          serializers.defaultSerializeValue(value, gen);
+        }
+        gen.writeEndArray();
+      }
+
+      @Override
+      public void serializeWithType(
+          final Row row,
+          final JsonGenerator gen,
+          final SerializerProvider serializers,
+          final TypeSerializer typeSer
+      ) throws IOException
+      {
+        // Both formats carry their own type information.
+        serialize(row, gen, serializers);
+      }
+    };
+
+    final JsonDeserializer<Row> deserializer = new JsonDeserializer<Row>()
+    {
+      @Override
+      public Row deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException
+      {
+        if (!jp.isExpectedStartArrayToken()) {
+          return jp.readValueAs(MapBasedRow.class);
+        }
+
+        final JsonDeserializer<Object> timestampDeserializer =
+            ctxt.findRootValueDeserializer(ctxt.constructType(DateTime.class));
+        final JsonDeserializer<Object> valueDeserializer =
+            ctxt.findRootValueDeserializer(ctxt.constructType(Object.class));
+
+        jp.nextToken();
+        final DateTime timestamp = (DateTime) timestampDeserializer.deserialize(jp, ctxt);
+        final Map<String, Object> event = new LinkedHashMap<>();
+        for (String columnName : columnNames) {
+          if (jp.nextToken() == JsonToken.END_ARRAY) {
+            throw ctxt.mappingException(StringUtils.format("Expected %,d values in row", columnNames.size()));
+          }
+          event.put(columnName, valueDeserializer.deserialize(jp, ctxt));
+        }
+        if (jp.nextToken() != JsonToken.END_ARRAY) {
+          throw ctxt.mappingException(StringUtils.format("Expected %,d values in row", columnNames.size()));
+        }
+        return new MapBasedRow(timestamp, event);
+      }
+
+      @Override
+      public Object deserializeWithType(
+          final JsonParser jp,
+          final DeserializationContext ctxt,
+          final TypeDeserializer typeDeserializer
+      ) throws IOException
+      {
+        return deserialize(jp, ctxt);
+      }
+    };
+
+    return objectMapper.copy().registerModule(
+        new SimpleModule("GroupByArrayResultRows")
+            .addSerializer(Row.class, serializer)
+            .addDeserializer(Row.class, deserializer)
+    );
+  }
+
   @Override
   public QueryRunner<Row> preMergeQueryDecoration(final QueryRunner<Row> runner)
   {
@@ -503,6 +671,12 @@ public class GroupByQueryQueryToolChest extends QueryToolChest<Row, GroupByQuery
         return builder.build();
       }
 
+      @Override
+      public Function<Row, DateTime> getGranularityBucketTimestampFn(GroupByQuery query)
+      {
+        return Granularities.ALL.equals(query.getGranularity()) ? null : Row::getTimestamp;
+      }
+
       @Override
       public TypeReference<Object> getCacheObjectClazz()
       {
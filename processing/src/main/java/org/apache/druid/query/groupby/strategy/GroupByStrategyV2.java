@@ -248,6 +248,8 @@ public class GroupByStrategyV2 implements GroupByStrategy
     context.put(CTX_KEY_OUTERMOST, false);
     // the having spec shouldn't be passed down, so we need to convey the existing limit push down status
     context.put(GroupByQueryConfig.CTX_KEY_APPLY_LIMIT_PUSH_DOWN, query.isApplyLimitPushDown());
+    // rows of the inner query are only read back by this merge, so they can use the compact format
+    context.put(GroupByQueryConfig.CTX_KEY_ARRAY_RESULT_ROWS, true);
 
     final GroupByQuery newQuery = new GroupByQuery(
         query.getDataSource(),
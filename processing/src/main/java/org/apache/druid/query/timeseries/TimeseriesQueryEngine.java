@@ -19,19 +19,36 @@
 
 package org.apache.druid.query.timeseries;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import org.apache.druid.java.util.common.granularity.Granularity;
+import org.apache.druid.java.util.common.guava.LazySequence;
 import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryRunnerHelper;
 import org.apache.druid.query.Result;
 import org.apache.druid.query.aggregation.Aggregator;
 import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.aggregation.VectorAggregator;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.segment.Cursor;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
 import org.apache.druid.segment.SegmentMissingException;
 import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.filter.Filters;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.joda.time.Interval;
 
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Objects;
 
 /**
  */
@@ -47,13 +64,193 @@ public class TimeseriesQueryEngine
 
     final Filter filter = Filters.convertToCNFFromQueryContext(query, Filters.toFilter(query.getDimensionsFilter()));
     final int limit = query.getLimit();
-    Sequence<Result<TimeseriesResultValue>> result = generateTimeseriesResult(adapter, query, filter);
+    final Sequence<Result<TimeseriesResultValue>> result;
+    if (canVectorize(query, adapter, filter)) {
+      result = generateVectorizedTimeseriesResult((QueryableIndexStorageAdapter) adapter, query, filter);
+    } else {
+      result = generateTimeseriesResult(adapter, query, filter);
+    }
     if (limit < Integer.MAX_VALUE) {
       return result.limit(limit);
     }
     return result;
   }
 
+  /**
+   * The vectorized engine is used if the query asks for it (see {@link QueryContexts#isVectorize}), the segment is a
+   * {@link QueryableIndexStorageAdapter} that can make a vector cursor for this filter, and every aggregator can
+   * vectorize and only reads numeric (or missing) columns.
+   */
+  @VisibleForTesting
+  static boolean canVectorize(
+      final TimeseriesQuery query,
+      final StorageAdapter adapter,
+      @Nullable final Filter filter
+  )
+  {
+    if (!QueryContexts.isVectorize(query) || !(adapter instanceof QueryableIndexStorageAdapter)) {
+      return false;
+    }
+
+    final QueryableIndexStorageAdapter queryableIndexAdapter = (QueryableIndexStorageAdapter) adapter;
+    if (!queryableIndexAdapter.canVectorize(filter, query.getVirtualColumns(), query.isDescending())) {
+      return false;
+    }
+
+    for (AggregatorFactory aggregatorFactory : query.getAggregatorSpecs()) {
+      if (!aggregatorFactory.canVectorize()) {
+        return false;
+      }
+
+      for (String column : aggregatorFactory.requiredFields()) {
+        final ColumnCapabilities capabilities = adapter.getColumnCapabilities(column);
+        if (capabilities != null && !capabilities.getType().isNumeric()) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  private Sequence<Result<TimeseriesResultValue>> generateVectorizedTimeseriesResult(
+      final QueryableIndexStorageAdapter adapter,
+      final TimeseriesQuery query,
+      @Nullable final Filter filter
+  )
+  {
+    final List<Interval> queryIntervals = query.getQuerySegmentSpec().getIntervals();
+    Preconditions.checkArgument(
+        queryIntervals.size() == 1, "Can only handle a single interval, got[%s]", queryIntervals
+    );
+
+    final Granularity gran = query.getGranularity();
+    final Interval dataInterval = new Interval(adapter.getMinTime(), gran.bucketEnd(adapter.getMaxTime()));
+    final Interval queryInterval = queryIntervals.get(0);
+
+    if (!queryInterval.overlaps(dataInterval)) {
+      return Sequences.empty();
+    }
+
+    final Interval actualInterval = queryInterval.overlap(dataInterval);
+
+    return new LazySequence<>(
+        () -> processVectorCursor(
+            query,
+            actualInterval,
+            adapter.makeVectorCursor(
+                filter,
+                actualInterval,
+                query.getVirtualColumns(),
+                query.isDescending(),
+                QueryContexts.getVectorSize(query),
+                null
+            )
+        )
+    );
+  }
+
+  private Sequence<Result<TimeseriesResultValue>> processVectorCursor(
+      final TimeseriesQuery query,
+      final Interval actualInterval,
+      final VectorCursor cursor
+  )
+  {
+    final Granularity gran = query.getGranularity();
+    final List<AggregatorFactory> aggregatorSpecs = query.getAggregatorSpecs();
+    final VectorColumnSelectorFactory columnSelectorFactory = cursor.getColumnSelectorFactory();
+    final VectorValueSelector timeSelector = columnSelectorFactory.makeValueSelector(ColumnHolder.TIME_COLUMN_NAME);
+    final VectorAggregator[] aggregators = new VectorAggregator[aggregatorSpecs.size()];
+    final int[] aggregatorPositions = new int[aggregatorSpecs.size()];
+
+    int bufferSize = 0;
+    for (int i = 0; i < aggregatorSpecs.size(); i++) {
+      aggregators[i] = aggregatorSpecs.get(i).factorizeVector(columnSelectorFactory);
+      aggregatorPositions[i] = bufferSize;
+      bufferSize += aggregatorSpecs.get(i).getMaxIntermediateSizeWithNulls();
+    }
+
+    final ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+
+    return Sequences.withBaggage(
+        Sequences.filter(
+            Sequences.map(
+                Sequences.simple(gran.getIterable(actualInterval)),
+                new Function<Interval, Result<TimeseriesResultValue>>()
+                {
+                  private final boolean skipEmptyBuckets = query.isSkipEmptyBuckets();
+
+                  // Position within the cursor's current vector of the first row that has not been aggregated yet.
+                  // Vectors may span bucket boundaries, so a vector can be split across consecutive buckets.
+                  private int startRow = 0;
+
+                  @Override
+                  public Result<TimeseriesResultValue> apply(final Interval bucketInterval)
+                  {
+                    final long bucketEnd = bucketInterval.getEndMillis();
+                    boolean emptyBucket = true;
+
+                    for (int i = 0; i < aggregators.length; i++) {
+                      aggregators[i].init(buffer, aggregatorPositions[i]);
+                    }
+
+                    while (!cursor.isDone()) {
+                      final long[] times = timeSelector.getLongVector();
+                      final int vectorSize = cursor.getCurrentVectorSize();
+
+                      // Rows are sorted by time, so all rows of this bucket are at the front of the remaining vector.
+                      int endRow = startRow;
+                      while (endRow < vectorSize && times[endRow] < bucketEnd) {
+                        endRow++;
+                      }
+
+                      if (endRow > startRow) {
+                        emptyBucket = false;
+                        for (int i = 0; i < aggregators.length; i++) {
+                          aggregators[i].aggregate(buffer, aggregatorPositions[i], startRow, endRow);
+                        }
+                      }
+
+                      if (endRow < vectorSize) {
+                        // The rest of this vector belongs to later buckets.
+                        startRow = endRow;
+                        break;
+                      } else {
+                        cursor.advance();
+                        startRow = 0;
+                      }
+                    }
+
+                    if (skipEmptyBuckets && emptyBucket) {
+                      return null;
+                    }
+
+                    final TimeseriesResultBuilder bob = new TimeseriesResultBuilder(
+                        gran.toDateTime(bucketInterval.getStartMillis())
+                    );
+
+                    for (int i = 0; i < aggregatorSpecs.size(); i++) {
+                      bob.addMetric(
+                          aggregatorSpecs.get(i).getName(),
+                          aggregators[i].get(buffer, aggregatorPositions[i])
+                      );
+                    }
+
+                    return bob.build();
+                  }
+                }
+            ),
+            Objects::nonNull
+        ),
+        () -> {
+          for (VectorAggregator aggregator : aggregators) {
+            aggregator.close();
+          }
+          cursor.close();
+        }
+    );
+  }
+
   private Sequence<Result<TimeseriesResultValue>> generateTimeseriesResult(StorageAdapter adapter, TimeseriesQuery query, Filter filter)
   {
     return QueryRunnerHelper.makeCursorBasedQuery(
@@ -54,6 +54,7 @@ import org.apache.druid.query.groupby.RowBasedColumnSelectorFactory;
 import org.joda.time.DateTime;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -124,9 +125,7 @@ public class TimeseriesQueryQueryToolChest extends QueryToolChest<Result<Timeser
       @Override
       protected Ordering<Result<TimeseriesResultValue>> makeOrdering(Query<Result<TimeseriesResultValue>> query)
       {
-        return ResultGranularTimestampComparator.create(
-            ((TimeseriesQuery) query).getGranularity(), query.isDescending()
-        );
+        return Ordering.from(createResultComparator(query));
       }
 
       @Override
@@ -134,11 +133,7 @@ public class TimeseriesQueryQueryToolChest extends QueryToolChest<Result<Timeser
           Query<Result<TimeseriesResultValue>> input
       )
       {
-        TimeseriesQuery query = (TimeseriesQuery) input;
-        return new TimeseriesBinaryFn(
-            query.getGranularity(),
-            query.getAggregatorSpecs()
-        );
+        return TimeseriesQueryQueryToolChest.this.createMergeFn(input);
       }
     };
 
@@ -233,6 +228,21 @@ public class TimeseriesQueryQueryToolChest extends QueryToolChest<Result<Timeser
     return bob.build();
   }
 
+  @Override
+  public BinaryFn<Result<TimeseriesResultValue>, Result<TimeseriesResultValue>, Result<TimeseriesResultValue>> createMergeFn(
+      Query<Result<TimeseriesResultValue>> query
+  )
+  {
+    TimeseriesQuery timeseriesQuery = (TimeseriesQuery) query;
+    return new TimeseriesBinaryFn(timeseriesQuery.getGranularity(), timeseriesQuery.getAggregatorSpecs());
+  }
+
+  @Override
+  public Comparator<Result<TimeseriesResultValue>> createResultComparator(Query<Result<TimeseriesResultValue>> query)
+  {
+    return ResultGranularTimestampComparator.create(((TimeseriesQuery) query).getGranularity(), query.isDescending());
+  }
+
   @Override
   public TimeseriesQueryMetrics makeMetrics(TimeseriesQuery query)
   {
@@ -290,6 +300,16 @@ public class TimeseriesQueryQueryToolChest extends QueryToolChest<Result<Timeser
         return builder.build();
       }
 
+      @Override
+      public Function<Result<TimeseriesResultValue>, DateTime> getGranularityBucketTimestampFn(TimeseriesQuery query)
+      {
+        // The limit is applied to the results of the whole segment, across granularity buckets.
+        if (Granularities.ALL.equals(query.getGranularity()) || query.getLimit() < Integer.MAX_VALUE) {
+          return null;
+        }
+        return Result::getTimestamp;
+      }
+
       @Override
       public TypeReference<Object> getCacheObjectClazz()
       {
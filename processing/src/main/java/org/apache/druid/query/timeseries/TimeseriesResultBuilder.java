@@ -47,6 +47,12 @@ public class TimeseriesResultBuilder
     return this;
   }
 
+  public TimeseriesResultBuilder addMetric(String name, Object value)
+  {
+    metricValues.put(name, value);
+    return this;
+  }
+
   public Result<TimeseriesResultValue> build()
   {
     return new Result<TimeseriesResultValue>(
@@ -0,0 +1,385 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.topn;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+import org.apache.druid.java.util.common.CloseableIterators;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.guava.Comparators;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.java.util.common.parsers.CloseableIterator;
+import org.apache.druid.query.BaseQuery;
+import org.apache.druid.query.ColumnSelectorPlus;
+import org.apache.druid.query.ResourceLimitExceededException;
+import org.apache.druid.query.aggregation.Aggregator;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.groupby.epinephelinae.LimitedTemporaryStorage;
+import org.apache.druid.query.groupby.epinephelinae.TemporaryStorageFullException;
+import org.apache.druid.query.topn.types.TopNColumnSelectorStrategy;
+import org.apache.druid.segment.Cursor;
+import org.apache.druid.segment.DimensionHandlerUtils;
+import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.IndexedInts;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Heap-based algorithm like {@link DimExtractionTopNAlgorithm}, for the same kinds of dimensions, that bounds the
+ * number of dimension values aggregated on heap to {@link TopNQueryConfig#getMaxEntriesInMemory()}. When that many
+ * values are held, their partial aggregates are sorted by dimension value and written to temporary storage using
+ * "spillMapper". After the scan, the sorted runs are merged and the partial aggregates of each value combined, so
+ * results are the same as with {@link DimExtractionTopNAlgorithm}.
+ *
+ * All cursors of the segment share one temporary storage area of {@link TopNQueryConfig#getMaxOnDiskStorage()}
+ * bytes, which is deleted when this algorithm is closed.
+ */
+public class SpillingTopNAlgorithm
+    extends BaseTopNAlgorithm<Void, Map<Comparable<?>, Aggregator[]>, SpillingTopNAlgorithm.SpillingTopNParams>
+    implements Closeable
+{
+  @SuppressWarnings("unchecked")
+  private static final Comparator<Object[]> KEY_COMPARATOR =
+      (lhs, rhs) -> Comparators.<Comparable>naturalNullsFirst().compare((Comparable) lhs[0], (Comparable) rhs[0]);
+
+  private final TopNQuery query;
+  private final TopNQueryConfig config;
+  private final LimitedTemporaryStorage temporaryStorage;
+  private final ObjectMapper spillMapper;
+  private final AggregatorFactory[] aggregatorFactories;
+  private final ValueType outputType;
+  private final Function<Object, Comparable<?>> dimensionValueConverter;
+
+  public SpillingTopNAlgorithm(
+      StorageAdapter storageAdapter,
+      TopNQuery query,
+      TopNQueryConfig querySpecificConfig,
+      String processingTmpDir,
+      ObjectMapper spillMapper
+  )
+  {
+    super(storageAdapter);
+
+    this.query = query;
+    this.config = querySpecificConfig;
+    this.temporaryStorage = new LimitedTemporaryStorage(
+        new File(processingTmpDir, StringUtils.format("druid-topN-%s_%s", UUID.randomUUID(), query.getId())),
+        config.getMaxOnDiskStorage()
+    );
+    this.spillMapper = spillMapper;
+    this.aggregatorFactories = query.getAggregatorSpecs().toArray(new AggregatorFactory[0]);
+    this.outputType = query.getDimensionSpec().getOutputType();
+    this.dimensionValueConverter = DimensionHandlerUtils.converterFromTypeToType(ValueType.STRING, outputType);
+  }
+
+  @Override
+  public SpillingTopNParams makeInitParams(
+      final ColumnSelectorPlus<TopNColumnSelectorStrategy> selectorPlus,
+      final Cursor cursor
+  )
+  {
+    // Numeric columns are read through a dimension selector too, so that all values are handled in the same way.
+    final DimensionSelector dimSelector = selectorPlus.getSelector() instanceof DimensionSelector
+                                          ? (DimensionSelector) selectorPlus.getSelector()
+                                          : cursor.getColumnSelectorFactory()
+                                                  .makeDimensionSelector(query.getDimensionSpec());
+
+    return new SpillingTopNParams(selectorPlus, cursor, dimSelector);
+  }
+
+  @Override
+  protected Void makeDimValSelector(SpillingTopNParams params, int numProcessed, int numToProcess)
+  {
+    return null;
+  }
+
+  @Override
+  protected Void updateDimValSelector(Void dimValSelector, int numProcessed, int numToProcess)
+  {
+    return null;
+  }
+
+  @Override
+  protected Map<Comparable<?>, Aggregator[]> makeDimValAggregateStore(SpillingTopNParams params)
+  {
+    return new HashMap<>();
+  }
+
+  @Override
+  protected long scanAndAggregate(
+      SpillingTopNParams params,
+      Void dimValSelector,
+      Map<Comparable<?>, Aggregator[]> aggregatesStore
+  )
+  {
+    final Cursor cursor = params.getCursor();
+    final DimensionSelector selector = params.getDimensionSelector();
+    final int maxEntriesInMemory = config.getMaxEntriesInMemory();
+
+    long processedRows = 0;
+    while (!cursor.isDone()) {
+      final IndexedInts dimValues = selector.getRow();
+      for (int i = 0, size = dimValues.size(); i < size; ++i) {
+        final Comparable<?> key = dimensionValueConverter.apply(selector.lookupName(dimValues.get(i)));
+
+        Aggregator[] theAggregators = aggregatesStore.get(key);
+        if (theAggregators == null) {
+          if (aggregatesStore.size() >= maxEntriesInMemory) {
+            spill(params, aggregatesStore);
+          }
+          theAggregators = makeAggregators(cursor, query.getAggregatorSpecs());
+          aggregatesStore.put(key, theAggregators);
+        }
+        for (Aggregator aggregator : theAggregators) {
+          aggregator.aggregate();
+        }
+      }
+      cursor.advance();
+      processedRows++;
+    }
+    return processedRows;
+  }
+
+  @Override
+  protected void updateResults(
+      SpillingTopNParams params,
+      Void dimValSelector,
+      Map<Comparable<?>, Aggregator[]> aggregatesStore,
+      TopNResultBuilder resultBuilder
+  )
+  {
+    if (params.getSpilledFiles().isEmpty()) {
+      for (Map.Entry<Comparable<?>, Aggregator[]> entry : aggregatesStore.entrySet()) {
+        final Object[] vals = getValues(entry.getValue());
+        resultBuilder.addEntry(entry.getKey(), entry.getKey(), vals);
+      }
+      return;
+    }
+
+    final List<CloseableIterator<Object[]>> iterators = new ArrayList<>(1 + params.getSpilledFiles().size());
+    iterators.add(CloseableIterators.withEmptyBaggage(sortedEntries(aggregatesStore)));
+
+    try (final Closer closer = Closer.create()) {
+      for (final File file : params.getSpilledFiles()) {
+        final MappingIterator<Object[]> fileIterator = read(file);
+        closer.register(fileIterator);
+        iterators.add(CloseableIterators.withEmptyBaggage(Iterators.transform(fileIterator, this::deserializeEntry)));
+      }
+
+      final PeekingIterator<Object[]> mergedIterator = Iterators.peekingIterator(
+          CloseableIterators.mergeSorted(iterators, KEY_COMPARATOR)
+      );
+      while (mergedIterator.hasNext()) {
+        BaseQuery.checkInterrupted();
+
+        final Object[] entry = mergedIterator.next();
+        while (mergedIterator.hasNext() && KEY_COMPARATOR.compare(entry, mergedIterator.peek()) == 0) {
+          final Object[] other = mergedIterator.next();
+          for (int i = 0; i < aggregatorFactories.length; i++) {
+            entry[i + 1] = aggregatorFactories[i].combine(entry[i + 1], other[i + 1]);
+          }
+        }
+        resultBuilder.addEntry((Comparable) entry[0], entry[0], Arrays.copyOfRange(entry, 1, entry.length));
+      }
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    finally {
+      deleteSpilledFiles(params);
+    }
+  }
+
+  @Override
+  protected void closeAggregators(Map<Comparable<?>, Aggregator[]> aggregatesStore)
+  {
+    for (Aggregator[] aggregators : aggregatesStore.values()) {
+      for (Aggregator agg : aggregators) {
+        agg.close();
+      }
+    }
+  }
+
+  @Override
+  public void cleanup(SpillingTopNParams params)
+  {
+    if (params != null) {
+      deleteSpilledFiles(params);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    temporaryStorage.close();
+  }
+
+  private void spill(final SpillingTopNParams params, final Map<Comparable<?>, Aggregator[]> aggregatesStore)
+  {
+    // Warning: this can potentially block up a processing thread for a while.
+    try (
+        final LimitedTemporaryStorage.LimitedOutputStream out = temporaryStorage.createFile();
+        final LZ4BlockOutputStream compressedOut = new LZ4BlockOutputStream(out);
+        final JsonGenerator jsonGenerator = spillMapper.getFactory().createGenerator(compressedOut)
+    ) {
+      final Iterator<Object[]> iterator = sortedEntries(aggregatesStore);
+      while (iterator.hasNext()) {
+        BaseQuery.checkInterrupted();
+
+        jsonGenerator.writeObject(iterator.next());
+      }
+
+      params.getSpilledFiles().add(out.getFile());
+    }
+    catch (TemporaryStorageFullException e) {
+      throw new ResourceLimitExceededException(
+          "Not enough disk space to execute this query. Try raising druid.query.topN.maxOnDiskStorage."
+      );
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+
+    closeAggregators(aggregatesStore);
+    aggregatesStore.clear();
+  }
+
+  private void deleteSpilledFiles(final SpillingTopNParams params)
+  {
+    for (final File file : params.getSpilledFiles()) {
+      temporaryStorage.delete(file);
+    }
+    params.getSpilledFiles().clear();
+  }
+
+  /**
+   * Returns the entries of the given store as arrays of the dimension value followed by the partial aggregates, sorted
+   * by dimension value.
+   */
+  private Iterator<Object[]> sortedEntries(final Map<Comparable<?>, Aggregator[]> aggregatesStore)
+  {
+    final List<Object[]> entries = new ArrayList<>(aggregatesStore.size());
+    for (Map.Entry<Comparable<?>, Aggregator[]> entry : aggregatesStore.entrySet()) {
+      final Aggregator[] aggs = entry.getValue();
+      final Object[] values = new Object[1 + aggs.length];
+      values[0] = entry.getKey();
+      for (int i = 0; i < aggs.length; i++) {
+        values[i + 1] = aggs[i].get();
+      }
+      entries.add(values);
+    }
+    entries.sort(KEY_COMPARATOR);
+    return entries.iterator();
+  }
+
+  private Object[] deserializeEntry(final Object[] serializedEntry)
+  {
+    final Object[] entry = new Object[serializedEntry.length];
+    entry[0] = DimensionHandlerUtils.convertObjectToType(serializedEntry[0], outputType);
+    for (int i = 0; i < aggregatorFactories.length; i++) {
+      entry[i + 1] = deserializeValue(aggregatorFactories[i], serializedEntry[i + 1]);
+    }
+    return entry;
+  }
+
+  /**
+   * Restores the types that numbers have before spilling, which the spill format doesn't keep.
+   */
+  private static Object deserializeValue(final AggregatorFactory aggregatorFactory, final Object serializedValue)
+  {
+    final Object value = aggregatorFactory.deserialize(serializedValue);
+    if (!(value instanceof Number)) {
+      return value;
+    }
+    switch (aggregatorFactory.getTypeName()) {
+      case "long":
+        return ((Number) value).longValue();
+      case "float":
+        return ((Number) value).floatValue();
+      case "double":
+        return ((Number) value).doubleValue();
+      default:
+        return value;
+    }
+  }
+
+  private static Object[] getValues(final Aggregator[] aggs)
+  {
+    final Object[] vals = new Object[aggs.length];
+    for (int i = 0; i < aggs.length; i++) {
+      vals[i] = aggs[i].get();
+    }
+    return vals;
+  }
+
+  private MappingIterator<Object[]> read(final File file) throws IOException
+  {
+    return spillMapper.readValues(
+        spillMapper.getFactory().createParser(new LZ4BlockInputStream(new FileInputStream(file))),
+        Object[].class
+    );
+  }
+
+  public static class SpillingTopNParams extends TopNParams
+  {
+    private final DimensionSelector dimensionSelector;
+    private final List<File> spilledFiles = new ArrayList<>();
+
+    public SpillingTopNParams(
+        ColumnSelectorPlus<TopNColumnSelectorStrategy> selectorPlus,
+        Cursor cursor,
+        DimensionSelector dimensionSelector
+    )
+    {
+      super(selectorPlus, cursor, Integer.MAX_VALUE);
+
+      this.dimensionSelector = dimensionSelector;
+    }
+
+    public DimensionSelector getDimensionSelector()
+    {
+      return dimensionSelector;
+    }
+
+    public List<File> getSpilledFiles()
+    {
+      return spilledFiles;
+    }
+  }
+}
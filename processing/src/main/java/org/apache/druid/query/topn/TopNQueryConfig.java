@@ -27,12 +27,51 @@ import javax.validation.constraints.Min;
  */
 public class TopNQueryConfig
 {
+  private static final String CTX_KEY_MAX_ON_DISK_STORAGE = "maxOnDiskStorage";
+  private static final String CTX_KEY_MAX_ENTRIES_IN_MEMORY = "maxEntriesInMemory";
+
   @JsonProperty
   @Min(1)
   private int minTopNThreshold = 1000;
 
+  // Max on-disk temporary storage for spilling partial aggregates, per segment; 0 disables spilling
+  @JsonProperty
+  @Min(0)
+  private long maxOnDiskStorage = 0L;
+
+  // Max number of dimension values whose partial aggregates are kept on heap before they are spilled
+  @JsonProperty
+  @Min(1)
+  private int maxEntriesInMemory = 100_000;
+
   public int getMinTopNThreshold()
   {
     return minTopNThreshold;
   }
+
+  public long getMaxOnDiskStorage()
+  {
+    return maxOnDiskStorage;
+  }
+
+  public int getMaxEntriesInMemory()
+  {
+    return maxEntriesInMemory;
+  }
+
+  public TopNQueryConfig withOverrides(final TopNQuery query)
+  {
+    final TopNQueryConfig newConfig = new TopNQueryConfig();
+    newConfig.minTopNThreshold = getMinTopNThreshold();
+    // Queries can lower, but not raise, the limits on disk and heap usage.
+    newConfig.maxOnDiskStorage = Math.min(
+        ((Number) query.getContextValue(CTX_KEY_MAX_ON_DISK_STORAGE, getMaxOnDiskStorage())).longValue(),
+        getMaxOnDiskStorage()
+    );
+    newConfig.maxEntriesInMemory = Math.min(
+        ((Number) query.getContextValue(CTX_KEY_MAX_ENTRIES_IN_MEMORY, getMaxEntriesInMemory())).intValue(),
+        getMaxEntriesInMemory()
+    );
+    return newConfig;
+  }
 }
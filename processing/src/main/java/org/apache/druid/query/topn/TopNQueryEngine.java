@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.topn;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicates;
@@ -40,6 +41,7 @@ import org.apache.druid.segment.filter.Filters;
 import org.joda.time.Interval;
 
 import javax.annotation.Nullable;
+import java.io.Closeable;
 import java.nio.ByteBuffer;
 import java.util.List;
 
@@ -49,10 +51,32 @@ public class TopNQueryEngine
 {
 
   private final NonBlockingPool<ByteBuffer> bufferPool;
+  private final TopNQueryConfig config;
+  @Nullable
+  private final String processingTmpDir;
+  @Nullable
+  private final ObjectMapper spillMapper;
 
   public TopNQueryEngine(NonBlockingPool<ByteBuffer> bufferPool)
+  {
+    this(bufferPool, new TopNQueryConfig(), null, null);
+  }
+
+  /**
+   * @param processingTmpDir directory for spilling partial aggregates, or null to disable spilling
+   * @param spillMapper      mapper for spilling partial aggregates, or null to disable spilling
+   */
+  public TopNQueryEngine(
+      NonBlockingPool<ByteBuffer> bufferPool,
+      TopNQueryConfig config,
+      @Nullable String processingTmpDir,
+      @Nullable ObjectMapper spillMapper
+  )
   {
     this.bufferPool = bufferPool;
+    this.config = config;
+    this.processingTmpDir = processingTmpDir;
+    this.spillMapper = spillMapper;
   }
 
   public Sequence<Result<TopNResultValue>> query(
@@ -70,13 +94,14 @@ public class TopNQueryEngine
     final List<Interval> queryIntervals = query.getQuerySegmentSpec().getIntervals();
     final Filter filter = Filters.convertToCNFFromQueryContext(query, Filters.toFilter(query.getDimensionsFilter()));
     final Granularity granularity = query.getGranularity();
-    final TopNMapFn mapFn = getMapFn(query, adapter, queryMetrics);
+    final TopNAlgorithm topNAlgorithm = getAlgorithm(query, adapter, queryMetrics);
+    final TopNMapFn mapFn = new TopNMapFn(query, topNAlgorithm);
 
     Preconditions.checkArgument(
         queryIntervals.size() == 1, "Can only handle a single interval, got[%s]", queryIntervals
     );
 
-    return Sequences.filter(
+    final Sequence<Result<TopNResultValue>> results = Sequences.filter(
         Sequences.map(
             adapter.makeCursors(
                 filter,
@@ -100,9 +125,16 @@ public class TopNQueryEngine
         ),
         Predicates.notNull()
     );
+
+    if (topNAlgorithm instanceof Closeable) {
+      // Resources shared by the cursors of the segment, like the temporary storage of SpillingTopNAlgorithm.
+      return Sequences.withBaggage(results, (Closeable) topNAlgorithm);
+    } else {
+      return results;
+    }
   }
 
-  private TopNMapFn getMapFn(
+  private TopNAlgorithm getAlgorithm(
       final TopNQuery query,
       final StorageAdapter adapter,
       final @Nullable TopNQueryMetrics queryMetrics
@@ -137,15 +169,15 @@ public class TopNQueryEngine
       // currently relies on the dimension cardinality to support lexicographic sorting
       topNAlgorithm = new TimeExtractionTopNAlgorithm(adapter, query);
     } else if (selector.isHasExtractionFn()) {
-      topNAlgorithm = new DimExtractionTopNAlgorithm(adapter, query);
+      topNAlgorithm = makeHeapBasedAlgorithm(adapter, query);
     } else if (columnCapabilities != null && !(columnCapabilities.getType() == ValueType.STRING
                                                && columnCapabilities.isDictionaryEncoded())) {
       // Use DimExtraction for non-Strings and for non-dictionary-encoded Strings.
-      topNAlgorithm = new DimExtractionTopNAlgorithm(adapter, query);
+      topNAlgorithm = makeHeapBasedAlgorithm(adapter, query);
     } else if (query.getDimensionSpec().getOutputType() != ValueType.STRING) {
       // Use DimExtraction when the dimension output type is a non-String. (It's like an extractionFn: there can be
       // a many-to-one mapping, since numeric types can't represent all possible values of other types.)
-      topNAlgorithm = new DimExtractionTopNAlgorithm(adapter, query);
+      topNAlgorithm = makeHeapBasedAlgorithm(adapter, query);
     } else if (selector.isAggregateAllMetrics()) {
       topNAlgorithm = new PooledTopNAlgorithm(adapter, query, bufferPool);
     } else if (selector.isAggregateTopNMetricFirst() || query.getContextBoolean("doAggregateTopNMetricFirst", false)) {
@@ -157,7 +189,21 @@ public class TopNQueryEngine
       queryMetrics.algorithm(topNAlgorithm);
     }
 
-    return new TopNMapFn(query, topNAlgorithm);
+    return topNAlgorithm;
+  }
+
+  /**
+   * Returns {@link DimExtractionTopNAlgorithm}, or {@link SpillingTopNAlgorithm} if spilling to disk is enabled, which
+   * bounds the heap used for dimensions of any cardinality.
+   */
+  private TopNAlgorithm makeHeapBasedAlgorithm(final StorageAdapter adapter, final TopNQuery query)
+  {
+    final TopNQueryConfig querySpecificConfig = config.withOverrides(query);
+    if (processingTmpDir != null && spillMapper != null && querySpecificConfig.getMaxOnDiskStorage() > 0) {
+      return new SpillingTopNAlgorithm(adapter, query, querySpecificConfig, processingTmpDir, spillMapper);
+    } else {
+      return new DimExtractionTopNAlgorithm(adapter, query);
+    }
   }
 
   public static boolean canApplyExtractionInPost(TopNQuery query)
@@ -53,6 +53,7 @@ import org.apache.druid.query.dimension.DimensionSpec;
 import org.apache.druid.segment.DimensionHandlerUtils;
 import org.joda.time.DateTime;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -118,9 +119,7 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
       @Override
       protected Ordering<Result<TopNResultValue>> makeOrdering(Query<Result<TopNResultValue>> query)
       {
-        return ResultGranularTimestampComparator.create(
-            ((TopNQuery) query).getGranularity(), query.isDescending()
-        );
+        return Ordering.from(createResultComparator(query));
       }
 
       @Override
@@ -128,19 +127,33 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
           Query<Result<TopNResultValue>> input
       )
       {
-        TopNQuery query = (TopNQuery) input;
-        return new TopNBinaryFn(
-            query.getGranularity(),
-            query.getDimensionSpec(),
-            query.getTopNMetricSpec(),
-            query.getThreshold(),
-            query.getAggregatorSpecs(),
-            query.getPostAggregatorSpecs()
-        );
+        return TopNQueryQueryToolChest.this.createMergeFn(input);
       }
     };
   }
 
+  @Override
+  public BinaryFn<Result<TopNResultValue>, Result<TopNResultValue>, Result<TopNResultValue>> createMergeFn(
+      Query<Result<TopNResultValue>> input
+  )
+  {
+    TopNQuery query = (TopNQuery) input;
+    return new TopNBinaryFn(
+        query.getGranularity(),
+        query.getDimensionSpec(),
+        query.getTopNMetricSpec(),
+        query.getThreshold(),
+        query.getAggregatorSpecs(),
+        query.getPostAggregatorSpecs()
+    );
+  }
+
+  @Override
+  public Comparator<Result<TopNResultValue>> createResultComparator(Query<Result<TopNResultValue>> query)
+  {
+    return ResultGranularTimestampComparator.create(((TopNQuery) query).getGranularity(), query.isDescending());
+  }
+
   @Override
   public TopNQueryMetrics makeMetrics(TopNQuery query)
   {
@@ -19,12 +19,15 @@
 
 package org.apache.druid.query.topn;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import org.apache.druid.collections.NonBlockingPool;
 import org.apache.druid.guice.annotations.Global;
+import org.apache.druid.guice.annotations.Smile;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.query.ChainedExecutionQueryRunner;
+import org.apache.druid.query.DruidProcessingConfig;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryRunnerFactory;
@@ -33,6 +36,7 @@ import org.apache.druid.query.QueryWatcher;
 import org.apache.druid.query.Result;
 import org.apache.druid.segment.Segment;
 
+import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -44,23 +48,53 @@ public class TopNQueryRunnerFactory implements QueryRunnerFactory<Result<TopNRes
   private final NonBlockingPool<ByteBuffer> computationBufferPool;
   private final TopNQueryQueryToolChest toolchest;
   private final QueryWatcher queryWatcher;
+  private final TopNQueryConfig config;
+  @Nullable
+  private final String processingTmpDir;
+  @Nullable
+  private final ObjectMapper spillMapper;
+
+  public TopNQueryRunnerFactory(
+      NonBlockingPool<ByteBuffer> computationBufferPool,
+      TopNQueryQueryToolChest toolchest,
+      QueryWatcher queryWatcher
+  )
+  {
+    this.computationBufferPool = computationBufferPool;
+    this.toolchest = toolchest;
+    this.queryWatcher = queryWatcher;
+    this.config = new TopNQueryConfig();
+    this.processingTmpDir = null;
+    this.spillMapper = null;
+  }
 
   @Inject
   public TopNQueryRunnerFactory(
       @Global NonBlockingPool<ByteBuffer> computationBufferPool,
       TopNQueryQueryToolChest toolchest,
-      QueryWatcher queryWatcher
+      QueryWatcher queryWatcher,
+      TopNQueryConfig config,
+      DruidProcessingConfig processingConfig,
+      @Smile ObjectMapper spillMapper
   )
   {
     this.computationBufferPool = computationBufferPool;
     this.toolchest = toolchest;
     this.queryWatcher = queryWatcher;
+    this.config = config;
+    this.processingTmpDir = processingConfig.getTmpDir();
+    this.spillMapper = spillMapper;
   }
 
   @Override
   public QueryRunner<Result<TopNResultValue>> createRunner(final Segment segment)
   {
-    final TopNQueryEngine queryEngine = new TopNQueryEngine(computationBufferPool);
+    final TopNQueryEngine queryEngine = new TopNQueryEngine(
+        computationBufferPool,
+        config,
+        processingTmpDir,
+        spillMapper
+    );
     return new QueryRunner<Result<TopNResultValue>>()
     {
       @Override
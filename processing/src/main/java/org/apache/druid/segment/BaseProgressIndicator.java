@@ -52,4 +52,10 @@ public class BaseProgressIndicator implements ProgressIndicator
   {
     // do nothing
   }
+
+  @Override
+  public void mergeTierCompleted(int tier, int numIndexes, int numMergedIndexes, long millis)
+  {
+    // do nothing
+  }
 }
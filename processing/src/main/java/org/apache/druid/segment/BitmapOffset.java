@@ -24,12 +24,14 @@ import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.collections.bitmap.MutableBitmap;
 import org.apache.druid.collections.bitmap.WrappedImmutableRoaringBitmap;
 import org.apache.druid.extendedset.intset.EmptyIntIterator;
+import org.apache.druid.extendedset.intset.IntSet;
 import org.apache.druid.java.util.common.RE;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.data.Offset;
 import org.apache.druid.segment.data.ReadableOffset;
 import org.apache.druid.segment.data.RoaringBitmapSerdeFactory;
 import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -196,6 +198,27 @@ public class BitmapOffset extends Offset
     return value > INVALID_VALUE;
   }
 
+  /**
+   * Moves to the first row of the bitmap that is not before the given row in iteration order. Ascending offsets over
+   * Roaring and Concise bitmaps jump there without visiting the rows in between.
+   */
+  void advanceTo(int row, boolean descending)
+  {
+    if (descending) {
+      while (withinBounds() && value > row) {
+        increment();
+      }
+    } else if (withinBounds() && value < row) {
+      if (skipAllBefore(iterator, row)) {
+        increment();
+      } else {
+        while (withinBounds() && value < row) {
+          increment();
+        }
+      }
+    }
+  }
+
   @Override
   public void reset()
   {
@@ -229,6 +252,23 @@ public class BitmapOffset extends Offset
     inspector.visit("fullness", fullness);
   }
 
+  /**
+   * Moves an ascending bitmap iterator so that its next value is the first one that is not less than the given row,
+   * without visiting the values before it. Returns false, leaving the iterator as is, if the iterator can't do that.
+   */
+  public static boolean skipAllBefore(IntIterator iterator, int row)
+  {
+    if (iterator instanceof PeekableIntIterator) {
+      ((PeekableIntIterator) iterator).advanceIfNeeded(row);
+      return true;
+    } else if (iterator instanceof IntSet.IntIterator) {
+      ((IntSet.IntIterator) iterator).skipAllBefore(row);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
   private static IntIterator safeClone(IntIterator iterator)
   {
     // Calling clone() on empty iterators from RoaringBitmap library sometimes fails with NPE,
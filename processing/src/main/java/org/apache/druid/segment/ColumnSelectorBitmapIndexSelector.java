@@ -29,7 +29,9 @@ import org.apache.druid.segment.column.BaseColumn;
 import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.DictionaryEncodedColumn;
+import org.apache.druid.segment.column.NumericBitmapIndex;
 import org.apache.druid.segment.column.NumericColumn;
+import org.apache.druid.segment.column.ZoneMapIndex;
 import org.apache.druid.segment.data.CloseableIndexed;
 import org.apache.druid.segment.data.IndexedIterable;
 
@@ -293,6 +295,30 @@ public class ColumnSelectorBitmapIndexSelector implements BitmapIndexSelector
     return columnHolder.getSpatialIndex().getRTree();
   }
 
+  @Nullable
+  @Override
+  public ZoneMapIndex getZoneMapIndex(String column)
+  {
+    if (isVirtualColumn(column)) {
+      return null;
+    }
+
+    final ColumnHolder columnHolder = index.getColumnHolder(column);
+    return columnHolder == null ? null : columnHolder.getZoneMapIndex();
+  }
+
+  @Nullable
+  @Override
+  public NumericBitmapIndex getNumericBitmapIndex(String column)
+  {
+    if (isVirtualColumn(column)) {
+      return null;
+    }
+
+    final ColumnHolder columnHolder = index.getColumnHolder(column);
+    return columnHolder == null ? null : columnHolder.getNumericBitmapIndex();
+  }
+
   private boolean isVirtualColumn(final String columnName)
   {
     return virtualColumns.getVirtualColumn(columnName) != null;
@@ -38,11 +38,19 @@ public class DoubleDimensionMergerV9 extends NumericDimensionMergerV9
     return IndexMergerV9.createDoubleColumnSerializer(segmentWriteOutMedium, dimensionName, indexSpec);
   }
 
+  @Override
+  ValueType getValueType()
+  {
+    return ValueType.DOUBLE;
+  }
+
   @Override
   public ColumnDescriptor makeColumnDescriptor()
   {
     final ColumnDescriptor.Builder builder = ColumnDescriptor.builder();
     builder.setValueType(ValueType.DOUBLE);
+    IndexMergerV9.addZoneMapColumnPartSerde(builder, serializer);
+    addNumericBitmapIndexColumnPartSerde(builder);
     ColumnPartSerde serde = IndexMergerV9.createDoubleColumnPartSerde(serializer, indexSpec);
     builder.addSerde(serde);
     return builder.build();
@@ -38,11 +38,19 @@ public class FloatDimensionMergerV9 extends NumericDimensionMergerV9
     return IndexMergerV9.createFloatColumnSerializer(segmentWriteOutMedium, dimensionName, indexSpec);
   }
 
+  @Override
+  ValueType getValueType()
+  {
+    return ValueType.FLOAT;
+  }
+
   @Override
   public ColumnDescriptor makeColumnDescriptor()
   {
     final ColumnDescriptor.Builder builder = ColumnDescriptor.builder();
     builder.setValueType(ValueType.FLOAT);
+    IndexMergerV9.addZoneMapColumnPartSerde(builder, serializer);
+    addNumericBitmapIndexColumnPartSerde(builder);
     ColumnPartSerde serde = IndexMergerV9.createFloatColumnPartSerde(serializer, indexSpec);
     builder.addSerde(serde);
     return builder.build();
@@ -24,6 +24,7 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
@@ -179,13 +180,21 @@ public class IndexIO
   }
 
   public QueryableIndex loadIndex(File inDir) throws IOException
+  {
+    return loadIndex(inDir, false);
+  }
+
+  /**
+   * @param lazy if true, the columns of the index are deserialized on first access rather than when it's loaded
+   */
+  public QueryableIndex loadIndex(File inDir, boolean lazy) throws IOException
   {
     final int version = SegmentUtils.getVersionFromDir(inDir);
 
     final IndexLoader loader = indexLoaders.get(version);
 
     if (loader != null) {
-      return loader.load(inDir, mapper);
+      return loader.load(inDir, mapper, lazy);
     } else {
       throw new ISE("Unknown index version[%s]", version);
     }
@@ -406,7 +415,7 @@ public class IndexIO
 
   interface IndexLoader
   {
-    QueryableIndex load(File inDir, ObjectMapper mapper) throws IOException;
+    QueryableIndex load(File inDir, ObjectMapper mapper, boolean lazy) throws IOException;
   }
 
   static class LegacyIndexLoader implements IndexLoader
@@ -421,11 +430,12 @@ public class IndexIO
     }
 
     @Override
-    public QueryableIndex load(File inDir, ObjectMapper mapper) throws IOException
+    public QueryableIndex load(File inDir, ObjectMapper mapper, boolean lazy) throws IOException
     {
+      // Legacy indexes are converted to columns up front, so they are never loaded lazily.
       MMappedIndex index = legacyHandler.mapDir(inDir);
 
-      Map<String, ColumnHolder> columns = new HashMap<>();
+      Map<String, Supplier<ColumnHolder>> columns = new HashMap<>();
 
       for (String dimension : index.getAvailableDimensions()) {
         ColumnBuilder builder = new ColumnBuilder()
@@ -451,7 +461,7 @@ public class IndexIO
         }
         columns.put(
             dimension,
-            builder.build()
+            Suppliers.ofInstance(builder.build())
         );
       }
 
@@ -460,40 +470,46 @@ public class IndexIO
         if (metricHolder.getType() == MetricHolder.MetricType.FLOAT) {
           columns.put(
               metric,
-              new ColumnBuilder()
-                  .setType(ValueType.FLOAT)
-                  .setNumericColumnSupplier(
-                      new FloatNumericColumnSupplier(
-                          metricHolder.floatType,
-                          LEGACY_FACTORY.getBitmapFactory().makeEmptyImmutableBitmap()
+              Suppliers.ofInstance(
+                  new ColumnBuilder()
+                      .setType(ValueType.FLOAT)
+                      .setNumericColumnSupplier(
+                          new FloatNumericColumnSupplier(
+                              metricHolder.floatType,
+                              LEGACY_FACTORY.getBitmapFactory().makeEmptyImmutableBitmap()
+                          )
                       )
-                  )
-                  .build()
+                      .build()
+              )
           );
         } else if (metricHolder.getType() == MetricHolder.MetricType.COMPLEX) {
           columns.put(
               metric,
-              new ColumnBuilder()
-                  .setType(ValueType.COMPLEX)
-                  .setComplexColumnSupplier(
-                      new ComplexColumnPartSupplier(metricHolder.getTypeName(), metricHolder.complexType)
-                  )
-                  .build()
+              Suppliers.ofInstance(
+                  new ColumnBuilder()
+                      .setType(ValueType.COMPLEX)
+                      .setComplexColumnSupplier(
+                          new ComplexColumnPartSupplier(metricHolder.getTypeName(), metricHolder.complexType)
+                      )
+                      .build()
+              )
           );
         }
       }
 
       columns.put(
           ColumnHolder.TIME_COLUMN_NAME,
-          new ColumnBuilder()
-              .setType(ValueType.LONG)
-              .setNumericColumnSupplier(
-                  new LongNumericColumnSupplier(
-                      index.timestamps,
-                      LEGACY_FACTORY.getBitmapFactory().makeEmptyImmutableBitmap()
+          Suppliers.ofInstance(
+              new ColumnBuilder()
+                  .setType(ValueType.LONG)
+                  .setNumericColumnSupplier(
+                      new LongNumericColumnSupplier(
+                          index.timestamps,
+                          LEGACY_FACTORY.getBitmapFactory().makeEmptyImmutableBitmap()
+                      )
                   )
-              )
-              .build()
+                  .build()
+          )
       );
       return new SimpleQueryableIndex(
           index.getDataInterval(),
@@ -516,7 +532,7 @@ public class IndexIO
     }
 
     @Override
-    public QueryableIndex load(File inDir, ObjectMapper mapper) throws IOException
+    public QueryableIndex load(File inDir, ObjectMapper mapper, boolean lazy) throws IOException
     {
       log.debug("Mapping v9 index[%s]", inDir);
       long startTime = System.currentTimeMillis();
@@ -576,17 +592,21 @@ public class IndexIO
         }
       }
 
-      Map<String, ColumnHolder> columns = new HashMap<>();
+      Map<String, Supplier<ColumnHolder>> columns = new HashMap<>();
 
       for (String columnName : cols) {
         if (Strings.isNullOrEmpty(columnName)) {
           log.warn("Null or Empty Dimension found in the file : " + inDir);
           continue;
         }
-        columns.put(columnName, deserializeColumn(mapper, smooshedFiles.mapFile(columnName), smooshedFiles));
+        columns.put(columnName, makeColumnHolderSupplier(mapper, columnName, columnName, smooshedFiles, lazy));
       }
 
-      columns.put(ColumnHolder.TIME_COLUMN_NAME, deserializeColumn(mapper, smooshedFiles.mapFile("__time"), smooshedFiles));
+      // The time column is needed for the row count of every segment, so it's always loaded up front.
+      columns.put(
+          ColumnHolder.TIME_COLUMN_NAME,
+          makeColumnHolderSupplier(mapper, ColumnHolder.TIME_COLUMN_NAME, "__time", smooshedFiles, false)
+      );
 
       final QueryableIndex index = new SimpleQueryableIndex(
           dataInterval,
@@ -602,6 +622,36 @@ public class IndexIO
       return index;
     }
 
+    /**
+     * Maps the column's file and, unless lazy, deserializes it right away. Lazily loaded columns are deserialized on
+     * first access to {@link QueryableIndex#getColumnHolder}, which avoids reading the headers and dictionaries of
+     * columns that are never queried.
+     */
+    private Supplier<ColumnHolder> makeColumnHolderSupplier(
+        ObjectMapper mapper,
+        String columnName,
+        String fileName,
+        SmooshedFileMapper smooshedFiles,
+        boolean lazy
+    ) throws IOException
+    {
+      final ByteBuffer columnBuffer = smooshedFiles.mapFile(fileName);
+      final LazyColumnHolderSupplier columnHolderSupplier = new LazyColumnHolderSupplier(
+          columnName,
+          columnBuffer.remaining(),
+          () -> {
+            // Columns may map further smoosh files while being read, and SmooshedFileMapper is not thread-safe.
+            synchronized (smooshedFiles) {
+              return deserializeColumn(mapper, columnBuffer, smooshedFiles);
+            }
+          }
+      );
+      if (!lazy) {
+        columnHolderSupplier.get();
+      }
+      return columnHolderSupplier;
+    }
+
     private ColumnHolder deserializeColumn(ObjectMapper mapper, ByteBuffer byteBuffer, SmooshedFileMapper smooshedFiles)
         throws IOException
     {
@@ -46,7 +46,10 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -64,6 +67,13 @@ public interface IndexMerger
   SerializerUtils serializerUtils = new SerializerUtils();
   int INVALID_ROW = -1;
 
+  /**
+   * Key of the segment {@link Metadata} container entry listing the string dimensions whose bitmap indexes were
+   * omitted, because the segment was written with {@link IndexSpec#isStringBitmapIndexes()} turned off. Merging such
+   * segments with an IndexSpec that has string bitmap indexes turned on rebuilds them from the merged rows.
+   */
+  String OMITTED_BITMAP_INDEXES_KEY = "omittedBitmapIndexes";
+
   static List<String> getMergedDimensionsFromQueryableIndexes(List<QueryableIndex> indexes)
   {
     return getMergedDimensions(toIndexableAdapters(indexes));
@@ -74,6 +84,19 @@ public interface IndexMerger
     return indexes.stream().map(QueryableIndexIndexableAdapter::new).collect(Collectors.toList());
   }
 
+  static Set<String> getOmittedBitmapIndexes(@Nullable Metadata metadata)
+  {
+    final Object omitted = metadata == null ? null : metadata.get(OMITTED_BITMAP_INDEXES_KEY);
+    if (!(omitted instanceof Collection)) {
+      return Collections.emptySet();
+    }
+    final Set<String> dimensions = new HashSet<>();
+    for (Object dimension : (Collection<?>) omitted) {
+      dimensions.add(String.valueOf(dimension));
+    }
+    return dimensions;
+  }
+
   static List<String> getMergedDimensions(List<IndexableAdapter> indexes)
   {
     if (indexes.size() == 0) {
@@ -208,6 +231,24 @@ public interface IndexMerger
       @Nullable SegmentWriteOutMediumFactory segmentWriteOutMediumFactory
   ) throws IOException;
 
+  /**
+   * Merges the indexes in tiers: every tier merges groups of at most maxFanIn indexes into intermediate indexes,
+   * which the next tier merges further, until a single merge of at most maxFanIn indexes writes outDir. The memory
+   * used by a merge grows with the number of merged indexes, because every index needs its own row iterator, column
+   * buffers and dictionary conversions, so this bounds it independently of the number of indexes, at the cost of
+   * writing the rows more than once. {@link ProgressIndicator#mergeTierCompleted} is called after every tier.
+   */
+  File mergeQueryableIndex(
+      List<QueryableIndex> indexes,
+      boolean rollup,
+      AggregatorFactory[] metricAggs,
+      File outDir,
+      IndexSpec indexSpec,
+      ProgressIndicator progress,
+      @Nullable SegmentWriteOutMediumFactory segmentWriteOutMediumFactory,
+      int maxFanIn
+  ) throws IOException;
+
   @VisibleForTesting
   File merge(
       List<IndexableAdapter> indexes,
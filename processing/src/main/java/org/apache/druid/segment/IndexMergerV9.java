@@ -34,6 +34,7 @@ import org.apache.druid.java.util.common.DateTimes;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.JodaUtils;
+import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.guava.Comparators;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
@@ -45,6 +46,8 @@ import org.apache.druid.segment.column.ColumnCapabilitiesImpl;
 import org.apache.druid.segment.column.ColumnDescriptor;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.CompressionStrategySelector;
 import org.apache.druid.segment.data.GenericIndexed;
 import org.apache.druid.segment.incremental.IncrementalIndex;
 import org.apache.druid.segment.incremental.IncrementalIndexAdapter;
@@ -59,6 +62,7 @@ import org.apache.druid.segment.serde.FloatNumericColumnPartSerde;
 import org.apache.druid.segment.serde.FloatNumericColumnPartSerdeV2;
 import org.apache.druid.segment.serde.LongNumericColumnPartSerde;
 import org.apache.druid.segment.serde.LongNumericColumnPartSerdeV2;
+import org.apache.druid.segment.serde.ZoneMapColumnPartSerde;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 import org.apache.druid.segment.writeout.SegmentWriteOutMediumFactory;
 import org.joda.time.DateTime;
@@ -74,6 +78,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -87,6 +92,12 @@ public class IndexMergerV9 implements IndexMerger
 {
   private static final Logger log = new Logger(IndexMergerV9.class);
 
+  /**
+   * Number of blocks sampled per column to pick a compression strategy when {@link CompressionStrategy#AUTO} metric
+   * compression is requested.
+   */
+  private static final int AUTO_COMPRESSION_SAMPLE_BLOCKS = 4;
+
   private final ObjectMapper mapper;
   private final IndexIO indexIO;
   private final SegmentWriteOutMediumFactory defaultSegmentWriteOutMediumFactory;
@@ -161,12 +172,17 @@ public class IndexMergerV9 implements IndexMerger
       final Map<String, String> metricTypeNames = new TreeMap<>(Comparators.naturalNullsFirst());
       final List<ColumnCapabilitiesImpl> dimCapabilities = Lists.newArrayListWithCapacity(mergedDimensions.size());
       mergeCapabilities(adapters, mergedDimensions, metricsValueTypes, metricTypeNames, dimCapabilities);
+      resolveStringBitmapIndexes(adapters, mergedDimensions, dimCapabilities, indexSpec, segmentMetadata);
 
       final Map<String, DimensionHandler> handlers = makeDimensionHandlers(mergedDimensions, dimCapabilities);
       final List<DimensionMergerV9> mergers = new ArrayList<>();
       for (int i = 0; i < mergedDimensions.size(); i++) {
         DimensionHandler handler = handlers.get(mergedDimensions.get(i));
-        mergers.add(handler.makeMerger(indexSpec, segmentWriteOutMedium, dimCapabilities.get(i), progress, closer));
+        final ValueType dimType = dimCapabilities.get(i).getType();
+        final IndexSpec dimIndexSpec = dimType != null && dimType.isNumeric()
+                                       ? resolveAutoCompression(adapters, mergedDimensions.get(i), dimType, indexSpec)
+                                       : indexSpec;
+        mergers.add(handler.makeMerger(dimIndexSpec, segmentWriteOutMedium, dimCapabilities.get(i), progress, closer));
       }
 
       /************* Setup Dim Conversions **************/
@@ -186,9 +202,18 @@ public class IndexMergerV9 implements IndexMerger
           mergers
       );
       closer.register(timeAndDimsIterator);
-      final GenericColumnSerializer timeWriter = setupTimeWriter(segmentWriteOutMedium, indexSpec);
-      final ArrayList<GenericColumnSerializer> metricWriters =
-          setupMetricsWriters(segmentWriteOutMedium, mergedMetrics, metricsValueTypes, metricTypeNames, indexSpec);
+      final GenericColumnSerializer timeWriter = setupTimeWriter(
+          segmentWriteOutMedium,
+          resolveAutoCompression(adapters, ColumnHolder.TIME_COLUMN_NAME, ValueType.LONG, indexSpec)
+      );
+      final ArrayList<GenericColumnSerializer> metricWriters = setupMetricsWriters(
+          segmentWriteOutMedium,
+          adapters,
+          mergedMetrics,
+          metricsValueTypes,
+          metricTypeNames,
+          indexSpec
+      );
       List<IntBuffer> rowNumConversions = mergeIndexesAndWriteColumns(
           adapters,
           progress,
@@ -336,6 +361,7 @@ public class IndexMergerV9 implements IndexMerger
       GenericColumnSerializer writer = metWriters.get(i);
 
       final ColumnDescriptor.Builder builder = ColumnDescriptor.builder();
+      addZoneMapColumnPartSerde(builder, writer);
       ValueType type = metricsValueTypes.get(metric);
       switch (type) {
         case LONG:
@@ -371,6 +397,21 @@ public class IndexMergerV9 implements IndexMerger
     progress.stopSection(section);
   }
 
+  /**
+   * Adds the zone map of the column, if the serializer collected one. It must be added before the part holding the
+   * values, see {@link ZoneMapColumnPartSerde}.
+   */
+  static void addZoneMapColumnPartSerde(ColumnDescriptor.Builder builder, GenericColumnSerializer serializer)
+  {
+    if (serializer instanceof ZoneMapColumnSerializer) {
+      builder.addSerde(
+          ZoneMapColumnPartSerde.serializerBuilder()
+                                .withDelegate(((ZoneMapColumnSerializer) serializer).getZoneMapSerializer())
+                                .build()
+      );
+    }
+  }
+
   static ColumnPartSerde createLongColumnPartSerde(GenericColumnSerializer serializer, IndexSpec indexSpec)
   {
     // If using default values for null use LongNumericColumnPartSerde to allow rollback to previous versions.
@@ -574,6 +615,7 @@ public class IndexMergerV9 implements IndexMerger
 
   private ArrayList<GenericColumnSerializer> setupMetricsWriters(
       final SegmentWriteOutMedium segmentWriteOutMedium,
+      final List<IndexableAdapter> adapters,
       final List<String> mergedMetrics,
       final Map<String, ValueType> metricsValueTypes,
       final Map<String, String> metricTypeNames,
@@ -587,13 +629,25 @@ public class IndexMergerV9 implements IndexMerger
       GenericColumnSerializer writer;
       switch (type) {
         case LONG:
-          writer = createLongColumnSerializer(segmentWriteOutMedium, metric, indexSpec);
+          writer = createLongColumnSerializer(
+              segmentWriteOutMedium,
+              metric,
+              resolveAutoCompression(adapters, metric, type, indexSpec)
+          );
           break;
         case FLOAT:
-          writer = createFloatColumnSerializer(segmentWriteOutMedium, metric, indexSpec);
+          writer = createFloatColumnSerializer(
+              segmentWriteOutMedium,
+              metric,
+              resolveAutoCompression(adapters, metric, type, indexSpec)
+          );
           break;
         case DOUBLE:
-          writer = createDoubleColumnSerializer(segmentWriteOutMedium, metric, indexSpec);
+          writer = createDoubleColumnSerializer(
+              segmentWriteOutMedium,
+              metric,
+              resolveAutoCompression(adapters, metric, type, indexSpec)
+          );
           break;
         case COMPLEX:
           final String typeName = metricTypeNames.get(metric);
@@ -606,6 +660,9 @@ public class IndexMergerV9 implements IndexMerger
         default:
           throw new ISE("Unknown type[%s]", type);
       }
+      if (indexSpec.isZoneMaps() && type != ValueType.COMPLEX) {
+        writer = new ZoneMapColumnSerializer<>(writer, type);
+      }
       writer.open();
       // we will close these writers in another method after we added all the metrics
       metWriters.add(writer);
@@ -613,6 +670,90 @@ public class IndexMergerV9 implements IndexMerger
     return metWriters;
   }
 
+  /**
+   * Returns the IndexSpec to write the given numeric column with. If metric compression is
+   * {@link CompressionStrategy#AUTO}, the returned IndexSpec has it replaced with the strategy picked by
+   * {@link CompressionStrategySelector} for the first rows of the column, otherwise the given IndexSpec is returned.
+   */
+  private static IndexSpec resolveAutoCompression(
+      final List<IndexableAdapter> adapters,
+      final String columnName,
+      final ValueType type,
+      final IndexSpec indexSpec
+  ) throws IOException
+  {
+    if (indexSpec.getMetricCompression() != CompressionStrategy.AUTO) {
+      return indexSpec;
+    }
+    final List<ByteBuffer> sampleBlocks = sampleColumnBlocks(adapters, columnName, type);
+    final CompressionStrategy compression =
+        new CompressionStrategySelector(CompressionStrategySelector.DEFAULT_MIN_DECOMPRESSION_BYTES_PER_SECOND)
+            .select(sampleBlocks);
+    log.info("Picked compression[%s] for column[%s].", compression, columnName);
+    return new IndexSpec(
+        indexSpec.getBitmapSerdeFactory(),
+        indexSpec.getDimensionCompression(),
+        compression,
+        indexSpec.getLongEncoding(),
+        indexSpec.getStringDictionaryEncoding(),
+        indexSpec.isZoneMaps(),
+        indexSpec.isNumericBitmapIndexes(),
+        indexSpec.isStringBitmapIndexes()
+    );
+  }
+
+  private static List<ByteBuffer> sampleColumnBlocks(
+      final List<IndexableAdapter> adapters,
+      final String columnName,
+      final ValueType type
+  ) throws IOException
+  {
+    final List<ByteBuffer> blocks = new ArrayList<>(AUTO_COMPRESSION_SAMPLE_BLOCKS);
+    ByteBuffer block = ByteBuffer.allocate(CompressedPools.BUFFER_SIZE).order(IndexIO.BYTE_ORDER);
+    for (IndexableAdapter adapter : adapters) {
+      final boolean isTime = ColumnHolder.TIME_COLUMN_NAME.equals(columnName);
+      final int metricIndex = adapter.getMetricNames().indexOf(columnName);
+      final int dimIndex = adapter.getDimensionNames().indexOf(columnName);
+      if (!isTime && metricIndex < 0 && dimIndex < 0) {
+        continue;
+      }
+      try (TransformableRowIterator rows = adapter.getRows()) {
+        while (blocks.size() < AUTO_COMPRESSION_SAMPLE_BLOCKS && rows.moveToNext()) {
+          final RowPointer row = rows.getPointer();
+          final ColumnValueSelector selector = isTime
+                                               ? row.timestampSelector
+                                               : metricIndex >= 0
+                                                 ? row.getMetricSelector(metricIndex)
+                                                 : row.getDimensionSelector(dimIndex);
+          final boolean isNull = selector.isNull();
+          switch (type) {
+            case FLOAT:
+              block.putFloat(isNull ? 0f : selector.getFloat());
+              break;
+            case DOUBLE:
+              block.putDouble(isNull ? 0d : selector.getDouble());
+              break;
+            default:
+              block.putLong(isNull ? 0L : selector.getLong());
+          }
+          if (block.remaining() < Long.BYTES) {
+            block.flip();
+            blocks.add(block);
+            block = ByteBuffer.allocate(CompressedPools.BUFFER_SIZE).order(IndexIO.BYTE_ORDER);
+          }
+        }
+      }
+      if (blocks.size() == AUTO_COMPRESSION_SAMPLE_BLOCKS) {
+        break;
+      }
+    }
+    if (block.position() > 0 && blocks.size() < AUTO_COMPRESSION_SAMPLE_BLOCKS) {
+      block.flip();
+      blocks.add(block);
+    }
+    return blocks;
+  }
+
   static GenericColumnSerializer createLongColumnSerializer(
       SegmentWriteOutMedium segmentWriteOutMedium,
       String columnName,
@@ -726,6 +867,49 @@ public class IndexMergerV9 implements IndexMerger
     }
   }
 
+  /**
+   * String dimensions whose bitmap indexes were omitted from some of the adapters (see
+   * {@link IndexMerger#OMITTED_BITMAP_INDEXES_KEY}) get them back, unless indexSpec omits them again, in which case the
+   * omitted dimensions are recorded in the metadata of the merged segment. {@link StringDimensionMergerV9} rebuilds
+   * bitmaps that are missing from some of the adapters from the merged rows.
+   */
+  private static void resolveStringBitmapIndexes(
+      final List<IndexableAdapter> adapters,
+      final List<String> mergedDimensions,
+      final List<ColumnCapabilitiesImpl> dimCapabilities,
+      final IndexSpec indexSpec,
+      @Nullable final Metadata segmentMetadata
+  )
+  {
+    final Set<String> omittedBitmapIndexes = new HashSet<>();
+    for (IndexableAdapter adapter : adapters) {
+      omittedBitmapIndexes.addAll(IndexMerger.getOmittedBitmapIndexes(adapter.getMetadata()));
+    }
+
+    final List<String> stillOmittedBitmapIndexes = new ArrayList<>();
+    for (int i = 0; i < mergedDimensions.size(); i++) {
+      final ColumnCapabilitiesImpl capabilities = dimCapabilities.get(i);
+      if (capabilities.getType() != ValueType.STRING) {
+        continue;
+      }
+      if (omittedBitmapIndexes.contains(mergedDimensions.get(i))) {
+        capabilities.setHasBitmapIndexes(true);
+      }
+      // Spatial indexes are built from the bitmaps, so they can't be omitted
+      if (!indexSpec.isStringBitmapIndexes() && capabilities.hasBitmapIndexes() && !capabilities.hasSpatialIndexes()) {
+        capabilities.setHasBitmapIndexes(false);
+        stillOmittedBitmapIndexes.add(mergedDimensions.get(i));
+      }
+    }
+
+    if (segmentMetadata != null) {
+      segmentMetadata.getContainer().remove(OMITTED_BITMAP_INDEXES_KEY);
+      if (!stillOmittedBitmapIndexes.isEmpty()) {
+        segmentMetadata.put(OMITTED_BITMAP_INDEXES_KEY, stillOmittedBitmapIndexes);
+      }
+    }
+  }
+
   @Override
   public File persist(
       final IncrementalIndex index,
@@ -841,6 +1025,114 @@ public class IndexMergerV9 implements IndexMerger
     );
   }
 
+  @Override
+  public File mergeQueryableIndex(
+      List<QueryableIndex> indexes,
+      boolean rollup,
+      final AggregatorFactory[] metricAggs,
+      File outDir,
+      IndexSpec indexSpec,
+      ProgressIndicator progress,
+      @Nullable SegmentWriteOutMediumFactory segmentWriteOutMediumFactory,
+      int maxFanIn
+  ) throws IOException
+  {
+    Preconditions.checkArgument(maxFanIn > 1, "maxFanIn[%s] must be greater than 1", maxFanIn);
+    if (indexes.size() <= maxFanIn) {
+      return mergeQueryableIndex(
+          indexes,
+          rollup,
+          metricAggs,
+          outDir,
+          indexSpec,
+          progress,
+          segmentWriteOutMediumFactory
+      );
+    }
+
+    // Intermediate tiers are written next to outDir, which merge() deletes and recreates
+    final File absoluteOutDir = outDir.getAbsoluteFile();
+    final File tiersDir = new File(absoluteOutDir.getParentFile(), absoluteOutDir.getName() + "_merge_tiers");
+    FileUtils.deleteDirectory(tiersDir);
+
+    // Intermediate tiers are only read back by the next merge, which builds zone maps and numeric bitmaps from the
+    // merged values, so they are written without them. String bitmaps are kept: the next merge streams them with
+    // mergeBitmaps, while rebuilding them from rows would hold one bitmap per dictionary value on heap at once.
+    final IndexSpec tierIndexSpec = new IndexSpec(
+        indexSpec.getBitmapSerdeFactory(),
+        indexSpec.getDimensionCompression(),
+        indexSpec.getMetricCompression(),
+        indexSpec.getLongEncoding(),
+        indexSpec.getStringDictionaryEncoding(),
+        false,
+        false,
+        indexSpec.isStringBitmapIndexes()
+    );
+
+    final Closer closer = Closer.create();
+    closer.register(() -> FileUtils.deleteDirectory(tiersDir));
+    try {
+      List<QueryableIndex> tierIndexes = indexes;
+      Closer tierCloser = Closer.create();
+      for (int tier = 0; tierIndexes.size() > maxFanIn; tier++) {
+        final long tierStartTime = System.currentTimeMillis();
+        progress.startSection(StringUtils.format("merge tier %d", tier));
+        final Closer nextTierCloser = closer.register(Closer.create());
+        final List<QueryableIndex> nextTierIndexes = new ArrayList<>();
+        for (int start = 0; start < tierIndexes.size(); start += maxFanIn) {
+          final int end = Math.min(start + maxFanIn, tierIndexes.size());
+          if (end - start == 1) {
+            nextTierIndexes.add(tierIndexes.get(start));
+            continue;
+          }
+          final File groupDir = new File(tiersDir, StringUtils.format("%d_%d", tier, start / maxFanIn));
+          nextTierCloser.register(() -> FileUtils.deleteDirectory(groupDir));
+          merge(
+              IndexMerger.toIndexableAdapters(tierIndexes.subList(start, end)),
+              rollup,
+              metricAggs,
+              groupDir,
+              tierIndexSpec,
+              progress,
+              segmentWriteOutMediumFactory
+          );
+          nextTierIndexes.add(nextTierCloser.register(indexIO.loadIndex(groupDir)));
+        }
+        progress.stopSection(StringUtils.format("merge tier %d", tier));
+        final long tierMillis = System.currentTimeMillis() - tierStartTime;
+        progress.mergeTierCompleted(tier, tierIndexes.size(), nextTierIndexes.size(), tierMillis);
+        log.info(
+            "Completed merge tier[%d] of [%,d] indexes into [%,d] indexes in %,d millis.",
+            tier,
+            tierIndexes.size(),
+            nextTierIndexes.size(),
+            tierMillis
+        );
+
+        // The indexes of the previous tier, except the caller's, aren't needed anymore
+        tierCloser.close();
+        tierCloser = nextTierCloser;
+        tierIndexes = nextTierIndexes;
+      }
+
+      return mergeQueryableIndex(
+          tierIndexes,
+          rollup,
+          metricAggs,
+          outDir,
+          indexSpec,
+          progress,
+          segmentWriteOutMediumFactory
+      );
+    }
+    catch (Throwable t) {
+      throw closer.rethrow(t);
+    }
+    finally {
+      closer.close();
+    }
+  }
+
   @Override
   public File merge(
       List<IndexableAdapter> indexes,
@@ -28,6 +28,7 @@ import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.CompressionFactory;
 import org.apache.druid.segment.data.CompressionStrategy;
 import org.apache.druid.segment.data.ConciseBitmapSerdeFactory;
+import org.apache.druid.segment.data.StringEncodingStrategy;
 
 import java.util.Arrays;
 import java.util.Objects;
@@ -49,6 +50,7 @@ public class IndexSpec
       Arrays.asList(CompressionStrategy.values())
   );
 
+  // AUTO is not supported for dimensions, because string dimension columns are only dictionary encoded after merging
   private static final Set<CompressionStrategy> DIMENSION_COMPRESSION = Sets.newHashSet(
       Arrays.asList(CompressionStrategy.noNoneValues())
   );
@@ -61,14 +63,69 @@ public class IndexSpec
   private final CompressionStrategy dimensionCompression;
   private final CompressionStrategy metricCompression;
   private final CompressionFactory.LongEncodingStrategy longEncoding;
-
+  private final StringEncodingStrategy stringDictionaryEncoding;
+  private final boolean zoneMaps;
+  private final boolean numericBitmapIndexes;
+  private final boolean stringBitmapIndexes;
 
   /**
    * Creates an IndexSpec with default parameters
    */
   public IndexSpec()
   {
-    this(null, null, null, null);
+    this(null, null, null, null, null, null, null, null);
+  }
+
+  public IndexSpec(
+      BitmapSerdeFactory bitmapSerdeFactory,
+      CompressionStrategy dimensionCompression,
+      CompressionStrategy metricCompression,
+      CompressionFactory.LongEncodingStrategy longEncoding
+  )
+  {
+    this(bitmapSerdeFactory, dimensionCompression, metricCompression, longEncoding, null, null, null, null);
+  }
+
+  public IndexSpec(
+      BitmapSerdeFactory bitmapSerdeFactory,
+      CompressionStrategy dimensionCompression,
+      CompressionStrategy metricCompression,
+      CompressionFactory.LongEncodingStrategy longEncoding,
+      StringEncodingStrategy stringDictionaryEncoding
+  )
+  {
+    this(
+        bitmapSerdeFactory,
+        dimensionCompression,
+        metricCompression,
+        longEncoding,
+        stringDictionaryEncoding,
+        null,
+        null,
+        null
+    );
+  }
+
+  public IndexSpec(
+      BitmapSerdeFactory bitmapSerdeFactory,
+      CompressionStrategy dimensionCompression,
+      CompressionStrategy metricCompression,
+      CompressionFactory.LongEncodingStrategy longEncoding,
+      StringEncodingStrategy stringDictionaryEncoding,
+      Boolean zoneMaps,
+      Boolean numericBitmapIndexes
+  )
+  {
+    this(
+        bitmapSerdeFactory,
+        dimensionCompression,
+        metricCompression,
+        longEncoding,
+        stringDictionaryEncoding,
+        zoneMaps,
+        numericBitmapIndexes,
+        null
+    );
   }
 
   /**
@@ -83,17 +140,41 @@ public class IndexSpec
    *                             Defaults to {@link CompressionStrategy#DEFAULT_COMPRESSION_STRATEGY}
    *
    * @param metricCompression compression format for metric columns, null to use the default.
-   *                          Defaults to {@link CompressionStrategy#DEFAULT_COMPRESSION_STRATEGY}
+   *                          Defaults to {@link CompressionStrategy#DEFAULT_COMPRESSION_STRATEGY}.
+   *                          {@link CompressionStrategy#AUTO} picks the format per column when the segment is merged,
+   *                          this also applies to the time column and numeric dimension columns.
    *
    * @param longEncoding encoding strategy for metric and dimension columns with type long, null to use the default.
    *                     Defaults to {@link CompressionFactory#DEFAULT_LONG_ENCODING_STRATEGY}
+   *
+   * @param stringDictionaryEncoding storage format for the value dictionaries of string dimension columns, null to use
+   *                                 the default. Defaults to {@link StringEncodingStrategy#DEFAULT}
+   *
+   * @param zoneMaps whether to store per-block min/max summaries of numeric metric and dimension columns, which let
+   *                 filters skip blocks of rows, see {@link org.apache.druid.segment.column.ZoneMapIndex}. Defaults to
+   *                 false, because segments with zone maps can't be loaded by previous versions.
+   *
+   * @param numericBitmapIndexes whether to store bitmap indexes for long, float and double dimension columns, which let
+   *                             filters on them be resolved with bitmaps, see
+   *                             {@link org.apache.druid.segment.column.NumericBitmapIndex}. Defaults to false, for the
+   *                             same reason as zoneMaps.
+   *
+   * @param stringBitmapIndexes whether to store bitmap indexes for string dimension columns. Defaults to true. Turning
+   *                            this off is meant for indexSpecForIntermediatePersists: intermediate segments then hold
+   *                            only sorted rows and dictionaries, are filtered by scanning, and are faster to write
+   *                            and merge. The omitted bitmaps are rebuilt when such segments are merged with an
+   *                            IndexSpec that has them turned on, see {@link IndexMerger#OMITTED_BITMAP_INDEXES_KEY}.
    */
   @JsonCreator
   public IndexSpec(
       @JsonProperty("bitmap") BitmapSerdeFactory bitmapSerdeFactory,
       @JsonProperty("dimensionCompression") CompressionStrategy dimensionCompression,
       @JsonProperty("metricCompression") CompressionStrategy metricCompression,
-      @JsonProperty("longEncoding") CompressionFactory.LongEncodingStrategy longEncoding
+      @JsonProperty("longEncoding") CompressionFactory.LongEncodingStrategy longEncoding,
+      @JsonProperty("stringDictionaryEncoding") StringEncodingStrategy stringDictionaryEncoding,
+      @JsonProperty("zoneMaps") Boolean zoneMaps,
+      @JsonProperty("numericBitmapIndexes") Boolean numericBitmapIndexes,
+      @JsonProperty("stringBitmapIndexes") Boolean stringBitmapIndexes
   )
   {
     Preconditions.checkArgument(dimensionCompression == null || DIMENSION_COMPRESSION.contains(dimensionCompression),
@@ -109,6 +190,12 @@ public class IndexSpec
     this.dimensionCompression = dimensionCompression == null ? DEFAULT_DIMENSION_COMPRESSION : dimensionCompression;
     this.metricCompression = metricCompression == null ? DEFAULT_METRIC_COMPRESSION : metricCompression;
     this.longEncoding = longEncoding == null ? DEFAULT_LONG_ENCODING : longEncoding;
+    this.stringDictionaryEncoding = stringDictionaryEncoding == null
+                                    ? StringEncodingStrategy.DEFAULT
+                                    : stringDictionaryEncoding;
+    this.zoneMaps = zoneMaps != null && zoneMaps;
+    this.numericBitmapIndexes = numericBitmapIndexes != null && numericBitmapIndexes;
+    this.stringBitmapIndexes = stringBitmapIndexes == null || stringBitmapIndexes;
   }
 
   @JsonProperty("bitmap")
@@ -135,6 +222,30 @@ public class IndexSpec
     return longEncoding;
   }
 
+  @JsonProperty
+  public StringEncodingStrategy getStringDictionaryEncoding()
+  {
+    return stringDictionaryEncoding;
+  }
+
+  @JsonProperty
+  public boolean isZoneMaps()
+  {
+    return zoneMaps;
+  }
+
+  @JsonProperty
+  public boolean isNumericBitmapIndexes()
+  {
+    return numericBitmapIndexes;
+  }
+
+  @JsonProperty
+  public boolean isStringBitmapIndexes()
+  {
+    return stringBitmapIndexes;
+  }
+
   @Override
   public boolean equals(Object o)
   {
@@ -148,13 +259,26 @@ public class IndexSpec
     return Objects.equals(bitmapSerdeFactory, indexSpec.bitmapSerdeFactory) &&
            dimensionCompression == indexSpec.dimensionCompression &&
            metricCompression == indexSpec.metricCompression &&
-           longEncoding == indexSpec.longEncoding;
+           longEncoding == indexSpec.longEncoding &&
+           Objects.equals(stringDictionaryEncoding, indexSpec.stringDictionaryEncoding) &&
+           zoneMaps == indexSpec.zoneMaps &&
+           numericBitmapIndexes == indexSpec.numericBitmapIndexes &&
+           stringBitmapIndexes == indexSpec.stringBitmapIndexes;
   }
 
   @Override
   public int hashCode()
   {
-    return Objects.hash(bitmapSerdeFactory, dimensionCompression, metricCompression, longEncoding);
+    return Objects.hash(
+        bitmapSerdeFactory,
+        dimensionCompression,
+        metricCompression,
+        longEncoding,
+        stringDictionaryEncoding,
+        zoneMaps,
+        numericBitmapIndexes,
+        stringBitmapIndexes
+    );
   }
 
   @Override
@@ -165,6 +289,10 @@ public class IndexSpec
            ", dimensionCompression=" + dimensionCompression +
            ", metricCompression=" + metricCompression +
            ", longEncoding=" + longEncoding +
+           ", stringDictionaryEncoding=" + stringDictionaryEncoding +
+           ", zoneMaps=" + zoneMaps +
+           ", numericBitmapIndexes=" + numericBitmapIndexes +
+           ", stringBitmapIndexes=" + stringBitmapIndexes +
            '}';
   }
 }
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import com.google.common.base.Supplier;
+import org.apache.druid.java.util.common.RE;
+import org.apache.druid.segment.column.ColumnHolder;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * Supplies the {@link ColumnHolder} of a column of a memory mapped segment, deserializing the column descriptor and
+ * building its suppliers only when the column is first accessed. Keeps the serialized size of the column, so that
+ * {@link SimpleQueryableIndex#getLoadedColumnSizes()} can account for the columns materialized so far.
+ */
+final class LazyColumnHolderSupplier implements Supplier<ColumnHolder>
+{
+  interface ColumnLoader
+  {
+    ColumnHolder load() throws IOException;
+  }
+
+  private final String columnName;
+  private final long sizeBytes;
+  @Nullable
+  private ColumnLoader loader;
+  @Nullable
+  private volatile ColumnHolder columnHolder;
+
+  LazyColumnHolderSupplier(String columnName, long sizeBytes, ColumnLoader loader)
+  {
+    this.columnName = columnName;
+    this.sizeBytes = sizeBytes;
+    this.loader = loader;
+  }
+
+  @Override
+  public ColumnHolder get()
+  {
+    ColumnHolder holder = columnHolder;
+    if (holder == null) {
+      synchronized (this) {
+        holder = columnHolder;
+        if (holder == null) {
+          try {
+            holder = loader.load();
+          }
+          catch (IOException e) {
+            throw new RE(e, "Failed to load column[%s]", columnName);
+          }
+          columnHolder = holder;
+          // The loader keeps the column's buffer alive, it's not needed anymore.
+          loader = null;
+        }
+      }
+    }
+    return holder;
+  }
+
+  boolean isLoaded()
+  {
+    return columnHolder != null;
+  }
+
+  long getSizeBytes()
+  {
+    return sizeBytes;
+  }
+}
@@ -38,11 +38,19 @@ public class LongDimensionMergerV9 extends NumericDimensionMergerV9
     return IndexMergerV9.createLongColumnSerializer(segmentWriteOutMedium, dimensionName, indexSpec);
   }
 
+  @Override
+  ValueType getValueType()
+  {
+    return ValueType.LONG;
+  }
+
   @Override
   public ColumnDescriptor makeColumnDescriptor()
   {
     final ColumnDescriptor.Builder builder = ColumnDescriptor.builder();
     builder.setValueType(ValueType.LONG);
+    IndexMergerV9.addZoneMapColumnPartSerde(builder, serializer);
+    addNumericBitmapIndexColumnPartSerde(builder);
     ColumnPartSerde serde = IndexMergerV9.createLongColumnPartSerde(serializer, indexSpec);
     builder.addSerde(serde);
     return builder.build();
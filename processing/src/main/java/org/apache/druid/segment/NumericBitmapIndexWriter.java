@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.io.Channels;
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.column.NumericBitmapIndex;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.BitmapSerdeFactory;
+import org.apache.druid.segment.data.GenericIndexedWriter;
+import org.apache.druid.segment.serde.NumericBitmapIndexColumnPartSerde;
+import org.apache.druid.segment.serde.Serializer;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Collects the values of a numeric dimension, one row at a time, and writes its {@link NumericBitmapIndex} as part of a
+ * {@link NumericBitmapIndexColumnPartSerde}.
+ *
+ * Values are buffered as primitives rather than as a bitmap per distinct value, so that high cardinality dimensions
+ * don't need a bitmap per row while merging. Bitmaps are built one value at a time when the index is written.
+ */
+public class NumericBitmapIndexWriter implements Serializer
+{
+  private final ValueType type;
+  private final BitmapFactory bitmapFactory;
+  private final GenericIndexedWriter<ImmutableBitmap> bitmapWriter;
+
+  /**
+   * Value of each non-null row, raw double bits for floating point columns, and the row number it belongs to.
+   */
+  private final LongArrayList values = new LongArrayList();
+  private final IntArrayList rowNums = new IntArrayList();
+  private final MutableBitmap nullRows;
+  private int rowCount = 0;
+
+  private LongArrayList sortedValues = null;
+
+  public NumericBitmapIndexWriter(
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      ValueType type,
+      BitmapSerdeFactory bitmapSerdeFactory
+  )
+  {
+    // Fails early for unsupported types
+    NumericBitmapIndexColumnPartSerde.typeToByte(type);
+    this.type = type;
+    this.bitmapFactory = bitmapSerdeFactory.getBitmapFactory();
+    this.bitmapWriter = new GenericIndexedWriter<>(
+        segmentWriteOutMedium,
+        filenameBase,
+        bitmapSerdeFactory.getObjectStrategy()
+    );
+    this.nullRows = bitmapFactory.makeEmptyMutableBitmap();
+  }
+
+  public void open() throws IOException
+  {
+    bitmapWriter.open();
+    bitmapWriter.setObjectsNotSorted();
+  }
+
+  public void add(ColumnValueSelector selector)
+  {
+    // Null rows are only stored as such in SQL compatible mode, see IndexMergerV9.createLongColumnSerializer()
+    if (NullHandling.sqlCompatible() && selector.isNull()) {
+      nullRows.add(rowCount);
+    } else {
+      switch (type) {
+        case LONG:
+          values.add(selector.getLong());
+          break;
+        case FLOAT:
+          values.add(Double.doubleToLongBits(selector.getFloat()));
+          break;
+        default:
+          values.add(Double.doubleToLongBits(selector.getDouble()));
+      }
+      rowNums.add(rowCount);
+    }
+    rowCount++;
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    writeBitmapsIfNeeded();
+    return NumericBitmapIndexColumnPartSerde.HEADER_SIZE
+           + (long) sortedValues.size() * Long.BYTES
+           + bitmapWriter.getSerializedSize();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
+  {
+    writeBitmapsIfNeeded();
+    final ByteBuffer header = ByteBuffer.allocate(
+        NumericBitmapIndexColumnPartSerde.HEADER_SIZE + sortedValues.size() * Long.BYTES
+    );
+    header.put(NumericBitmapIndexColumnPartSerde.VERSION);
+    header.put(NumericBitmapIndexColumnPartSerde.typeToByte(type));
+    header.putInt(sortedValues.size());
+    for (int i = 0; i < sortedValues.size(); i++) {
+      header.putLong(sortedValues.getLong(i));
+    }
+    header.flip();
+    Channels.writeFully(channel, header);
+    bitmapWriter.writeTo(channel, smoosher);
+  }
+
+  private void writeBitmapsIfNeeded() throws IOException
+  {
+    if (sortedValues != null) {
+      return;
+    }
+
+    final long[] rowValues = values.elements();
+    final int[] order = new int[values.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    // Ties are broken by position, so that the rows of each value are added to its bitmap in ascending order
+    IntArrays.quickSort(
+        order,
+        (lhs, rhs) -> {
+          final int comparison = compareValues(rowValues[lhs], rowValues[rhs]);
+          return comparison != 0 ? comparison : Integer.compare(lhs, rhs);
+        }
+    );
+
+    sortedValues = new LongArrayList();
+    MutableBitmap valueRows = null;
+    for (int i : order) {
+      if (valueRows == null || rowValues[i] != sortedValues.getLong(sortedValues.size() - 1)) {
+        if (valueRows != null) {
+          bitmapWriter.write(bitmapFactory.makeImmutableBitmap(valueRows));
+        }
+        sortedValues.add(rowValues[i]);
+        valueRows = bitmapFactory.makeEmptyMutableBitmap();
+      }
+      valueRows.add(rowNums.getInt(i));
+    }
+    if (valueRows != null) {
+      bitmapWriter.write(bitmapFactory.makeImmutableBitmap(valueRows));
+    }
+    bitmapWriter.write(bitmapFactory.makeImmutableBitmap(nullRows));
+
+    values.clear();
+    values.trim();
+    rowNums.clear();
+    rowNums.trim();
+  }
+
+  private int compareValues(long lhs, long rhs)
+  {
+    if (type == ValueType.LONG) {
+      return Long.compare(lhs, rhs);
+    } else {
+      return Double.compare(Double.longBitsToDouble(lhs), Double.longBitsToDouble(rhs));
+    }
+  }
+}
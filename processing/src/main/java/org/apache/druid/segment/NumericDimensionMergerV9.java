@@ -19,6 +19,10 @@
 
 package org.apache.druid.segment;
 
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.segment.column.ColumnDescriptor;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.serde.NumericBitmapIndexColumnPartSerde;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 
 import javax.annotation.Nullable;
@@ -36,6 +40,8 @@ public abstract class NumericDimensionMergerV9 implements DimensionMergerV9
   protected final SegmentWriteOutMedium segmentWriteOutMedium;
 
   protected final GenericColumnSerializer serializer;
+  @Nullable
+  private final NumericBitmapIndexWriter bitmapIndexWriter;
 
   NumericDimensionMergerV9(
       String dimensionName,
@@ -48,8 +54,24 @@ public abstract class NumericDimensionMergerV9 implements DimensionMergerV9
     this.segmentWriteOutMedium = segmentWriteOutMedium;
 
     try {
-      serializer = setupEncodedValueWriter();
+      if (indexSpec.isZoneMaps()) {
+        serializer = new ZoneMapColumnSerializer<>(setupEncodedValueWriter(), getValueType());
+      } else {
+        serializer = setupEncodedValueWriter();
+      }
       serializer.open();
+
+      if (indexSpec.isNumericBitmapIndexes()) {
+        bitmapIndexWriter = new NumericBitmapIndexWriter(
+            segmentWriteOutMedium,
+            StringUtils.format("%s.inverted", dimensionName),
+            getValueType(),
+            indexSpec.getBitmapSerdeFactory()
+        );
+        bitmapIndexWriter.open();
+      } else {
+        bitmapIndexWriter = null;
+      }
     }
     catch (IOException ioe) {
       throw new RuntimeException(ioe);
@@ -58,6 +80,8 @@ public abstract class NumericDimensionMergerV9 implements DimensionMergerV9
 
   abstract GenericColumnSerializer setupEncodedValueWriter();
 
+  abstract ValueType getValueType();
+
   @Override
   public final void writeMergedValueDictionary(List<IndexableAdapter> adapters)
   {
@@ -77,6 +101,9 @@ public abstract class NumericDimensionMergerV9 implements DimensionMergerV9
   public final void processMergedRow(ColumnValueSelector selector) throws IOException
   {
     serializer.serialize(selector);
+    if (bitmapIndexWriter != null) {
+      bitmapIndexWriter.add(selector);
+    }
   }
 
   @Override
@@ -85,6 +112,22 @@ public abstract class NumericDimensionMergerV9 implements DimensionMergerV9
     // numeric values have no indices to write
   }
 
+  /**
+   * Adds the {@link NumericBitmapIndexColumnPartSerde} of this dimension, if it has one. Like zone maps, it must be
+   * added before the part holding the values.
+   */
+  void addNumericBitmapIndexColumnPartSerde(ColumnDescriptor.Builder builder)
+  {
+    if (bitmapIndexWriter != null) {
+      builder.addSerde(
+          NumericBitmapIndexColumnPartSerde.serializerBuilder()
+                                           .withBitmapSerdeFactory(indexSpec.getBitmapSerdeFactory())
+                                           .withDelegate(bitmapIndexWriter)
+                                           .build()
+      );
+    }
+  }
+
   @Override
   public final boolean canSkip()
   {
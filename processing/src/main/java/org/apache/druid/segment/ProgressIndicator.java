@@ -32,4 +32,14 @@ public interface ProgressIndicator
   void startSection(@SuppressWarnings("unused") String section);
 
   void stopSection(@SuppressWarnings("unused") String section);
+
+  /**
+   * Called after each intermediate tier of a merge with a maxFanIn, see {@link IndexMerger}.
+   *
+   * @param tier             the number of the tier, starting at 0
+   * @param numIndexes       the number of indexes the tier merged
+   * @param numMergedIndexes the number of indexes the tier produced
+   * @param millis           the time the tier took
+   */
+  void mergeTierCompleted(int tier, int numIndexes, int numMergedIndexes, long millis);
 }
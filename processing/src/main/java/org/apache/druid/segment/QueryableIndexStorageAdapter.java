@@ -25,6 +25,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
@@ -47,6 +48,11 @@ import org.apache.druid.segment.data.Offset;
 import org.apache.druid.segment.data.ReadableOffset;
 import org.apache.druid.segment.filter.AndFilter;
 import org.apache.druid.segment.historical.HistoricalCursor;
+import org.apache.druid.segment.vector.BitmapVectorOffset;
+import org.apache.druid.segment.vector.NoFilterVectorOffset;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorOffset;
 import org.joda.time.DateTime;
 import org.joda.time.Interval;
 
@@ -54,6 +60,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -309,13 +316,17 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
       queryMetrics.reportPreFilteredRows(preFilteredRows);
     }
 
+    // Zone maps of the columns read by the post-filter may rule out blocks of rows, or the whole segment. Cursors are
+    // still made if no block can match, since some queries, like timeseries, emit a row for every granularity bucket.
+    final BitSet zoneMapCandidateBlocks = postFilter == null ? null : postFilter.getZoneMapCandidateBlocks(selector);
+
     return Sequences.filter(
         new CursorSequenceBuilder(
             this,
             actualInterval,
             virtualColumns,
             gran,
-            offset,
+            zoneMapCandidateBlocks == null ? offset : new ZoneMapOffset(offset, zoneMapCandidateBlocks, descending),
             minDataTimestamp,
             maxDataTimestamp,
             descending,
@@ -326,6 +337,132 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
     );
   }
 
+  /**
+   * Returns true if {@link #makeVectorCursor} can be called with these parameters. Vectorized cursors support
+   * filters only if they can be resolved entirely using bitmap indexes, do not support virtual columns, and only scan
+   * in ascending time order.
+   */
+  public boolean canVectorize(
+      @Nullable final Filter filter,
+      final VirtualColumns virtualColumns,
+      final boolean descending
+  )
+  {
+    if (descending || virtualColumns.getVirtualColumns().length > 0) {
+      return false;
+    }
+
+    if (filter != null) {
+      final ColumnSelectorBitmapIndexSelector selector = new ColumnSelectorBitmapIndexSelector(
+          index.getBitmapFactoryForDimensions(),
+          virtualColumns,
+          index
+      );
+      return filter.supportsBitmapIndex(selector);
+    }
+
+    return true;
+  }
+
+  /**
+   * Creates a {@link VectorCursor} over all rows that match the filter and fall within the interval. Unlike
+   * {@link #makeCursors}, the cursor is not split by granularity. The returned cursor must be closed after use.
+   *
+   * @throws ISE if {@link #canVectorize} returns false for these parameters
+   */
+  public VectorCursor makeVectorCursor(
+      @Nullable final Filter filter,
+      final Interval interval,
+      final VirtualColumns virtualColumns,
+      final boolean descending,
+      final int vectorSize,
+      @Nullable final QueryMetrics<?> queryMetrics
+  )
+  {
+    if (!canVectorize(filter, virtualColumns, descending)) {
+      throw new ISE("Cannot vectorize. Check 'canVectorize' before calling 'makeVectorCursor'.");
+    }
+
+    final Closer closer = Closer.create();
+    final Map<String, BaseColumn> columnCache = new HashMap<>();
+    final int totalRows = index.getNumRows();
+
+    final int startRow;
+    final int endRow;
+    try (final NumericColumn timestamps = (NumericColumn) index.getColumnHolder(ColumnHolder.TIME_COLUMN_NAME)
+                                                                 .getColumn()) {
+      startRow = timeSearch(timestamps, interval.getStartMillis(), 0, totalRows);
+      endRow = timeSearch(timestamps, interval.getEndMillis(), startRow, totalRows);
+    }
+
+    final VectorOffset vectorOffset;
+    if (filter == null) {
+      vectorOffset = new NoFilterVectorOffset(vectorSize, startRow, endRow);
+    } else {
+      final ColumnSelectorBitmapIndexSelector selector = new ColumnSelectorBitmapIndexSelector(
+          index.getBitmapFactoryForDimensions(),
+          virtualColumns,
+          index
+      );
+      final BitmapResultFactory<?> bitmapResultFactory;
+      if (queryMetrics != null) {
+        bitmapResultFactory = queryMetrics.makeBitmapResultFactory(selector.getBitmapFactory());
+      } else {
+        bitmapResultFactory = new DefaultBitmapResultFactory(selector.getBitmapFactory());
+      }
+      final long bitmapConstructionStartNs = System.nanoTime();
+      final ImmutableBitmap bitmap = AndFilter.getBitmapIndex(
+          selector,
+          bitmapResultFactory,
+          Collections.singletonList(filter)
+      );
+      vectorOffset = new BitmapVectorOffset(vectorSize, bitmap, startRow, endRow);
+
+      if (queryMetrics != null) {
+        queryMetrics.reportBitmapConstructionTime(System.nanoTime() - bitmapConstructionStartNs);
+        queryMetrics.preFilters(Collections.singletonList(filter));
+        queryMetrics.postFilters(Collections.emptyList());
+        queryMetrics.reportPreFilteredRows(bitmap.size());
+      }
+    }
+
+    if (queryMetrics != null) {
+      queryMetrics.reportSegmentRows(totalRows);
+    }
+
+    return new QueryableIndexVectorCursor(
+        vectorOffset,
+        new QueryableIndexVectorColumnSelectorFactory(index, vectorOffset, closer, columnCache),
+        closer
+    );
+  }
+
+  /**
+   * Returns the first row within [startIndex, endIndex) whose timestamp is at least {@code timestamp}, or endIndex if
+   * there is no such row. Relies on rows being sorted by time, as they are in all persisted segments.
+   */
+  private static int timeSearch(
+      final NumericColumn timeColumn,
+      final long timestamp,
+      final int startIndex,
+      final int endIndex
+  )
+  {
+    int minIndex = startIndex;
+    int maxIndex = endIndex;
+
+    while (minIndex < maxIndex) {
+      final int currIndex = (minIndex + maxIndex) >>> 1;
+      if (timeColumn.getLongSingleValueRow(currIndex) < timestamp) {
+        minIndex = currIndex + 1;
+      } else {
+        maxIndex = currIndex;
+      }
+    }
+
+    return minIndex;
+  }
+
   @Nullable
   static ColumnCapabilities getColumnCapabilities(ColumnSelector index, String columnName)
   {
@@ -545,6 +682,72 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
     }
   }
 
+  private static class QueryableIndexVectorCursor implements VectorCursor
+  {
+    private final VectorOffset offset;
+    private final VectorColumnSelectorFactory columnSelectorFactory;
+    private final Closer closer;
+
+    QueryableIndexVectorCursor(
+        final VectorOffset offset,
+        final VectorColumnSelectorFactory columnSelectorFactory,
+        final Closer closer
+    )
+    {
+      this.offset = offset;
+      this.columnSelectorFactory = columnSelectorFactory;
+      this.closer = closer;
+    }
+
+    @Override
+    public VectorColumnSelectorFactory getColumnSelectorFactory()
+    {
+      return columnSelectorFactory;
+    }
+
+    @Override
+    public int getMaxVectorSize()
+    {
+      return offset.getMaxVectorSize();
+    }
+
+    @Override
+    public int getCurrentVectorSize()
+    {
+      return offset.getCurrentVectorSize();
+    }
+
+    @Override
+    public void advance()
+    {
+      offset.advance();
+      BaseQuery.checkInterrupted();
+    }
+
+    @Override
+    public boolean isDone()
+    {
+      return offset.isDone();
+    }
+
+    @Override
+    public void reset()
+    {
+      offset.reset();
+    }
+
+    @Override
+    public void close()
+    {
+      try {
+        closer.close();
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
   public abstract static class TimestampCheckingOffset extends Offset
   {
     final Offset baseOffset;
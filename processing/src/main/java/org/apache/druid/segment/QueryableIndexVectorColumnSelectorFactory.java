@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.segment.column.BaseColumn;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.NumericColumn;
+import org.apache.druid.segment.vector.NilVectorSelector;
+import org.apache.druid.segment.vector.ReadableVectorOffset;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Vectorized counterpart of {@link QueryableIndexColumnSelectorFactory}. Does not support virtual columns.
+ */
+class QueryableIndexVectorColumnSelectorFactory implements VectorColumnSelectorFactory
+{
+  private final QueryableIndex index;
+  private final ReadableVectorOffset offset;
+  private final Closer closer;
+
+  // Share Column objects, since they cache decompressed buffers internally, and we can avoid recomputation if the
+  // same column is used by more than one part of a query.
+  private final Map<String, BaseColumn> columnCache;
+
+  // Share selectors too, for the same reason that we cache columns (they may cache things internally).
+  private final Map<String, VectorValueSelector> valueSelectorCache;
+
+  QueryableIndexVectorColumnSelectorFactory(
+      final QueryableIndex index,
+      final ReadableVectorOffset offset,
+      final Closer closer,
+      final Map<String, BaseColumn> columnCache
+  )
+  {
+    this.index = index;
+    this.offset = offset;
+    this.closer = closer;
+    this.columnCache = columnCache;
+    this.valueSelectorCache = new HashMap<>();
+  }
+
+  @Override
+  public int getMaxVectorSize()
+  {
+    return offset.getMaxVectorSize();
+  }
+
+  @Override
+  public int getCurrentVectorSize()
+  {
+    return offset.getCurrentVectorSize();
+  }
+
+  @Override
+  public VectorValueSelector makeValueSelector(final String columnName)
+  {
+    return valueSelectorCache.computeIfAbsent(
+        columnName,
+        name -> {
+          final NumericColumn column = getCachedColumn(name, NumericColumn.class);
+          if (column != null) {
+            return column.makeVectorValueSelector(offset);
+          } else {
+            return NilVectorSelector.create(offset);
+          }
+        }
+    );
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private <T extends BaseColumn> T getCachedColumn(final String columnName, final Class<T> clazz)
+  {
+    final BaseColumn column = columnCache.computeIfAbsent(
+        columnName,
+        name -> {
+          ColumnHolder holder = index.getColumnHolder(name);
+          if (holder != null) {
+            return closer.register(holder.getColumn());
+          } else {
+            return null;
+          }
+        }
+    );
+
+    return clazz.isInstance(column) ? (T) column : null;
+  }
+
+  @Override
+  @Nullable
+  public ColumnCapabilities getColumnCapabilities(final String columnName)
+  {
+    return QueryableIndexStorageAdapter.getColumnCapabilities(index, columnName);
+  }
+}
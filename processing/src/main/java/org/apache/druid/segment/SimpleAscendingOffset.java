@@ -58,6 +58,14 @@ public class SimpleAscendingOffset extends Offset
     this.currentOffset = currentOffset;
   }
 
+  /**
+   * Moves forward to the given offset, or just past the last row if it is beyond that.
+   */
+  void advanceTo(int offset)
+  {
+    currentOffset = Math.min(Math.max(currentOffset, offset), rowCount);
+  }
+
   @Override
   public void reset()
   {
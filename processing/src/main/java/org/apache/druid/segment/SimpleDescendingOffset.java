@@ -53,6 +53,14 @@ public class SimpleDescendingOffset extends Offset
     return currentOffset >= 0;
   }
 
+  /**
+   * Moves backward to the given offset, or just past the first row if it is before that.
+   */
+  void advanceTo(int offset)
+  {
+    currentOffset = Math.max(Math.min(currentOffset, offset), -1);
+  }
+
   @Override
   public void reset()
   {
@@ -21,6 +21,8 @@ package org.apache.druid.segment;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import org.apache.druid.collections.bitmap.BitmapFactory;
@@ -31,6 +33,7 @@ import org.apache.druid.segment.data.Indexed;
 import org.joda.time.Interval;
 
 import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -42,17 +45,24 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
   private final List<String> columnNames;
   private final Indexed<String> availableDimensions;
   private final BitmapFactory bitmapFactory;
-  private final Map<String, ColumnHolder> columns;
+  /**
+   * Columns may be materialized lazily on first access, see {@link LazyColumnHolderSupplier}.
+   */
+  private final Map<String, Supplier<ColumnHolder>> columns;
   private final SmooshedFileMapper fileMapper;
   @Nullable
   private final Metadata metadata;
-  private final Map<String, DimensionHandler> dimensionHandlers;
+  /**
+   * Dimension handlers are only needed for merging, so they are created on first use to avoid materializing all
+   * dimension columns of lazily loaded segments.
+   */
+  private final Supplier<Map<String, DimensionHandler>> dimensionHandlers;
 
   public SimpleQueryableIndex(
       Interval dataInterval,
       Indexed<String> dimNames,
       BitmapFactory bitmapFactory,
-      Map<String, ColumnHolder> columns,
+      Map<String, Supplier<ColumnHolder>> columns,
       SmooshedFileMapper fileMapper,
       @Nullable Metadata metadata
   )
@@ -71,8 +81,7 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
     this.columns = columns;
     this.fileMapper = fileMapper;
     this.metadata = metadata;
-    this.dimensionHandlers = Maps.newLinkedHashMap();
-    initDimensionHandlers();
+    this.dimensionHandlers = Suppliers.memoize(this::initDimensionHandlers);
   }
 
   @VisibleForTesting
@@ -81,7 +90,7 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
       List<String> columnNames,
       Indexed<String> availableDimensions,
       BitmapFactory bitmapFactory,
-      Map<String, ColumnHolder> columns,
+      Map<String, Supplier<ColumnHolder>> columns,
       SmooshedFileMapper fileMapper,
       @Nullable Metadata metadata,
       Map<String, DimensionHandler> dimensionHandlers
@@ -94,7 +103,7 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
     this.columns = columns;
     this.fileMapper = fileMapper;
     this.metadata = metadata;
-    this.dimensionHandlers = dimensionHandlers;
+    this.dimensionHandlers = Suppliers.ofInstance(dimensionHandlers);
   }
 
   @Override
@@ -106,7 +115,7 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
   @Override
   public int getNumRows()
   {
-    return columns.get(ColumnHolder.TIME_COLUMN_NAME).getLength();
+    return columns.get(ColumnHolder.TIME_COLUMN_NAME).get().getLength();
   }
 
   @Override
@@ -137,15 +146,34 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
   @Override
   public ColumnHolder getColumnHolder(String columnName)
   {
-    return columns.get(columnName);
+    final Supplier<ColumnHolder> columnHolderSupplier = columns.get(columnName);
+    return columnHolderSupplier == null ? null : columnHolderSupplier.get();
   }
 
   @VisibleForTesting
-  public Map<String, ColumnHolder> getColumns()
+  public Map<String, Supplier<ColumnHolder>> getColumns()
   {
     return columns;
   }
 
+  /**
+   * Returns the serialized size in bytes of every column that has been materialized so far, in the order of
+   * {@link #getColumns()}. Columns of indexes that were not loaded from a memory mapped segment are not reported.
+   */
+  public Map<String, Long> getLoadedColumnSizes()
+  {
+    final Map<String, Long> sizes = new LinkedHashMap<>();
+    for (Map.Entry<String, Supplier<ColumnHolder>> entry : columns.entrySet()) {
+      if (entry.getValue() instanceof LazyColumnHolderSupplier) {
+        final LazyColumnHolderSupplier columnHolderSupplier = (LazyColumnHolderSupplier) entry.getValue();
+        if (columnHolderSupplier.isLoaded()) {
+          sizes.put(entry.getKey(), columnHolderSupplier.getSizeBytes());
+        }
+      }
+    }
+    return sizes;
+  }
+
   @VisibleForTesting
   public SmooshedFileMapper getFileMapper()
   {
@@ -167,15 +195,17 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
   @Override
   public Map<String, DimensionHandler> getDimensionHandlers()
   {
-    return dimensionHandlers;
+    return dimensionHandlers.get();
   }
 
-  private void initDimensionHandlers()
+  private Map<String, DimensionHandler> initDimensionHandlers()
   {
+    final Map<String, DimensionHandler> dimensionHandlerMap = Maps.newLinkedHashMap();
     for (String dim : availableDimensions) {
       ColumnCapabilities capabilities = getColumnHolder(dim).getCapabilities();
       DimensionHandler handler = DimensionHandlerUtils.getHandlerFromCapabilities(dim, capabilities, null);
-      dimensionHandlers.put(dim, handler);
+      dimensionHandlerMap.put(dim, handler);
     }
+    return dimensionHandlerMap;
   }
 }
@@ -48,6 +48,7 @@ import org.apache.druid.segment.data.ColumnarIntsSerializer;
 import org.apache.druid.segment.data.ColumnarMultiIntsSerializer;
 import org.apache.druid.segment.data.CompressedVSizeColumnarIntsSerializer;
 import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.FrontCodedIndexedWriter;
 import org.apache.druid.segment.data.GenericIndexed;
 import org.apache.druid.segment.data.GenericIndexedWriter;
 import org.apache.druid.segment.data.ImmutableRTreeObjectStrategy;
@@ -55,6 +56,7 @@ import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.data.IndexedInts;
 import org.apache.druid.segment.data.ListIndexed;
 import org.apache.druid.segment.data.SingleValueColumnarIntsSerializer;
+import org.apache.druid.segment.data.StringEncodingStrategy;
 import org.apache.druid.segment.data.V3CompressedVSizeColumnarMultiIntsSerializer;
 import org.apache.druid.segment.data.VSizeColumnarIntsSerializer;
 import org.apache.druid.segment.data.VSizeColumnarMultiIntsSerializer;
@@ -80,7 +82,10 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
   private ColumnarIntsSerializer encodedValueSerializer;
 
   private String dimensionName;
+  @Nullable
   private GenericIndexedWriter<String> dictionaryWriter;
+  @Nullable
+  private FrontCodedIndexedWriter frontCodedDictionaryWriter;
   private String firstDictionaryValue;
   private int dictionarySize;
   private GenericIndexedWriter<ImmutableBitmap> bitmapWriter;
@@ -89,6 +94,13 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
   private int cardinality = 0;
   private boolean hasNull = false;
   private MutableBitmap nullRowsBitmap;
+  /**
+   * Bitmaps of the merged rows, by merged dictionary id, collected in {@link #processMergedRow} when some of the
+   * merged adapters don't have bitmap indexes for this dimension, see {@link IndexMerger#OMITTED_BITMAP_INDEXES_KEY}.
+   * Null if the bitmap indexes are merged from the adapters' bitmap indexes instead.
+   */
+  @Nullable
+  private MutableBitmap[] rowBitmaps;
   private final SegmentWriteOutMedium segmentWriteOutMedium;
   private int rowCount = 0;
   private ColumnCapabilities capabilities;
@@ -164,11 +176,22 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
       numMergeIndex++;
     }
 
-    String dictFilename = StringUtils.format("%s.dim_values", dimensionName);
-    dictionaryWriter = new GenericIndexedWriter<>(segmentWriteOutMedium, dictFilename, GenericIndexed.STRING_STRATEGY);
+    final StringEncodingStrategy stringEncoding = indexSpec.getStringDictionaryEncoding();
+    // Spatial indexes read back dictionary values while merging, which only GenericIndexedWriter supports
+    if (stringEncoding instanceof StringEncodingStrategy.FrontCoded && !capabilities.hasSpatialIndexes()) {
+      frontCodedDictionaryWriter = new FrontCodedIndexedWriter(
+          segmentWriteOutMedium,
+          ((StringEncodingStrategy.FrontCoded) stringEncoding).getBucketSize()
+      );
+      frontCodedDictionaryWriter.open();
+    } else {
+      String dictFilename = StringUtils.format("%s.dim_values", dimensionName);
+      dictionaryWriter =
+          new GenericIndexedWriter<>(segmentWriteOutMedium, dictFilename, GenericIndexed.STRING_STRATEGY);
+      dictionaryWriter.open();
+    }
     firstDictionaryValue = null;
     dictionarySize = 0;
-    dictionaryWriter.open();
 
     cardinality = 0;
     if (numMergeIndex > 1) {
@@ -192,13 +215,32 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
         System.currentTimeMillis() - dimStartTime
     );
 
+    if (capabilities.hasBitmapIndexes() && isBitmapIndexMissingFromSomeAdapter()) {
+      rowBitmaps = new MutableBitmap[cardinality];
+    }
+
     setupEncodedValueWriter();
   }
 
+  private boolean isBitmapIndexMissingFromSomeAdapter()
+  {
+    for (IndexableAdapter adapter : adapters) {
+      if (adapter.getDimensionNames().contains(dimensionName)
+          && !adapter.getCapabilities(dimensionName).hasBitmapIndexes()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void writeDictionary(Iterable<String> dictionaryValues) throws IOException
   {
     for (String value : dictionaryValues) {
-      dictionaryWriter.write(value);
+      if (frontCodedDictionaryWriter != null) {
+        frontCodedDictionaryWriter.write(value);
+      } else {
+        dictionaryWriter.write(value);
+      }
       value = NullHandling.emptyToNullIfNeeded(value);
       if (dictionarySize == 0) {
         firstDictionaryValue = value;
@@ -353,6 +395,15 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
       int value = row.size() == 0 ? 0 : row.get(0);
       ((SingleValueColumnarIntsSerializer) encodedValueSerializer).addValue(value);
     }
+    if (rowBitmaps != null) {
+      for (int i = 0; i < rowSize; i++) {
+        final int dictId = row.get(i);
+        if (rowBitmaps[dictId] == null) {
+          rowBitmaps[dictId] = indexSpec.getBitmapSerdeFactory().getBitmapFactory().makeEmptyMutableBitmap();
+        }
+        rowBitmaps[dictId].add(rowCount);
+      }
+    }
     rowCount++;
   }
 
@@ -412,20 +463,31 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
       tree = new RTree(2, new LinearGutmanSplitStrategy(0, 50, bitmapFactory), bitmapFactory);
     }
 
-    IndexSeeker[] dictIdSeeker = toIndexSeekers(adapters, dimConversions, dimensionName);
+    IndexSeeker[] dictIdSeeker = rowBitmaps == null ? toIndexSeekers(adapters, dimConversions, dimensionName) : null;
 
     //Iterate all dim values's dictionary id in ascending order which in line with dim values's compare result.
     for (int dictId = 0; dictId < dictionarySize; dictId++) {
       progress.progress();
-      mergeBitmaps(
-          segmentRowNumConversions,
-          bitmapFactory,
-          tree,
-          hasSpatial,
-          dictIdSeeker,
-          dictId
-      );
+      if (rowBitmaps != null) {
+        // Row numbers in rowBitmaps are already the merged ones, so segmentRowNumConversions don't apply
+        MutableBitmap rowsBitmap = rowBitmaps[dictId];
+        rowBitmaps[dictId] = null;
+        if (rowsBitmap == null) {
+          rowsBitmap = bitmapFactory.makeEmptyMutableBitmap();
+        }
+        writeBitmap(bitmapFactory, tree, hasSpatial, dictId, rowsBitmap);
+      } else {
+        mergeBitmaps(
+            segmentRowNumConversions,
+            bitmapFactory,
+            tree,
+            hasSpatial,
+            dictIdSeeker,
+            dictId
+        );
+      }
     }
+    rowBitmaps = null;
 
     if (hasSpatial) {
       spatialWriter.write(ImmutableRTree.newImmutableFromMutable(tree));
@@ -489,6 +551,17 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
       prevRow = row;
     }
 
+    writeBitmap(bmpFactory, tree, hasSpatial, dictId, mergedIndexes);
+  }
+
+  private void writeBitmap(
+      BitmapFactory bmpFactory,
+      RTree tree,
+      boolean hasSpatial,
+      int dictId,
+      MutableBitmap mergedIndexes
+  ) throws IOException
+  {
     if (dictId == 0 && firstDictionaryValue == null) {
       mergedIndexes.or(nullRowsBitmap);
     }
@@ -527,7 +600,6 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
     builder.setHasMultipleValues(hasMultiValue);
     final DictionaryEncodedColumnPartSerde.SerializerBuilder partBuilder = DictionaryEncodedColumnPartSerde
         .serializerBuilder()
-        .withDictionary(dictionaryWriter)
         .withValue(
             encodedValueSerializer,
             hasMultiValue,
@@ -537,6 +609,11 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
         .withBitmapIndex(bitmapWriter)
         .withSpatialIndex(spatialWriter)
         .withByteOrder(IndexIO.BYTE_ORDER);
+    if (frontCodedDictionaryWriter != null) {
+      partBuilder.withDictionary(frontCodedDictionaryWriter);
+    } else {
+      partBuilder.withDictionary(dictionaryWriter);
+    }
     final ColumnDescriptor serdeficator = builder
         .addSerde(partBuilder.build())
         .build();
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.io.Channels;
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.column.ZoneMapIndex;
+import org.apache.druid.segment.serde.Serializer;
+import org.apache.druid.segment.serde.ZoneMapColumnPartSerde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Wraps the serializer of a numeric column and collects the {@link ZoneMapIndex} of the serialized values. The zone
+ * map is written by {@link #getZoneMapSerializer()}, as part of a {@link ZoneMapColumnPartSerde}.
+ */
+public class ZoneMapColumnSerializer<T> implements GenericColumnSerializer<T>
+{
+  private final GenericColumnSerializer<T> delegate;
+  private final ValueType type;
+
+  private final ByteArrayList blockFlags = new ByteArrayList();
+  private final LongArrayList blockMins = new LongArrayList();
+  private final LongArrayList blockMaxs = new LongArrayList();
+
+  private int rowsInBlock = 0;
+  private byte flags;
+  private long minLong;
+  private long maxLong;
+  private double minDouble;
+  private double maxDouble;
+
+  public ZoneMapColumnSerializer(GenericColumnSerializer<T> delegate, ValueType type)
+  {
+    // Fails early for unsupported types
+    ZoneMapColumnPartSerde.typeToByte(type);
+    this.delegate = delegate;
+    this.type = type;
+    resetBlock();
+  }
+
+  @Override
+  public void open() throws IOException
+  {
+    delegate.open();
+  }
+
+  @Override
+  public void serialize(ColumnValueSelector<? extends T> selector) throws IOException
+  {
+    delegate.serialize(selector);
+
+    // Null rows are only stored as such in SQL compatible mode, see IndexMergerV9.createLongColumnSerializer()
+    if (NullHandling.sqlCompatible() && selector.isNull()) {
+      flags |= ZoneMapColumnPartSerde.FLAG_HAS_NULLS;
+    } else if (type == ValueType.LONG) {
+      final long value = selector.getLong();
+      minLong = Math.min(minLong, value);
+      maxLong = Math.max(maxLong, value);
+      flags |= ZoneMapColumnPartSerde.FLAG_HAS_VALUES;
+    } else {
+      final double value = type == ValueType.FLOAT ? selector.getFloat() : selector.getDouble();
+      if (Double.isNaN(value)) {
+        flags |= ZoneMapColumnPartSerde.FLAG_HAS_NAN;
+      } else {
+        // Double.compare() orders -0.0 before 0.0, so that the range covers both orderings used by predicates
+        if (Double.compare(value, minDouble) < 0) {
+          minDouble = value;
+        }
+        if (Double.compare(value, maxDouble) > 0) {
+          maxDouble = value;
+        }
+      }
+      flags |= ZoneMapColumnPartSerde.FLAG_HAS_VALUES;
+    }
+
+    if (++rowsInBlock == ZoneMapIndex.BLOCK_SIZE) {
+      finishBlock();
+    }
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    return delegate.getSerializedSize();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
+  {
+    delegate.writeTo(channel, smoosher);
+  }
+
+  public Serializer getZoneMapSerializer()
+  {
+    return new Serializer()
+    {
+      @Override
+      public long getSerializedSize()
+      {
+        finishBlockIfNeeded();
+        return ZoneMapColumnPartSerde.getSerializedSize(blockFlags.size());
+      }
+
+      @Override
+      public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
+      {
+        finishBlockIfNeeded();
+        final ByteBuffer buffer = ByteBuffer.allocate(ZoneMapColumnPartSerde.getSerializedSize(blockFlags.size()));
+        buffer.put(ZoneMapColumnPartSerde.VERSION);
+        buffer.put(ZoneMapColumnPartSerde.typeToByte(type));
+        buffer.putInt(ZoneMapIndex.BLOCK_SIZE);
+        buffer.putInt(blockFlags.size());
+        for (int i = 0; i < blockFlags.size(); i++) {
+          buffer.put(blockFlags.getByte(i));
+          buffer.putLong(blockMins.getLong(i));
+          buffer.putLong(blockMaxs.getLong(i));
+        }
+        buffer.flip();
+        Channels.writeFully(channel, buffer);
+      }
+    };
+  }
+
+  private void finishBlockIfNeeded()
+  {
+    if (rowsInBlock > 0) {
+      finishBlock();
+    }
+  }
+
+  private void finishBlock()
+  {
+    blockFlags.add(flags);
+    if (type == ValueType.LONG) {
+      blockMins.add(minLong);
+      blockMaxs.add(maxLong);
+    } else {
+      blockMins.add(Double.doubleToLongBits(minDouble));
+      blockMaxs.add(Double.doubleToLongBits(maxDouble));
+    }
+    resetBlock();
+  }
+
+  private void resetBlock()
+  {
+    rowsInBlock = 0;
+    flags = 0;
+    minLong = Long.MAX_VALUE;
+    maxLong = Long.MIN_VALUE;
+    minDouble = Double.POSITIVE_INFINITY;
+    maxDouble = Double.NEGATIVE_INFINITY;
+  }
+}
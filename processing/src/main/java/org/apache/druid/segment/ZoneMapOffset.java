@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.column.ZoneMapIndex;
+import org.apache.druid.segment.data.Offset;
+import org.apache.druid.segment.data.ReadableOffset;
+
+import java.util.BitSet;
+
+/**
+ * Skips the rows of the base offset that belong to blocks which can't contain rows matching the filter, as determined
+ * by {@link org.apache.druid.query.filter.Filter#getZoneMapCandidateBlocks}. Works for both ascending and descending
+ * base offsets. Simple and bitmap base offsets jump straight to the next candidate block, other offsets are incremented
+ * through the skipped blocks row by row.
+ */
+public final class ZoneMapOffset extends Offset
+{
+  private final Offset baseOffset;
+  private final BitSet candidateBlocks;
+  private final boolean descending;
+
+  ZoneMapOffset(Offset baseOffset, BitSet candidateBlocks, boolean descending)
+  {
+    this.baseOffset = baseOffset;
+    this.candidateBlocks = candidateBlocks;
+    this.descending = descending;
+    skipNonCandidateBlocks();
+  }
+
+  @Override
+  public void increment()
+  {
+    baseOffset.increment();
+    skipNonCandidateBlocks();
+  }
+
+  @Override
+  public boolean withinBounds()
+  {
+    return baseOffset.withinBounds();
+  }
+
+  @Override
+  public void reset()
+  {
+    baseOffset.reset();
+    skipNonCandidateBlocks();
+  }
+
+  private void skipNonCandidateBlocks()
+  {
+    while (baseOffset.withinBounds()) {
+      final int block = baseOffset.getOffset() / ZoneMapIndex.BLOCK_SIZE;
+      if (candidateBlocks.get(block)) {
+        return;
+      }
+      if (descending) {
+        // Last row of the previous candidate block, or -1 if there is none
+        final int nextBlock = candidateBlocks.previousSetBit(block - 1);
+        advanceBaseOffsetTo(nextBlock < 0 ? -1 : (nextBlock + 1) * ZoneMapIndex.BLOCK_SIZE - 1);
+      } else {
+        // First row of the next candidate block, or past the end if there is none
+        final int nextBlock = candidateBlocks.nextSetBit(block + 1);
+        advanceBaseOffsetTo(nextBlock < 0 ? Integer.MAX_VALUE : nextBlock * ZoneMapIndex.BLOCK_SIZE);
+      }
+    }
+  }
+
+  private void advanceBaseOffsetTo(int row)
+  {
+    if (baseOffset instanceof SimpleAscendingOffset) {
+      ((SimpleAscendingOffset) baseOffset).advanceTo(row);
+    } else if (baseOffset instanceof SimpleDescendingOffset) {
+      ((SimpleDescendingOffset) baseOffset).advanceTo(row);
+    } else if (baseOffset instanceof BitmapOffset) {
+      ((BitmapOffset) baseOffset).advanceTo(row, descending);
+    } else {
+      while (baseOffset.withinBounds() && (descending ? baseOffset.getOffset() > row : baseOffset.getOffset() < row)) {
+        baseOffset.increment();
+      }
+    }
+  }
+
+  @Override
+  public ReadableOffset getBaseReadableOffset()
+  {
+    return baseOffset.getBaseReadableOffset();
+  }
+
+  @Override
+  public Offset clone()
+  {
+    return new ZoneMapOffset(baseOffset.clone(), candidateBlocks, descending);
+  }
+
+  @Override
+  public int getOffset()
+  {
+    return baseOffset.getOffset();
+  }
+
+  @Override
+  public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+  {
+    inspector.visit("baseOffset", baseOffset);
+  }
+}
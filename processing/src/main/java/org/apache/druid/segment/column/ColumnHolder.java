@@ -45,6 +45,10 @@ public interface ColumnHolder
   BitmapIndex getBitmapIndex();
   @Nullable
   SpatialIndex getSpatialIndex();
+  @Nullable
+  ZoneMapIndex getZoneMapIndex();
+  @Nullable
+  NumericBitmapIndex getNumericBitmapIndex();
 
   /**
    * Returns a new instance of a {@link SettableColumnValueSelector}, corresponding to the type of this column.
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.column;
+
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+
+/**
+ * Bitmap index of a long, float or double column: the sorted distinct non-null values of the column, and the bitmap of
+ * the rows holding each of them. Unlike {@link BitmapIndex}, values are kept typed, so that filters can be resolved
+ * with the same numeric semantics as the value matchers of the column.
+ *
+ * Values of {@link ValueType#FLOAT} and {@link ValueType#DOUBLE} columns are exposed as doubles, ordered like
+ * {@link Double#compare}: -0.0 comes before 0.0 and NaN comes last.
+ */
+public interface NumericBitmapIndex
+{
+  ValueType getType();
+
+  BitmapFactory getBitmapFactory();
+
+  /**
+   * Returns the number of distinct non-null values.
+   */
+  int getCardinality();
+
+  /**
+   * Returns the value at the given index. Only for {@link ValueType#LONG} columns.
+   */
+  long getLong(int index);
+
+  /**
+   * Returns the value at the given index. Only for {@link ValueType#FLOAT} and {@link ValueType#DOUBLE} columns.
+   */
+  double getDouble(int index);
+
+  /**
+   * Returns the index of "value", or (-(insertion point) - 1) if the value is not present, in the manner of
+   * Arrays.binarySearch. Only for {@link ValueType#LONG} columns.
+   */
+  int indexOf(long value);
+
+  /**
+   * Returns the index of "value", or (-(insertion point) - 1) if the value is not present, in the manner of
+   * Arrays.binarySearch. Only for {@link ValueType#FLOAT} and {@link ValueType#DOUBLE} columns.
+   */
+  int indexOf(double value);
+
+  ImmutableBitmap getBitmap(int index);
+
+  /**
+   * Returns the bitmap of null rows, which is empty unless the column was written in SQL compatible null handling mode.
+   */
+  ImmutableBitmap getNullBitmap();
+}
@@ -21,6 +21,8 @@ package org.apache.druid.segment.column;
 
 import org.apache.druid.query.monomorphicprocessing.CalledFromHotLoop;
 import org.apache.druid.query.monomorphicprocessing.HotLoopCallee;
+import org.apache.druid.segment.vector.ReadableVectorOffset;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 /**
  */
@@ -31,6 +33,8 @@ public interface NumericColumn extends BaseColumn, HotLoopCallee
   @CalledFromHotLoop
   long getLongSingleValueRow(int rowNum);
 
+  VectorValueSelector makeVectorValueSelector(ReadableVectorOffset offset);
+
   @Override
   void close();
 }
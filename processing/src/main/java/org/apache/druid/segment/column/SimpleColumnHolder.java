@@ -34,18 +34,26 @@ class SimpleColumnHolder implements ColumnHolder
   private final Supplier<BitmapIndex> bitmapIndex;
   @Nullable
   private final Supplier<SpatialIndex> spatialIndex;
+  @Nullable
+  private final Supplier<ZoneMapIndex> zoneMapIndex;
+  @Nullable
+  private final Supplier<NumericBitmapIndex> numericBitmapIndex;
 
   SimpleColumnHolder(
       ColumnCapabilities capabilities,
       Supplier<? extends BaseColumn> columnSupplier,
       @Nullable Supplier<BitmapIndex> bitmapIndex,
-      @Nullable Supplier<SpatialIndex> spatialIndex
+      @Nullable Supplier<SpatialIndex> spatialIndex,
+      @Nullable Supplier<ZoneMapIndex> zoneMapIndex,
+      @Nullable Supplier<NumericBitmapIndex> numericBitmapIndex
   )
   {
     this.capabilities = capabilities;
     this.columnSupplier = columnSupplier;
     this.bitmapIndex = bitmapIndex;
     this.spatialIndex = spatialIndex;
+    this.zoneMapIndex = zoneMapIndex;
+    this.numericBitmapIndex = numericBitmapIndex;
   }
 
   @Override
@@ -82,6 +90,20 @@ class SimpleColumnHolder implements ColumnHolder
     return spatialIndex == null ? null : spatialIndex.get();
   }
 
+  @Nullable
+  @Override
+  public ZoneMapIndex getZoneMapIndex()
+  {
+    return zoneMapIndex == null ? null : zoneMapIndex.get();
+  }
+
+  @Nullable
+  @Override
+  public NumericBitmapIndex getNumericBitmapIndex()
+  {
+    return numericBitmapIndex == null ? null : numericBitmapIndex.get();
+  }
+
   @Override
   public SettableColumnValueSelector makeNewSettableColumnValueSelector()
   {
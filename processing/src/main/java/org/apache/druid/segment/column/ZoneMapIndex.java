@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.column;
+
+/**
+ * Summary of the values of a numeric column per block of {@link #BLOCK_SIZE} consecutive rows (the last block may be
+ * smaller), also known as a "zone map". Filters use it to skip blocks of rows that can't contain matching values, see
+ * {@link org.apache.druid.query.filter.Filter#getZoneMapCandidateBlocks}.
+ *
+ * The min and max of a block are only meaningful if the block {@link #hasValues}. Blocks that contain NaN can't be
+ * pruned by value range, see {@link #hasNaN}.
+ */
+public interface ZoneMapIndex
+{
+  int BLOCK_SIZE = 1 << 16;
+
+  /**
+   * One of {@link ValueType#LONG}, {@link ValueType#FLOAT} or {@link ValueType#DOUBLE}.
+   */
+  ValueType getType();
+
+  int getNumBlocks();
+
+  boolean hasNulls(int block);
+
+  boolean hasValues(int block);
+
+  boolean hasNaN(int block);
+
+  /**
+   * Only valid for columns of type {@link ValueType#LONG}.
+   */
+  long getMinLong(int block);
+
+  /**
+   * Only valid for columns of type {@link ValueType#LONG}.
+   */
+  long getMaxLong(int block);
+
+  /**
+   * Only valid for columns of type {@link ValueType#FLOAT} or {@link ValueType#DOUBLE}. Float values are widened to
+   * double without loss.
+   */
+  double getMinDouble(int block);
+
+  /**
+   * Only valid for columns of type {@link ValueType#FLOAT} or {@link ValueType#DOUBLE}. Float values are widened to
+   * double without loss.
+   */
+  double getMaxDouble(int block);
+}
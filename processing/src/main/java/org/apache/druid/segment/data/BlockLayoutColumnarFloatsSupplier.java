@@ -119,6 +119,27 @@ public class BlockLayoutColumnarFloatsSupplier implements Supplier<ColumnarFloat
       }
     }
 
+    @Override
+    public void get(final float[] out, final int start, final int length)
+    {
+      // Copy whole runs out of each block, rather than looking up the block for every row.
+      int p = 0;
+      while (p < length) {
+        final int bufferNum = (start + p) / sizePer;
+        final int bufferIndex = (start + p) % sizePer;
+
+        if (bufferNum != currBufferNum) {
+          loadBuffer(bufferNum);
+        }
+
+        final int limit = Math.min(length - p, sizePer - bufferIndex);
+        for (int i = 0; i < limit; i++) {
+          out[p + i] = floatBuffer.get(bufferIndex + i);
+        }
+        p += limit;
+      }
+    }
+
     protected void loadBuffer(int bufferNum)
     {
       CloseQuietly.close(holder);
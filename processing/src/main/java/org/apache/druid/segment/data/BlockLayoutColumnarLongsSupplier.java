@@ -77,6 +77,27 @@ public class BlockLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs>
             return longBuffer.get(bufferIndex);
           }
 
+          @Override
+          public void get(final long[] out, final int start, final int length)
+          {
+            // Copy whole runs out of each block, rather than looking up the block for every row.
+            int p = 0;
+            while (p < length) {
+              final int bufferNum = (start + p) / sizePer;
+              final int bufferIndex = (start + p) % sizePer;
+
+              if (bufferNum != currBufferNum) {
+                loadBuffer(bufferNum);
+              }
+
+              final int limit = Math.min(length - p, sizePer - bufferIndex);
+              for (int i = 0; i < limit; i++) {
+                out[p + i] = longBuffer.get(bufferIndex + i);
+              }
+              p += limit;
+            }
+          }
+
           @Override
           protected void loadBuffer(int bufferNum)
           {
@@ -158,6 +179,27 @@ public class BlockLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs>
       }
     }
 
+    @Override
+    public void get(final long[] out, final int start, final int length)
+    {
+      // Copy whole runs out of each block, rather than looking up the block for every row.
+      int p = 0;
+      while (p < length) {
+        final int bufferNum = (start + p) / sizePer;
+        final int bufferIndex = (start + p) % sizePer;
+
+        if (bufferNum != currBufferNum) {
+          loadBuffer(bufferNum);
+        }
+
+        final int limit = Math.min(length - p, sizePer - bufferIndex);
+        for (int i = 0; i < limit; i++) {
+          out[p + i] = reader.read(bufferIndex + i);
+        }
+        p += limit;
+      }
+    }
+
     protected void loadBuffer(int bufferNum)
     {
       CloseQuietly.close(holder);
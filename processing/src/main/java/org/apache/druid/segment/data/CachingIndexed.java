@@ -24,12 +24,11 @@ import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 
 import javax.annotation.Nullable;
-import java.io.Closeable;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
-public class CachingIndexed<T> implements Indexed<T>, Closeable
+public class CachingIndexed<T> implements CloseableIndexed<T>
 {
   private static final int INITIAL_CACHE_CAPACITY = 16384;
 
@@ -25,6 +25,9 @@ import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.DoubleColumnSelector;
 import org.apache.druid.segment.historical.HistoricalColumnSelector;
+import org.apache.druid.segment.vector.BaseDoubleVectorValueSelector;
+import org.apache.druid.segment.vector.ReadableVectorOffset;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import java.io.Closeable;
 
@@ -38,6 +41,26 @@ public interface ColumnarDoubles extends Closeable
 
   double get(int index);
 
+  /**
+   * Reads {@code length} consecutive values, starting at {@code start}, into the beginning of {@code out}.
+   */
+  default void get(double[] out, int start, int length)
+  {
+    for (int i = 0; i < length; i++) {
+      out[i] = get(i + start);
+    }
+  }
+
+  /**
+   * Reads the values at the first {@code length} positions of {@code indexes} into the beginning of {@code out}.
+   */
+  default void get(double[] out, int[] indexes, int length)
+  {
+    for (int i = 0; i < length; i++) {
+      out[i] = get(indexes[i]);
+    }
+  }
+
   @Override
   void close();
 
@@ -106,5 +129,30 @@ public interface ColumnarDoubles extends Closeable
       return new HistoricalDoubleColumnSelectorWithNulls();
     }
   }
-}
 
+  default VectorValueSelector makeVectorValueSelector(
+      final ReadableVectorOffset theOffset,
+      final ImmutableBitmap nullValueBitmap
+  )
+  {
+    class ColumnarDoublesVectorValueSelector extends BaseDoubleVectorValueSelector
+    {
+      private ColumnarDoublesVectorValueSelector()
+      {
+        super(theOffset, nullValueBitmap);
+      }
+
+      @Override
+      protected void readDoubles(final double[] vector)
+      {
+        if (offset.isContiguous()) {
+          ColumnarDoubles.this.get(vector, offset.getStartOffset(), offset.getCurrentVectorSize());
+        } else {
+          ColumnarDoubles.this.get(vector, offset.getOffsets(), offset.getCurrentVectorSize());
+        }
+      }
+    }
+
+    return new ColumnarDoublesVectorValueSelector();
+  }
+}
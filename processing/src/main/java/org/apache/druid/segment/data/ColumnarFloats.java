@@ -25,6 +25,9 @@ import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.FloatColumnSelector;
 import org.apache.druid.segment.historical.HistoricalColumnSelector;
+import org.apache.druid.segment.vector.BaseFloatVectorValueSelector;
+import org.apache.druid.segment.vector.ReadableVectorOffset;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import java.io.Closeable;
 
@@ -40,6 +43,27 @@ public interface ColumnarFloats extends Closeable
 
   void fill(int index, float[] toFill);
 
+
+  /**
+   * Reads {@code length} consecutive values, starting at {@code start}, into the beginning of {@code out}.
+   */
+  default void get(float[] out, int start, int length)
+  {
+    for (int i = 0; i < length; i++) {
+      out[i] = get(i + start);
+    }
+  }
+
+  /**
+   * Reads the values at the first {@code length} positions of {@code indexes} into the beginning of {@code out}.
+   */
+  default void get(float[] out, int[] indexes, int length)
+  {
+    for (int i = 0; i < length; i++) {
+      out[i] = get(indexes[i]);
+    }
+  }
+
   @Override
   void close();
 
@@ -108,4 +132,30 @@ public interface ColumnarFloats extends Closeable
       return new HistoricalFloatColumnSelectorwithNulls();
     }
   }
+
+  default VectorValueSelector makeVectorValueSelector(
+      final ReadableVectorOffset theOffset,
+      final ImmutableBitmap nullValueBitmap
+  )
+  {
+    class ColumnarFloatsVectorValueSelector extends BaseFloatVectorValueSelector
+    {
+      private ColumnarFloatsVectorValueSelector()
+      {
+        super(theOffset, nullValueBitmap);
+      }
+
+      @Override
+      protected void readFloats(final float[] vector)
+      {
+        if (offset.isContiguous()) {
+          ColumnarFloats.this.get(vector, offset.getStartOffset(), offset.getCurrentVectorSize());
+        } else {
+          ColumnarFloats.this.get(vector, offset.getOffsets(), offset.getCurrentVectorSize());
+        }
+      }
+    }
+
+    return new ColumnarFloatsVectorValueSelector();
+  }
 }
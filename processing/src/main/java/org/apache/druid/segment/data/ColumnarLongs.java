@@ -25,6 +25,9 @@ import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.LongColumnSelector;
 import org.apache.druid.segment.historical.HistoricalColumnSelector;
+import org.apache.druid.segment.vector.BaseLongVectorValueSelector;
+import org.apache.druid.segment.vector.ReadableVectorOffset;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import java.io.Closeable;
 
@@ -40,6 +43,27 @@ public interface ColumnarLongs extends Closeable
 
   void fill(int index, long[] toFill);
 
+
+  /**
+   * Reads {@code length} consecutive values, starting at {@code start}, into the beginning of {@code out}.
+   */
+  default void get(long[] out, int start, int length)
+  {
+    for (int i = 0; i < length; i++) {
+      out[i] = get(i + start);
+    }
+  }
+
+  /**
+   * Reads the values at the first {@code length} positions of {@code indexes} into the beginning of {@code out}.
+   */
+  default void get(long[] out, int[] indexes, int length)
+  {
+    for (int i = 0; i < length; i++) {
+      out[i] = get(indexes[i]);
+    }
+  }
+
   @Override
   void close();
 
@@ -108,4 +132,30 @@ public interface ColumnarLongs extends Closeable
       return new HistoricalLongColumnSelectorWithNulls();
     }
   }
+
+  default VectorValueSelector makeVectorValueSelector(
+      final ReadableVectorOffset theOffset,
+      final ImmutableBitmap nullValueBitmap
+  )
+  {
+    class ColumnarLongsVectorValueSelector extends BaseLongVectorValueSelector
+    {
+      private ColumnarLongsVectorValueSelector()
+      {
+        super(theOffset, nullValueBitmap);
+      }
+
+      @Override
+      protected void readLongs(final long[] vector)
+      {
+        if (offset.isContiguous()) {
+          ColumnarLongs.this.get(vector, offset.getStartOffset(), offset.getCurrentVectorSize());
+        } else {
+          ColumnarLongs.this.get(vector, offset.getOffsets(), offset.getCurrentVectorSize());
+        }
+      }
+    }
+
+    return new ColumnarLongsVectorValueSelector();
+  }
 }
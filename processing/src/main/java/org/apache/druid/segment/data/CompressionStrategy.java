@@ -21,6 +21,7 @@ package org.apache.druid.segment.data;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.github.luben.zstd.Zstd;
 import com.ning.compress.BufferRecycler;
 import com.ning.compress.lzf.LZFDecoder;
 import com.ning.compress.lzf.LZFEncoder;
@@ -29,6 +30,7 @@ import net.jpountz.lz4.LZ4SafeDecompressor;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.druid.collections.ResourceHolder;
 import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.segment.CompressedPools;
@@ -74,6 +76,19 @@ public enum CompressionStrategy
       return LZ4Compressor.defaultCompressor;
     }
   },
+  ZSTD((byte) 0x2) {
+    @Override
+    public Decompressor getDecompressor()
+    {
+      return ZstdDecompressor.defaultDecompressor;
+    }
+
+    @Override
+    public Compressor getCompressor()
+    {
+      return ZstdCompressor.defaultCompressor;
+    }
+  },
   UNCOMPRESSED((byte) 0xFF) {
     @Override
     public Decompressor getDecompressor()
@@ -104,6 +119,23 @@ public enum CompressionStrategy
     {
       throw new UnsupportedOperationException("NONE compression strategy shouldn't use any compressor");
     }
+  },
+  /**
+   * This value indicates that the strategy should be picked per column at indexing time, see
+   * {@link CompressionStrategySelector}. It is never written to a segment, and only supported for metric columns.
+   */
+  AUTO((byte) 0x7B) {
+    @Override
+    public Decompressor getDecompressor()
+    {
+      throw new UnsupportedOperationException("AUTO compression strategy must be resolved before decompressing");
+    }
+
+    @Override
+    public Compressor getCompressor()
+    {
+      throw new UnsupportedOperationException("AUTO compression strategy must be resolved before compressing");
+    }
   };
   public static final CompressionStrategy DEFAULT_COMPRESSION_STRATEGY = LZ4;
 
@@ -149,10 +181,18 @@ public enum CompressionStrategy
     return idMap.get(id);
   }
 
+  /**
+   * Returns all strategies that could be written to a column, i. e. all values except {@link #AUTO}.
+   */
+  public static CompressionStrategy[] concreteValues()
+  {
+    return (CompressionStrategy[]) ArrayUtils.removeElement(CompressionStrategy.values(), AUTO);
+  }
+
   // TODO remove this method and change all its callers to use all CompressionStrategy values when NONE type is supported by all types
   public static CompressionStrategy[] noNoneValues()
   {
-    return (CompressionStrategy[]) ArrayUtils.removeElement(CompressionStrategy.values(), NONE);
+    return (CompressionStrategy[]) ArrayUtils.removeElement(concreteValues(), NONE);
   }
 
   public interface Decompressor
@@ -336,4 +376,117 @@ public enum CompressionStrategy
       return out;
     }
   }
+
+  public static class ZstdCompressor extends Compressor
+  {
+    /**
+     * Compression level used when writing ZSTD columns. Higher levels trade indexing time for smaller columns, while
+     * decompression speed stays roughly the same.
+     */
+    static final String LEVEL_PROPERTY = "druid.indexing.zstdCompressionLevel";
+    private static final ZstdCompressor defaultCompressor = new ZstdCompressor(Integer.getInteger(LEVEL_PROPERTY, 3));
+
+    private final int level;
+
+    ZstdCompressor(int level)
+    {
+      this.level = level;
+    }
+
+    @Override
+    ByteBuffer allocateInBuffer(int inputSize, Closer closer)
+    {
+      ByteBuffer inBuffer = ByteBuffer.allocateDirect(inputSize);
+      closer.register(() -> ByteBufferUtils.free(inBuffer));
+      return inBuffer;
+    }
+
+    @Override
+    ByteBuffer allocateOutBuffer(int inputSize, Closer closer)
+    {
+      ByteBuffer outBuffer = ByteBuffer.allocateDirect((int) Zstd.compressBound(inputSize));
+      closer.register(() -> ByteBufferUtils.free(outBuffer));
+      return outBuffer;
+    }
+
+    @Override
+    public ByteBuffer compress(ByteBuffer in, ByteBuffer out)
+    {
+      out.clear();
+      final long compressedSize;
+      if (in.isDirect() && out.isDirect()) {
+        compressedSize = Zstd.compressDirectByteBuffer(
+            out,
+            out.position(),
+            out.remaining(),
+            in,
+            in.position(),
+            in.remaining(),
+            level
+        );
+      } else {
+        final byte[] inputBytes = new byte[in.remaining()];
+        in.duplicate().get(inputBytes);
+        final byte[] outputBytes = new byte[out.remaining()];
+        compressedSize = Zstd.compressByteArray(
+            outputBytes,
+            0,
+            outputBytes.length,
+            inputBytes,
+            0,
+            inputBytes.length,
+            level
+        );
+        if (!Zstd.isError(compressedSize)) {
+          out.duplicate().put(outputBytes, 0, (int) compressedSize);
+        }
+      }
+      if (Zstd.isError(compressedSize)) {
+        throw new ISE("ZSTD compression failed: %s", Zstd.getErrorName(compressedSize));
+      }
+      out.limit((int) compressedSize);
+      return out;
+    }
+  }
+
+  public static class ZstdDecompressor implements Decompressor
+  {
+    private static final ZstdDecompressor defaultDecompressor = new ZstdDecompressor();
+
+    @Override
+    public void decompress(ByteBuffer in, int numBytes, ByteBuffer out)
+    {
+      final long decompressedSize;
+      if (in.isDirect() && out.isDirect()) {
+        // Zstd.decompressDirectByteBuffer does not modify buffer positions
+        decompressedSize = Zstd.decompressDirectByteBuffer(
+            out,
+            out.position(),
+            out.remaining(),
+            in,
+            in.position(),
+            numBytes
+        );
+        checkDecompressed(decompressedSize);
+        out.limit(out.position() + (int) decompressedSize);
+      } else {
+        final byte[] bytes = new byte[numBytes];
+        in.get(bytes);
+        try (final ResourceHolder<byte[]> outputBytesHolder = CompressedPools.getOutputBytes()) {
+          final byte[] outputBytes = outputBytesHolder.get();
+          decompressedSize = Zstd.decompressByteArray(outputBytes, 0, outputBytes.length, bytes, 0, numBytes);
+          checkDecompressed(decompressedSize);
+          out.put(outputBytes, 0, (int) decompressedSize);
+          out.flip();
+        }
+      }
+    }
+
+    private static void checkDecompressed(long decompressedSize)
+    {
+      if (Zstd.isError(decompressedSize)) {
+        throw new ISE("ZSTD decompression failed: %s", Zstd.getErrorName(decompressedSize));
+      }
+    }
+  }
 }
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.segment.CompressedPools;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks a concrete {@link CompressionStrategy} for a column when {@link CompressionStrategy#AUTO} is requested. Sample
+ * blocks of the column are compressed with every candidate strategy, and the one producing the smallest output wins,
+ * among the candidates whose nominal decompression throughput meets the given floor.
+ * {@link CompressionStrategy#UNCOMPRESSED} is picked if no candidate beats it.
+ *
+ * Decompression speed is deliberately not measured, so that the choice only depends on the data, and replicas or
+ * re-compactions of the same data always get the same strategy regardless of machine load or JIT state.
+ */
+public class CompressionStrategySelector
+{
+  /**
+   * Default decompression throughput floor, in bytes of decompressed data per second.
+   */
+  public static final long DEFAULT_MIN_DECOMPRESSION_BYTES_PER_SECOND = 500L << 20;
+
+  /**
+   * Candidates, with their nominal decompression throughput in bytes of decompressed data per second. These are
+   * ballpark figures of the libraries Druid uses on a single modern core, and only their order of magnitude matters.
+   */
+  private static final Map<CompressionStrategy, Long> CANDIDATES = ImmutableMap.of(
+      CompressionStrategy.LZ4, 3000L << 20,
+      CompressionStrategy.LZF, 800L << 20,
+      CompressionStrategy.ZSTD, 1000L << 20
+  );
+
+  private final long minDecompressionBytesPerSecond;
+
+  public CompressionStrategySelector(long minDecompressionBytesPerSecond)
+  {
+    Preconditions.checkArgument(minDecompressionBytesPerSecond >= 0, "minDecompressionBytesPerSecond must be >= 0");
+    this.minDecompressionBytesPerSecond = minDecompressionBytesPerSecond;
+  }
+
+  /**
+   * @param sampleBlocks uncompressed sample blocks of the column, each of at most {@link CompressedPools#BUFFER_SIZE}
+   *                     bytes between its position and limit. Not modified.
+   */
+  public CompressionStrategy select(List<ByteBuffer> sampleBlocks) throws IOException
+  {
+    long uncompressedSize = 0;
+    for (ByteBuffer block : sampleBlocks) {
+      Preconditions.checkArgument(block.remaining() <= CompressedPools.BUFFER_SIZE, "sample block is too large");
+      uncompressedSize += block.remaining();
+    }
+    if (uncompressedSize == 0) {
+      return CompressionStrategy.DEFAULT_COMPRESSION_STRATEGY;
+    }
+
+    CompressionStrategy best = CompressionStrategy.UNCOMPRESSED;
+    long bestSize = uncompressedSize;
+    for (Map.Entry<CompressionStrategy, Long> candidate : CANDIDATES.entrySet()) {
+      if (candidate.getValue() < minDecompressionBytesPerSecond) {
+        continue;
+      }
+      try (Closer closer = Closer.create()) {
+        final List<ByteBuffer> compressedBlocks = compress(candidate.getKey().getCompressor(), sampleBlocks, closer);
+        long compressedSize = 0;
+        for (ByteBuffer compressed : compressedBlocks) {
+          compressedSize += compressed.remaining();
+        }
+        if (compressedSize < bestSize) {
+          best = candidate.getKey();
+          bestSize = compressedSize;
+        }
+      }
+    }
+    return best;
+  }
+
+  private static List<ByteBuffer> compress(
+      CompressionStrategy.Compressor compressor,
+      List<ByteBuffer> sampleBlocks,
+      Closer closer
+  )
+  {
+    final List<ByteBuffer> compressedBlocks = new ArrayList<>(sampleBlocks.size());
+    for (ByteBuffer block : sampleBlocks) {
+      final ByteBuffer in = compressor.allocateInBuffer(block.remaining(), closer);
+      in.put(block.duplicate()).flip();
+      final ByteBuffer out = compressor.allocateOutBuffer(block.remaining(), closer);
+      compressedBlocks.add(compressor.compress(in, out));
+    }
+    return compressedBlocks;
+  }
+}
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.base.Preconditions;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted string dictionary using incremental front coding, written by {@link FrontCodedIndexedWriter}. Values are
+ * split into buckets of {@code bucketSize} values. The first value of a bucket is stored whole, every following value
+ * stores the length of the prefix it shares with the previous value and the remaining suffix. Sorted dictionaries of
+ * URLs, paths and the like share long prefixes between adjacent values, so this is much smaller than storing whole
+ * values with an offset per value like {@link GenericIndexed} does.
+ *
+ * {@link #get} decodes at most {@code bucketSize} values of one bucket. {@link #indexOf} binary searches the first
+ * values of the buckets, then scans a single bucket.
+ *
+ * The format is:
+ *
+ * byte 1: version (0)
+ * byte 2: bucket size, a power of two
+ * byte 3: 1 if the dictionary contains null, 0 otherwise. Null is not stored in the buckets and always has id 0.
+ * bytes 4-7: number of non-null values, n
+ * bytes 8-11: number of bytes used by the buckets
+ * next (ceil(n / bucket size) - 1) ints: start offset of every bucket but the first, relative to the first bucket
+ * next bytes: the buckets. Lengths are stored as variable size ints, see {@link #readVInt}.
+ *
+ * Instances are thread safe.
+ */
+public final class FrontCodedIndexed implements CloseableIndexed<String>
+{
+  public static final byte VERSION = 0x0;
+  public static final int MAX_BUCKET_SIZE = 1 << 7;
+
+  public static FrontCodedIndexed read(ByteBuffer buffer)
+  {
+    final ByteBuffer copy = buffer.asReadOnlyBuffer();
+    final byte version = copy.get();
+    if (version != VERSION) {
+      throw new IAE("Unknown version[%d]", (int) version);
+    }
+    final int bucketSize = copy.get() & 0xFF;
+    final boolean hasNull = copy.get() == 1;
+    final int numValues = copy.getInt();
+    final int bucketsSize = copy.getInt();
+
+    final int numBuckets = (numValues + bucketSize - 1) / bucketSize;
+    final int offsetsPosition = copy.position();
+    final int bucketsPosition = offsetsPosition + Math.max(numBuckets - 1, 0) * Integer.BYTES;
+
+    buffer.position(bucketsPosition + bucketsSize);
+    return new FrontCodedIndexed(copy, bucketSize, hasNull, numValues, offsetsPosition, bucketsPosition);
+  }
+
+  private final ByteBuffer buffer;
+  private final int bucketSize;
+  private final int div;
+  private final int rem;
+  private final boolean hasNull;
+  private final int adjustIndex;
+  private final int numValues;
+  private final int numBuckets;
+  private final int offsetsPosition;
+  private final int bucketsPosition;
+
+  private FrontCodedIndexed(
+      ByteBuffer buffer,
+      int bucketSize,
+      boolean hasNull,
+      int numValues,
+      int offsetsPosition,
+      int bucketsPosition
+  )
+  {
+    Preconditions.checkArgument(
+        bucketSize > 0 && bucketSize == (1 << Integer.numberOfTrailingZeros(bucketSize)),
+        "bucketSize[%s] must be a power of two",
+        bucketSize
+    );
+    this.buffer = buffer;
+    this.bucketSize = bucketSize;
+    this.div = Integer.numberOfTrailingZeros(bucketSize);
+    this.rem = bucketSize - 1;
+    this.hasNull = hasNull;
+    this.adjustIndex = hasNull ? 1 : 0;
+    this.numValues = numValues;
+    this.numBuckets = (numValues + bucketSize - 1) >> div;
+    this.offsetsPosition = offsetsPosition;
+    this.bucketsPosition = bucketsPosition;
+  }
+
+  @Override
+  public int size()
+  {
+    return numValues + adjustIndex;
+  }
+
+  @Nullable
+  @Override
+  public String get(int index)
+  {
+    if (index < 0 || index >= size()) {
+      throw new IAE("Index[%d] >= size[%d]", index, size());
+    }
+    if (hasNull && index == 0) {
+      return null;
+    }
+    final int adjustedIndex = index - adjustIndex;
+    final BucketReader reader = new BucketReader(adjustedIndex >> div);
+    for (int i = 0; i < (adjustedIndex & rem); i++) {
+      reader.next();
+    }
+    return reader.current();
+  }
+
+  /**
+   * Satisfies the same contract as {@link GenericIndexed#indexOf}: returns (-(insertion point) - 1) if the value is
+   * not present.
+   */
+  @Override
+  public int indexOf(@Nullable String value)
+  {
+    if (value == null) {
+      return hasNull ? 0 : -1;
+    }
+
+    // Find the last bucket whose first value is not greater than the value
+    int minBucket = 0;
+    int maxBucket = numBuckets - 1;
+    while (minBucket <= maxBucket) {
+      final int currBucket = (minBucket + maxBucket) >>> 1;
+      final int comparison = new BucketReader(currBucket).current().compareTo(value);
+      if (comparison == 0) {
+        return adjustIndex + (currBucket << div);
+      }
+      if (comparison < 0) {
+        minBucket = currBucket + 1;
+      } else {
+        maxBucket = currBucket - 1;
+      }
+    }
+
+    if (maxBucket < 0) {
+      return -(adjustIndex + 1);
+    }
+
+    final int bucketStartIndex = maxBucket << div;
+    final int bucketValues = Math.min(bucketSize, numValues - bucketStartIndex);
+    final BucketReader reader = new BucketReader(maxBucket);
+    for (int i = 1; i < bucketValues; i++) {
+      reader.next();
+      final int comparison = reader.current().compareTo(value);
+      if (comparison == 0) {
+        return adjustIndex + bucketStartIndex + i;
+      }
+      if (comparison > 0) {
+        return -(adjustIndex + bucketStartIndex + i + 1);
+      }
+    }
+    return -(adjustIndex + bucketStartIndex + bucketValues + 1);
+  }
+
+  @Override
+  public Iterator<String> iterator()
+  {
+    return new Iterator<String>()
+    {
+      private int index = 0;
+      @Nullable
+      private BucketReader reader = null;
+
+      @Override
+      public boolean hasNext()
+      {
+        return index < size();
+      }
+
+      @Override
+      @Nullable
+      public String next()
+      {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final int currIndex = index++;
+        if (hasNull && currIndex == 0) {
+          return null;
+        }
+        // Values are decoded one after the other, so that a bucket is only read once
+        final int adjustedIndex = currIndex - adjustIndex;
+        if ((adjustedIndex & rem) == 0) {
+          reader = new BucketReader(adjustedIndex >> div);
+        } else {
+          reader.next();
+        }
+        return reader.current();
+      }
+    };
+  }
+
+  @Override
+  public void close()
+  {
+    // Nothing to close, the buffer belongs to the segment.
+  }
+
+  @Override
+  public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+  {
+    inspector.visit("buffer", buffer);
+    inspector.visit("hasNull", hasNull);
+  }
+
+  /**
+   * Reads a variable size int written by {@link FrontCodedIndexedWriter#writeVInt}: 7 bits per byte, least
+   * significant group first, the high bit of every byte but the last is set.
+   */
+  static int readVInt(ByteBuffer buffer)
+  {
+    byte b = buffer.get();
+    int value = b & 0x7F;
+    for (int shift = 7; b < 0; shift += 7) {
+      b = buffer.get();
+      value |= (b & 0x7F) << shift;
+    }
+    return value;
+  }
+
+  /**
+   * Decodes the values of one bucket in order. Reads from its own view of the buffer, to keep the enclosing class
+   * thread safe.
+   */
+  private class BucketReader
+  {
+    private final ByteBuffer bucketBuffer;
+    private byte[] value;
+    private int valueLength;
+
+    BucketReader(int bucket)
+    {
+      bucketBuffer = buffer.duplicate();
+      final int bucketOffset = bucket == 0 ? 0 : buffer.getInt(offsetsPosition + (bucket - 1) * Integer.BYTES);
+      bucketBuffer.position(bucketsPosition + bucketOffset);
+      valueLength = readVInt(bucketBuffer);
+      value = new byte[valueLength];
+      bucketBuffer.get(value);
+    }
+
+    void next()
+    {
+      final int prefixLength = readVInt(bucketBuffer);
+      final int suffixLength = readVInt(bucketBuffer);
+      valueLength = prefixLength + suffixLength;
+      if (valueLength > value.length) {
+        value = Arrays.copyOf(value, Math.max(valueLength, value.length * 2));
+      }
+      bucketBuffer.get(value, prefixLength, suffixLength);
+    }
+
+    String current()
+    {
+      return StringUtils.fromUtf8(value, 0, valueLength);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Ints;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.serde.MetaSerdeHelper;
+import org.apache.druid.segment.serde.Serializer;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Streams sorted, unique strings out in the binary format described by {@link FrontCodedIndexed}.
+ */
+public class FrontCodedIndexedWriter implements Serializer
+{
+  private static final MetaSerdeHelper<FrontCodedIndexedWriter> META_SERDE_HELPER = MetaSerdeHelper
+      .firstWriteByte((FrontCodedIndexedWriter x) -> FrontCodedIndexed.VERSION)
+      .writeByte(x -> (byte) x.bucketSize)
+      .writeByte(x -> x.hasNull ? (byte) 1 : (byte) 0)
+      .writeInt(x -> x.numWritten)
+      .writeInt(x -> Ints.checkedCast(x.bucketsOut.size()));
+
+  private final SegmentWriteOutMedium segmentWriteOutMedium;
+  private final int bucketSize;
+  private WriteOutBytes offsetsOut = null;
+  private WriteOutBytes bucketsOut = null;
+  private boolean hasNull = false;
+  private int numWritten = 0;
+  @Nullable
+  private String prevValue = null;
+  private byte[] prevBytes = StringUtils.EMPTY_BYTES;
+
+  public FrontCodedIndexedWriter(SegmentWriteOutMedium segmentWriteOutMedium, int bucketSize)
+  {
+    Preconditions.checkArgument(
+        bucketSize > 0 && bucketSize <= FrontCodedIndexed.MAX_BUCKET_SIZE
+        && bucketSize == (1 << Integer.numberOfTrailingZeros(bucketSize)),
+        "bucketSize[%s] must be a power of two, no larger than [%s]",
+        bucketSize,
+        FrontCodedIndexed.MAX_BUCKET_SIZE
+    );
+    this.segmentWriteOutMedium = segmentWriteOutMedium;
+    this.bucketSize = bucketSize;
+  }
+
+  public void open() throws IOException
+  {
+    offsetsOut = segmentWriteOutMedium.makeWriteOutBytes();
+    bucketsOut = segmentWriteOutMedium.makeWriteOutBytes();
+  }
+
+  /**
+   * Values must be written in ascending order of {@link GenericIndexed#STRING_STRATEGY}, without duplicates. Null
+   * may only be the first value.
+   */
+  public void write(@Nullable String objectToWrite) throws IOException
+  {
+    final String value = NullHandling.emptyToNullIfNeeded(objectToWrite);
+    if (value == null) {
+      if (hasNull || numWritten > 0) {
+        throw new ISE("Null must be written first, and only once");
+      }
+      hasNull = true;
+      return;
+    }
+    if (numWritten > 0 && prevValue.compareTo(value) >= 0) {
+      throw new ISE("Values must be sorted and unique, but [%s] was written after [%s]", value, prevValue);
+    }
+
+    final byte[] bytes = StringUtils.toUtf8(value);
+    if ((numWritten % bucketSize) == 0) {
+      if (numWritten > 0) {
+        offsetsOut.writeInt(Ints.checkedCast(bucketsOut.size()));
+      }
+      writeVInt(bucketsOut, bytes.length);
+      bucketsOut.write(bytes);
+    } else {
+      final int prefixLength = commonPrefixLength(prevBytes, bytes);
+      writeVInt(bucketsOut, prefixLength);
+      writeVInt(bucketsOut, bytes.length - prefixLength);
+      bucketsOut.write(bytes, prefixLength, bytes.length - prefixLength);
+    }
+
+    numWritten++;
+    prevValue = value;
+    prevBytes = bytes;
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    return META_SERDE_HELPER.size(this) + offsetsOut.size() + bucketsOut.size();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
+  {
+    META_SERDE_HELPER.writeTo(channel, this);
+    offsetsOut.writeTo(channel);
+    bucketsOut.writeTo(channel);
+  }
+
+  /**
+   * Writes a variable size int read by {@link FrontCodedIndexed#readVInt}.
+   */
+  static void writeVInt(WriteOutBytes out, int value) throws IOException
+  {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  private static int commonPrefixLength(byte[] lhs, byte[] rhs)
+  {
+    final int maxLength = Math.min(lhs.length, rhs.length);
+    int i = 0;
+    while (i < maxLength && lhs[i] == rhs[i]) {
+      i++;
+    }
+    return i;
+  }
+}
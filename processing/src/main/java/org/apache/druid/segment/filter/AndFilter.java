@@ -34,7 +34,9 @@ import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -174,6 +176,24 @@ public class AndFilter implements BooleanFilter
     return selectivity;
   }
 
+  @Nullable
+  @Override
+  public BitSet getZoneMapCandidateBlocks(BitmapIndexSelector selector)
+  {
+    BitSet candidates = null;
+    for (Filter filter : filters) {
+      final BitSet filterCandidates = filter.getZoneMapCandidateBlocks(selector);
+      if (filterCandidates != null) {
+        if (candidates == null) {
+          candidates = filterCandidates;
+        } else {
+          candidates.and(filterCandidates);
+        }
+      }
+    }
+    return candidates;
+  }
+
   @Override
   public String toString()
   {
@@ -40,7 +40,10 @@ import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.IntListUtils;
 import org.apache.druid.segment.column.BitmapIndex;
+import org.apache.druid.segment.column.NumericBitmapIndex;
 
+import javax.annotation.Nullable;
+import java.util.BitSet;
 import java.util.Comparator;
 
 public class BoundFilter implements Filter
@@ -66,6 +69,11 @@ public class BoundFilter implements Filter
   @Override
   public <T> T getBitmapResult(BitmapIndexSelector selector, BitmapResultFactory<T> bitmapResultFactory)
   {
+    final NumericBitmapIndex numericBitmapIndex = selector.getNumericBitmapIndex(boundDimFilter.getDimension());
+    if (numericBitmapIndex != null) {
+      return Filters.matchNumericPredicate(numericBitmapIndex, bitmapResultFactory, getPredicateFactory());
+    }
+
     if (supportShortCircuit()) {
       final BitmapIndex bitmapIndex = selector.getBitmapIndex(boundDimFilter.getDimension());
 
@@ -91,6 +99,11 @@ public class BoundFilter implements Filter
   @Override
   public double estimateSelectivity(BitmapIndexSelector indexSelector)
   {
+    final NumericBitmapIndex numericBitmapIndex = indexSelector.getNumericBitmapIndex(boundDimFilter.getDimension());
+    if (numericBitmapIndex != null) {
+      return Filters.estimateNumericSelectivity(numericBitmapIndex, getPredicateFactory(), indexSelector.getNumRows());
+    }
+
     if (supportShortCircuit()) {
       final BitmapIndex bitmapIndex = indexSelector.getBitmapIndex(boundDimFilter.getDimension());
 
@@ -112,6 +125,81 @@ public class BoundFilter implements Filter
     }
   }
 
+  /**
+   * Numeric bounds without extractionFn are monotonic: a block may only contain rows that match the lower bound if its
+   * max matches it, and rows that match the upper bound if its min matches it.
+   */
+  @Nullable
+  @Override
+  public BitSet getZoneMapCandidateBlocks(BitmapIndexSelector selector)
+  {
+    if (extractionFn != null || !boundDimFilter.getOrdering().equals(StringComparators.NUMERIC)) {
+      return null;
+    }
+
+    final BoundDimFilter lowerBoundFilter = boundDimFilter.hasLowerBound() ? new BoundDimFilter(
+        boundDimFilter.getDimension(),
+        boundDimFilter.getLower(),
+        null,
+        boundDimFilter.isLowerStrict(),
+        null,
+        null,
+        null,
+        StringComparators.NUMERIC
+    ) : null;
+    final BoundDimFilter upperBoundFilter = boundDimFilter.hasUpperBound() ? new BoundDimFilter(
+        boundDimFilter.getDimension(),
+        null,
+        boundDimFilter.getUpper(),
+        null,
+        boundDimFilter.isUpperStrict(),
+        null,
+        null,
+        StringComparators.NUMERIC
+    ) : null;
+
+    return Filters.zoneMapCandidateBlocks(
+        selector,
+        boundDimFilter.getDimension(),
+        zoneMap -> {
+          switch (zoneMap.getType()) {
+            case LONG: {
+              final DruidLongPredicate lower = lowerBoundFilter == null
+                                               ? null
+                                               : lowerBoundFilter.getLongPredicateSupplier().get();
+              final DruidLongPredicate upper = upperBoundFilter == null
+                                               ? null
+                                               : upperBoundFilter.getLongPredicateSupplier().get();
+              return block -> (lower == null || lower.applyLong(zoneMap.getMaxLong(block)))
+                              && (upper == null || upper.applyLong(zoneMap.getMinLong(block)));
+            }
+            case FLOAT: {
+              final DruidFloatPredicate lower = lowerBoundFilter == null
+                                                ? null
+                                                : lowerBoundFilter.getFloatPredicateSupplier().get();
+              final DruidFloatPredicate upper = upperBoundFilter == null
+                                                ? null
+                                                : upperBoundFilter.getFloatPredicateSupplier().get();
+              return block -> (lower == null || lower.applyFloat((float) zoneMap.getMaxDouble(block)))
+                              && (upper == null || upper.applyFloat((float) zoneMap.getMinDouble(block)));
+            }
+            case DOUBLE: {
+              final DruidDoublePredicate lower = lowerBoundFilter == null
+                                                 ? null
+                                                 : lowerBoundFilter.getDoublePredicateSupplier().get();
+              final DruidDoublePredicate upper = upperBoundFilter == null
+                                                 ? null
+                                                 : upperBoundFilter.getDoublePredicateSupplier().get();
+              return block -> (lower == null || lower.applyDouble(zoneMap.getMaxDouble(block)))
+                              && (upper == null || upper.applyDouble(zoneMap.getMinDouble(block)));
+            }
+            default:
+              return null;
+          }
+        }
+    );
+  }
+
   private boolean supportShortCircuit()
   {
     // Optimization for lexicographic bounds with no extractionFn => binary search through the index
@@ -127,7 +215,8 @@ public class BoundFilter implements Filter
   @Override
   public boolean supportsBitmapIndex(BitmapIndexSelector selector)
   {
-    return selector.getBitmapIndex(boundDimFilter.getDimension()) != null;
+    return selector.getBitmapIndex(boundDimFilter.getDimension()) != null
+           || selector.getNumericBitmapIndex(boundDimFilter.getDimension()) != null;
   }
 
   @Override
@@ -33,6 +33,7 @@ import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.ValueMatcher;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.column.NumericBitmapIndex;
 
 /**
  */
@@ -91,6 +92,10 @@ public class DimensionPredicateFilter implements Filter
   @Override
   public <T> T getBitmapResult(BitmapIndexSelector selector, BitmapResultFactory<T> bitmapResultFactory)
   {
+    final NumericBitmapIndex numericBitmapIndex = selector.getNumericBitmapIndex(dimension);
+    if (numericBitmapIndex != null) {
+      return Filters.matchNumericPredicate(numericBitmapIndex, bitmapResultFactory, predicateFactory);
+    }
     return Filters.matchPredicate(dimension, selector, bitmapResultFactory, predicateFactory.makeStringPredicate());
   }
 
@@ -103,7 +108,7 @@ public class DimensionPredicateFilter implements Filter
   @Override
   public boolean supportsBitmapIndex(BitmapIndexSelector selector)
   {
-    return selector.getBitmapIndex(dimension) != null;
+    return selector.getBitmapIndex(dimension) != null || selector.getNumericBitmapIndex(dimension) != null;
   }
 
   @Override
@@ -115,6 +120,10 @@ public class DimensionPredicateFilter implements Filter
   @Override
   public double estimateSelectivity(BitmapIndexSelector indexSelector)
   {
+    final NumericBitmapIndex numericBitmapIndex = indexSelector.getNumericBitmapIndex(dimension);
+    if (numericBitmapIndex != null) {
+      return Filters.estimateNumericSelectivity(numericBitmapIndex, predicateFactory, indexSelector.getNumRows());
+    }
     return Filters.estimateSelectivity(
         dimension,
         indexSelector,
@@ -28,6 +28,7 @@ import it.unimi.dsi.fastutil.ints.IntIterable;
 import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.guava.FunctionalIterable;
 import org.apache.druid.query.BitmapResultFactory;
 import org.apache.druid.query.ColumnSelectorPlus;
@@ -36,6 +37,8 @@ import org.apache.druid.query.dimension.DefaultDimensionSpec;
 import org.apache.druid.query.filter.BitmapIndexSelector;
 import org.apache.druid.query.filter.BooleanFilter;
 import org.apache.druid.query.filter.DimFilter;
+import org.apache.druid.query.filter.DruidDoublePredicate;
+import org.apache.druid.query.filter.DruidFloatPredicate;
 import org.apache.druid.query.filter.DruidLongPredicate;
 import org.apache.druid.query.filter.DruidPredicateFactory;
 import org.apache.druid.query.filter.Filter;
@@ -51,7 +54,9 @@ import org.apache.druid.segment.IntIteratorUtils;
 import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.NumericBitmapIndex;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.column.ZoneMapIndex;
 import org.apache.druid.segment.data.CloseableIndexed;
 import org.apache.druid.segment.data.Indexed;
 
@@ -59,9 +64,11 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
 
 /**
  */
@@ -453,6 +460,167 @@ public class Filters
     return false;
   }
 
+  /**
+   * Computes {@link Filter#getZoneMapCandidateBlocks} for a filter on a single column.
+   *
+   * @param selector            Object used to retrieve zone maps
+   * @param column              column the filter reads
+   * @param valueMatcherFactory creates a test telling whether the non-null values of a block, summarized by the zone
+   *                            map, may match the filter. It may return null if the zone map can't be used.
+   *
+   * @return the candidate blocks, or null if the column has no zone map or it can't be used. Blocks that contain nulls
+   * or NaN are always candidates.
+   */
+  @Nullable
+  static BitSet zoneMapCandidateBlocks(
+      final BitmapIndexSelector selector,
+      final String column,
+      final Function<ZoneMapIndex, IntPredicate> valueMatcherFactory
+  )
+  {
+    final ZoneMapIndex zoneMap = selector.getZoneMapIndex(column);
+    if (zoneMap == null) {
+      return null;
+    }
+    final IntPredicate valuesMayMatch = valueMatcherFactory.apply(zoneMap);
+    if (valuesMayMatch == null) {
+      return null;
+    }
+
+    final BitSet candidates = new BitSet(zoneMap.getNumBlocks());
+    for (int block = 0; block < zoneMap.getNumBlocks(); block++) {
+      if (zoneMap.hasNulls(block)
+          || (zoneMap.hasValues(block) && (zoneMap.hasNaN(block) || valuesMayMatch.test(block)))) {
+        candidates.set(block);
+      }
+    }
+    return candidates;
+  }
+
+  /**
+   * Return the union of bitmaps for all values of a numeric column matching the typed predicates of the given factory,
+   * the same predicates the value matchers of the column apply.
+   *
+   * @param bitmapIndex         numeric bitmap index of the column
+   * @param bitmapResultFactory
+   * @param predicateFactory    predicate factory to use
+   *
+   * @return bitmap of matching rows
+   */
+  public static <T> T matchNumericPredicate(
+      final NumericBitmapIndex bitmapIndex,
+      final BitmapResultFactory<T> bitmapResultFactory,
+      final DruidPredicateFactory predicateFactory
+  )
+  {
+    return bitmapResultFactory.unionDimensionValueBitmaps(matchNumericPredicateNoUnion(bitmapIndex, predicateFactory));
+  }
+
+  /**
+   * Return an estimated selectivity for bitmaps of all values of a numeric column matching the given predicates.
+   *
+   * @see #matchNumericPredicate(NumericBitmapIndex, BitmapResultFactory, DruidPredicateFactory)
+   */
+  public static double estimateNumericSelectivity(
+      final NumericBitmapIndex bitmapIndex,
+      final DruidPredicateFactory predicateFactory,
+      final long totalNumRows
+  )
+  {
+    return estimateSelectivity(matchNumericPredicateNoUnion(bitmapIndex, predicateFactory).iterator(), totalNumRows);
+  }
+
+  private static List<ImmutableBitmap> matchNumericPredicateNoUnion(
+      final NumericBitmapIndex bitmapIndex,
+      final DruidPredicateFactory predicateFactory
+  )
+  {
+    final List<ImmutableBitmap> bitmaps = new ArrayList<>();
+    final boolean matchesNull;
+    switch (bitmapIndex.getType()) {
+      case LONG: {
+        final DruidLongPredicate predicate = predicateFactory.makeLongPredicate();
+        for (int i = 0; i < bitmapIndex.getCardinality(); i++) {
+          if (predicate.applyLong(bitmapIndex.getLong(i))) {
+            bitmaps.add(bitmapIndex.getBitmap(i));
+          }
+        }
+        matchesNull = predicate.applyNull();
+        break;
+      }
+      case FLOAT: {
+        final DruidFloatPredicate predicate = predicateFactory.makeFloatPredicate();
+        for (int i = 0; i < bitmapIndex.getCardinality(); i++) {
+          if (predicate.applyFloat((float) bitmapIndex.getDouble(i))) {
+            bitmaps.add(bitmapIndex.getBitmap(i));
+          }
+        }
+        matchesNull = predicate.applyNull();
+        break;
+      }
+      case DOUBLE: {
+        final DruidDoublePredicate predicate = predicateFactory.makeDoublePredicate();
+        for (int i = 0; i < bitmapIndex.getCardinality(); i++) {
+          if (predicate.applyDouble(bitmapIndex.getDouble(i))) {
+            bitmaps.add(bitmapIndex.getBitmap(i));
+          }
+        }
+        matchesNull = predicate.applyNull();
+        break;
+      }
+      default:
+        throw new ISE("Unsupported numeric bitmap index type[%s]", bitmapIndex.getType());
+    }
+    if (matchesNull) {
+      bitmaps.add(bitmapIndex.getNullBitmap());
+    }
+    return bitmaps;
+  }
+
+  /**
+   * Return the bitmap of the rows of a numeric column equal to the given value, parsed and compared like the value
+   * matchers of the column do, see {@link ValueMatcherColumnSelectorStrategy#makeValueMatcher(Object, String)}.
+   *
+   * @param bitmapIndex numeric bitmap index of the column
+   * @param value       value to match, rows holding null match values that can't be parsed
+   *
+   * @return bitmap of matching rows
+   */
+  public static ImmutableBitmap matchNumericValue(final NumericBitmapIndex bitmapIndex, @Nullable final String value)
+  {
+    final int index;
+    switch (bitmapIndex.getType()) {
+      case LONG: {
+        final Long longValue = DimensionHandlerUtils.convertObjectToLong(value);
+        if (longValue == null) {
+          return bitmapIndex.getNullBitmap();
+        }
+        index = bitmapIndex.indexOf(longValue.longValue());
+        break;
+      }
+      case FLOAT: {
+        final Float floatValue = DimensionHandlerUtils.convertObjectToFloat(value);
+        if (floatValue == null) {
+          return bitmapIndex.getNullBitmap();
+        }
+        // Widening keeps floats with different bits distinct, so this is the same as comparing floatToIntBits()
+        index = bitmapIndex.indexOf((double) floatValue);
+        break;
+      }
+      case DOUBLE: {
+        final Double doubleValue = DimensionHandlerUtils.convertObjectToDouble(value);
+        if (doubleValue == null) {
+          return bitmapIndex.getNullBitmap();
+        }
+        index = bitmapIndex.indexOf(doubleValue.doubleValue());
+        break;
+      }
+      default:
+        throw new ISE("Unsupported numeric bitmap index type[%s]", bitmapIndex.getType());
+    }
+    return index >= 0 ? bitmapIndex.getBitmap(index) : bitmapIndex.getBitmapFactory().makeEmptyImmutableBitmap();
+  }
+
   public static ValueMatcher getLongPredicateMatcher(
       final BaseLongColumnValueSelector longSelector,
       final DruidLongPredicate predicate
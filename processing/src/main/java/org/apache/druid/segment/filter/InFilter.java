@@ -21,8 +21,12 @@ package org.apache.druid.segment.filter;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Floats;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import it.unimi.dsi.fastutil.ints.IntIterable;
 import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.query.BitmapResultFactory;
 import org.apache.druid.query.extraction.ExtractionFn;
@@ -35,9 +39,15 @@ import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.ValueMatcher;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.DimensionHandlerUtils;
 import org.apache.druid.segment.IntIteratorUtils;
 import org.apache.druid.segment.column.BitmapIndex;
+import org.apache.druid.segment.column.NumericBitmapIndex;
+import org.apache.druid.segment.column.ValueType;
 
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.Set;
 
@@ -72,6 +82,11 @@ public class InFilter implements Filter
   @Override
   public <T> T getBitmapResult(BitmapIndexSelector selector, BitmapResultFactory<T> bitmapResultFactory)
   {
+    final NumericBitmapIndex numericBitmapIndex = selector.getNumericBitmapIndex(dimension);
+    if (numericBitmapIndex != null) {
+      return Filters.matchNumericPredicate(numericBitmapIndex, bitmapResultFactory, getPredicateFactory());
+    }
+
     if (extractionFn == null) {
       final BitmapIndex bitmapIndex = selector.getBitmapIndex(dimension);
       return bitmapResultFactory.unionDimensionValueBitmaps(getBitmapIterable(bitmapIndex));
@@ -88,6 +103,11 @@ public class InFilter implements Filter
   @Override
   public double estimateSelectivity(BitmapIndexSelector indexSelector)
   {
+    final NumericBitmapIndex numericBitmapIndex = indexSelector.getNumericBitmapIndex(dimension);
+    if (numericBitmapIndex != null) {
+      return Filters.estimateNumericSelectivity(numericBitmapIndex, getPredicateFactory(), indexSelector.getNumRows());
+    }
+
     if (extractionFn == null) {
       final BitmapIndex bitmapIndex = indexSelector.getBitmapIndex(dimension);
       return Filters.estimateSelectivity(
@@ -145,7 +165,7 @@ public class InFilter implements Filter
   @Override
   public boolean supportsBitmapIndex(BitmapIndexSelector selector)
   {
-    return selector.getBitmapIndex(dimension) != null;
+    return selector.getBitmapIndex(dimension) != null || selector.getNumericBitmapIndex(dimension) != null;
   }
 
   @Override
@@ -154,6 +174,78 @@ public class InFilter implements Filter
     return Filters.supportsSelectivityEstimation(this, dimension, columnSelector, indexSelector);
   }
 
+  /**
+   * A block may contain matching rows if any of the values, parsed like the numeric predicates of
+   * {@link org.apache.druid.query.filter.InDimFilter} parse them, falls within the min and max of the block.
+   */
+  @Nullable
+  @Override
+  public BitSet getZoneMapCandidateBlocks(BitmapIndexSelector selector)
+  {
+    if (extractionFn != null) {
+      return null;
+    }
+
+    return Filters.zoneMapCandidateBlocks(
+        selector,
+        dimension,
+        zoneMap -> {
+          switch (zoneMap.getType()) {
+            case LONG: {
+              final LongArrayList longs = new LongArrayList(values.size());
+              for (String value : values) {
+                final Long longValue = value == null
+                                       ? null
+                                       : DimensionHandlerUtils.getExactLongFromDecimalString(value);
+                if (longValue != null) {
+                  longs.add(longValue);
+                }
+              }
+              final long[] sortedLongs = longs.toLongArray();
+              Arrays.sort(sortedLongs);
+              return block -> {
+                final int index = insertionPoint(Arrays.binarySearch(sortedLongs, zoneMap.getMinLong(block)));
+                return index < sortedLongs.length && sortedLongs[index] <= zoneMap.getMaxLong(block);
+              };
+            }
+            case FLOAT:
+            case DOUBLE: {
+              final DoubleArrayList doubles = new DoubleArrayList(values.size());
+              for (String value : values) {
+                if (value == null) {
+                  continue;
+                }
+                final Number number;
+                if (zoneMap.getType() == ValueType.FLOAT) {
+                  number = Floats.tryParse(value);
+                } else {
+                  number = Doubles.tryParse(value);
+                }
+                if (number != null) {
+                  doubles.add(number.doubleValue());
+                }
+              }
+              final double[] sortedDoubles = doubles.toDoubleArray();
+              // Sorts and searches with Double.compare() semantics, like the zone map computes min and max
+              Arrays.sort(sortedDoubles);
+              return block -> {
+                final int index = insertionPoint(Arrays.binarySearch(sortedDoubles, zoneMap.getMinDouble(block)));
+                return index < sortedDoubles.length
+                       && Double.compare(sortedDoubles[index], zoneMap.getMaxDouble(block)) <= 0;
+              };
+            }
+            default:
+              return null;
+          }
+        }
+    );
+  }
+
+  private static int insertionPoint(int binarySearchResult)
+  {
+    return binarySearchResult >= 0 ? binarySearchResult : -(binarySearchResult + 1);
+  }
+
   private DruidPredicateFactory getPredicateFactory()
   {
     return new DruidPredicateFactory()
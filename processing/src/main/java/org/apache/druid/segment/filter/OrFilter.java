@@ -33,7 +33,9 @@ import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -177,6 +179,21 @@ public class OrFilter implements BooleanFilter
     return Math.min(selectivity, 1.);
   }
 
+  @Nullable
+  @Override
+  public BitSet getZoneMapCandidateBlocks(BitmapIndexSelector selector)
+  {
+    final BitSet candidates = new BitSet();
+    for (Filter filter : filters) {
+      final BitSet filterCandidates = filter.getZoneMapCandidateBlocks(selector);
+      if (filterCandidates == null) {
+        return null;
+      }
+      candidates.or(filterCandidates);
+    }
+    return candidates;
+  }
+
   @Override
   public String toString()
   {
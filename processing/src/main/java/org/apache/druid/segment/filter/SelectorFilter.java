@@ -19,6 +19,7 @@
 
 package org.apache.druid.segment.filter;
 
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.query.BitmapResultFactory;
 import org.apache.druid.query.filter.BitmapIndexSelector;
@@ -26,6 +27,7 @@ import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.ValueMatcher;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.column.NumericBitmapIndex;
 
 /**
  */
@@ -46,7 +48,16 @@ public class SelectorFilter implements Filter
   @Override
   public <T> T getBitmapResult(BitmapIndexSelector selector, BitmapResultFactory<T> bitmapResultFactory)
   {
-    return bitmapResultFactory.wrapDimensionValue(selector.getBitmapIndex(dimension, value));
+    return bitmapResultFactory.wrapDimensionValue(getBitmap(selector));
+  }
+
+  private ImmutableBitmap getBitmap(BitmapIndexSelector selector)
+  {
+    final NumericBitmapIndex numericBitmapIndex = selector.getNumericBitmapIndex(dimension);
+    if (numericBitmapIndex != null) {
+      return Filters.matchNumericValue(numericBitmapIndex, value);
+    }
+    return selector.getBitmapIndex(dimension, value);
   }
 
   @Override
@@ -58,7 +69,7 @@ public class SelectorFilter implements Filter
   @Override
   public boolean supportsBitmapIndex(BitmapIndexSelector selector)
   {
-    return selector.getBitmapIndex(dimension) != null;
+    return selector.getBitmapIndex(dimension) != null || selector.getNumericBitmapIndex(dimension) != null;
   }
 
   @Override
@@ -70,7 +81,7 @@ public class SelectorFilter implements Filter
   @Override
   public double estimateSelectivity(BitmapIndexSelector indexSelector)
   {
-    return (double) indexSelector.getBitmapIndex(dimension, value).size() / indexSelector.getNumRows();
+    return (double) getBitmap(indexSelector).size() / indexSelector.getNumRows();
   }
 
   @Override
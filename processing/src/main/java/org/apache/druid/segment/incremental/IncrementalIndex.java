@@ -335,8 +335,10 @@ public abstract class IncrementalIndex<AggregatorType> extends AbstractIndex imp
     private boolean reportParseExceptions;
     private boolean concurrentEventAdd;
     private boolean sortFacts;
+    private boolean offheapFacts;
     private int maxRowCount;
     private long maxBytesInMemory;
+    private long maxOffheapFactsBytes;
 
     public Builder()
     {
@@ -345,8 +347,10 @@ public abstract class IncrementalIndex<AggregatorType> extends AbstractIndex imp
       reportParseExceptions = true;
       concurrentEventAdd = false;
       sortFacts = true;
+      offheapFacts = false;
       maxRowCount = 0;
       maxBytesInMemory = 0;
+      maxOffheapFactsBytes = 0;
     }
 
     public Builder setIndexSchema(final IncrementalIndexSchema incrementalIndexSchema)
@@ -412,6 +416,16 @@ public abstract class IncrementalIndex<AggregatorType> extends AbstractIndex imp
       return this;
     }
 
+    /**
+     * Keep the rows of a rollup index in direct memory, see {@link OffheapRollupFactsHolder}. Ignored if rollup is
+     * disabled.
+     */
+    public Builder setOffheapFacts(final boolean offheapFacts)
+    {
+      this.offheapFacts = offheapFacts;
+      return this;
+    }
+
     public Builder setMaxRowCount(final int maxRowCount)
     {
       this.maxRowCount = maxRowCount;
@@ -425,6 +439,16 @@ public abstract class IncrementalIndex<AggregatorType> extends AbstractIndex imp
       return this;
     }
 
+    /**
+     * Maximum direct memory taken by the rows of an index built with {@link #setOffheapFacts}, 0 for no limit. The
+     * index can't append rows once it is reached, like with maxRowCount. Only applies to OnHeapIncrementalIndex.
+     */
+    public Builder setMaxOffheapFactsBytes(final long maxOffheapFactsBytes)
+    {
+      this.maxOffheapFactsBytes = maxOffheapFactsBytes;
+      return this;
+    }
+
     public IncrementalIndex buildOnheap()
     {
       if (maxRowCount <= 0) {
@@ -437,8 +461,10 @@ public abstract class IncrementalIndex<AggregatorType> extends AbstractIndex imp
           reportParseExceptions,
           concurrentEventAdd,
           sortFacts,
+          offheapFacts,
           maxRowCount,
-          maxBytesInMemory
+          maxBytesInMemory,
+          maxOffheapFactsBytes
       );
     }
 
@@ -454,6 +480,7 @@ public abstract class IncrementalIndex<AggregatorType> extends AbstractIndex imp
           reportParseExceptions,
           concurrentEventAdd,
           sortFacts,
+          offheapFacts,
           maxRowCount,
           Objects.requireNonNull(bufferPool, "bufferPool is null")
       );
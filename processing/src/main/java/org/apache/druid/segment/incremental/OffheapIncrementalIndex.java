@@ -75,6 +75,7 @@ public class OffheapIncrementalIndex extends IncrementalIndex<BufferAggregator>
       boolean reportParseExceptions,
       boolean concurrentEventAdd,
       boolean sortFacts,
+      boolean offheapFacts,
       int maxRowCount,
       NonBlockingPool<ByteBuffer> bufferPool
   )
@@ -83,8 +84,13 @@ public class OffheapIncrementalIndex extends IncrementalIndex<BufferAggregator>
     this.maxRowCount = maxRowCount;
     this.bufferPool = bufferPool;
 
-    this.facts = incrementalIndexSchema.isRollup() ? new RollupFactsHolder(sortFacts, dimsComparator(), getDimensions())
-                                                   : new PlainFactsHolder(sortFacts, dimsComparator());
+    if (!incrementalIndexSchema.isRollup()) {
+      this.facts = new PlainFactsHolder(sortFacts, dimsComparator());
+    } else if (offheapFacts) {
+      this.facts = new OffheapRollupFactsHolder(sortFacts, dimsComparator(), getDimensions());
+    } else {
+      this.facts = new RollupFactsHolder(sortFacts, dimsComparator(), getDimensions());
+    }
 
     //check that stupid pool gives buffers that can hold at least one row's aggregators
     ResourceHolder<ByteBuffer> bb = bufferPool.take();
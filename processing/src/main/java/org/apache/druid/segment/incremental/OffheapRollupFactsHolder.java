@@ -0,0 +1,766 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.incremental;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.UOE;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * {@link IncrementalIndex.FactsHolder} for rollup that keeps rows out of the Java heap. Every distinct row key
+ * (timestamp and encoded dimension values) is serialized once into direct memory, and an open-addressing hash table,
+ * also in direct memory, maps keys to their records. This replaces the map entry, {@link IncrementalIndexRow} and
+ * per-dimension arrays {@link IncrementalIndex.RollupFactsHolder} keeps on heap for every row.
+ *
+ * Rows are not kept sorted while they are added. If facts are sorted, the sorted order is kept as a few sorted runs of
+ * record addresses. When a sorted view is needed, by a query or at persist time, only the rows added since the last
+ * sorted view are sorted into a new run, and runs of similar sizes are merged, like the digits of a binary counter, so
+ * that there are O(log n) runs and every row takes part in O(log n) merges over the life of the holder. Sorted views
+ * merge the runs lazily while they are iterated. {@link IncrementalIndexRow} objects handed out by this holder are
+ * decoded on the fly and are not retained.
+ *
+ * Only the dimension types of the core {@link org.apache.druid.segment.DimensionIndexer}s are supported: String (as
+ * int[] of dictionary ids), Long, Float and Double.
+ *
+ * Record format, in native byte order: hash (int), rowIndex (int), key length (int), timestamp (long), then for every
+ * dimension up to the last non-null one a type byte followed by the value, see {@link #encodeKey}.
+ */
+class OffheapRollupFactsHolder implements IncrementalIndex.FactsHolder
+{
+  private static final int CHUNK_SIZE = 1 << 20;
+  private static final int INITIAL_TABLE_CAPACITY = 1 << 12;
+
+  private static final int HASH_OFFSET = 0;
+  private static final int ROW_INDEX_OFFSET = HASH_OFFSET + Integer.BYTES;
+  private static final int KEY_LENGTH_OFFSET = ROW_INDEX_OFFSET + Integer.BYTES;
+  private static final int KEY_OFFSET = KEY_LENGTH_OFFSET + Integer.BYTES;
+  private static final int TIMESTAMP_OFFSET = KEY_OFFSET;
+
+  private static final byte NULL_VALUE = 0;
+  private static final byte INTS_VALUE = 1;
+  private static final byte LONG_VALUE = 2;
+  private static final byte FLOAT_VALUE = 3;
+  private static final byte DOUBLE_VALUE = 4;
+
+  private final boolean sortFacts;
+  private final Comparator<IncrementalIndexRow> incrementalIndexRowComparator;
+  private final List<IncrementalIndex.DimensionDesc> dimensionDescsList;
+
+  // Chunks are only appended, and records are never moved, so readers may use a snapshot of the list without locking
+  @GuardedBy("this")
+  private final List<ByteBuffer> chunks = new ArrayList<>();
+  @GuardedBy("this")
+  private int chunkPosition = 0;
+  @GuardedBy("this")
+  private int numRecords = 0;
+  // Direct memory allocated for chunks and the table
+  @GuardedBy("this")
+  private long bytesInMemory = 0;
+
+  /**
+   * Slots hold the address of a record plus one, zero marks an empty slot. See {@link #address}.
+   */
+  @GuardedBy("this")
+  private ByteBuffer table = null;
+  @GuardedBy("this")
+  private int tableMask;
+
+  @GuardedBy("this")
+  private long minTimestamp = Long.MAX_VALUE;
+  @GuardedBy("this")
+  private long maxTimestamp = Long.MIN_VALUE;
+
+  // Reused to serialize keys of added rows, only used while holding the lock
+  @GuardedBy("this")
+  private ByteBuffer keyBuffer = ByteBuffer.allocate(256).order(ByteOrder.nativeOrder());
+
+  /**
+   * Sorted runs of record addresses, covering the first {@link #numSortedRecords} records in insertion order. Runs
+   * are never modified once published, see {@link #sortedRuns()}.
+   */
+  @GuardedBy("this")
+  private List<long[]> sortedRuns = Collections.emptyList();
+  @GuardedBy("this")
+  private int numSortedRecords = 0;
+  // Address of the first record not covered by sortedRuns
+  @GuardedBy("this")
+  private long firstUnsortedAddress = address(0, 0);
+
+  OffheapRollupFactsHolder(
+      boolean sortFacts,
+      Comparator<IncrementalIndexRow> incrementalIndexRowComparator,
+      List<IncrementalIndex.DimensionDesc> dimensionDescsList
+  )
+  {
+    this.sortFacts = sortFacts;
+    this.incrementalIndexRowComparator = incrementalIndexRowComparator;
+    this.dimensionDescsList = dimensionDescsList;
+  }
+
+  @Override
+  public synchronized int getPriorIndex(IncrementalIndexRow key)
+  {
+    final int keyLength = encodeKey(key);
+    final long slotValue = findSlotValue(keyHash(keyLength), keyLength);
+    return slotValue == 0 ? IncrementalIndexRow.EMPTY_ROW_INDEX : chunkFor(slotValue - 1).getInt(
+        offsetFor(slotValue - 1) + ROW_INDEX_OFFSET
+    );
+  }
+
+  @Override
+  public synchronized long getMinTimeMillis()
+  {
+    if (!sortFacts) {
+      throw new UnsupportedOperationException("can't get minTime from unsorted facts data.");
+    }
+    if (numRecords == 0) {
+      throw new NoSuchElementException();
+    }
+    return minTimestamp;
+  }
+
+  @Override
+  public synchronized long getMaxTimeMillis()
+  {
+    if (!sortFacts) {
+      throw new UnsupportedOperationException("can't get maxTime from unsorted facts data.");
+    }
+    if (numRecords == 0) {
+      throw new NoSuchElementException();
+    }
+    return maxTimestamp;
+  }
+
+  @Override
+  public Iterator<IncrementalIndexRow> iterator(boolean descending)
+  {
+    if (!sortFacts) {
+      return keySet().iterator();
+    }
+    final List<long[]> runs = sortedRuns();
+    final int[] starts = new int[runs.size()];
+    final int[] ends = new int[runs.size()];
+    for (int i = 0; i < runs.size(); i++) {
+      ends[i] = runs.get(i).length;
+    }
+    return runsIterator(chunksSnapshot(), runs, starts, ends, descending);
+  }
+
+  @Override
+  public Iterable<IncrementalIndexRow> timeRangeIterable(boolean descending, long timeStart, long timeEnd)
+  {
+    if (!sortFacts) {
+      throw new UnsupportedOperationException("can't get timeRange from unsorted facts data.");
+    }
+    return () -> {
+      final List<long[]> runs = sortedRuns();
+      final List<ByteBuffer> chunksSnapshot = chunksSnapshot();
+      final int[] starts = new int[runs.size()];
+      final int[] ends = new int[runs.size()];
+      for (int i = 0; i < runs.size(); i++) {
+        starts[i] = lowerBound(chunksSnapshot, runs.get(i), timeStart);
+        ends[i] = Math.max(starts[i], lowerBound(chunksSnapshot, runs.get(i), timeEnd));
+      }
+      return runsIterator(chunksSnapshot, runs, starts, ends, descending);
+    };
+  }
+
+  @Override
+  public Iterable<IncrementalIndexRow> keySet()
+  {
+    return () -> {
+      final List<ByteBuffer> chunksSnapshot;
+      final int numRecordsSnapshot;
+      synchronized (this) {
+        chunksSnapshot = new ArrayList<>(chunks);
+        numRecordsSnapshot = numRecords;
+      }
+      return new Iterator<IncrementalIndexRow>()
+      {
+        private int chunkIndex = 0;
+        private int offset = 0;
+        private int remaining = numRecordsSnapshot;
+
+        @Override
+        public boolean hasNext()
+        {
+          return remaining > 0;
+        }
+
+        @Override
+        public IncrementalIndexRow next()
+        {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          ByteBuffer chunk = chunksSnapshot.get(chunkIndex);
+          if (isChunkExhausted(chunk, offset)) {
+            chunk = chunksSnapshot.get(++chunkIndex);
+            offset = 0;
+          }
+          final IncrementalIndexRow row = decodeRow(chunk, offset);
+          offset += KEY_OFFSET + chunk.getInt(offset + KEY_LENGTH_OFFSET);
+          remaining--;
+          return row;
+        }
+      };
+    };
+  }
+
+  @Override
+  public Iterable<IncrementalIndexRow> persistIterable()
+  {
+    return sortFacts ? () -> iterator(false) : keySet();
+  }
+
+  @Override
+  public synchronized int putIfAbsent(IncrementalIndexRow key, int rowIndex)
+  {
+    final int keyLength = encodeKey(key);
+    final int hash = keyHash(keyLength);
+    if (table == null) {
+      allocateTable(INITIAL_TABLE_CAPACITY);
+    }
+
+    int slot = hash & tableMask;
+    for (long slotValue; (slotValue = table.getLong(slot * Long.BYTES)) != 0; slot = (slot + 1) & tableMask) {
+      if (keyEquals(slotValue - 1, hash, keyLength)) {
+        return chunkFor(slotValue - 1).getInt(offsetFor(slotValue - 1) + ROW_INDEX_OFFSET);
+      }
+    }
+
+    final long address = appendRecord(hash, rowIndex, keyLength);
+    table.putLong(slot * Long.BYTES, address + 1);
+    numRecords++;
+    minTimestamp = Math.min(minTimestamp, key.getTimestamp());
+    maxTimestamp = Math.max(maxTimestamp, key.getTimestamp());
+    if (numRecords * 2 > tableMask + 1) {
+      allocateTable((tableMask + 1) * 2);
+    }
+    return IncrementalIndexRow.EMPTY_ROW_INDEX;
+  }
+
+  /**
+   * Frees the direct memory of this holder. Rows must not be iterated anymore after this call.
+   */
+  @Override
+  public synchronized void clear()
+  {
+    for (ByteBuffer chunk : chunks) {
+      ByteBufferUtils.free(chunk);
+    }
+    chunks.clear();
+    chunkPosition = 0;
+    numRecords = 0;
+    if (table != null) {
+      ByteBufferUtils.free(table);
+      table = null;
+    }
+    bytesInMemory = 0;
+    minTimestamp = Long.MAX_VALUE;
+    maxTimestamp = Long.MIN_VALUE;
+    sortedRuns = Collections.emptyList();
+    numSortedRecords = 0;
+    firstUnsortedAddress = address(0, 0);
+  }
+
+  /**
+   * Returns the direct memory allocated by this holder. Records are allocated in chunks of 1 MB, and the hash table
+   * holds between two and four slots of 8 bytes per record.
+   */
+  synchronized long getBytesInMemory()
+  {
+    return bytesInMemory;
+  }
+
+  @VisibleForTesting
+  synchronized int getNumSortedRuns()
+  {
+    return sortedRuns.size();
+  }
+
+  /**
+   * Serializes the key of the given row into {@link #keyBuffer}, starting at position 0.
+   *
+   * @return the length of the key
+   */
+  @GuardedBy("this")
+  private int encodeKey(IncrementalIndexRow row)
+  {
+    final Object[] dims = row.getDims();
+    final int numDims = numKeyDims(dims);
+    final int keyLength = keyLength(dims);
+    if (keyBuffer.capacity() < keyLength) {
+      keyBuffer = ByteBuffer.allocate(Math.max(keyLength, keyBuffer.capacity() * 2)).order(ByteOrder.nativeOrder());
+    }
+
+    keyBuffer.clear();
+    keyBuffer.putLong(row.getTimestamp());
+    for (int i = 0; i < numDims; i++) {
+      final Object dim = dims[i];
+      if (dim == null) {
+        keyBuffer.put(NULL_VALUE);
+      } else if (dim instanceof int[]) {
+        final int[] ids = (int[]) dim;
+        keyBuffer.put(INTS_VALUE).putInt(ids.length);
+        for (int id : ids) {
+          keyBuffer.putInt(id);
+        }
+      } else if (dim instanceof Long) {
+        keyBuffer.put(LONG_VALUE).putLong((Long) dim);
+      } else if (dim instanceof Float) {
+        keyBuffer.put(FLOAT_VALUE).putInt(Float.floatToIntBits((Float) dim));
+      } else {
+        keyBuffer.put(DOUBLE_VALUE).putLong(Double.doubleToLongBits((Double) dim));
+      }
+    }
+    return keyLength;
+  }
+
+  private static int numKeyDims(Object[] dims)
+  {
+    int numDims = dims.length;
+    // Trailing nulls don't make rows different, see IncrementalIndexRowComparator
+    while (numDims > 0 && dims[numDims - 1] == null) {
+      numDims--;
+    }
+    return numDims;
+  }
+
+  private static int keyLength(Object[] dims)
+  {
+    final int numDims = numKeyDims(dims);
+    int keyLength = Long.BYTES;
+    for (int i = 0; i < numDims; i++) {
+      keyLength += Byte.BYTES + encodedValueLength(dims[i]);
+    }
+    return keyLength;
+  }
+
+  private static int encodedValueLength(Object dim)
+  {
+    if (dim == null) {
+      return 0;
+    } else if (dim instanceof int[]) {
+      return Integer.BYTES + ((int[]) dim).length * Integer.BYTES;
+    } else if (dim instanceof Long || dim instanceof Double) {
+      return Long.BYTES;
+    } else if (dim instanceof Float) {
+      return Float.BYTES;
+    } else {
+      throw new UOE("Dimension values of type[%s] can't be stored off-heap", dim.getClass().getName());
+    }
+  }
+
+  @GuardedBy("this")
+  private int keyHash(int keyLength)
+  {
+    int hash = 1;
+    int i = 0;
+    for (; i + Long.BYTES <= keyLength; i += Long.BYTES) {
+      final long value = keyBuffer.getLong(i);
+      hash = 31 * hash + (int) (value ^ (value >>> 32));
+    }
+    for (; i < keyLength; i++) {
+      hash = 31 * hash + keyBuffer.get(i);
+    }
+    // Spread the bits, the table index only uses the low bits of the hash
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    return hash;
+  }
+
+  @GuardedBy("this")
+  private long findSlotValue(int hash, int keyLength)
+  {
+    if (table == null) {
+      return 0;
+    }
+    int slot = hash & tableMask;
+    for (long slotValue; (slotValue = table.getLong(slot * Long.BYTES)) != 0; slot = (slot + 1) & tableMask) {
+      if (keyEquals(slotValue - 1, hash, keyLength)) {
+        return slotValue;
+      }
+    }
+    return 0;
+  }
+
+  @GuardedBy("this")
+  private boolean keyEquals(long address, int hash, int keyLength)
+  {
+    final ByteBuffer chunk = chunkFor(address);
+    final int offset = offsetFor(address);
+    if (chunk.getInt(offset + HASH_OFFSET) != hash || chunk.getInt(offset + KEY_LENGTH_OFFSET) != keyLength) {
+      return false;
+    }
+    final int keyStart = offset + KEY_OFFSET;
+    int i = 0;
+    for (; i + Long.BYTES <= keyLength; i += Long.BYTES) {
+      if (chunk.getLong(keyStart + i) != keyBuffer.getLong(i)) {
+        return false;
+      }
+    }
+    for (; i < keyLength; i++) {
+      if (chunk.get(keyStart + i) != keyBuffer.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @GuardedBy("this")
+  private long appendRecord(int hash, int rowIndex, int keyLength)
+  {
+    final int recordLength = KEY_OFFSET + keyLength;
+    if (chunks.isEmpty() || chunkPosition + recordLength > chunks.get(chunks.size() - 1).capacity()) {
+      final int chunkSize = Math.max(CHUNK_SIZE, recordLength);
+      chunks.add(ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.nativeOrder()));
+      chunkPosition = 0;
+      bytesInMemory += chunkSize;
+    }
+    final int chunkIndex = chunks.size() - 1;
+    final ByteBuffer chunk = chunks.get(chunkIndex);
+    final int offset = chunkPosition;
+    chunk.putInt(offset + HASH_OFFSET, hash);
+    chunk.putInt(offset + ROW_INDEX_OFFSET, rowIndex);
+    chunk.putInt(offset + KEY_LENGTH_OFFSET, keyLength);
+    for (int i = 0; i < keyLength; i++) {
+      chunk.put(offset + KEY_OFFSET + i, keyBuffer.get(i));
+    }
+    chunkPosition += recordLength;
+    return address(chunkIndex, offset);
+  }
+
+  @GuardedBy("this")
+  private void allocateTable(int capacity)
+  {
+    final ByteBuffer oldTable = table;
+    table = ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder());
+    tableMask = capacity - 1;
+    bytesInMemory += capacity * Long.BYTES - (oldTable == null ? 0 : oldTable.capacity());
+    if (oldTable != null) {
+      for (int i = 0; i < oldTable.capacity(); i += Long.BYTES) {
+        final long slotValue = oldTable.getLong(i);
+        if (slotValue != 0) {
+          int slot = chunkFor(slotValue - 1).getInt(offsetFor(slotValue - 1) + HASH_OFFSET) & tableMask;
+          while (table.getLong(slot * Long.BYTES) != 0) {
+            slot = (slot + 1) & tableMask;
+          }
+          table.putLong(slot * Long.BYTES, slotValue);
+        }
+      }
+      ByteBufferUtils.free(oldTable);
+    }
+  }
+
+  /**
+   * Returns the sorted runs covering all records added so far, sorting the records added since the last call into a
+   * new run first.
+   */
+  private List<long[]> sortedRuns()
+  {
+    final List<ByteBuffer> chunksSnapshot;
+    final List<long[]> runsSnapshot;
+    final int numSortedSnapshot;
+    final int numRecordsSnapshot;
+    final long unsortedAddress;
+    synchronized (this) {
+      if (numSortedRecords == numRecords) {
+        return sortedRuns;
+      }
+      chunksSnapshot = new ArrayList<>(chunks);
+      runsSnapshot = sortedRuns;
+      numSortedSnapshot = numSortedRecords;
+      numRecordsSnapshot = numRecords;
+      unsortedAddress = firstUnsortedAddress;
+    }
+
+    // Sort outside of the lock, to not block ingestion. Only the new rows are decoded, and dropped afterwards.
+    final int numNewRecords = numRecordsSnapshot - numSortedSnapshot;
+    final long[] addresses = new long[numNewRecords];
+    final IncrementalIndexRow[] rows = new IncrementalIndexRow[numNewRecords];
+    int chunkIndex = chunkIndexFor(unsortedAddress);
+    int offset = offsetFor(unsortedAddress);
+    for (int i = 0; i < numNewRecords; i++) {
+      ByteBuffer chunk = chunksSnapshot.get(chunkIndex);
+      if (isChunkExhausted(chunk, offset)) {
+        chunk = chunksSnapshot.get(++chunkIndex);
+        offset = 0;
+      }
+      addresses[i] = address(chunkIndex, offset);
+      rows[i] = decodeRow(chunk, offset);
+      offset += KEY_OFFSET + chunk.getInt(offset + KEY_LENGTH_OFFSET);
+    }
+    final int[] order = new int[numNewRecords];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    IntArrays.quickSort(order, (lhs, rhs) -> incrementalIndexRowComparator.compare(rows[lhs], rows[rhs]));
+    final long[] newRun = new long[numNewRecords];
+    for (int i = 0; i < newRun.length; i++) {
+      newRun[i] = addresses[order[i]];
+    }
+
+    final List<long[]> runs = new ArrayList<>(runsSnapshot);
+    runs.add(newRun);
+    while (runs.size() > 1 && runs.get(runs.size() - 2).length <= 2 * runs.get(runs.size() - 1).length) {
+      final long[] last = runs.remove(runs.size() - 1);
+      final long[] previous = runs.remove(runs.size() - 1);
+      runs.add(mergeRuns(chunksSnapshot, previous, last));
+    }
+
+    synchronized (this) {
+      // Another thread may have published runs covering more records meanwhile
+      if (numSortedRecords < numRecordsSnapshot) {
+        sortedRuns = runs;
+        numSortedRecords = numRecordsSnapshot;
+        firstUnsortedAddress = address(chunkIndex, offset);
+      }
+    }
+    return runs;
+  }
+
+  private long[] mergeRuns(List<ByteBuffer> chunksSnapshot, long[] lhs, long[] rhs)
+  {
+    final long[] merged = new long[lhs.length + rhs.length];
+    int lhsIndex = 0;
+    int rhsIndex = 0;
+    int mergedIndex = 0;
+    IncrementalIndexRow lhsRow = decodeRow(chunksSnapshot, lhs[0]);
+    IncrementalIndexRow rhsRow = decodeRow(chunksSnapshot, rhs[0]);
+    while (true) {
+      if (incrementalIndexRowComparator.compare(lhsRow, rhsRow) <= 0) {
+        merged[mergedIndex++] = lhs[lhsIndex++];
+        if (lhsIndex == lhs.length) {
+          break;
+        }
+        lhsRow = decodeRow(chunksSnapshot, lhs[lhsIndex]);
+      } else {
+        merged[mergedIndex++] = rhs[rhsIndex++];
+        if (rhsIndex == rhs.length) {
+          break;
+        }
+        rhsRow = decodeRow(chunksSnapshot, rhs[rhsIndex]);
+      }
+    }
+    System.arraycopy(lhs, lhsIndex, merged, mergedIndex, lhs.length - lhsIndex);
+    mergedIndex += lhs.length - lhsIndex;
+    System.arraycopy(rhs, rhsIndex, merged, mergedIndex, rhs.length - rhsIndex);
+    return merged;
+  }
+
+  private synchronized List<ByteBuffer> chunksSnapshot()
+  {
+    return new ArrayList<>(chunks);
+  }
+
+  /**
+   * @return index of the first address in sortedRun whose timestamp is not less than the given timestamp
+   */
+  private static int lowerBound(List<ByteBuffer> chunksSnapshot, long[] sortedRun, long timestamp)
+  {
+    int low = 0;
+    int high = sortedRun.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      final long address = sortedRun[mid];
+      if (chunksSnapshot.get(chunkIndexFor(address)).getLong(offsetFor(address) + TIMESTAMP_OFFSET) < timestamp) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Iterates over the given ranges of the given sorted runs, merging them on the fly.
+   */
+  private Iterator<IncrementalIndexRow> runsIterator(
+      List<ByteBuffer> chunksSnapshot,
+      List<long[]> runs,
+      int[] starts,
+      int[] ends,
+      boolean descending
+  )
+  {
+    final Comparator<IncrementalIndexRow> comparator =
+        descending ? incrementalIndexRowComparator.reversed() : incrementalIndexRowComparator;
+    final PriorityQueue<RunCursor> cursors = new PriorityQueue<>(
+        Math.max(runs.size(), 1),
+        (lhs, rhs) -> comparator.compare(lhs.row, rhs.row)
+    );
+    for (int i = 0; i < runs.size(); i++) {
+      final RunCursor cursor = new RunCursor(runs.get(i), starts[i], ends[i], descending);
+      if (cursor.advance(chunksSnapshot)) {
+        cursors.add(cursor);
+      }
+    }
+    return new Iterator<IncrementalIndexRow>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        return !cursors.isEmpty();
+      }
+
+      @Override
+      public IncrementalIndexRow next()
+      {
+        final RunCursor cursor = cursors.poll();
+        if (cursor == null) {
+          throw new NoSuchElementException();
+        }
+        final IncrementalIndexRow row = cursor.row;
+        if (cursor.advance(chunksSnapshot)) {
+          cursors.add(cursor);
+        }
+        return row;
+      }
+    };
+  }
+
+  private class RunCursor
+  {
+    private final long[] run;
+    private final int start;
+    private final int end;
+    private final boolean descending;
+    private int index;
+    private IncrementalIndexRow row;
+
+    private RunCursor(long[] run, int start, int end, boolean descending)
+    {
+      this.run = run;
+      this.start = start;
+      this.end = end;
+      this.descending = descending;
+      this.index = descending ? end - 1 : start;
+    }
+
+    /**
+     * Decodes the next row of the range into {@link #row}, returns false if the range is exhausted.
+     */
+    private boolean advance(List<ByteBuffer> chunksSnapshot)
+    {
+      if (descending ? index < start : index >= end) {
+        return false;
+      }
+      row = decodeRow(chunksSnapshot, run[descending ? index-- : index++]);
+      return true;
+    }
+  }
+
+  /**
+   * Records never span chunks. The rest of a chunk that could not fit the next record is left zeroed, and there is no
+   * record with zero key length.
+   */
+  private static boolean isChunkExhausted(ByteBuffer chunk, int offset)
+  {
+    return offset + KEY_OFFSET > chunk.capacity() || chunk.getInt(offset + KEY_LENGTH_OFFSET) == 0;
+  }
+
+  private IncrementalIndexRow decodeRow(List<ByteBuffer> chunksSnapshot, long address)
+  {
+    return decodeRow(chunksSnapshot.get(chunkIndexFor(address)), offsetFor(address));
+  }
+
+  private IncrementalIndexRow decodeRow(ByteBuffer chunk, int offset)
+  {
+    final int rowIndex = chunk.getInt(offset + ROW_INDEX_OFFSET);
+    final int keyEnd = offset + KEY_OFFSET + chunk.getInt(offset + KEY_LENGTH_OFFSET);
+    final long timestamp = chunk.getLong(offset + TIMESTAMP_OFFSET);
+
+    Object[] dims = new Object[4];
+    int numDims = 0;
+    int position = offset + TIMESTAMP_OFFSET + Long.BYTES;
+    while (position < keyEnd) {
+      if (numDims == dims.length) {
+        dims = Arrays.copyOf(dims, dims.length * 2);
+      }
+      final byte type = chunk.get(position++);
+      switch (type) {
+        case NULL_VALUE:
+          dims[numDims] = null;
+          break;
+        case INTS_VALUE:
+          final int[] ids = new int[chunk.getInt(position)];
+          position += Integer.BYTES;
+          for (int i = 0; i < ids.length; i++) {
+            ids[i] = chunk.getInt(position);
+            position += Integer.BYTES;
+          }
+          dims[numDims] = ids;
+          break;
+        case LONG_VALUE:
+          dims[numDims] = chunk.getLong(position);
+          position += Long.BYTES;
+          break;
+        case FLOAT_VALUE:
+          dims[numDims] = Float.intBitsToFloat(chunk.getInt(position));
+          position += Float.BYTES;
+          break;
+        case DOUBLE_VALUE:
+          dims[numDims] = Double.longBitsToDouble(chunk.getLong(position));
+          position += Double.BYTES;
+          break;
+        default:
+          throw new UOE("Unknown dimension value type[%d]", type);
+      }
+      numDims++;
+    }
+    return new IncrementalIndexRow(timestamp, Arrays.copyOf(dims, numDims), dimensionDescsList, rowIndex);
+  }
+
+  @GuardedBy("this")
+  private ByteBuffer chunkFor(long address)
+  {
+    return chunks.get(chunkIndexFor(address));
+  }
+
+  private static long address(int chunkIndex, int offset)
+  {
+    return ((long) chunkIndex << 32) | offset;
+  }
+
+  private static int chunkIndexFor(long address)
+  {
+    return (int) (address >>> 32);
+  }
+
+  private static int offsetFor(long address)
+  {
+    return (int) address;
+  }
+}
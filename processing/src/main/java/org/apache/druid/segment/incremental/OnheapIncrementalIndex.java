@@ -56,10 +56,13 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
   private static final int ROUGH_OVERHEAD_PER_MAP_ENTRY = Long.BYTES * 5 + Integer.BYTES;
   private final ConcurrentHashMap<Integer, Aggregator[]> aggregators = new ConcurrentHashMap<>();
   private final FactsHolder facts;
+  @Nullable
+  private final OffheapRollupFactsHolder offheapFacts;
   private final AtomicInteger indexIncrement = new AtomicInteger(0);
   private final long maxBytesPerRowForAggregators;
   protected final int maxRowCount;
   protected final long maxBytesInMemory;
+  private final long maxOffheapFactsBytes;
   private volatile Map<String, ColumnSelectorFactory> selectors;
 
   private String outOfRowsReason = null;
@@ -73,12 +76,46 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
       int maxRowCount,
       long maxBytesInMemory
   )
+  {
+    this(
+        incrementalIndexSchema,
+        deserializeComplexMetrics,
+        reportParseExceptions,
+        concurrentEventAdd,
+        sortFacts,
+        false,
+        maxRowCount,
+        maxBytesInMemory,
+        0
+    );
+  }
+
+  OnheapIncrementalIndex(
+      IncrementalIndexSchema incrementalIndexSchema,
+      boolean deserializeComplexMetrics,
+      boolean reportParseExceptions,
+      boolean concurrentEventAdd,
+      boolean sortFacts,
+      boolean offheapFacts,
+      int maxRowCount,
+      long maxBytesInMemory,
+      long maxOffheapFactsBytes
+  )
   {
     super(incrementalIndexSchema, deserializeComplexMetrics, reportParseExceptions, concurrentEventAdd);
     this.maxRowCount = maxRowCount;
     this.maxBytesInMemory = maxBytesInMemory == 0 ? Long.MAX_VALUE : maxBytesInMemory;
-    this.facts = incrementalIndexSchema.isRollup() ? new RollupFactsHolder(sortFacts, dimsComparator(), getDimensions())
-                                                   : new PlainFactsHolder(sortFacts, dimsComparator());
+    this.maxOffheapFactsBytes = maxOffheapFactsBytes == 0 ? Long.MAX_VALUE : maxOffheapFactsBytes;
+    if (!incrementalIndexSchema.isRollup()) {
+      this.offheapFacts = null;
+      this.facts = new PlainFactsHolder(sortFacts, dimsComparator());
+    } else if (offheapFacts) {
+      this.offheapFacts = new OffheapRollupFactsHolder(sortFacts, dimsComparator(), getDimensions());
+      this.facts = this.offheapFacts;
+    } else {
+      this.offheapFacts = null;
+      this.facts = new RollupFactsHolder(sortFacts, dimsComparator(), getDimensions());
+    }
     maxBytesPerRowForAggregators = getMaxBytesPerRowForAggregators(incrementalIndexSchema);
   }
 
@@ -176,6 +213,11 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
             maxBytesInMemory
         );
       }
+      if (getOffheapFactsBytes() >= maxOffheapFactsBytes
+          && facts.getPriorIndex(key) == IncrementalIndexRow.EMPTY_ROW_INDEX
+          && !skipMaxRowsInMemoryCheck) {
+        throw new IndexSizeExceededException("Maximum off-heap facts size in bytes [%d] reached", maxOffheapFactsBytes);
+      }
       final int prev = facts.putIfAbsent(key, rowIndex);
       if (IncrementalIndexRow.EMPTY_ROW_INDEX == prev) {
         numEntries.incrementAndGet();
@@ -201,6 +243,8 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
    * <li> TimeAndDims key size
    * <li> aggregator size
    * </ul>
+   * If the facts are kept off-heap, the key and its map entry aren't on heap, only the entry of the aggregators of
+   * the row is. The direct memory of the facts is bounded separately, see {@link #getOffheapFactsBytes}.
    *
    * @param key                          TimeAndDims key
    * @param maxBytesPerRowForAggregators max size per aggregator
@@ -209,9 +253,21 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
    */
   private long estimateRowSizeInBytes(IncrementalIndexRow key, long maxBytesPerRowForAggregators)
   {
+    if (offheapFacts != null) {
+      return ROUGH_OVERHEAD_PER_MAP_ENTRY + maxBytesPerRowForAggregators;
+    }
     return ROUGH_OVERHEAD_PER_MAP_ENTRY + key.estimateBytesInMemory() + maxBytesPerRowForAggregators;
   }
 
+  /**
+   * Returns the direct memory taken by the facts if they are kept off-heap, and 0 otherwise. It is bounded by
+   * maxOffheapFactsBytes rather than by maxBytesInMemory.
+   */
+  public long getOffheapFactsBytes()
+  {
+    return offheapFacts == null ? 0 : offheapFacts.getBytesInMemory();
+  }
+
   @Override
   public int getLastRowIndex()
   {
@@ -300,8 +356,11 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
     final boolean countCheck = size() < maxRowCount;
     // if maxBytesInMemory = -1, then ignore sizeCheck
     final boolean sizeCheck = maxBytesInMemory <= 0 || getBytesInMemory().get() < maxBytesInMemory;
-    final boolean canAdd = countCheck && sizeCheck;
-    if (!countCheck && !sizeCheck) {
+    final boolean offheapSizeCheck = getOffheapFactsBytes() < maxOffheapFactsBytes;
+    final boolean canAdd = countCheck && sizeCheck && offheapSizeCheck;
+    if (!offheapSizeCheck) {
+      outOfRowsReason = StringUtils.format("Maximum off-heap facts size in bytes [%d] reached", maxOffheapFactsBytes);
+    } else if (!countCheck && !sizeCheck) {
       outOfRowsReason = StringUtils.format(
           "Maximum number of rows [%d] and maximum size in bytes [%d] reached",
           maxRowCount,
@@ -43,9 +43,15 @@ public class MMappedQueryableSegmentizerFactory implements SegmentizerFactory
 
   @Override
   public Segment factorize(DataSegment dataSegment, File parentDir) throws SegmentLoadingException
+  {
+    return factorize(dataSegment, parentDir, false);
+  }
+
+  @Override
+  public Segment factorize(DataSegment dataSegment, File parentDir, boolean lazy) throws SegmentLoadingException
   {
     try {
-      return new QueryableIndexSegment(indexIO.loadIndex(parentDir), dataSegment.getId());
+      return new QueryableIndexSegment(indexIO.loadIndex(parentDir, lazy), dataSegment.getId());
     }
     catch (IOException e) {
       throw new SegmentLoadingException(e, "%s", e.getMessage());
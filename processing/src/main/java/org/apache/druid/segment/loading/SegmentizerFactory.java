@@ -32,4 +32,13 @@ import java.io.File;
 public interface SegmentizerFactory
 {
   Segment factorize(DataSegment segment, File parentDir) throws SegmentLoadingException;
+
+  /**
+   * Like {@link #factorize(DataSegment, File)}, but may defer loading the parts of the segment that are not needed
+   * until they are first accessed if lazy is true. Factories that don't support lazy loading ignore it.
+   */
+  default Segment factorize(DataSegment segment, File parentDir, boolean lazy) throws SegmentLoadingException
+  {
+    return factorize(segment, parentDir);
+  }
 }
@@ -23,7 +23,7 @@ import com.google.common.base.Supplier;
 import org.apache.druid.collections.bitmap.BitmapFactory;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.segment.column.BitmapIndex;
-import org.apache.druid.segment.data.GenericIndexed;
+import org.apache.druid.segment.data.Indexed;
 
 import javax.annotation.Nullable;
 
@@ -33,12 +33,12 @@ public class BitmapIndexColumnPartSupplier implements Supplier<BitmapIndex>
 {
   private final BitmapFactory bitmapFactory;
   private final GenericIndexed<ImmutableBitmap> bitmaps;
-  private final GenericIndexed<String> dictionary;
+  private final Indexed<String> dictionary;
 
   public BitmapIndexColumnPartSupplier(
       BitmapFactory bitmapFactory,
       GenericIndexed<ImmutableBitmap> bitmaps,
-      GenericIndexed<String> dictionary
+      Indexed<String> dictionary
   )
   {
     this.bitmapFactory = bitmapFactory;
@@ -78,7 +78,7 @@ public class BitmapIndexColumnPartSupplier implements Supplier<BitmapIndex>
       @Override
       public int getIndex(@Nullable String value)
       {
-        // GenericIndexed.indexOf satisfies contract needed by BitmapIndex.indexOf
+        // GenericIndexed.indexOf and FrontCodedIndexed.indexOf satisfy contract needed by BitmapIndex.indexOf
         return dictionary.indexOf(value);
       }
 
@@ -39,6 +39,8 @@ import java.nio.ByteBuffer;
     @JsonSubTypes.Type(name = "floatV2", value = FloatNumericColumnPartSerdeV2.class),
     @JsonSubTypes.Type(name = "longV2", value = LongNumericColumnPartSerdeV2.class),
     @JsonSubTypes.Type(name = "doubleV2", value = DoubleNumericColumnPartSerdeV2.class),
+    @JsonSubTypes.Type(name = "zoneMap", value = ZoneMapColumnPartSerde.class),
+    @JsonSubTypes.Type(name = "numericBitmapIndex", value = NumericBitmapIndexColumnPartSerde.class),
 })
 public interface ColumnPartSerde
 {
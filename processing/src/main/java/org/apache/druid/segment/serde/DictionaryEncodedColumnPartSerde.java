@@ -22,6 +22,7 @@ package org.apache.druid.segment.serde;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
 import com.google.common.primitives.Ints;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.collections.spatial.ImmutableRTree;
@@ -34,14 +35,19 @@ import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.segment.data.BitmapSerde;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.ByteBufferWriter;
+import org.apache.druid.segment.data.CachingIndexed;
+import org.apache.druid.segment.data.CloseableIndexed;
 import org.apache.druid.segment.data.ColumnarInts;
 import org.apache.druid.segment.data.ColumnarIntsSerializer;
 import org.apache.druid.segment.data.ColumnarMultiInts;
 import org.apache.druid.segment.data.CompressedVSizeColumnarIntsSupplier;
 import org.apache.druid.segment.data.CompressedVSizeColumnarMultiIntsSupplier;
+import org.apache.druid.segment.data.FrontCodedIndexed;
+import org.apache.druid.segment.data.FrontCodedIndexedWriter;
 import org.apache.druid.segment.data.GenericIndexed;
 import org.apache.druid.segment.data.GenericIndexedWriter;
 import org.apache.druid.segment.data.ImmutableRTreeObjectStrategy;
+import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.data.V3CompressedVSizeColumnarMultiIntsSupplier;
 import org.apache.druid.segment.data.VSizeColumnarInts;
 import org.apache.druid.segment.data.VSizeColumnarMultiInts;
@@ -63,7 +69,8 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
   {
     MULTI_VALUE,
     MULTI_VALUE_V3,
-    NO_BITMAP_INDEX;
+    NO_BITMAP_INDEX,
+    FRONT_CODED_DICTIONARY;
 
     public boolean isSet(int flags)
     {
@@ -145,7 +152,7 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
   {
     private VERSION version = null;
     private int flags = STARTING_FLAGS;
-    private GenericIndexedWriter<String> dictionaryWriter = null;
+    private Serializer dictionaryWriter = null;
     private ColumnarIntsSerializer valueWriter = null;
     private BitmapSerdeFactory bitmapSerdeFactory = null;
     private GenericIndexedWriter<ImmutableBitmap> bitmapIndexWriter = null;
@@ -155,6 +162,14 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
     public SerializerBuilder withDictionary(GenericIndexedWriter<String> dictionaryWriter)
     {
       this.dictionaryWriter = dictionaryWriter;
+      flags &= ~Feature.FRONT_CODED_DICTIONARY.getMask();
+      return this;
+    }
+
+    public SerializerBuilder withDictionary(FrontCodedIndexedWriter dictionaryWriter)
+    {
+      this.dictionaryWriter = dictionaryWriter;
+      flags |= Feature.FRONT_CODED_DICTIONARY.getMask();
       return this;
     }
 
@@ -295,11 +310,22 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
 
         final boolean hasMultipleValues = Feature.MULTI_VALUE.isSet(rFlags) || Feature.MULTI_VALUE_V3.isSet(rFlags);
 
-        final GenericIndexed<String> rDictionary = GenericIndexed.read(
-            buffer,
-            GenericIndexed.STRING_STRATEGY,
-            builder.getFileMapper()
-        );
+        final Indexed<String> rDictionary;
+        final Supplier<CloseableIndexed<String>> rDictionarySupplier;
+        if (Feature.FRONT_CODED_DICTIONARY.isSet(rFlags)) {
+          final FrontCodedIndexed frontCodedDictionary = FrontCodedIndexed.read(buffer);
+          rDictionary = frontCodedDictionary;
+          rDictionarySupplier = () -> frontCodedDictionary;
+        } else {
+          final GenericIndexed<String> genericIndexedDictionary = GenericIndexed.read(
+              buffer,
+              GenericIndexed.STRING_STRATEGY,
+              builder.getFileMapper()
+          );
+          rDictionary = genericIndexedDictionary;
+          rDictionarySupplier =
+              () -> new CachingIndexed<>(genericIndexedDictionary, columnConfig.columnCacheSizeBytes());
+        }
         builder.setType(ValueType.STRING);
 
         final WritableSupplier<ColumnarInts> rSingleValuedColumn;
@@ -314,10 +340,9 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
         }
 
         DictionaryEncodedColumnSupplier dictionaryEncodedColumnSupplier = new DictionaryEncodedColumnSupplier(
-            rDictionary,
+            rDictionarySupplier,
             rSingleValuedColumn,
-            rMultiValuedColumn,
-            columnConfig.columnCacheSizeBytes()
+            rMultiValuedColumn
         );
         builder
             .setHasMultipleValues(hasMultipleValues)
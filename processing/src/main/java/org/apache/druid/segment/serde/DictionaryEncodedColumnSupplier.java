@@ -23,6 +23,7 @@ import com.google.common.base.Supplier;
 import org.apache.druid.segment.column.DictionaryEncodedColumn;
 import org.apache.druid.segment.column.StringDictionaryEncodedColumn;
 import org.apache.druid.segment.data.CachingIndexed;
+import org.apache.druid.segment.data.CloseableIndexed;
 import org.apache.druid.segment.data.ColumnarInts;
 import org.apache.druid.segment.data.ColumnarMultiInts;
 import org.apache.druid.segment.data.GenericIndexed;
@@ -33,10 +34,9 @@ import javax.annotation.Nullable;
  */
 public class DictionaryEncodedColumnSupplier implements Supplier<DictionaryEncodedColumn<?>>
 {
-  private final GenericIndexed<String> dictionary;
+  private final Supplier<CloseableIndexed<String>> dictionarySupplier;
   private final @Nullable Supplier<ColumnarInts> singleValuedColumn;
   private final @Nullable Supplier<ColumnarMultiInts> multiValuedColumn;
-  private final int lookupCacheSize;
 
   public DictionaryEncodedColumnSupplier(
       GenericIndexed<String> dictionary,
@@ -45,10 +45,21 @@ public class DictionaryEncodedColumnSupplier implements Supplier<DictionaryEncod
       int lookupCacheSize
   )
   {
-    this.dictionary = dictionary;
+    this(() -> new CachingIndexed<>(dictionary, lookupCacheSize), singleValuedColumn, multiValuedColumn);
+  }
+
+  /**
+   * @param dictionarySupplier supplies the dictionary of every column returned by {@link #get()}, which closes it.
+   */
+  public DictionaryEncodedColumnSupplier(
+      Supplier<CloseableIndexed<String>> dictionarySupplier,
+      @Nullable Supplier<ColumnarInts> singleValuedColumn,
+      @Nullable Supplier<ColumnarMultiInts> multiValuedColumn
+  )
+  {
+    this.dictionarySupplier = dictionarySupplier;
     this.singleValuedColumn = singleValuedColumn;
     this.multiValuedColumn = multiValuedColumn;
-    this.lookupCacheSize = lookupCacheSize;
   }
 
   @Override
@@ -57,7 +68,7 @@ public class DictionaryEncodedColumnSupplier implements Supplier<DictionaryEncod
     return new StringDictionaryEncodedColumn(
         singleValuedColumn != null ? singleValuedColumn.get() : null,
         multiValuedColumn != null ? multiValuedColumn.get() : null,
-        new CachingIndexed<>(dictionary, lookupCacheSize)
+        dictionarySupplier.get()
     );
   }
 }
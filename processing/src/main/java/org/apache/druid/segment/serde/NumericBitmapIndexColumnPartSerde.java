@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.serde;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.segment.column.NumericBitmapIndex;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.BitmapSerdeFactory;
+import org.apache.druid.segment.data.GenericIndexed;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * Column part holding the {@link NumericBitmapIndex} of a numeric dimension. It must be added to the column before the
+ * part holding the values, because the numeric V2 parts read until the end of the column buffer.
+ *
+ * Format: version (byte), type (byte, see {@link #typeToByte}), cardinality (int), the sorted values (long each, raw
+ * double bits for floating point columns), then a {@link GenericIndexed} of cardinality + 1 bitmaps: the bitmap of each
+ * value, followed by the bitmap of null rows.
+ */
+public class NumericBitmapIndexColumnPartSerde implements ColumnPartSerde
+{
+  public static final byte VERSION = 1;
+
+  static final int HEADER_SIZE = Byte.BYTES + Byte.BYTES + Integer.BYTES;
+
+  private final BitmapSerdeFactory bitmapSerdeFactory;
+  @Nullable
+  private final Serializer serializer;
+
+  @JsonCreator
+  public NumericBitmapIndexColumnPartSerde(
+      @JsonProperty("bitmapSerdeFactory") BitmapSerdeFactory bitmapSerdeFactory
+  )
+  {
+    this(bitmapSerdeFactory, null);
+  }
+
+  private NumericBitmapIndexColumnPartSerde(BitmapSerdeFactory bitmapSerdeFactory, @Nullable Serializer serializer)
+  {
+    this.bitmapSerdeFactory = Preconditions.checkNotNull(bitmapSerdeFactory, "bitmapSerdeFactory");
+    this.serializer = serializer;
+  }
+
+  public static SerializerBuilder serializerBuilder()
+  {
+    return new SerializerBuilder();
+  }
+
+  public static class SerializerBuilder
+  {
+    private BitmapSerdeFactory bitmapSerdeFactory = null;
+    private Serializer delegate = null;
+
+    public SerializerBuilder withBitmapSerdeFactory(final BitmapSerdeFactory bitmapSerdeFactory)
+    {
+      this.bitmapSerdeFactory = bitmapSerdeFactory;
+      return this;
+    }
+
+    public SerializerBuilder withDelegate(final Serializer delegate)
+    {
+      this.delegate = delegate;
+      return this;
+    }
+
+    public NumericBitmapIndexColumnPartSerde build()
+    {
+      return new NumericBitmapIndexColumnPartSerde(bitmapSerdeFactory, delegate);
+    }
+  }
+
+  public static byte typeToByte(ValueType type)
+  {
+    switch (type) {
+      case LONG:
+        return 0;
+      case FLOAT:
+        return 1;
+      case DOUBLE:
+        return 2;
+      default:
+        throw new IAE("Numeric bitmap indexes are not supported for type[%s]", type);
+    }
+  }
+
+  private static ValueType typeFromByte(byte type)
+  {
+    switch (type) {
+      case 0:
+        return ValueType.LONG;
+      case 1:
+        return ValueType.FLOAT;
+      case 2:
+        return ValueType.DOUBLE;
+      default:
+        throw new IAE("Unknown numeric bitmap index type[%s]", type);
+    }
+  }
+
+  @JsonProperty
+  public BitmapSerdeFactory getBitmapSerdeFactory()
+  {
+    return bitmapSerdeFactory;
+  }
+
+  @Nullable
+  @Override
+  public Serializer getSerializer()
+  {
+    return serializer;
+  }
+
+  @Override
+  public Deserializer getDeserializer()
+  {
+    return (buffer, builder, columnConfig) -> {
+      final byte version = buffer.get();
+      if (version != VERSION) {
+        throw new IAE("Unknown numeric bitmap index version[%s]", version);
+      }
+      final ValueType type = typeFromByte(buffer.get());
+      final int cardinality = buffer.getInt();
+      final ByteBuffer values = buffer.slice();
+      values.limit(cardinality * Long.BYTES);
+      buffer.position(buffer.position() + cardinality * Long.BYTES);
+      final GenericIndexed<ImmutableBitmap> bitmaps = GenericIndexed.read(
+          buffer,
+          bitmapSerdeFactory.getObjectStrategy(),
+          builder.getFileMapper()
+      );
+
+      builder.setNumericBitmapIndex(
+          Suppliers.ofInstance(
+              new BufferNumericBitmapIndex(type, bitmapSerdeFactory.getBitmapFactory(), cardinality, values, bitmaps)
+          )
+      );
+    };
+  }
+
+  private static class BufferNumericBitmapIndex implements NumericBitmapIndex
+  {
+    private final ValueType type;
+    private final BitmapFactory bitmapFactory;
+    private final int cardinality;
+    private final ByteBuffer values;
+    private final GenericIndexed<ImmutableBitmap> bitmaps;
+
+    BufferNumericBitmapIndex(
+        ValueType type,
+        BitmapFactory bitmapFactory,
+        int cardinality,
+        ByteBuffer values,
+        GenericIndexed<ImmutableBitmap> bitmaps
+    )
+    {
+      this.type = type;
+      this.bitmapFactory = bitmapFactory;
+      this.cardinality = cardinality;
+      this.values = values;
+      this.bitmaps = bitmaps;
+    }
+
+    @Override
+    public ValueType getType()
+    {
+      return type;
+    }
+
+    @Override
+    public BitmapFactory getBitmapFactory()
+    {
+      return bitmapFactory;
+    }
+
+    @Override
+    public int getCardinality()
+    {
+      return cardinality;
+    }
+
+    @Override
+    public long getLong(int index)
+    {
+      return values.getLong(index * Long.BYTES);
+    }
+
+    @Override
+    public double getDouble(int index)
+    {
+      return Double.longBitsToDouble(getLong(index));
+    }
+
+    @Override
+    public int indexOf(long value)
+    {
+      int low = 0;
+      int high = cardinality - 1;
+      while (low <= high) {
+        final int mid = (low + high) >>> 1;
+        final int comparison = Long.compare(getLong(mid), value);
+        if (comparison < 0) {
+          low = mid + 1;
+        } else if (comparison > 0) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+
+    @Override
+    public int indexOf(double value)
+    {
+      int low = 0;
+      int high = cardinality - 1;
+      while (low <= high) {
+        final int mid = (low + high) >>> 1;
+        final int comparison = Double.compare(getDouble(mid), value);
+        if (comparison < 0) {
+          low = mid + 1;
+        } else if (comparison > 0) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+
+    @Override
+    public ImmutableBitmap getBitmap(int index)
+    {
+      final ImmutableBitmap bitmap = bitmaps.get(index);
+      return bitmap == null ? bitmapFactory.makeEmptyImmutableBitmap() : bitmap;
+    }
+
+    @Override
+    public ImmutableBitmap getNullBitmap()
+    {
+      return getBitmap(cardinality);
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.serde;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.google.common.base.Suppliers;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.column.ZoneMapIndex;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * Column part holding the {@link ZoneMapIndex} of a numeric column. It must be added to the column before the part
+ * holding the values, because the numeric V2 parts read until the end of the column buffer.
+ *
+ * Format: version (byte), type (byte, see {@link #typeToByte}), block size (int), number of blocks (int), then per
+ * block: flags (byte), min (long, raw double bits for floating point columns), max (long, same as min).
+ */
+public class ZoneMapColumnPartSerde implements ColumnPartSerde
+{
+  public static final byte VERSION = 1;
+  public static final byte FLAG_HAS_NULLS = 1;
+  public static final byte FLAG_HAS_VALUES = 1 << 1;
+  public static final byte FLAG_HAS_NAN = 1 << 2;
+
+  static final int HEADER_SIZE = Byte.BYTES + Byte.BYTES + Integer.BYTES + Integer.BYTES;
+  static final int BLOCK_ENTRY_SIZE = Byte.BYTES + Long.BYTES + Long.BYTES;
+
+  @Nullable
+  private final Serializer serializer;
+
+  @JsonCreator
+  public ZoneMapColumnPartSerde()
+  {
+    this(null);
+  }
+
+  private ZoneMapColumnPartSerde(@Nullable Serializer serializer)
+  {
+    this.serializer = serializer;
+  }
+
+  public static SerializerBuilder serializerBuilder()
+  {
+    return new SerializerBuilder();
+  }
+
+  public static class SerializerBuilder
+  {
+    private Serializer delegate = null;
+
+    public SerializerBuilder withDelegate(final Serializer delegate)
+    {
+      this.delegate = delegate;
+      return this;
+    }
+
+    public ZoneMapColumnPartSerde build()
+    {
+      return new ZoneMapColumnPartSerde(delegate);
+    }
+  }
+
+  public static int getSerializedSize(int numBlocks)
+  {
+    return HEADER_SIZE + numBlocks * BLOCK_ENTRY_SIZE;
+  }
+
+  public static byte typeToByte(ValueType type)
+  {
+    switch (type) {
+      case LONG:
+        return 0;
+      case FLOAT:
+        return 1;
+      case DOUBLE:
+        return 2;
+      default:
+        throw new IAE("Zone maps are not supported for type[%s]", type);
+    }
+  }
+
+  private static ValueType typeFromByte(byte type)
+  {
+    switch (type) {
+      case 0:
+        return ValueType.LONG;
+      case 1:
+        return ValueType.FLOAT;
+      case 2:
+        return ValueType.DOUBLE;
+      default:
+        throw new IAE("Unknown zone map type[%s]", type);
+    }
+  }
+
+  @Nullable
+  @Override
+  public Serializer getSerializer()
+  {
+    return serializer;
+  }
+
+  @Override
+  public Deserializer getDeserializer()
+  {
+    return (buffer, builder, columnConfig) -> {
+      final byte version = buffer.get();
+      if (version != VERSION) {
+        throw new IAE("Unknown zone map version[%s]", version);
+      }
+      final ValueType type = typeFromByte(buffer.get());
+      final int blockSize = buffer.getInt();
+      if (blockSize != ZoneMapIndex.BLOCK_SIZE) {
+        throw new IAE("Unsupported zone map block size[%,d]", blockSize);
+      }
+      final int numBlocks = buffer.getInt();
+      final ByteBuffer blocks = buffer.slice();
+      blocks.limit(numBlocks * BLOCK_ENTRY_SIZE);
+      buffer.position(buffer.position() + numBlocks * BLOCK_ENTRY_SIZE);
+
+      builder.setZoneMapIndex(Suppliers.ofInstance(new BufferZoneMapIndex(type, numBlocks, blocks)));
+    };
+  }
+
+  private static class BufferZoneMapIndex implements ZoneMapIndex
+  {
+    private final ValueType type;
+    private final int numBlocks;
+    private final ByteBuffer blocks;
+
+    BufferZoneMapIndex(ValueType type, int numBlocks, ByteBuffer blocks)
+    {
+      this.type = type;
+      this.numBlocks = numBlocks;
+      this.blocks = blocks;
+    }
+
+    @Override
+    public ValueType getType()
+    {
+      return type;
+    }
+
+    @Override
+    public int getNumBlocks()
+    {
+      return numBlocks;
+    }
+
+    @Override
+    public boolean hasNulls(int block)
+    {
+      return (flags(block) & FLAG_HAS_NULLS) != 0;
+    }
+
+    @Override
+    public boolean hasValues(int block)
+    {
+      return (flags(block) & FLAG_HAS_VALUES) != 0;
+    }
+
+    @Override
+    public boolean hasNaN(int block)
+    {
+      return (flags(block) & FLAG_HAS_NAN) != 0;
+    }
+
+    @Override
+    public long getMinLong(int block)
+    {
+      return blocks.getLong(block * BLOCK_ENTRY_SIZE + Byte.BYTES);
+    }
+
+    @Override
+    public long getMaxLong(int block)
+    {
+      return blocks.getLong(block * BLOCK_ENTRY_SIZE + Byte.BYTES + Long.BYTES);
+    }
+
+    @Override
+    public double getMinDouble(int block)
+    {
+      return Double.longBitsToDouble(getMinLong(block));
+    }
+
+    @Override
+    public double getMaxDouble(int block)
+    {
+      return Double.longBitsToDouble(getMaxLong(block));
+    }
+
+    private byte flags(int block)
+    {
+      return blocks.get(block * BLOCK_ENTRY_SIZE);
+    }
+  }
+}
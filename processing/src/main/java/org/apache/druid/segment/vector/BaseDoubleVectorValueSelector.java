@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+
+/**
+ * Base class for {@link VectorValueSelector} implementations backed by double values. Subclasses only need to read the
+ * current vector of doubles; conversions to other types are computed lazily and cached per vector.
+ */
+public abstract class BaseDoubleVectorValueSelector extends BaseVectorValueSelector
+{
+  private final double[] doubleVector;
+  private final long[] longVector;
+  private final float[] floatVector;
+
+  private int doubleId = -1;
+  private int longId = -1;
+  private int floatId = -1;
+
+  public BaseDoubleVectorValueSelector(final ReadableVectorOffset offset, final ImmutableBitmap nullValueBitmap)
+  {
+    super(offset, nullValueBitmap);
+    this.doubleVector = new double[offset.getMaxVectorSize()];
+    this.longVector = new long[offset.getMaxVectorSize()];
+    this.floatVector = new float[offset.getMaxVectorSize()];
+  }
+
+  /**
+   * Reads the double values of the rows in the current vector of {@link #offset} into the given array.
+   */
+  protected abstract void readDoubles(double[] vector);
+
+  @Override
+  public double[] getDoubleVector()
+  {
+    if (doubleId != offset.getId()) {
+      readDoubles(doubleVector);
+      doubleId = offset.getId();
+    }
+    return doubleVector;
+  }
+
+  @Override
+  public long[] getLongVector()
+  {
+    final double[] doubles = getDoubleVector();
+    if (longId != offset.getId()) {
+      final int size = offset.getCurrentVectorSize();
+      for (int i = 0; i < size; i++) {
+        longVector[i] = (long) doubles[i];
+      }
+      longId = offset.getId();
+    }
+    return longVector;
+  }
+
+  @Override
+  public float[] getFloatVector()
+  {
+    final double[] doubles = getDoubleVector();
+    if (floatId != offset.getId()) {
+      final int size = offset.getCurrentVectorSize();
+      for (int i = 0; i < size; i++) {
+        floatVector[i] = (float) doubles[i];
+      }
+      floatId = offset.getId();
+    }
+    return floatVector;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Base class for {@link VectorValueSelector} implementations that read from a {@link ReadableVectorOffset} and track
+ * null rows using a null value bitmap, like the ones stored alongside numeric columns.
+ */
+public abstract class BaseVectorValueSelector implements VectorValueSelector
+{
+  protected final ReadableVectorOffset offset;
+  private final ImmutableBitmap nullValueBitmap;
+
+  @Nullable
+  private final boolean[] nullVector;
+  private int nullId = -1;
+  private boolean hasNulls;
+
+  public BaseVectorValueSelector(final ReadableVectorOffset offset, final ImmutableBitmap nullValueBitmap)
+  {
+    this.offset = offset;
+    this.nullValueBitmap = nullValueBitmap;
+    this.nullVector = nullValueBitmap.isEmpty() ? null : new boolean[offset.getMaxVectorSize()];
+  }
+
+  @Nullable
+  @Override
+  public boolean[] getNullVector()
+  {
+    if (nullVector == null) {
+      return null;
+    }
+
+    if (nullId != offset.getId()) {
+      hasNulls = false;
+      final int size = offset.getCurrentVectorSize();
+      if (offset.isContiguous()) {
+        final int start = offset.getStartOffset();
+        for (int i = 0; i < size; i++) {
+          nullVector[i] = nullValueBitmap.get(start + i);
+          hasNulls |= nullVector[i];
+        }
+      } else {
+        final int[] offsets = offset.getOffsets();
+        for (int i = 0; i < size; i++) {
+          nullVector[i] = nullValueBitmap.get(offsets[i]);
+          hasNulls |= nullVector[i];
+        }
+      }
+      nullId = offset.getId();
+    }
+
+    return hasNulls ? nullVector : null;
+  }
+
+  @Override
+  public int getMaxVectorSize()
+  {
+    return offset.getMaxVectorSize();
+  }
+
+  @Override
+  public int getCurrentVectorSize()
+  {
+    return offset.getCurrentVectorSize();
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.BitmapOffset;
+import org.roaringbitmap.IntIterator;
+
+/**
+ * {@link VectorOffset} over the rows of an {@link ImmutableBitmap} that fall within [start, end). Used when a filter
+ * was fully resolved using bitmap indexes.
+ */
+public class BitmapVectorOffset implements VectorOffset
+{
+  private final int[] offsets;
+  private final ImmutableBitmap bitmap;
+  private final int startOffset;
+  private final int endOffset;
+
+  private IntIterator iterator;
+  private boolean pastEnd;
+  private int currentVectorSize;
+  private int id = 0;
+
+  public BitmapVectorOffset(
+      final int vectorSize,
+      final ImmutableBitmap bitmap,
+      final int startOffset,
+      final int endOffset
+  )
+  {
+    this.offsets = new int[vectorSize];
+    this.bitmap = bitmap;
+    this.startOffset = startOffset;
+    this.endOffset = endOffset;
+    reset();
+  }
+
+  @Override
+  public int getId()
+  {
+    return id;
+  }
+
+  @Override
+  public void advance()
+  {
+    currentVectorSize = 0;
+    id++;
+
+    if (pastEnd) {
+      return;
+    }
+
+    while (currentVectorSize < offsets.length && iterator.hasNext()) {
+      final int offset = iterator.next();
+      if (offset >= endOffset) {
+        pastEnd = true;
+        break;
+      } else if (offset >= startOffset) {
+        offsets[currentVectorSize++] = offset;
+      }
+    }
+  }
+
+  @Override
+  public boolean isDone()
+  {
+    return currentVectorSize == 0;
+  }
+
+  @Override
+  public boolean isContiguous()
+  {
+    return false;
+  }
+
+  @Override
+  public int getMaxVectorSize()
+  {
+    return offsets.length;
+  }
+
+  @Override
+  public int getCurrentVectorSize()
+  {
+    return currentVectorSize;
+  }
+
+  @Override
+  public int getStartOffset()
+  {
+    throw new UnsupportedOperationException("not contiguous");
+  }
+
+  @Override
+  public int[] getOffsets()
+  {
+    return offsets;
+  }
+
+  @Override
+  public void reset()
+  {
+    iterator = bitmap.iterator();
+    // Jump to startOffset if the bitmap supports it, otherwise advance() skips the rows before it one by one
+    BitmapOffset.skipAllBefore(iterator, startOffset);
+    pastEnd = false;
+    advance();
+  }
+
+  @Override
+  public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+  {
+    inspector.visit("bitmap", bitmap);
+  }
+}
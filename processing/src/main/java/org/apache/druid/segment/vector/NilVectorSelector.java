@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+import org.apache.druid.common.config.NullHandling;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * {@link VectorValueSelector} for columns that do not exist. Returns zeroes, and (in SQL-compatible null handling
+ * mode) reports every row as null.
+ */
+public class NilVectorSelector implements VectorValueSelector
+{
+  private final VectorSizeInspector vectorSizeInspector;
+  private final long[] longs;
+  private final float[] floats;
+  private final double[] doubles;
+  @Nullable
+  private final boolean[] nulls;
+
+  private NilVectorSelector(final VectorSizeInspector vectorSizeInspector)
+  {
+    final int maxVectorSize = vectorSizeInspector.getMaxVectorSize();
+    this.vectorSizeInspector = vectorSizeInspector;
+    this.longs = new long[maxVectorSize];
+    this.floats = new float[maxVectorSize];
+    this.doubles = new double[maxVectorSize];
+
+    if (NullHandling.sqlCompatible()) {
+      this.nulls = new boolean[maxVectorSize];
+      Arrays.fill(nulls, true);
+    } else {
+      this.nulls = null;
+    }
+  }
+
+  public static NilVectorSelector create(final VectorSizeInspector vectorSizeInspector)
+  {
+    return new NilVectorSelector(vectorSizeInspector);
+  }
+
+  @Override
+  public long[] getLongVector()
+  {
+    return longs;
+  }
+
+  @Override
+  public float[] getFloatVector()
+  {
+    return floats;
+  }
+
+  @Override
+  public double[] getDoubleVector()
+  {
+    return doubles;
+  }
+
+  @Nullable
+  @Override
+  public boolean[] getNullVector()
+  {
+    return nulls;
+  }
+
+  @Override
+  public int getMaxVectorSize()
+  {
+    return vectorSizeInspector.getMaxVectorSize();
+  }
+
+  @Override
+  public int getCurrentVectorSize()
+  {
+    return vectorSizeInspector.getCurrentVectorSize();
+  }
+}
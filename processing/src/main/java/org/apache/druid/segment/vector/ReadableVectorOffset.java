@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+import org.apache.druid.query.monomorphicprocessing.HotLoopCallee;
+
+/**
+ * Vectorized counterpart of {@link org.apache.druid.segment.data.ReadableOffset}. Provides a batch of row numbers,
+ * either as a contiguous range starting at {@link #getStartOffset()}, or as an explicit list from
+ * {@link #getOffsets()}.
+ *
+ * Selectors created from a ReadableVectorOffset use {@link #getId()} to tell whether the offset has moved since
+ * they last read a vector, so they can avoid re-reading the same rows when called more than once per vector.
+ */
+public interface ReadableVectorOffset extends VectorSizeInspector, HotLoopCallee
+{
+  /**
+   * Returns an id that changes every time the offset moves to a new vector.
+   */
+  int getId();
+
+  /**
+   * Returns true if the current vector is a contiguous range of rows, in which case {@link #getStartOffset()} is
+   * valid. Otherwise, {@link #getOffsets()} is valid.
+   */
+  boolean isContiguous();
+
+  /**
+   * Returns the first row number of the current vector. Only valid if {@link #isContiguous()} is true.
+   */
+  int getStartOffset();
+
+  /**
+   * Returns the row numbers of the current vector. Only the first {@link #getCurrentVectorSize()} elements are valid.
+   * Only valid if {@link #isContiguous()} is false.
+   */
+  int[] getOffsets();
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+import org.apache.druid.segment.column.ColumnCapabilities;
+
+import javax.annotation.Nullable;
+
+/**
+ * Vectorized counterpart of {@link org.apache.druid.segment.ColumnSelectorFactory}. Selectors created by this factory
+ * all follow the same underlying {@link ReadableVectorOffset}.
+ */
+public interface VectorColumnSelectorFactory extends VectorSizeInspector
+{
+  /**
+   * Returns a selector for a numeric column. If the column does not exist, returns a selector full of nulls (or
+   * zeroes, in default-value null handling mode).
+   */
+  VectorValueSelector makeValueSelector(String column);
+
+  /**
+   * Returns capabilities of a particular column, or null if the column doesn't exist.
+   */
+  @Nullable
+  ColumnCapabilities getColumnCapabilities(String column);
+}
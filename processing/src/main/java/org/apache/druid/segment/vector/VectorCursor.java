@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+import java.io.Closeable;
+
+/**
+ * Vectorized counterpart of {@link org.apache.druid.segment.Cursor}. Iterates over blocks of rows rather than single
+ * rows. Unlike Cursor, a VectorCursor is not split by granularity buckets: it covers the entire requested interval,
+ * and callers that need per-bucket results should split vectors using the "__time" column.
+ *
+ * VectorCursors hold on to column resources and must be closed after use.
+ */
+public interface VectorCursor extends VectorSizeInspector, Closeable
+{
+  VectorColumnSelectorFactory getColumnSelectorFactory();
+
+  void advance();
+
+  boolean isDone();
+
+  void reset();
+
+  @Override
+  void close();
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+/**
+ * Common interface for vectorized query processing objects: exposes the maximum vector size (used to size arrays up
+ * front) and the size of the vector that is currently being processed.
+ */
+public interface VectorSizeInspector
+{
+  /**
+   * Returns the maximum vector size. Any array returned by a vectorized object is guaranteed to have at least this
+   * many elements.
+   */
+  int getMaxVectorSize();
+
+  /**
+   * Returns the current vector size. This may be smaller than {@link #getMaxVectorSize()} for the last vector of a
+   * scan, or when a filter has removed some rows.
+   */
+  int getCurrentVectorSize();
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+import javax.annotation.Nullable;
+
+/**
+ * Vectorized counterpart of {@link org.apache.druid.segment.ColumnValueSelector} for primitive numeric columns. Each
+ * getter returns an array holding the values of the rows in the current vector; only the first
+ * {@link #getCurrentVectorSize()} elements are valid. Returned arrays are owned by the selector and are reused
+ * between vectors, so callers must not modify them or hold on to them.
+ */
+public interface VectorValueSelector extends VectorSizeInspector
+{
+  long[] getLongVector();
+
+  float[] getFloatVector();
+
+  double[] getDoubleVector();
+
+  /**
+   * Returns an array of booleans, true meaning the row at that position is null, or null if no row in the current
+   * vector is null.
+   */
+  @Nullable
+  boolean[] getNullVector();
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query;
+
+import com.google.common.collect.Ordering;
+import org.apache.druid.common.guava.CombiningSequence;
+import org.apache.druid.java.util.common.Pair;
+import org.apache.druid.java.util.common.guava.MergeSequence;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.java.util.common.guava.Yielder;
+import org.apache.druid.java.util.common.guava.Yielders;
+import org.apache.druid.java.util.common.guava.nary.BinaryFn;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ParallelMergeCombiningSequenceTest
+{
+  private static final Ordering<Pair<Integer, Integer>> ORDERING =
+      Ordering.<Integer>natural().onResultOf(p -> p.lhs);
+  private static final BinaryFn<Pair<Integer, Integer>, Pair<Integer, Integer>, Pair<Integer, Integer>> COMBINE =
+      (lhs, rhs) -> {
+        if (lhs == null) {
+          return rhs;
+        }
+        if (rhs == null) {
+          return lhs;
+        }
+        return Pair.of(lhs.lhs, lhs.rhs + rhs.rhs);
+      };
+
+  private ForkJoinPool pool;
+
+  @Before
+  public void setUp()
+  {
+    pool = new ForkJoinPool(4, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+  }
+
+  @After
+  public void tearDown()
+  {
+    pool.shutdownNow();
+  }
+
+  @Test
+  public void testMatchesSerialMerge()
+  {
+    for (int numSequences : new int[]{0, 1, 3, 8, 31}) {
+      final List<Sequence<Pair<Integer, Integer>>> inputs = generateInputs(numSequences, 1000);
+      final AtomicReference<ParallelMergeCombiningSequence.MergeCombineMetrics> metrics = new AtomicReference<>();
+      final List<Pair<Integer, Integer>> parallel = new ParallelMergeCombiningSequence<>(
+          pool,
+          inputs,
+          ORDERING,
+          COMBINE,
+          4,
+          16,
+          64,
+          false,
+          0,
+          metrics::set
+      ).toList();
+
+      Assert.assertEquals(serialMerge(inputs), parallel);
+      Assert.assertNotNull(metrics.get());
+      Assert.assertEquals(numSequences, metrics.get().getInputSequences());
+      Assert.assertEquals(numSequences * 1000L, metrics.get().getInputRows());
+      Assert.assertEquals(parallel.size(), metrics.get().getOutputRows());
+      Assert.assertEquals(Math.max(1, Math.min(4, numSequences / 2)), metrics.get().getParallelism());
+    }
+  }
+
+  @Test
+  public void testEarlyCloseCancelsPartitions() throws Exception
+  {
+    final List<Sequence<Pair<Integer, Integer>>> inputs = generateInputs(16, 10_000);
+    final AtomicReference<ParallelMergeCombiningSequence.MergeCombineMetrics> metrics = new AtomicReference<>();
+    final Yielder<Pair<Integer, Integer>> yielder = Yielders.each(
+        new ParallelMergeCombiningSequence<>(pool, inputs, ORDERING, COMBINE, 4, 8, 32, true, 10_000, metrics::set)
+    );
+    Assert.assertFalse(yielder.isDone());
+    yielder.close();
+
+    Assert.assertNotNull(metrics.get());
+    Assert.assertEquals(4, metrics.get().getParallelism());
+    Assert.assertTrue(metrics.get().getInputRows() < 16 * 10_000L);
+  }
+
+  @Test
+  public void testPartitionFailureIsPropagated()
+  {
+    final List<Sequence<Pair<Integer, Integer>>> inputs = generateInputs(8, 100);
+    inputs.add(Sequences.<Pair<Integer, Integer>>simple(() -> {
+      throw new IllegalStateException("boom");
+    }));
+    try {
+      new ParallelMergeCombiningSequence<>(pool, inputs, ORDERING, COMBINE, 4, 8, 32, true, 10_000, m -> {}).toList();
+      Assert.fail("expected exception");
+    }
+    catch (RuntimeException e) {
+      Throwable cause = e;
+      while (cause.getCause() != null) {
+        cause = cause.getCause();
+      }
+      Assert.assertEquals("boom", cause.getMessage());
+    }
+  }
+
+  @Test
+  public void testQueryExceptionIsRethrownAsIs()
+  {
+    final List<Sequence<Pair<Integer, Integer>>> inputs = generateInputs(8, 100);
+    inputs.add(Sequences.<Pair<Integer, Integer>>simple(() -> {
+      throw new ResourceLimitExceededException("too many rows");
+    }));
+    try {
+      new ParallelMergeCombiningSequence<>(pool, inputs, ORDERING, COMBINE, 4, 8, 32, true, 10_000, m -> {}).toList();
+      Assert.fail("expected exception");
+    }
+    catch (ResourceLimitExceededException e) {
+      Assert.assertEquals("too many rows", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testTimeout()
+  {
+    final List<Sequence<Pair<Integer, Integer>>> inputs = generateInputs(8, 100);
+    inputs.add(Sequences.<Pair<Integer, Integer>>simple(() -> {
+      try {
+        Thread.sleep(2_000);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new ArrayList<Pair<Integer, Integer>>().iterator();
+    }));
+    try {
+      new ParallelMergeCombiningSequence<>(pool, inputs, ORDERING, COMBINE, 4, 8, 32, true, 50, m -> {}).toList();
+      Assert.fail("expected exception");
+    }
+    catch (QueryInterruptedException e) {
+      Assert.assertEquals(QueryInterruptedException.QUERY_TIMEOUT, e.getErrorCode());
+    }
+  }
+
+  private static List<Pair<Integer, Integer>> serialMerge(List<Sequence<Pair<Integer, Integer>>> inputs)
+  {
+    return CombiningSequence.create(new MergeSequence<>(ORDERING, Sequences.simple(inputs)), ORDERING, COMBINE)
+                            .toList();
+  }
+
+  private static List<Sequence<Pair<Integer, Integer>>> generateInputs(int numSequences, int rowsPerSequence)
+  {
+    final Random random = new Random(numSequences);
+    final List<Sequence<Pair<Integer, Integer>>> inputs = new ArrayList<>();
+    for (int i = 0; i < numSequences; i++) {
+      final List<Pair<Integer, Integer>> rows = new ArrayList<>(rowsPerSequence);
+      int key = 0;
+      for (int j = 0; j < rowsPerSequence; j++) {
+        key += random.nextInt(3);
+        rows.add(Pair.of(key, 1));
+      }
+      inputs.add(Sequences.simple(rows));
+    }
+    return inputs;
+  }
+}
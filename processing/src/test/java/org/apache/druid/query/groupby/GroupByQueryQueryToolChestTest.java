@@ -507,6 +507,60 @@ public class GroupByQueryQueryToolChestTest
     doTestCacheStrategy(ValueType.LONG, 2L);
   }
 
+  @Test
+  public void testArrayResultRows() throws Exception
+  {
+    final GroupByQuery query = GroupByQuery
+        .builder()
+        .setDataSource(QueryRunnerTestHelper.dataSource)
+        .setQuerySegmentSpec(QueryRunnerTestHelper.firstToThird)
+        .setDimensions(new DefaultDimensionSpec("quality", "alias"))
+        .setAggregatorSpecs(QueryRunnerTestHelper.rowsCount, new DoubleSumAggregatorFactory("idx", "index"))
+        .setGranularity(QueryRunnerTestHelper.dayGran)
+        .setContext(ImmutableMap.of(GroupByQueryConfig.CTX_KEY_ARRAY_RESULT_ROWS, true))
+        .build();
+
+    final GroupByQueryQueryToolChest toolChest = new GroupByQueryQueryToolChest(null, null);
+    final ObjectMapper objectMapper = TestHelper.makeJsonMapper();
+    final ObjectMapper arrayMapper = toolChest.decorateObjectMapper(objectMapper, query);
+
+    final Row row = new MapBasedRow(
+        DateTimes.of("2011-04-01"),
+        ImmutableMap.of("alias", "automotive", "rows", 1, "idx", 135.5)
+    );
+    final String json = arrayMapper.writerFor(Row.class).writeValueAsString(row);
+    Assert.assertEquals("[\"2011-04-01T00:00:00.000Z\",\"automotive\",1,135.5]", json);
+    Assert.assertEquals(row, arrayMapper.readValue(json, Row.class));
+
+    // rows with other columns, e.g. post-aggregators, keep the default format
+    final Row rowWithPostAggregator = new MapBasedRow(
+        DateTimes.of("2011-04-01"),
+        ImmutableMap.of("alias", "automotive", "rows", 1, "idx", 135.5, "post", 10)
+    );
+    final String defaultJson = arrayMapper.writerFor(Row.class).writeValueAsString(rowWithPostAggregator);
+    Assert.assertEquals(rowWithPostAggregator, objectMapper.readValue(defaultJson, Row.class));
+    Assert.assertEquals(rowWithPostAggregator, arrayMapper.readValue(defaultJson, Row.class));
+
+    // the decorated mapper is reused by queries with the same columns, so its serializer caches stay warm
+    Assert.assertSame(
+        arrayMapper,
+        toolChest.decorateObjectMapper(objectMapper, query.withOverriddenContext(ImmutableMap.of("queryId", "other")))
+    );
+    Assert.assertNotSame(
+        arrayMapper,
+        toolChest.decorateObjectMapper(objectMapper, query.withDimensionSpecs(ImmutableList.of()))
+    );
+    Assert.assertNotSame(arrayMapper, toolChest.decorateObjectMapper(TestHelper.makeJsonMapper(), query));
+
+    // queries without the flag are left alone
+    Assert.assertSame(
+        objectMapper,
+        toolChest.decorateObjectMapper(objectMapper, query.withOverriddenContext(
+            ImmutableMap.of(GroupByQueryConfig.CTX_KEY_ARRAY_RESULT_ROWS, false)
+        ))
+    );
+  }
+
   private AggregatorFactory getComplexAggregatorFactoryForValueType(final ValueType valueType)
   {
     switch (valueType) {
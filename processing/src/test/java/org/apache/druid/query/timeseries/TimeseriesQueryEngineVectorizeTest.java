@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.timeseries;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.granularity.Granularity;
+import org.apache.druid.query.Druids;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryRunnerTestHelper;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleMaxAggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleMinAggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
+import org.apache.druid.query.aggregation.FloatSumAggregatorFactory;
+import org.apache.druid.query.aggregation.LongMaxAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.filter.DimFilter;
+import org.apache.druid.query.filter.SelectorDimFilter;
+import org.apache.druid.query.spec.QuerySegmentSpec;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
+import org.apache.druid.segment.TestIndex;
+import org.apache.druid.segment.filter.Filters;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that the vectorized engine returns the same results as the row-at-a-time engine.
+ */
+public class TimeseriesQueryEngineVectorizeTest
+{
+  private final QueryableIndexStorageAdapter adapter =
+      new QueryableIndexStorageAdapter(TestIndex.getMMappedTestIndex());
+
+  @Before
+  public void setUp()
+  {
+    // Aggregators don't vectorize in SQL-compatible null handling mode, see SimpleLongAggregatorFactory#canVectorize
+    Assume.assumeTrue(NullHandling.replaceWithDefault());
+  }
+
+  @Test
+  public void testAllGranularityNoFilter()
+  {
+    assertSameResults(Granularities.ALL, QueryRunnerTestHelper.fullOnIntervalSpec, null, false);
+  }
+
+  @Test
+  public void testDayGranularityNoFilter()
+  {
+    assertSameResults(Granularities.DAY, QueryRunnerTestHelper.fullOnIntervalSpec, null, false);
+  }
+
+  @Test
+  public void testDayGranularityWithFilter()
+  {
+    assertSameResults(
+        Granularities.DAY,
+        QueryRunnerTestHelper.fullOnIntervalSpec,
+        new SelectorDimFilter(QueryRunnerTestHelper.marketDimension, "spot", null),
+        false
+    );
+  }
+
+  @Test
+  public void testHourGranularityPartialIntervalSkipEmptyBuckets()
+  {
+    assertSameResults(
+        Granularities.HOUR,
+        QueryRunnerTestHelper.firstToThird,
+        new SelectorDimFilter(QueryRunnerTestHelper.marketDimension, "upfront", null),
+        true
+    );
+  }
+
+  private void assertSameResults(
+      final Granularity granularity,
+      final QuerySegmentSpec intervals,
+      final DimFilter filter,
+      final boolean skipEmptyBuckets
+  )
+  {
+    final Druids.TimeseriesQueryBuilder builder =
+        Druids.newTimeseriesQueryBuilder()
+              .dataSource(QueryRunnerTestHelper.dataSource)
+              .granularity(granularity)
+              .intervals(intervals)
+              .filters(filter)
+              .aggregators(
+                  new CountAggregatorFactory("rows"),
+                  new LongSumAggregatorFactory("longSum", QueryRunnerTestHelper.indexMetric),
+                  new LongMaxAggregatorFactory("longMax", "qualityLong"),
+                  new DoubleSumAggregatorFactory("doubleSum", QueryRunnerTestHelper.indexMetric),
+                  new DoubleMinAggregatorFactory("doubleMin", QueryRunnerTestHelper.indexMetric),
+                  new DoubleMaxAggregatorFactory("doubleMax", QueryRunnerTestHelper.indexMetric),
+                  new FloatSumAggregatorFactory("floatSum", "indexFloat"),
+                  new LongSumAggregatorFactory("missing", "nonexistent")
+              );
+
+    final TimeseriesQuery query = builder.context(
+        ImmutableMap.of(TimeseriesQuery.SKIP_EMPTY_BUCKETS, skipEmptyBuckets)
+    ).build();
+
+    // Use an odd vector size so vectors regularly straddle granularity buckets.
+    final TimeseriesQuery vectorizedQuery = builder.context(
+        ImmutableMap.of(
+            TimeseriesQuery.SKIP_EMPTY_BUCKETS, skipEmptyBuckets,
+            QueryContexts.VECTORIZE_KEY, true,
+            QueryContexts.VECTOR_SIZE_KEY, 7
+        )
+    ).build();
+
+    // Otherwise the engine silently falls back to the row-at-a-time path and this test compares it with itself.
+    Assert.assertTrue(TimeseriesQueryEngine.canVectorize(vectorizedQuery, adapter, Filters.toFilter(filter)));
+    Assert.assertFalse(TimeseriesQueryEngine.canVectorize(query, adapter, Filters.toFilter(filter)));
+
+    final TimeseriesQueryEngine engine = new TimeseriesQueryEngine();
+    final List<Result<TimeseriesResultValue>> expected = engine.process(query, adapter).toList();
+    final List<Result<TimeseriesResultValue>> actual = engine.process(vectorizedQuery, adapter).toList();
+
+    Assert.assertFalse(expected.isEmpty());
+    Assert.assertEquals(expected.size(), actual.size());
+
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i).getTimestamp(), actual.get(i).getTimestamp());
+
+      final Map<String, Object> expectedValues = expected.get(i).getValue().getBaseObject();
+      final Map<String, Object> actualValues = actual.get(i).getValue().getBaseObject();
+      Assert.assertEquals(expectedValues.keySet(), actualValues.keySet());
+
+      for (Map.Entry<String, Object> entry : expectedValues.entrySet()) {
+        final double expectedValue = ((Number) entry.getValue()).doubleValue();
+        final double actualValue = ((Number) actualValues.get(entry.getKey())).doubleValue();
+        // Sums may be accumulated in a different order, so allow for floating point error.
+        final double delta = Math.max(Math.abs(expectedValue) * 1e-4, 1e-6);
+        Assert.assertEquals(entry.getKey(), expectedValue, actualValue, delta);
+      }
+    }
+  }
+}
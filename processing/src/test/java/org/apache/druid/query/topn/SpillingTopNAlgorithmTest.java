@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.topn;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.collections.StupidPool;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.query.QueryRunnerTestHelper;
+import org.apache.druid.query.ResourceLimitExceededException;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.query.dimension.ExtractionDimensionSpec;
+import org.apache.druid.query.extraction.SubstringDimExtractionFn;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
+import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.segment.TestIndex;
+import org.apache.druid.segment.column.ValueType;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+public class SpillingTopNAlgorithmTest
+{
+  private static final ObjectMapper SPILL_MAPPER = new DefaultObjectMapper(new SmileFactory());
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final StorageAdapter adapter = new QueryableIndexStorageAdapter(TestIndex.getMMappedTestIndex());
+  private final StupidPool<ByteBuffer> bufferPool = new StupidPool<>(
+      "SpillingTopNAlgorithmTest",
+      () -> ByteBuffer.allocate(1 << 20)
+  );
+
+  @Test
+  public void testExtractionFn() throws IOException
+  {
+    assertSameResults(
+        new ExtractionDimensionSpec(
+            QueryRunnerTestHelper.qualityDimension,
+            QueryRunnerTestHelper.qualityDimension,
+            new SubstringDimExtractionFn(1, null)
+        )
+    );
+  }
+
+  @Test
+  public void testMultiValueDimension() throws IOException
+  {
+    assertSameResults(
+        new ExtractionDimensionSpec(
+            QueryRunnerTestHelper.placementishDimension,
+            QueryRunnerTestHelper.placementishDimension,
+            new SubstringDimExtractionFn(0, 1)
+        )
+    );
+  }
+
+  @Test
+  public void testNumericDimension() throws IOException
+  {
+    assertSameResults(new DefaultDimensionSpec("qualityLong", "ql", ValueType.LONG));
+    assertSameResults(new DefaultDimensionSpec("qualityFloat", "qf", ValueType.FLOAT));
+  }
+
+  @Test
+  public void testNotEnoughDiskSpace() throws IOException
+  {
+    final TopNQuery query = makeQuery(
+        new ExtractionDimensionSpec(
+            QueryRunnerTestHelper.qualityDimension,
+            QueryRunnerTestHelper.qualityDimension,
+            new SubstringDimExtractionFn(1, null)
+        )
+    );
+
+    expectedException.expect(ResourceLimitExceededException.class);
+    expectedException.expectMessage("Not enough disk space");
+    makeEngine(1).query(query, adapter, null).toList();
+  }
+
+  @Test
+  public void testTemporaryStorageIsSharedByGranularityBuckets() throws IOException
+  {
+    final TopNQuery query = makeQuery(
+        new ExtractionDimensionSpec(
+            QueryRunnerTestHelper.qualityDimension,
+            QueryRunnerTestHelper.qualityDimension,
+            new SubstringDimExtractionFn(1, null)
+        )
+    );
+    final TopNQuery dayQuery = new TopNQueryBuilder(query).granularity(QueryRunnerTestHelper.dayGran).build();
+
+    final File tmpDir = temporaryFolder.newFolder();
+    final TopNQueryEngine engine =
+        new TopNQueryEngine(bufferPool, makeConfig(1_000_000), tmpDir.getPath(), SPILL_MAPPER);
+
+    final List<Result<TopNResultValue>> expected = new TopNQueryEngine(bufferPool).query(dayQuery, adapter, null)
+                                                                                 .toList();
+    final List<Result<TopNResultValue>> actual = engine.query(dayQuery, adapter, null).toList();
+    Assert.assertTrue(expected.size() > 1);
+    Assert.assertEquals(expected, actual);
+
+    // one storage directory for the segment, deleted when its results have been read
+    Assert.assertArrayEquals(new File[0], tmpDir.listFiles());
+  }
+
+  private void assertSameResults(final DimensionSpec dimensionSpec) throws IOException
+  {
+    final TopNQuery query = makeQuery(dimensionSpec);
+
+    final List<Result<TopNResultValue>> expected = new TopNQueryEngine(bufferPool).query(query, adapter, null).toList();
+    final List<Result<TopNResultValue>> actual = makeEngine(1_000_000).query(query, adapter, null).toList();
+
+    Assert.assertFalse(expected.get(0).getValue().getValue().isEmpty());
+    Assert.assertEquals(expected, actual);
+  }
+
+  private TopNQuery makeQuery(final DimensionSpec dimensionSpec)
+  {
+    return new TopNQueryBuilder()
+        .dataSource(QueryRunnerTestHelper.dataSource)
+        .granularity(QueryRunnerTestHelper.allGran)
+        .dimension(dimensionSpec)
+        .metric("qlSum")
+        .threshold(1000)
+        .intervals(QueryRunnerTestHelper.fullOnIntervalSpec)
+        .aggregators(
+            Arrays.asList(
+                QueryRunnerTestHelper.rowsCount,
+                new LongSumAggregatorFactory("qlSum", "qualityLong")
+            )
+        )
+        // spill every couple of dimension values
+        .context(ImmutableMap.of("maxEntriesInMemory", 2))
+        .build();
+  }
+
+  private TopNQueryEngine makeEngine(final long maxOnDiskStorage) throws IOException
+  {
+    return new TopNQueryEngine(
+        bufferPool,
+        makeConfig(maxOnDiskStorage),
+        temporaryFolder.newFolder().getAbsolutePath(),
+        SPILL_MAPPER
+    );
+  }
+
+  private static TopNQueryConfig makeConfig(final long maxOnDiskStorage)
+  {
+    return new TopNQueryConfig()
+    {
+      @Override
+      public long getMaxOnDiskStorage()
+      {
+        return maxOnDiskStorage;
+      }
+    };
+  }
+}
@@ -48,6 +48,7 @@ import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
 import org.apache.druid.segment.column.ColumnCapabilitiesImpl;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.DictionaryEncodedColumn;
+import org.apache.druid.segment.column.NumericColumn;
 import org.apache.druid.segment.column.StringDictionaryEncodedColumn;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.BitmapValues;
@@ -77,6 +78,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -340,6 +342,182 @@ public class IndexMergerTestBase
     );
   }
 
+  @Test
+  public void testMergeWithoutStringBitmapIndexes() throws Exception
+  {
+    final IndexSpec intermediateIndexSpec = new IndexSpec(
+        indexSpec.getBitmapSerdeFactory(),
+        indexSpec.getDimensionCompression(),
+        indexSpec.getMetricCompression(),
+        indexSpec.getLongEncoding(),
+        null,
+        null,
+        null,
+        false
+    );
+
+    IncrementalIndex toPersist1 = getIndexD3();
+    toPersist1.add(
+        new MapBasedInputRow(
+            1,
+            Arrays.asList("d1", "d2", "d3"),
+            ImmutableMap.of("d1", "400", "d2", "", "d3", "10")
+        )
+    );
+    IncrementalIndex toPersist2 = getSingleDimIndex("d1", Arrays.asList("200", "400"));
+
+    QueryableIndex index1 = closer.closeLater(
+        indexIO.loadIndex(indexMerger.persist(toPersist1, temporaryFolder.newFolder(), intermediateIndexSpec, null))
+    );
+    QueryableIndex index2 = closer.closeLater(
+        indexIO.loadIndex(indexMerger.persist(toPersist2, temporaryFolder.newFolder(), indexSpec, null))
+    );
+
+    Assert.assertFalse(index1.getColumnHolder("d1").getCapabilities().hasBitmapIndexes());
+    Assert.assertNull(index1.getColumnHolder("d1").getBitmapIndex());
+    Assert.assertEquals(
+        ImmutableSet.of("d1", "d2", "d3"),
+        IndexMerger.getOmittedBitmapIndexes(index1.getMetadata())
+    );
+    Assert.assertTrue(index2.getColumnHolder("d1").getCapabilities().hasBitmapIndexes());
+    Assert.assertEquals(Collections.emptySet(), IndexMerger.getOmittedBitmapIndexes(index2.getMetadata()));
+
+    QueryableIndex intermediate = closer.closeLater(
+        indexIO.loadIndex(
+            indexMerger.mergeQueryableIndex(
+                Arrays.asList(index1, index2),
+                true,
+                new AggregatorFactory[]{new CountAggregatorFactory("count")},
+                temporaryFolder.newFolder(),
+                intermediateIndexSpec,
+                null
+            )
+        )
+    );
+    Assert.assertFalse(intermediate.getColumnHolder("d1").getCapabilities().hasBitmapIndexes());
+    Assert.assertEquals(
+        ImmutableSet.of("d1", "d2", "d3"),
+        IndexMerger.getOmittedBitmapIndexes(intermediate.getMetadata())
+    );
+
+    QueryableIndex merged = closer.closeLater(
+        indexIO.loadIndex(
+            indexMerger.mergeQueryableIndex(
+                Arrays.asList(index1, index2),
+                true,
+                new AggregatorFactory[]{new CountAggregatorFactory("count")},
+                temporaryFolder.newFolder(),
+                indexSpec,
+                null
+            )
+        )
+    );
+    Assert.assertEquals(Collections.emptySet(), IndexMerger.getOmittedBitmapIndexes(merged.getMetadata()));
+
+    final QueryableIndexIndexableAdapter intermediateAdapter = new QueryableIndexIndexableAdapter(intermediate);
+    final QueryableIndexIndexableAdapter mergedAdapter = new QueryableIndexIndexableAdapter(merged);
+    Assert.assertEquals(intermediateAdapter.getNumRows(), mergedAdapter.getNumRows());
+    Assert.assertTrue(merged.getColumnHolder("d1").getCapabilities().hasBitmapIndexes());
+    Assert.assertTrue(merged.getColumnHolder("d3").getCapabilities().hasBitmapIndexes());
+
+    // Rebuilt bitmaps must match the rows of the merged segment
+    for (String dimension : Arrays.asList("d1", "d2", "d3")) {
+      final List<Integer> rowsWithNull = new ArrayList<>();
+      final Map<String, List<Integer>> rowsByValue = new HashMap<>();
+      final DictionaryEncodedColumn<String> column =
+          (DictionaryEncodedColumn<String>) merged.getColumnHolder(dimension).getColumn();
+      for (int row = 0; row < merged.getNumRows(); row++) {
+        final String value = column.lookupName(column.getSingleValueRow(row));
+        if (value == null) {
+          rowsWithNull.add(row);
+        } else {
+          rowsByValue.computeIfAbsent(value, v -> new ArrayList<>()).add(row);
+        }
+      }
+      column.close();
+      checkBitmapIndex(rowsWithNull, mergedAdapter.getBitmapIndex(dimension, null));
+      for (Map.Entry<String, List<Integer>> entry : rowsByValue.entrySet()) {
+        checkBitmapIndex(entry.getValue(), mergedAdapter.getBitmapIndex(dimension, entry.getKey()));
+      }
+    }
+  }
+
+  @Test
+  public void testMergeInTiers() throws Exception
+  {
+    final List<QueryableIndex> indexes = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      final IncrementalIndex toPersist = getSingleDimIndex("dim", Arrays.asList("a", "b", "c" + i));
+      indexes.add(
+          closer.closeLater(
+              indexIO.loadIndex(indexMerger.persist(toPersist, temporaryFolder.newFolder(), indexSpec, null))
+          )
+      );
+    }
+    final AggregatorFactory[] aggregators = new AggregatorFactory[]{new CountAggregatorFactory("count")};
+
+    final File mergedDir = new File(temporaryFolder.newFolder(), "merged");
+    final List<List<Integer>> tiers = new ArrayList<>();
+    final QueryableIndex merged = closer.closeLater(
+        indexIO.loadIndex(
+            indexMerger.mergeQueryableIndex(
+                indexes,
+                true,
+                aggregators,
+                mergedDir,
+                indexSpec,
+                new BaseProgressIndicator()
+                {
+                  @Override
+                  public void mergeTierCompleted(int tier, int numIndexes, int numMergedIndexes, long millis)
+                  {
+                    tiers.add(Arrays.asList(tier, numIndexes, numMergedIndexes));
+                  }
+                },
+                null,
+                3
+            )
+        )
+    );
+    final QueryableIndex mergedAtOnce = closer.closeLater(
+        indexIO.loadIndex(
+            indexMerger.mergeQueryableIndex(indexes, true, aggregators, temporaryFolder.newFolder(), indexSpec, null)
+        )
+    );
+
+    // Intermediate tiers are cleaned up
+    Assert.assertArrayEquals(new String[]{"merged"}, mergedDir.getParentFile().list());
+    // A single tier merges 7 indexes into 3, which the final merge merges at once
+    Assert.assertEquals(Collections.singletonList(Arrays.asList(0, 7, 3)), tiers);
+    // String bitmaps are kept in the intermediate tiers, so the final merge streams them instead of rebuilding them
+    Assert.assertFalse(merged.getMetadata().getContainer().containsKey(IndexMerger.OMITTED_BITMAP_INDEXES_KEY));
+
+    Assert.assertEquals(9, merged.getNumRows());
+    Assert.assertEquals(mergedAtOnce.getNumRows(), merged.getNumRows());
+    final QueryableIndexIndexableAdapter adapter = new QueryableIndexIndexableAdapter(merged);
+    final QueryableIndexIndexableAdapter adapterAtOnce = new QueryableIndexIndexableAdapter(mergedAtOnce);
+    Assert.assertEquals(
+        ImmutableList.copyOf(adapterAtOnce.getDimValueLookup("dim")),
+        ImmutableList.copyOf(adapter.getDimValueLookup("dim"))
+    );
+    for (String value : adapter.getDimValueLookup("dim")) {
+      final List<Integer> expectedRows = new ArrayList<>();
+      for (IntIterator it = adapterAtOnce.getBitmapIndex("dim", value).iterator(); it.hasNext(); ) {
+        expectedRows.add(it.nextInt());
+      }
+      checkBitmapIndex(expectedRows, adapter.getBitmapIndex("dim", value));
+    }
+
+    final NumericColumn counts = (NumericColumn) merged.getColumnHolder("count").getColumn();
+    final NumericColumn countsAtOnce = (NumericColumn) mergedAtOnce.getColumnHolder("count").getColumn();
+    for (int row = 0; row < merged.getNumRows(); row++) {
+      Assert.assertEquals(countsAtOnce.getLongSingleValueRow(row), counts.getLongSingleValueRow(row));
+    }
+    Assert.assertEquals(7, counts.getLongSingleValueRow(0));
+    counts.close();
+    countsAtOnce.close();
+  }
+
   @Test
   public void testPersistEmptyColumn() throws Exception
   {
@@ -24,6 +24,7 @@ import org.apache.druid.jackson.DefaultObjectMapper;
 import org.apache.druid.segment.data.CompressionFactory;
 import org.apache.druid.segment.data.CompressionStrategy;
 import org.apache.druid.segment.data.RoaringBitmapSerdeFactory;
+import org.apache.druid.segment.data.StringEncodingStrategy;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -57,6 +58,79 @@ public class IndexSpecTest
     Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
   }
 
+  @Test
+  public void testSerdeAutoMetricCompression() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"metricCompression\" : \"auto\", \"dimensionCompression\" : \"zstd\" }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+
+    Assert.assertEquals(CompressionStrategy.AUTO, spec.getMetricCompression());
+    Assert.assertEquals(CompressionStrategy.ZSTD, spec.getDimensionCompression());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
+  @Test
+  public void testSerdeFrontCodedStringDictionary() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"stringDictionaryEncoding\" : { \"type\" : \"frontCoded\", \"bucketSize\" : 16 } }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+
+    Assert.assertEquals(new StringEncodingStrategy.FrontCoded(16), spec.getStringDictionaryEncoding());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
+  @Test
+  public void testSerdeZoneMaps() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"zoneMaps\" : true }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+
+    Assert.assertTrue(spec.isZoneMaps());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
+  @Test
+  public void testSerdeNumericBitmapIndexes() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"numericBitmapIndexes\" : true }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+
+    Assert.assertTrue(spec.isNumericBitmapIndexes());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
+  @Test
+  public void testSerdeStringBitmapIndexes() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"stringBitmapIndexes\" : false }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+
+    Assert.assertFalse(spec.isStringBitmapIndexes());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFrontCodedBucketSizeMustBePowerOfTwo()
+  {
+    new StringEncodingStrategy.FrontCoded(3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAutoDimensionCompressionNotSupported()
+  {
+    new IndexSpec(null, CompressionStrategy.AUTO, null, null);
+  }
+
   @Test
   public void testDefaults()
   {
@@ -64,5 +138,9 @@ public class IndexSpecTest
     Assert.assertEquals(CompressionStrategy.LZ4, spec.getDimensionCompression());
     Assert.assertEquals(CompressionStrategy.LZ4, spec.getMetricCompression());
     Assert.assertEquals(CompressionFactory.LongEncodingStrategy.LONGS, spec.getLongEncoding());
+    Assert.assertEquals(StringEncodingStrategy.DEFAULT, spec.getStringDictionaryEncoding());
+    Assert.assertFalse(spec.isZoneMaps());
+    Assert.assertFalse(spec.isNumericBitmapIndexes());
+    Assert.assertTrue(spec.isStringBitmapIndexes());
   }
 }
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.spatial.ImmutableRTree;
+import org.apache.druid.query.extraction.SubstringDimExtractionFn;
+import org.apache.druid.query.filter.BitmapIndexSelector;
+import org.apache.druid.query.filter.BoundDimFilter;
+import org.apache.druid.query.filter.DimFilter;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.filter.InDimFilter;
+import org.apache.druid.query.filter.SelectorDimFilter;
+import org.apache.druid.query.ordering.StringComparators;
+import org.apache.druid.segment.column.BitmapIndex;
+import org.apache.druid.segment.column.ColumnBuilder;
+import org.apache.druid.segment.column.NumericBitmapIndex;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.BitmapSerdeFactory;
+import org.apache.druid.segment.data.CloseableIndexed;
+import org.apache.druid.segment.data.RoaringBitmapSerdeFactory;
+import org.apache.druid.segment.serde.NumericBitmapIndexColumnPartSerde;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
+import org.junit.Assert;
+import org.junit.Test;
+import org.roaringbitmap.IntIterator;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class NumericBitmapIndexTest
+{
+  private static final BitmapSerdeFactory BITMAP_SERDE_FACTORY = new RoaringBitmapSerdeFactory(null);
+
+  @Test
+  public void testLongIndex() throws IOException
+  {
+    final NumericBitmapIndex index = writeAndRead(ValueType.LONG, 5, 3, 5, 10, 3, 7);
+    Assert.assertEquals(ValueType.LONG, index.getType());
+    Assert.assertEquals(4, index.getCardinality());
+    Assert.assertEquals(3, index.getLong(0));
+    Assert.assertEquals(10, index.getLong(3));
+    Assert.assertEquals(1, index.indexOf(5L));
+    Assert.assertEquals(-4, index.indexOf(8L));
+    Assert.assertEquals(ImmutableList.of(1, 4), rows(index.getBitmap(0)));
+    Assert.assertEquals(ImmutableList.of(0, 2), rows(index.getBitmap(1)));
+    Assert.assertEquals(ImmutableList.of(), rows(index.getNullBitmap()));
+
+    final BitmapIndexSelector selector = makeSelector(index);
+    Assert.assertEquals(ImmutableList.of(0, 2), match(selector, new SelectorDimFilter("x", "5", null)));
+    Assert.assertEquals(ImmutableList.of(), match(selector, new SelectorDimFilter("x", "4", null)));
+    Assert.assertEquals(
+        ImmutableList.of(0, 2, 5),
+        match(selector, new BoundDimFilter("x", "4", "10", false, true, null, null, StringComparators.NUMERIC))
+    );
+    // Lexicographic bounds compare the string form of the values, like the value matchers do
+    Assert.assertEquals(
+        ImmutableList.of(0, 1, 2, 3, 4),
+        match(selector, new BoundDimFilter("x", "10", "5", false, false, null, null, StringComparators.LEXICOGRAPHIC))
+    );
+    Assert.assertEquals(
+        ImmutableList.of(1, 3, 4),
+        match(selector, new InDimFilter("x", Arrays.asList("3", "10", "abc"), null))
+    );
+    // Extraction functions apply to the string form of the values, like the value matchers do
+    Assert.assertEquals(
+        ImmutableList.of(3),
+        match(selector, new SelectorDimFilter("x", "1", new SubstringDimExtractionFn(0, 1)))
+    );
+  }
+
+  @Test
+  public void testDoubleIndex() throws IOException
+  {
+    final NumericBitmapIndex index = writeAndRead(ValueType.DOUBLE, 1.5, -0.0, 0.0, 2.5, 1.5);
+    Assert.assertEquals(ValueType.DOUBLE, index.getType());
+    Assert.assertEquals(4, index.getCardinality());
+    Assert.assertEquals(-0.0, index.getDouble(0), 0);
+    Assert.assertEquals(1, index.indexOf(0.0));
+    Assert.assertEquals(ImmutableList.of(0, 4), rows(index.getBitmap(2)));
+
+    final BitmapIndexSelector selector = makeSelector(index);
+    Assert.assertEquals(ImmutableList.of(2), match(selector, new SelectorDimFilter("x", "0", null)));
+    Assert.assertEquals(ImmutableList.of(0, 4), match(selector, new SelectorDimFilter("x", "1.5", null)));
+    Assert.assertEquals(
+        ImmutableList.of(0, 3, 4),
+        match(selector, new BoundDimFilter("x", "1", null, false, false, null, null, StringComparators.NUMERIC))
+    );
+    Assert.assertEquals(
+        ImmutableList.of(3),
+        match(selector, new InDimFilter("x", Arrays.asList("2.5", "3.5"), null))
+    );
+  }
+
+  @Test
+  public void testFloatIndex() throws IOException
+  {
+    final NumericBitmapIndex index = writeAndRead(ValueType.FLOAT, 0.1, 0.2, 0.1);
+    Assert.assertEquals(2, index.getCardinality());
+    Assert.assertEquals(0.1f, (float) index.getDouble(0), 0);
+
+    final BitmapIndexSelector selector = makeSelector(index);
+    Assert.assertEquals(ImmutableList.of(0, 2), match(selector, new SelectorDimFilter("x", "0.1", null)));
+    Assert.assertEquals(
+        ImmutableList.of(1),
+        match(selector, new BoundDimFilter("x", "0.1", null, true, false, null, null, StringComparators.NUMERIC))
+    );
+  }
+
+  @Test
+  public void testNoIndex() throws IOException
+  {
+    final BitmapIndexSelector selector = makeSelector(writeAndRead(ValueType.LONG, 1));
+    Assert.assertFalse(new SelectorDimFilter("y", "1", null).toFilter().supportsBitmapIndex(selector));
+  }
+
+  private static List<Integer> match(BitmapIndexSelector selector, DimFilter dimFilter)
+  {
+    final Filter filter = dimFilter.toFilter();
+    Assert.assertTrue(filter.supportsBitmapIndex(selector));
+    return rows(filter.getBitmapIndex(selector));
+  }
+
+  private static List<Integer> rows(ImmutableBitmap bitmap)
+  {
+    final List<Integer> rows = new ArrayList<>();
+    final IntIterator iterator = bitmap.iterator();
+    while (iterator.hasNext()) {
+      rows.add(iterator.next());
+    }
+    return rows;
+  }
+
+  private static NumericBitmapIndex writeAndRead(ValueType type, double... values) throws IOException
+  {
+    final NumericBitmapIndexWriter writer = new NumericBitmapIndexWriter(
+        new OnHeapMemorySegmentWriteOutMedium(),
+        "x.inverted",
+        type,
+        BITMAP_SERDE_FACTORY
+    );
+    writer.open();
+    final SettableValueSelector selector = new SettableValueSelector();
+    for (double value : values) {
+      selector.value = value;
+      writer.add(selector);
+    }
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.writeTo(Channels.newChannel(out), null);
+    Assert.assertEquals(writer.getSerializedSize(), out.size());
+
+    final ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    final ColumnBuilder builder = new ColumnBuilder().setType(type);
+    new NumericBitmapIndexColumnPartSerde(BITMAP_SERDE_FACTORY).getDeserializer().read(buffer, builder, null);
+    Assert.assertFalse(buffer.hasRemaining());
+    return builder.build().getNumericBitmapIndex();
+  }
+
+  private static BitmapIndexSelector makeSelector(NumericBitmapIndex numericBitmapIndex)
+  {
+    return new BitmapIndexSelector()
+    {
+      @Nullable
+      @Override
+      public CloseableIndexed<String> getDimensionValues(String dimension)
+      {
+        return null;
+      }
+
+      @Override
+      public boolean hasMultipleValues(String dimension)
+      {
+        return false;
+      }
+
+      @Override
+      public int getNumRows()
+      {
+        return 0;
+      }
+
+      @Override
+      public BitmapFactory getBitmapFactory()
+      {
+        return BITMAP_SERDE_FACTORY.getBitmapFactory();
+      }
+
+      @Override
+      public BitmapIndex getBitmapIndex(String dimension)
+      {
+        return null;
+      }
+
+      @Nullable
+      @Override
+      public ImmutableBitmap getBitmapIndex(String dimension, String value)
+      {
+        return null;
+      }
+
+      @Override
+      public ImmutableRTree getSpatialIndex(String dimension)
+      {
+        return null;
+      }
+
+      @Nullable
+      @Override
+      public NumericBitmapIndex getNumericBitmapIndex(String column)
+      {
+        return "x".equals(column) ? numericBitmapIndex : null;
+      }
+    };
+  }
+
+  private static class SettableValueSelector extends TestDoubleColumnSelector
+  {
+    private double value;
+
+    @Override
+    public double getDouble()
+    {
+      return value;
+    }
+
+    @Override
+    public long getLong()
+    {
+      return (long) value;
+    }
+
+    @Override
+    public float getFloat()
+    {
+      return (float) value;
+    }
+
+    @Override
+    public boolean isNull()
+    {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.data.CompressionFactory;
+import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.ConciseBitmapSerdeFactory;
+import org.apache.druid.segment.data.IncrementalIndexTest;
+import org.apache.druid.segment.incremental.IncrementalIndex;
+import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMediumFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+public class SimpleQueryableIndexTest
+{
+  private static final IndexSpec INDEX_SPEC = IndexMergerTestBase.makeIndexSpec(
+      new ConciseBitmapSerdeFactory(),
+      CompressionStrategy.LZ4,
+      CompressionStrategy.LZ4,
+      CompressionFactory.LongEncodingStrategy.LONGS
+  );
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+  @Rule
+  public final CloserRule closer = new CloserRule(false);
+
+  private final IndexMerger indexMerger = TestHelper.getTestIndexMergerV9(
+      OffHeapMemorySegmentWriteOutMediumFactory.instance()
+  );
+  private final IndexIO indexIO = TestHelper.getTestIndexIO();
+
+  private File segmentDir;
+
+  @Before
+  public void setUp() throws Exception
+  {
+    IncrementalIndex toPersist = IncrementalIndexTest.createIndex(null);
+    IncrementalIndexTest.populateIndex(System.currentTimeMillis(), toPersist);
+    segmentDir = indexMerger.persist(toPersist, temporaryFolder.newFolder(), INDEX_SPEC, null);
+  }
+
+  @Test
+  public void testLazyLoading() throws Exception
+  {
+    final SimpleQueryableIndex index = (SimpleQueryableIndex) closer.closeLater(indexIO.loadIndex(segmentDir, true));
+
+    Assert.assertEquals(ImmutableSet.of(ColumnHolder.TIME_COLUMN_NAME), index.getLoadedColumnSizes().keySet());
+    Assert.assertEquals(2, index.getNumRows());
+    Assert.assertEquals(ImmutableList.of("dim1", "dim2"), ImmutableList.copyOf(index.getAvailableDimensions()));
+
+    final ColumnHolder dim1 = index.getColumnHolder("dim1");
+    Assert.assertNotNull(dim1);
+    Assert.assertSame(dim1, index.getColumnHolder("dim1"));
+    Assert.assertEquals(
+        ImmutableSet.of(ColumnHolder.TIME_COLUMN_NAME, "dim1"),
+        index.getLoadedColumnSizes().keySet()
+    );
+    Assert.assertTrue(index.getLoadedColumnSizes().get("dim1") > 0);
+    Assert.assertNull(index.getColumnHolder("nonexistent"));
+
+    // Dimension handlers need the capabilities of all dimensions.
+    Assert.assertEquals(ImmutableSet.of("dim1", "dim2"), index.getDimensionHandlers().keySet());
+    Assert.assertTrue(index.getLoadedColumnSizes().containsKey("dim2"));
+  }
+
+  @Test
+  public void testEagerLoading() throws Exception
+  {
+    final SimpleQueryableIndex index = (SimpleQueryableIndex) closer.closeLater(indexIO.loadIndex(segmentDir));
+
+    Assert.assertEquals(
+        ImmutableSet.copyOf(index.getColumns().keySet()),
+        index.getLoadedColumnSizes().keySet()
+    );
+  }
+}
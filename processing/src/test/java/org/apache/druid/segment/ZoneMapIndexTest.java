@@ -0,0 +1,444 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.collections.bitmap.BitSetBitmapFactory;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ConciseBitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.collections.bitmap.RoaringBitmapFactory;
+import org.apache.druid.collections.spatial.ImmutableRTree;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.query.Druids;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.filter.BitmapIndexSelector;
+import org.apache.druid.query.filter.BoundDimFilter;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.filter.InDimFilter;
+import org.apache.druid.query.ordering.StringComparators;
+import org.apache.druid.query.timeseries.TimeseriesQuery;
+import org.apache.druid.query.timeseries.TimeseriesQueryEngine;
+import org.apache.druid.query.timeseries.TimeseriesResultValue;
+import org.apache.druid.segment.column.BitmapIndex;
+import org.apache.druid.segment.column.ColumnBuilder;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.column.ZoneMapIndex;
+import org.apache.druid.segment.data.CloseableIndexed;
+import org.apache.druid.segment.data.Offset;
+import org.apache.druid.segment.filter.AndFilter;
+import org.apache.druid.segment.filter.OrFilter;
+import org.apache.druid.segment.incremental.IncrementalIndexSchema;
+import org.apache.druid.segment.selector.settable.SettableLongColumnValueSelector;
+import org.apache.druid.segment.serde.Serializer;
+import org.apache.druid.segment.serde.ZoneMapColumnPartSerde;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+public class ZoneMapIndexTest
+{
+  private static final int BLOCK_SIZE = ZoneMapIndex.BLOCK_SIZE;
+  private static final int NUM_ROWS = BLOCK_SIZE * 3 + 10;
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /**
+   * Block 0 has values 0..99, block 1 has 1000..1099, block 2 has 2000..2099 and the last, short, block only has 5000.
+   */
+  private static long valueOf(int row)
+  {
+    final int block = row / BLOCK_SIZE;
+    return block == 3 ? 5000 : block * 1000L + row % 100;
+  }
+
+  @Test
+  public void testSerde() throws IOException
+  {
+    final ZoneMapIndex longZoneMap = writeAndRead(ValueType.LONG);
+    Assert.assertEquals(ValueType.LONG, longZoneMap.getType());
+    Assert.assertEquals(4, longZoneMap.getNumBlocks());
+    Assert.assertEquals(1000, longZoneMap.getMinLong(1));
+    Assert.assertEquals(1099, longZoneMap.getMaxLong(1));
+    Assert.assertEquals(5000, longZoneMap.getMinLong(3));
+    Assert.assertEquals(5000, longZoneMap.getMaxLong(3));
+    Assert.assertTrue(longZoneMap.hasValues(0));
+    Assert.assertFalse(longZoneMap.hasNulls(0));
+    Assert.assertFalse(longZoneMap.hasNaN(0));
+
+    final ZoneMapIndex doubleZoneMap = writeAndRead(ValueType.DOUBLE);
+    Assert.assertEquals(ValueType.DOUBLE, doubleZoneMap.getType());
+    Assert.assertEquals(4, doubleZoneMap.getNumBlocks());
+    Assert.assertEquals(2000, doubleZoneMap.getMinDouble(2), 0);
+    Assert.assertEquals(2099, doubleZoneMap.getMaxDouble(2), 0);
+  }
+
+  @Test
+  public void testBoundFilter() throws IOException
+  {
+    for (ValueType type : ImmutableList.of(ValueType.LONG, ValueType.FLOAT, ValueType.DOUBLE)) {
+      final BitmapIndexSelector selector = makeSelector(writeAndRead(type));
+      Assert.assertEquals(blocks(1), bound("1050", "1060", false, false).getZoneMapCandidateBlocks(selector));
+      Assert.assertEquals(blocks(1, 2), bound("1099", "2000", false, false).getZoneMapCandidateBlocks(selector));
+      Assert.assertEquals(blocks(3), bound("2099", null, true, false).getZoneMapCandidateBlocks(selector));
+      Assert.assertEquals(blocks(2, 3), bound("2099", null, false, false).getZoneMapCandidateBlocks(selector));
+      Assert.assertEquals(blocks(), bound(null, "0", false, true).getZoneMapCandidateBlocks(selector));
+      Assert.assertEquals(blocks(0, 1), bound("1.5", "1000.5", false, false).getZoneMapCandidateBlocks(selector));
+
+      // Lexicographic bounds on numeric columns compare strings, zone maps can't be used
+      Assert.assertNull(
+          new BoundDimFilter("x", "1050", "1060", false, false, null, null, StringComparators.LEXICOGRAPHIC)
+              .toFilter()
+              .getZoneMapCandidateBlocks(selector)
+      );
+      // No zone map for other columns
+      Assert.assertNull(
+          new BoundDimFilter("y", "1050", "1060", false, false, null, null, StringComparators.NUMERIC)
+              .toFilter()
+              .getZoneMapCandidateBlocks(selector)
+      );
+    }
+  }
+
+  @Test
+  public void testInFilter() throws IOException
+  {
+    for (ValueType type : ImmutableList.of(ValueType.LONG, ValueType.FLOAT, ValueType.DOUBLE)) {
+      final BitmapIndexSelector selector = makeSelector(writeAndRead(type));
+      Assert.assertEquals(blocks(0, 2), in("5", "2050", "7000", "abc").getZoneMapCandidateBlocks(selector));
+      Assert.assertEquals(blocks(3), in("5000").getZoneMapCandidateBlocks(selector));
+      Assert.assertEquals(blocks(), in("500", "4999").getZoneMapCandidateBlocks(selector));
+    }
+  }
+
+  @Test
+  public void testAndOrFilters() throws IOException
+  {
+    final BitmapIndexSelector selector = makeSelector(writeAndRead(ValueType.LONG));
+    final Filter noZoneMap = in("y", "1");
+
+    Assert.assertEquals(
+        blocks(1),
+        new AndFilter(Arrays.asList(bound("1000", null, false, false), in("5", "1010"), noZoneMap))
+            .getZoneMapCandidateBlocks(selector)
+    );
+    Assert.assertEquals(
+        blocks(0, 3),
+        new OrFilter(Arrays.asList(bound("4000", null, false, false), in("5")))
+            .getZoneMapCandidateBlocks(selector)
+    );
+    Assert.assertNull(new OrFilter(Arrays.asList(in("5"), noZoneMap)).getZoneMapCandidateBlocks(selector));
+  }
+
+  @Test
+  public void testOffset()
+  {
+    final BitSet candidates = blocks(1, 3);
+
+    final Offset ascending = new ZoneMapOffset(new SimpleAscendingOffset(NUM_ROWS), candidates, false);
+    Assert.assertEquals(BLOCK_SIZE, ascending.getOffset());
+    int count = 0;
+    for (; ascending.withinBounds(); ascending.increment()) {
+      Assert.assertTrue(candidates.get(ascending.getOffset() / BLOCK_SIZE));
+      count++;
+    }
+    Assert.assertEquals(BLOCK_SIZE + 10, count);
+
+    ascending.reset();
+    Assert.assertEquals(BLOCK_SIZE, ascending.getOffset());
+    ascending.increment();
+    final Offset clone = ascending.clone();
+    Assert.assertEquals(BLOCK_SIZE + 1, clone.getOffset());
+
+    final Offset descending = new ZoneMapOffset(new SimpleDescendingOffset(NUM_ROWS), blocks(0), true);
+    Assert.assertEquals(BLOCK_SIZE - 1, descending.getOffset());
+  }
+
+  @Test
+  public void testOffsetJumpsOverBlocks()
+  {
+    final BitSet candidates = blocks(1, 3);
+    final List<Integer> expectedAscending = new ArrayList<>();
+    final List<Integer> expectedEvenAscending = new ArrayList<>();
+    for (int row = 0; row < NUM_ROWS; row++) {
+      if (candidates.get(row / BLOCK_SIZE)) {
+        expectedAscending.add(row);
+        if (row % 2 == 0) {
+          expectedEvenAscending.add(row);
+        }
+      }
+    }
+    final List<Integer> expectedDescending = new ArrayList<>(expectedAscending);
+    Collections.reverse(expectedDescending);
+    final List<Integer> expectedEvenDescending = new ArrayList<>(expectedEvenAscending);
+    Collections.reverse(expectedEvenDescending);
+
+    Assert.assertEquals(
+        expectedAscending,
+        rows(new ZoneMapOffset(new SimpleAscendingOffset(NUM_ROWS), candidates, false))
+    );
+    Assert.assertEquals(
+        expectedDescending,
+        rows(new ZoneMapOffset(new SimpleDescendingOffset(NUM_ROWS), candidates, true))
+    );
+
+    for (BitmapFactory factory : Arrays.asList(
+        new ConciseBitmapFactory(),
+        new RoaringBitmapFactory(),
+        new BitSetBitmapFactory()
+    )) {
+      final MutableBitmap mutableBitmap = factory.makeEmptyMutableBitmap();
+      for (int row = 0; row < NUM_ROWS; row += 2) {
+        mutableBitmap.add(row);
+      }
+      final ImmutableBitmap bitmap = factory.makeImmutableBitmap(mutableBitmap);
+      Assert.assertEquals(
+          factory.getClass().getSimpleName(),
+          expectedEvenAscending,
+          rows(new ZoneMapOffset(BitmapOffset.of(bitmap, false, NUM_ROWS), candidates, false))
+      );
+      Assert.assertEquals(
+          factory.getClass().getSimpleName(),
+          expectedEvenDescending,
+          rows(new ZoneMapOffset(BitmapOffset.of(bitmap, true, NUM_ROWS), candidates, true))
+      );
+    }
+
+    Assert.assertEquals(
+        Collections.emptyList(),
+        rows(new ZoneMapOffset(new SimpleAscendingOffset(NUM_ROWS), new BitSet(), false))
+    );
+  }
+
+  @Test
+  public void testTimeseriesKeepsEmptyBucketsWhenZoneMapsRuleOutSegment() throws IOException
+  {
+    final List<InputRow> rows = new ArrayList<>();
+    for (int day = 0; day < 3; day++) {
+      rows.add(
+          new MapBasedInputRow(
+              DateTimes.of("2000-01-01").plusDays(day),
+              ImmutableList.of("dim"),
+              ImmutableMap.of("dim", "a", "met", day)
+          )
+      );
+    }
+    final QueryableIndex index = IndexBuilder
+        .create()
+        .tmpDir(temporaryFolder.newFolder())
+        .schema(
+            new IncrementalIndexSchema.Builder()
+                .withMetrics(new CountAggregatorFactory("cnt"), new LongSumAggregatorFactory("met", "met"))
+                .build()
+        )
+        .indexSpec(new IndexSpec(null, null, null, null, null, true, null, null))
+        .rows(rows)
+        .buildMMappedIndex();
+
+    try {
+      final StorageAdapter adapter = new QueryableIndexStorageAdapter(index);
+      final BoundDimFilter filter =
+          new BoundDimFilter("met", "100", null, false, false, null, null, StringComparators.NUMERIC);
+      final BitmapIndexSelector selector = new ColumnSelectorBitmapIndexSelector(
+          index.getBitmapFactoryForDimensions(),
+          VirtualColumns.EMPTY,
+          index
+      );
+      Assert.assertEquals(blocks(), filter.toFilter().getZoneMapCandidateBlocks(selector));
+
+      final TimeseriesQuery query = Druids.newTimeseriesQueryBuilder()
+                                          .dataSource("test")
+                                          .granularity(Granularities.DAY)
+                                          .intervals("2000-01-01/2000-01-04")
+                                          .filters(filter)
+                                          .aggregators(new LongSumAggregatorFactory("cnt", "cnt"))
+                                          .build();
+      final List<Result<TimeseriesResultValue>> results = new TimeseriesQueryEngine().process(query, adapter)
+                                                                                       .toList();
+      // Without skipEmptyBuckets, every day gets a zero-filled row even though no block of the segment can match
+      Assert.assertEquals(3, results.size());
+      for (Result<TimeseriesResultValue> result : results) {
+        Assert.assertEquals(0L, result.getValue().getLongMetric("cnt").longValue());
+      }
+    }
+    finally {
+      index.close();
+    }
+  }
+
+  private static Filter bound(@Nullable String lower, @Nullable String upper, boolean lowerStrict, boolean upperStrict)
+  {
+    return new BoundDimFilter("x", lower, upper, lowerStrict, upperStrict, null, null, StringComparators.NUMERIC)
+        .toFilter();
+  }
+
+  private static Filter in(String... values)
+  {
+    return in("x", values);
+  }
+
+  private static Filter in(String column, String... values)
+  {
+    return new InDimFilter(column, Arrays.asList(values), null).toFilter();
+  }
+
+  private static List<Integer> rows(Offset offset)
+  {
+    final List<Integer> rows = new ArrayList<>();
+    for (; offset.withinBounds(); offset.increment()) {
+      rows.add(offset.getOffset());
+    }
+    return rows;
+  }
+
+  private static BitSet blocks(int... blocks)
+  {
+    final BitSet bitSet = new BitSet();
+    for (int block : blocks) {
+      bitSet.set(block);
+    }
+    return bitSet;
+  }
+
+  private static ZoneMapIndex writeAndRead(ValueType type) throws IOException
+  {
+    final ZoneMapColumnSerializer<Long> serializer = new ZoneMapColumnSerializer<>(new NoopColumnSerializer(), type);
+    serializer.open();
+    final SettableLongColumnValueSelector selector = new SettableLongColumnValueSelector();
+    for (int row = 0; row < NUM_ROWS; row++) {
+      selector.setValue(valueOf(row));
+      serializer.serialize(selector);
+    }
+
+    final Serializer zoneMapSerializer = serializer.getZoneMapSerializer();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    zoneMapSerializer.writeTo(Channels.newChannel(out), null);
+    Assert.assertEquals(zoneMapSerializer.getSerializedSize(), out.size());
+
+    final ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    final ColumnBuilder builder = new ColumnBuilder().setType(type);
+    new ZoneMapColumnPartSerde().getDeserializer().read(buffer, builder, null);
+    Assert.assertFalse(buffer.hasRemaining());
+    return builder.build().getZoneMapIndex();
+  }
+
+  private static BitmapIndexSelector makeSelector(ZoneMapIndex zoneMap)
+  {
+    return new BitmapIndexSelector()
+    {
+      @Nullable
+      @Override
+      public CloseableIndexed<String> getDimensionValues(String dimension)
+      {
+        return null;
+      }
+
+      @Override
+      public boolean hasMultipleValues(String dimension)
+      {
+        return false;
+      }
+
+      @Override
+      public int getNumRows()
+      {
+        return NUM_ROWS;
+      }
+
+      @Override
+      public BitmapFactory getBitmapFactory()
+      {
+        return null;
+      }
+
+      @Override
+      public BitmapIndex getBitmapIndex(String dimension)
+      {
+        return null;
+      }
+
+      @Nullable
+      @Override
+      public ImmutableBitmap getBitmapIndex(String dimension, String value)
+      {
+        return null;
+      }
+
+      @Override
+      public ImmutableRTree getSpatialIndex(String dimension)
+      {
+        return null;
+      }
+
+      @Nullable
+      @Override
+      public ZoneMapIndex getZoneMapIndex(String column)
+      {
+        return "x".equals(column) ? zoneMap : null;
+      }
+    };
+  }
+
+  private static class NoopColumnSerializer implements GenericColumnSerializer<Long>
+  {
+    @Override
+    public void open()
+    {
+    }
+
+    @Override
+    public void serialize(ColumnValueSelector<? extends Long> selector)
+    {
+    }
+
+    @Override
+    public long getSerializedSize()
+    {
+      return 0;
+    }
+
+    @Override
+    public void writeTo(WritableByteChannel channel, FileSmoosher smoosher)
+    {
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.segment.CompressedPools;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class CompressionStrategySelectorTest
+{
+  @Test
+  public void testEmptySample() throws IOException
+  {
+    Assert.assertEquals(
+        CompressionStrategy.DEFAULT_COMPRESSION_STRATEGY,
+        new CompressionStrategySelector(0).select(Collections.emptyList())
+    );
+  }
+
+  @Test
+  public void testRandomDataStaysUncompressed() throws IOException
+  {
+    final Random random = new Random(0);
+    final ByteBuffer block = newBlock();
+    while (block.remaining() >= Long.BYTES) {
+      block.putLong(random.nextLong());
+    }
+    block.flip();
+
+    Assert.assertEquals(
+        CompressionStrategy.UNCOMPRESSED,
+        new CompressionStrategySelector(0).select(ImmutableList.of(block))
+    );
+    Assert.assertEquals(CompressedPools.BUFFER_SIZE, block.remaining());
+  }
+
+  @Test
+  public void testCompressibleData() throws IOException
+  {
+    final List<ByteBuffer> blocks = ImmutableList.of(makeCompressibleBlock(), makeCompressibleBlock());
+    final CompressionStrategy strategy = new CompressionStrategySelector(0).select(blocks);
+    Assert.assertNotEquals(CompressionStrategy.UNCOMPRESSED, strategy);
+    Assert.assertTrue(ImmutableList.copyOf(CompressionStrategy.noNoneValues()).contains(strategy));
+  }
+
+  @Test
+  public void testUnreachableSpeedFloor() throws IOException
+  {
+    Assert.assertEquals(
+        CompressionStrategy.UNCOMPRESSED,
+        new CompressionStrategySelector(Long.MAX_VALUE).select(ImmutableList.of(makeCompressibleBlock()))
+    );
+  }
+
+  @Test
+  public void testSpeedFloorOnlyAdmitsFastCodecs() throws IOException
+  {
+    Assert.assertEquals(
+        CompressionStrategy.LZ4,
+        new CompressionStrategySelector(2000L << 20).select(ImmutableList.of(makeCompressibleBlock()))
+    );
+  }
+
+  @Test
+  public void testSelectionIsDeterministic() throws IOException
+  {
+    final List<ByteBuffer> blocks = ImmutableList.of(makeCompressibleBlock(), makeCompressibleBlock());
+    final CompressionStrategySelector selector =
+        new CompressionStrategySelector(CompressionStrategySelector.DEFAULT_MIN_DECOMPRESSION_BYTES_PER_SECOND);
+    final CompressionStrategy strategy = selector.select(blocks);
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(strategy, selector.select(blocks));
+    }
+  }
+
+  private static ByteBuffer makeCompressibleBlock()
+  {
+    final ByteBuffer block = newBlock();
+    long value = 0;
+    while (block.remaining() >= Long.BYTES) {
+      block.putLong(value++ / 16);
+    }
+    block.flip();
+    return block;
+  }
+
+  private static ByteBuffer newBlock()
+  {
+    return ByteBuffer.allocate(CompressedPools.BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.collect.Lists;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+@RunWith(Parameterized.class)
+public class FrontCodedIndexedTest
+{
+  @Parameterized.Parameters(name = "bucketSize={0}")
+  public static Collection<Object[]> constructorFeeder()
+  {
+    return Arrays.asList(new Object[]{1}, new Object[]{4}, new Object[]{16}, new Object[]{128});
+  }
+
+  private final int bucketSize;
+
+  public FrontCodedIndexedTest(int bucketSize)
+  {
+    this.bucketSize = bucketSize;
+  }
+
+  @Test
+  public void testEmpty() throws IOException
+  {
+    final FrontCodedIndexed indexed = writeAndRead(Collections.emptyList());
+    Assert.assertEquals(0, indexed.size());
+    Assert.assertEquals(-1, indexed.indexOf(null));
+    Assert.assertEquals(-1, indexed.indexOf("a"));
+    Assert.assertFalse(indexed.iterator().hasNext());
+  }
+
+  @Test
+  public void testOnlyNull() throws IOException
+  {
+    final FrontCodedIndexed indexed = writeAndRead(Collections.singletonList(null));
+    Assert.assertEquals(1, indexed.size());
+    Assert.assertNull(indexed.get(0));
+    Assert.assertEquals(0, indexed.indexOf(null));
+    Assert.assertEquals(-2, indexed.indexOf("a"));
+  }
+
+  @Test
+  public void testMatchesGenericIndexed() throws IOException
+  {
+    for (boolean withNull : new boolean[]{false, true}) {
+      final List<String> values = makeSortedValues(1000, withNull);
+      final FrontCodedIndexed indexed = writeAndRead(values);
+      final GenericIndexed<String> expected = GenericIndexed.fromIterable(values, GenericIndexed.STRING_STRATEGY);
+
+      Assert.assertEquals(expected.size(), indexed.size());
+      Assert.assertEquals(values, Lists.newArrayList(indexed));
+      for (int i = 0; i < values.size(); i++) {
+        Assert.assertEquals(values.get(i), indexed.get(i));
+        Assert.assertEquals(i, indexed.indexOf(values.get(i)));
+      }
+      Assert.assertEquals(expected.indexOf(null), indexed.indexOf(null));
+      for (String probe : new String[]{"", "/", "/a", "/zzzzzzzz", "http://", "http://druid.apache.org/docs/a~"}) {
+        Assert.assertEquals(probe, expected.indexOf(probe), indexed.indexOf(probe));
+      }
+      for (String value : makeSortedValues(200, false)) {
+        Assert.assertEquals(value, expected.indexOf(value + "!"), indexed.indexOf(value + "!"));
+      }
+    }
+  }
+
+  @Test
+  public void testSmallerThanGenericIndexed() throws IOException
+  {
+    final List<String> values = makeSortedValues(1000, false);
+    final FrontCodedIndexedWriter writer = new FrontCodedIndexedWriter(new OnHeapMemorySegmentWriteOutMedium(), 16);
+    writer.open();
+    for (String value : values) {
+      writer.write(value);
+    }
+    final GenericIndexed<String> genericIndexed = GenericIndexed.fromIterable(values, GenericIndexed.STRING_STRATEGY);
+    Assert.assertTrue(writer.getSerializedSize() < genericIndexed.getSerializedSize());
+  }
+
+  @Test(expected = ISE.class)
+  public void testUnsortedValues() throws IOException
+  {
+    writeAndRead(Arrays.asList("b", "a"));
+  }
+
+  @Test(expected = ISE.class)
+  public void testNullNotFirst() throws IOException
+  {
+    writeAndRead(Arrays.asList("a", null));
+  }
+
+  private FrontCodedIndexed writeAndRead(List<String> values) throws IOException
+  {
+    final FrontCodedIndexedWriter writer =
+        new FrontCodedIndexedWriter(new OnHeapMemorySegmentWriteOutMedium(), bucketSize);
+    writer.open();
+    for (String value : values) {
+      writer.write(value);
+    }
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.writeTo(Channels.newChannel(out), null);
+    Assert.assertEquals(writer.getSerializedSize(), out.size());
+
+    // Trailing bytes must be left alone
+    final ByteBuffer buffer = ByteBuffer.allocate(out.size() + 1);
+    buffer.put(out.toByteArray()).put((byte) 0x7F).flip();
+    final FrontCodedIndexed indexed = FrontCodedIndexed.read(buffer);
+    Assert.assertEquals(out.size(), buffer.position());
+    return indexed;
+  }
+
+  private static List<String> makeSortedValues(int numValues, boolean withNull)
+  {
+    final Random random = new Random(numValues);
+    final String[] prefixes = {"http://druid.apache.org/docs/", "http://druid.apache.org/", "/", "\u00e9t\u00e9/"};
+    final TreeSet<String> values = new TreeSet<>();
+    while (values.size() < numValues) {
+      final StringBuilder builder = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+      for (int i = random.nextInt(12); i >= 0; i--) {
+        builder.append((char) ('a' + random.nextInt(26)));
+      }
+      values.add(builder.toString());
+    }
+    final List<String> sorted = new ArrayList<>();
+    if (withNull) {
+      sorted.add(null);
+    }
+    sorted.addAll(values);
+    return sorted;
+  }
+}
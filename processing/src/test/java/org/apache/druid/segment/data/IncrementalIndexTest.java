@@ -137,6 +137,24 @@ public class IncrementalIndexTest
                 .buildOffheap(pool1)
         }
     );
+    params.add(
+        new Object[] {
+            (IndexCreator) factories -> new Builder()
+                .setSimpleTestingIndexSchema(factories)
+                .setOffheapFacts(true)
+                .setMaxRowCount(1000000)
+                .buildOnheap()
+        }
+    );
+    params.add(
+        new Object[] {
+            (IndexCreator) factories -> new Builder()
+                .setSimpleTestingIndexSchema(factories)
+                .setOffheapFacts(true)
+                .setMaxRowCount(1000000)
+                .buildOffheap(pool1)
+        }
+    );
     params.add(new Object[] {(IndexCreator) IncrementalIndexTest::createNoRollupIndex});
     final CloseableStupidPool<ByteBuffer> pool2 = new CloseableStupidPool<>(
         "OffheapIncrementalIndex-bufferPool",
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.incremental;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OffheapRollupFactsHolderTest
+{
+  private IncrementalIndex<?> index;
+  private OffheapRollupFactsHolder facts;
+
+  @Before
+  public void setUp()
+  {
+    index = new IncrementalIndex.Builder()
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("cnt"))
+        .setMaxRowCount(100000)
+        .buildOnheap();
+    facts = new OffheapRollupFactsHolder(true, index.dimsComparator(), index.getDimensions());
+  }
+
+  @After
+  public void tearDown()
+  {
+    facts.clear();
+    index.close();
+  }
+
+  @Test
+  public void testPutIfAbsent()
+  {
+    IncrementalIndexRow row1 = toRow(10, "billy", "A", "joe", "B");
+    IncrementalIndexRow row2 = toRow(10, "billy", "A", "joe", Arrays.asList("A", "B"));
+    IncrementalIndexRow row3 = toRow(20, "billy", "A");
+
+    Assert.assertEquals(IncrementalIndexRow.EMPTY_ROW_INDEX, facts.getPriorIndex(row1));
+    Assert.assertEquals(IncrementalIndexRow.EMPTY_ROW_INDEX, facts.putIfAbsent(row1, 0));
+    Assert.assertEquals(IncrementalIndexRow.EMPTY_ROW_INDEX, facts.putIfAbsent(row2, 1));
+    Assert.assertEquals(IncrementalIndexRow.EMPTY_ROW_INDEX, facts.putIfAbsent(row3, 2));
+
+    Assert.assertEquals(0, facts.getPriorIndex(row1));
+    Assert.assertEquals(0, facts.putIfAbsent(toRow(10, "billy", "A", "joe", "B"), 3));
+    Assert.assertEquals(1, facts.getPriorIndex(toRow(10, "billy", "A", "joe", Arrays.asList("A", "B"))));
+    Assert.assertEquals(IncrementalIndexRow.EMPTY_ROW_INDEX, facts.getPriorIndex(toRow(20, "billy", "B")));
+
+    Assert.assertEquals(10, facts.getMinTimeMillis());
+    Assert.assertEquals(20, facts.getMaxTimeMillis());
+  }
+
+  @Test
+  public void testTrailingNullsAreIgnored()
+  {
+    IncrementalIndexRow row = toRow(10, "billy", "A", "joe", "B");
+    // registers a third dimension, so that rows without it have a trailing null
+    toRow(10, "billy", "A", "joe", "B", "mike", "C");
+    IncrementalIndexRow rowWithTrailingNull = new IncrementalIndexRow(
+        row.getTimestamp(),
+        new Object[]{row.getDims()[0], row.getDims()[1], null},
+        index.getDimensions()
+    );
+
+    Assert.assertEquals(IncrementalIndexRow.EMPTY_ROW_INDEX, facts.putIfAbsent(row, 0));
+    Assert.assertEquals(0, facts.putIfAbsent(rowWithTrailingNull, 1));
+  }
+
+  @Test
+  public void testSortedIteration()
+  {
+    List<IncrementalIndexRow> rows = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      IncrementalIndexRow row = toRow(i % 7, "billy", String.valueOf(i % 97), "joe", (double) (i % 13));
+      if (facts.putIfAbsent(row, rows.size()) == IncrementalIndexRow.EMPTY_ROW_INDEX) {
+        rows.add(row);
+      }
+    }
+    Assert.assertEquals(7 * 97, rows.size());
+
+    List<IncrementalIndexRow> expected = new ArrayList<>(rows);
+    expected.sort(index.dimsComparator());
+    assertRows(expected, facts.persistIterable());
+    assertRows(expected, () -> facts.iterator(false));
+    assertRows(Lists.reverse(expected), () -> facts.iterator(true));
+    assertRows(rows, facts.keySet());
+
+    List<IncrementalIndexRow> expectedRange = new ArrayList<>();
+    for (IncrementalIndexRow row : expected) {
+      if (row.getTimestamp() >= 2 && row.getTimestamp() < 4) {
+        expectedRange.add(row);
+      }
+    }
+    assertRows(expectedRange, facts.timeRangeIterable(false, 2, 4));
+    assertRows(Lists.reverse(expectedRange), facts.timeRangeIterable(true, 2, 4));
+    assertRows(ImmutableList.of(), facts.timeRangeIterable(false, 4, 2));
+
+    // rows added after a sorted view was built are visible in the next one
+    IncrementalIndexRow newRow = toRow(100, "billy", "Z");
+    facts.putIfAbsent(newRow, rows.size());
+    expected.add(newRow);
+    assertRows(expected, facts.persistIterable());
+  }
+
+  @Test
+  public void testSortedIterationWhileAdding()
+  {
+    List<IncrementalIndexRow> expected = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      IncrementalIndexRow row = toRow((i * 31) % 11, "billy", String.valueOf(i), "joe", (long) (i % 5));
+      Assert.assertEquals(IncrementalIndexRow.EMPTY_ROW_INDEX, facts.putIfAbsent(row, i));
+      expected.add(row);
+      // a query after every batch of rows only sorts the new ones into a run
+      if (i % 97 == 0) {
+        expected.sort(index.dimsComparator());
+        assertRows(expected, () -> facts.iterator(false));
+        Assert.assertTrue(facts.getNumSortedRuns() <= 2 * (32 - Integer.numberOfLeadingZeros(i + 1)));
+      }
+    }
+
+    expected.sort(index.dimsComparator());
+    assertRows(expected, facts.persistIterable());
+    assertRows(Lists.reverse(expected), () -> facts.iterator(true));
+
+    List<IncrementalIndexRow> expectedRange = new ArrayList<>();
+    for (IncrementalIndexRow row : expected) {
+      if (row.getTimestamp() >= 3 && row.getTimestamp() < 7) {
+        expectedRange.add(row);
+      }
+    }
+    assertRows(expectedRange, facts.timeRangeIterable(false, 3, 7));
+    assertRows(Lists.reverse(expectedRange), facts.timeRangeIterable(true, 3, 7));
+  }
+
+  @Test
+  public void testOffheapKeysDontCountTowardsMaxBytesInMemory() throws IndexSizeExceededException
+  {
+    final IncrementalIndex<?> onheapFactsIndex = new IncrementalIndex.Builder()
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("cnt"))
+        .setMaxRowCount(100000)
+        .setMaxBytesInMemory(Long.MAX_VALUE)
+        .buildOnheap();
+    final IncrementalIndex<?> offheapFactsIndex = new IncrementalIndex.Builder()
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("cnt"))
+        .setOffheapFacts(true)
+        .setMaxRowCount(100000)
+        .setMaxBytesInMemory(Long.MAX_VALUE)
+        .buildOnheap();
+    try {
+      for (int i = 0; i < 100; i++) {
+        final MapBasedInputRow row = new MapBasedInputRow(
+            i,
+            ImmutableList.of("billy"),
+            ImmutableMap.of("billy", String.valueOf(i))
+        );
+        onheapFactsIndex.add(row);
+        offheapFactsIndex.add(row);
+      }
+      Assert.assertTrue(offheapFactsIndex.getBytesInMemory().get() < onheapFactsIndex.getBytesInMemory().get());
+      Assert.assertEquals(0, ((OnheapIncrementalIndex) onheapFactsIndex).getOffheapFactsBytes());
+      Assert.assertTrue(((OnheapIncrementalIndex) offheapFactsIndex).getOffheapFactsBytes() > 0);
+    }
+    finally {
+      onheapFactsIndex.close();
+      offheapFactsIndex.close();
+    }
+  }
+
+  @Test
+  public void testMaxOffheapFactsBytes() throws IndexSizeExceededException
+  {
+    final IncrementalIndex<?> offheapFactsIndex = new IncrementalIndex.Builder()
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("cnt"))
+        .setOffheapFacts(true)
+        .setMaxRowCount(100000)
+        .setMaxBytesInMemory(Long.MAX_VALUE)
+        .setMaxOffheapFactsBytes(1)
+        .buildOnheap();
+    try {
+      Assert.assertTrue(offheapFactsIndex.canAppendRow());
+      offheapFactsIndex.add(new MapBasedInputRow(0, ImmutableList.of("billy"), ImmutableMap.of("billy", "A")));
+      Assert.assertFalse(offheapFactsIndex.canAppendRow());
+      Assert.assertEquals(
+          "Maximum off-heap facts size in bytes [1] reached",
+          offheapFactsIndex.getOutOfRowsReason()
+      );
+      // Rows that are already in the index can still be aggregated
+      offheapFactsIndex.add(new MapBasedInputRow(0, ImmutableList.of("billy"), ImmutableMap.of("billy", "A")));
+      Assert.assertEquals(1, offheapFactsIndex.size());
+    }
+    finally {
+      offheapFactsIndex.close();
+    }
+  }
+
+  @Test
+  public void testClear()
+  {
+    facts.putIfAbsent(toRow(10, "billy", "A"), 0);
+    facts.clear();
+    Assert.assertFalse(facts.keySet().iterator().hasNext());
+    Assert.assertEquals(IncrementalIndexRow.EMPTY_ROW_INDEX, facts.getPriorIndex(toRow(10, "billy", "A")));
+    Assert.assertEquals(IncrementalIndexRow.EMPTY_ROW_INDEX, facts.putIfAbsent(toRow(10, "billy", "A"), 1));
+    Assert.assertEquals(1, facts.getPriorIndex(toRow(10, "billy", "A")));
+  }
+
+  private void assertRows(List<IncrementalIndexRow> expected, Iterable<IncrementalIndexRow> actual)
+  {
+    List<IncrementalIndexRow> actualRows = Lists.newArrayList(actual);
+    Assert.assertEquals(expected.size(), actualRows.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(0, index.dimsComparator().compare(expected.get(i), actualRows.get(i)));
+    }
+  }
+
+  private IncrementalIndexRow toRow(long time, Object... dimAndVal)
+  {
+    Map<String, Object> data = new HashMap<>();
+    List<String> dimensions = new ArrayList<>();
+    for (int i = 0; i < dimAndVal.length; i += 2) {
+      dimensions.add((String) dimAndVal[i]);
+      data.put((String) dimAndVal[i], dimAndVal[i + 1]);
+    }
+    return index.toIncrementalIndexRow(new MapBasedInputRow(time, dimensions, data)).getIncrementalIndexRow();
+  }
+}
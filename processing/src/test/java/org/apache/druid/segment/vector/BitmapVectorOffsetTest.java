@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+import org.apache.druid.collections.bitmap.BitSetBitmapFactory;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ConciseBitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.collections.bitmap.RoaringBitmapFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BitmapVectorOffsetTest
+{
+  private static final int VECTOR_SIZE = 8;
+  private static final int NUM_ROWS = 1000;
+
+  @Test
+  public void testStartAndEndOffsets()
+  {
+    for (BitmapFactory factory : Arrays.asList(
+        new ConciseBitmapFactory(),
+        new RoaringBitmapFactory(),
+        new BitSetBitmapFactory()
+    )) {
+      final MutableBitmap mutableBitmap = factory.makeEmptyMutableBitmap();
+      for (int row = 0; row < NUM_ROWS; row += 3) {
+        mutableBitmap.add(row);
+      }
+      final ImmutableBitmap bitmap = factory.makeImmutableBitmap(mutableBitmap);
+
+      final List<Integer> expected = new ArrayList<>();
+      for (int row = 500; row < 700; row++) {
+        if (row % 3 == 0) {
+          expected.add(row);
+        }
+      }
+
+      final BitmapVectorOffset offset = new BitmapVectorOffset(VECTOR_SIZE, bitmap, 500, 700);
+      Assert.assertEquals(factory.getClass().getSimpleName(), expected, rows(offset));
+      offset.reset();
+      Assert.assertEquals(factory.getClass().getSimpleName(), expected, rows(offset));
+    }
+  }
+
+  private static List<Integer> rows(VectorOffset offset)
+  {
+    final List<Integer> rows = new ArrayList<>();
+    for (; !offset.isDone(); offset.advance()) {
+      for (int i = 0; i < offset.getCurrentVectorSize(); i++) {
+        rows.add(offset.getOffsets()[i]);
+      }
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.druid.utils.JvmUtils;
+
+/**
+ * Configuration of the parallel merge of data node results in {@link CachingClusteredClient}.
+ */
+public class BrokerParallelMergeConfig
+{
+  /**
+   * Whether queries use the parallel merge unless they override it with the "enableParallelMerge" context key.
+   */
+  @JsonProperty
+  private boolean enabled = false;
+
+  /**
+   * Number of threads of the merge pool shared by all queries on this Broker.
+   */
+  @JsonProperty
+  private int parallelism = (int) Math.ceil(JvmUtils.getRuntimeInfo().getAvailableProcessors() * 1.5);
+
+  /**
+   * Maximum number of partitions a single query is merged in, unless it overrides it with the
+   * "parallelMergeParallelism" context key.
+   */
+  @JsonProperty
+  private int defaultMaxQueryParallelism = Math.max(JvmUtils.getRuntimeInfo().getAvailableProcessors() - 1, 1);
+
+  /**
+   * Number of rows handed from a partition task to the query thread at once.
+   */
+  @JsonProperty
+  private int batchSize = 4096;
+
+  /**
+   * Number of rows a partition task processes before yielding its thread to other queries.
+   */
+  @JsonProperty
+  private int yieldAfterRows = 16384;
+
+  public boolean isEnabled()
+  {
+    return enabled;
+  }
+
+  public int getParallelism()
+  {
+    return parallelism;
+  }
+
+  public int getDefaultMaxQueryParallelism()
+  {
+    return defaultMaxQueryParallelism;
+  }
+
+  public int getBatchSize()
+  {
+    return batchSize;
+  }
+
+  public int getYieldAfterRows()
+  {
+    return yieldAfterRows;
+  }
+}
@@ -37,6 +37,7 @@ import org.apache.druid.client.cache.CachePopulator;
 import org.apache.druid.client.selector.QueryableDruidServer;
 import org.apache.druid.client.selector.ServerSelector;
 import org.apache.druid.guice.annotations.Client;
+import org.apache.druid.guice.annotations.Merging;
 import org.apache.druid.guice.annotations.Smile;
 import org.apache.druid.guice.http.DruidHttpClientConfig;
 import org.apache.druid.java.util.common.Intervals;
@@ -47,11 +48,15 @@ import org.apache.druid.java.util.common.guava.BaseSequence;
 import org.apache.druid.java.util.common.guava.LazySequence;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.java.util.common.guava.nary.BinaryFn;
 import org.apache.druid.java.util.emitter.EmittingLogger;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
 import org.apache.druid.query.BySegmentResultValueClass;
 import org.apache.druid.query.CacheStrategy;
+import org.apache.druid.query.ParallelMergeCombiningSequence;
 import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryMetrics;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QuerySegmentWalker;
@@ -86,6 +91,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
@@ -101,6 +107,9 @@ public class CachingClusteredClient implements QuerySegmentWalker
   private final CachePopulator cachePopulator;
   private final CacheConfig cacheConfig;
   private final DruidHttpClientConfig httpClientConfig;
+  private final BrokerParallelMergeConfig parallelMergeConfig;
+  private final ForkJoinPool mergePool;
+  private final ServiceEmitter emitter;
 
   @Inject
   public CachingClusteredClient(
@@ -110,7 +119,10 @@ public class CachingClusteredClient implements QuerySegmentWalker
       @Smile ObjectMapper objectMapper,
       CachePopulator cachePopulator,
       CacheConfig cacheConfig,
-      @Client DruidHttpClientConfig httpClientConfig
+      @Client DruidHttpClientConfig httpClientConfig,
+      BrokerParallelMergeConfig parallelMergeConfig,
+      @Merging ForkJoinPool mergePool,
+      ServiceEmitter emitter
   )
   {
     this.warehouse = warehouse;
@@ -120,6 +132,9 @@ public class CachingClusteredClient implements QuerySegmentWalker
     this.cachePopulator = cachePopulator;
     this.cacheConfig = cacheConfig;
     this.httpClientConfig = httpClientConfig;
+    this.parallelMergeConfig = parallelMergeConfig;
+    this.mergePool = mergePool;
+    this.emitter = emitter;
 
     if (cacheConfig.isQueryCacheable(Query.GROUP_BY) && (cacheConfig.isUseCache() || cacheConfig.isPopulateCache())) {
       log.warn(
@@ -285,10 +300,45 @@ public class CachingClusteredClient implements QuerySegmentWalker
         List<Sequence<T>> sequencesByInterval = new ArrayList<>(alreadyCachedResults.size() + segmentsByServer.size());
         addSequencesFromCache(sequencesByInterval, alreadyCachedResults);
         addSequencesFromServer(sequencesByInterval, segmentsByServer);
+        return merge(sequencesByInterval);
+      });
+    }
+
+    private Sequence<T> merge(List<Sequence<T>> sequencesByInterval)
+    {
+      @Nullable
+      final BinaryFn<T, T, T> mergeFn = toolChest.createMergeFn(query);
+      if (isBySegment
+          || mergeFn == null
+          || !QueryContexts.isEnableParallelMerge(query, parallelMergeConfig.isEnabled())) {
         return Sequences
             .simple(sequencesByInterval)
             .flatMerge(seq -> seq, query.getResultOrdering());
-      });
+      }
+      return new ParallelMergeCombiningSequence<>(
+          mergePool,
+          sequencesByInterval,
+          Ordering.from(toolChest.createResultComparator(query)),
+          mergeFn,
+          QueryContexts.getParallelMergeParallelism(query, parallelMergeConfig.getDefaultMaxQueryParallelism()),
+          parallelMergeConfig.getBatchSize(),
+          parallelMergeConfig.getYieldAfterRows(),
+          QueryContexts.hasTimeout(query),
+          QueryContexts.getTimeout(query),
+          this::emitParallelMergeMetrics
+      );
+    }
+
+    private void emitParallelMergeMetrics(ParallelMergeCombiningSequence.MergeCombineMetrics mergeMetrics)
+    {
+      final QueryMetrics<?> queryMetrics = toolChest.makeMetrics(query);
+      queryMetrics.reportParallelMergeParallelism(mergeMetrics.getParallelism());
+      queryMetrics.reportParallelMergeInputSequences(mergeMetrics.getInputSequences());
+      queryMetrics.reportParallelMergeInputRows(mergeMetrics.getInputRows());
+      queryMetrics.reportParallelMergeOutputRows(mergeMetrics.getOutputRows());
+      queryMetrics.reportParallelMergeTaskCount(mergeMetrics.getTaskCount());
+      queryMetrics.reportParallelMergeTotalTime(mergeMetrics.getTotalTimeNanos());
+      queryMetrics.emit(emitter);
     }
 
     private Set<ServerToSegment> computeSegmentsToQuery(TimelineLookup<String, ServerSelector> timeline)
@@ -25,6 +25,7 @@ import com.google.common.base.Function;
 import org.apache.druid.client.cache.Cache;
 import org.apache.druid.client.cache.CacheConfig;
 import org.apache.druid.client.cache.CachePopulator;
+import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.BaseSequence;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
@@ -34,10 +35,16 @@ import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryToolChest;
 import org.apache.druid.query.SegmentDescriptor;
+import org.apache.druid.query.spec.SpecificSegmentSpec;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 public class CachingQueryRunner<T> implements QueryRunner<T>
@@ -80,6 +87,24 @@ public class CachingQueryRunner<T> implements QueryRunner<T>
     final boolean populateCache = CacheUtil.populateCacheOnDataNodes(query, strategy, cacheConfig);
     final boolean useCache = CacheUtil.useCacheOnDataNodes(query, strategy, cacheConfig);
 
+    if (strategy != null && (useCache || populateCache) && cacheConfig.isUseGranularityBucketCache()) {
+      final Function<T, DateTime> timestampFn = strategy.getGranularityBucketTimestampFn(query);
+      if (timestampFn != null) {
+        final List<Interval> buckets = splitIntoBuckets(query.getGranularity());
+        if (buckets != null && buckets.size() > 1) {
+          return runByGranularityBucket(
+              queryPlus,
+              responseContext,
+              strategy,
+              timestampFn,
+              buckets,
+              useCache,
+              populateCache
+          );
+        }
+      }
+    }
+
     final Cache.NamedKey key;
     if (strategy != null && (useCache || populateCache)) {
       key = CacheUtil.computeSegmentCacheKey(
@@ -92,41 +117,9 @@ public class CachingQueryRunner<T> implements QueryRunner<T>
     }
 
     if (useCache) {
-      final Function cacheFn = strategy.pullFromSegmentLevelCache();
       final byte[] cachedResult = cache.get(key);
       if (cachedResult != null) {
-        final TypeReference cacheObjectClazz = strategy.getCacheObjectClazz();
-
-        return Sequences.map(
-            new BaseSequence<>(
-                new BaseSequence.IteratorMaker<T, Iterator<T>>()
-                {
-                  @Override
-                  public Iterator<T> make()
-                  {
-                    try {
-                      if (cachedResult.length == 0) {
-                        return Collections.emptyIterator();
-                      }
-
-                      return mapper.readValues(
-                          mapper.getFactory().createParser(cachedResult),
-                          cacheObjectClazz
-                      );
-                    }
-                    catch (IOException e) {
-                      throw new RuntimeException(e);
-                    }
-                  }
-
-                  @Override
-                  public void cleanup(Iterator<T> iterFromMake)
-                  {
-                  }
-                }
-            ),
-            cacheFn
-        );
+        return deserializeFromCache(strategy, cachedResult);
       }
     }
 
@@ -138,4 +131,168 @@ public class CachingQueryRunner<T> implements QueryRunner<T>
     }
   }
 
+  /**
+   * Splits the queried interval of the segment at the boundaries of the given granularity. Returns null if that
+   * yields more than {@link CacheConfig#getMaxGranularityBucketsPerSegment()} buckets.
+   */
+  @Nullable
+  private List<Interval> splitIntoBuckets(Granularity granularity)
+  {
+    final Interval interval = segmentDescriptor.getInterval();
+    final List<Interval> buckets = new ArrayList<>();
+    for (Interval bucket : granularity.getIterable(interval)) {
+      if (buckets.size() == cacheConfig.getMaxGranularityBucketsPerSegment()) {
+        return null;
+      }
+      buckets.add(bucket.overlap(interval));
+    }
+    return buckets;
+  }
+
+  /**
+   * Caches the results of every granularity bucket of the segment separately, under the key of the segment restricted
+   * to that bucket. Buckets at the edges of the queried interval are cached for the part of them that was queried.
+   * Consecutive buckets missing from the cache are computed with a single run of the base runner, whose results are
+   * split between the cache entries of their buckets by the {@link CachePopulator}.
+   */
+  private Sequence<T> runByGranularityBucket(
+      QueryPlus<T> queryPlus,
+      Map<String, Object> responseContext,
+      CacheStrategy strategy,
+      Function<T, DateTime> timestampFn,
+      List<Interval> buckets,
+      boolean useCache,
+      boolean populateCache
+  )
+  {
+    final byte[] queryCacheKey = strategy.computeCacheKey(queryPlus.getQuery());
+    final List<Cache.NamedKey> keys = new ArrayList<>(buckets.size());
+    for (Interval bucket : buckets) {
+      keys.add(CacheUtil.computeSegmentCacheKey(cacheId, restrictTo(bucket), queryCacheKey));
+    }
+
+    final Map<Cache.NamedKey, byte[]> cachedResults = useCache ? cache.getBulk(keys) : Collections.emptyMap();
+
+    final List<Sequence<T>> sequences = new ArrayList<>();
+    int i = 0;
+    while (i < buckets.size()) {
+      final byte[] cachedResult = cachedResults.get(keys.get(i));
+      if (cachedResult != null) {
+        sequences.add(deserializeFromCache(strategy, cachedResult));
+        i++;
+      } else {
+        int end = i + 1;
+        while (end < buckets.size() && !cachedResults.containsKey(keys.get(end))) {
+          end++;
+        }
+        sequences.add(
+            runBuckets(
+                queryPlus,
+                responseContext,
+                strategy,
+                timestampFn,
+                buckets.subList(i, end),
+                keys.subList(i, end),
+                populateCache
+            )
+        );
+        i = end;
+      }
+    }
+
+    if (queryPlus.getQuery().isDescending()) {
+      Collections.reverse(sequences);
+    }
+    return Sequences.concat(sequences);
+  }
+
+  private Sequence<T> runBuckets(
+      QueryPlus<T> queryPlus,
+      Map<String, Object> responseContext,
+      CacheStrategy strategy,
+      Function<T, DateTime> timestampFn,
+      List<Interval> buckets,
+      List<Cache.NamedKey> keys,
+      boolean populateCache
+  )
+  {
+    final Interval interval = new Interval(buckets.get(0).getStart(), buckets.get(buckets.size() - 1).getEnd());
+    final Sequence<T> results = base.run(
+        queryPlus.withQuerySegmentSpec(new SpecificSegmentSpec(restrictTo(interval))),
+        responseContext
+    );
+    if (!populateCache) {
+      return results;
+    }
+
+    final Function cacheFn = strategy.prepareForSegmentLevelCache();
+    return cachePopulator.wrap(
+        results,
+        value -> cacheFn.apply(value),
+        cache,
+        keys,
+        result -> findBucket(buckets, timestampFn.apply(result).getMillis())
+    );
+  }
+
+  /**
+   * Returns the index of the bucket containing the given timestamp. Results are timestamped with the start of their
+   * granularity bucket, which may precede the queried interval for the first bucket.
+   */
+  private static int findBucket(List<Interval> buckets, long timestamp)
+  {
+    int low = 0;
+    int high = buckets.size() - 1;
+    while (low < high) {
+      final int mid = (low + high + 1) >>> 1;
+      if (buckets.get(mid).getStartMillis() <= timestamp) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  private SegmentDescriptor restrictTo(Interval interval)
+  {
+    return new SegmentDescriptor(interval, segmentDescriptor.getVersion(), segmentDescriptor.getPartitionNumber());
+  }
+
+  private Sequence<T> deserializeFromCache(CacheStrategy strategy, byte[] cachedResult)
+  {
+    final Function cacheFn = strategy.pullFromSegmentLevelCache();
+    final TypeReference cacheObjectClazz = strategy.getCacheObjectClazz();
+
+    return Sequences.map(
+        new BaseSequence<>(
+            new BaseSequence.IteratorMaker<T, Iterator<T>>()
+            {
+              @Override
+              public Iterator<T> make()
+              {
+                try {
+                  if (cachedResult.length == 0) {
+                    return Collections.emptyIterator();
+                  }
+
+                  return mapper.readValues(
+                      mapper.getFactory().createParser(cachedResult),
+                      cacheObjectClazz
+                  );
+                }
+                catch (IOException e) {
+                  throw new RuntimeException(e);
+                }
+              }
+
+              @Override
+              public void cleanup(Iterator<T> iterFromMake)
+              {
+              }
+            }
+        ),
+        cacheFn
+    );
+  }
 }
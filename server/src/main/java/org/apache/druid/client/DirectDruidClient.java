@@ -27,6 +27,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.druid.client.selector.ServerLoad;
 import org.apache.druid.java.util.common.RE;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.guava.BaseSequence;
@@ -59,6 +60,7 @@ import org.jboss.netty.handler.codec.http.HttpMethod;
 import org.jboss.netty.handler.codec.http.HttpResponse;
 import org.joda.time.Duration;
 
+import javax.annotation.Nullable;
 import javax.ws.rs.core.MediaType;
 import java.io.IOException;
 import java.io.InputStream;
@@ -98,6 +100,13 @@ public class DirectDruidClient<T> implements QueryRunner<T>
   private final AtomicInteger openConnections;
   private final boolean isSmile;
 
+  /**
+   * The latest {@link ServerLoad} reported by the server and when it was received, in {@link System#currentTimeMillis}.
+   */
+  @Nullable
+  private volatile ServerLoad serverLoad;
+  private volatile long serverLoadTimeMillis;
+
   /**
    * Removes the magical fields added by {@link #makeResponseContextForQuery()}.
    */
@@ -140,6 +149,19 @@ public class DirectDruidClient<T> implements QueryRunner<T>
     return openConnections.get();
   }
 
+  /**
+   * Returns the latest load reported by the server, if it was received no earlier than maxAgeMillis ago.
+   */
+  @Nullable
+  public ServerLoad getServerLoad(long maxAgeMillis)
+  {
+    final ServerLoad load = serverLoad;
+    if (load == null || System.currentTimeMillis() - serverLoadTimeMillis > maxAgeMillis) {
+      return null;
+    }
+    return load;
+  }
+
   @Override
   public Sequence<T> run(final QueryPlus<T> queryPlus, final Map<String, Object> context)
   {
@@ -227,6 +249,12 @@ public class DirectDruidClient<T> implements QueryRunner<T>
           responseStartTimeNs = System.nanoTime();
           acquireResponseMetrics().reportNodeTimeToFirstByte(responseStartTimeNs - requestStartTimeNs).emit(emitter);
 
+          final ServerLoad load = ServerLoad.fromHeaderValue(response.headers().get(ServerLoad.HEADER));
+          if (load != null) {
+            serverLoadTimeMillis = System.currentTimeMillis();
+            serverLoad = load;
+          }
+
           final boolean continueReading;
           try {
             final String responseContext = response.headers().get("X-Druid-Response-Context");
@@ -509,13 +537,15 @@ public class DirectDruidClient<T> implements QueryRunner<T>
       throw new RuntimeException(e);
     }
 
+    // the server decorates its mapper with the same query, see QueryResource
+    final ObjectMapper resultMapper = toolChest.decorateObjectMapper(objectMapper, query);
     Sequence<T> retVal = new BaseSequence<>(
         new BaseSequence.IteratorMaker<T, JsonParserIterator<T>>()
         {
           @Override
           public JsonParserIterator<T> make()
           {
-            return new JsonParserIterator<T>(queryResultType, future, url, query, host, objectMapper, null);
+            return new JsonParserIterator<T>(queryResultType, future, url, query, host, resultMapper, null);
           }
 
           @Override
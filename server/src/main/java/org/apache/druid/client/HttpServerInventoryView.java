@@ -51,6 +51,7 @@ import org.apache.druid.server.coordination.DataSegmentChangeRequest;
 import org.apache.druid.server.coordination.DruidServerMetadata;
 import org.apache.druid.server.coordination.SegmentChangeRequestDrop;
 import org.apache.druid.server.coordination.SegmentChangeRequestLoad;
+import org.apache.druid.server.coordination.SegmentChangeRequestsSnapshotCodec;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.SegmentId;
 
@@ -109,6 +110,7 @@ public class HttpServerInventoryView implements ServerInventoryView, FilteredSer
 
   private final HttpClient httpClient;
   private final ObjectMapper smileMapper;
+  private final SegmentChangeRequestsSnapshotCodec segmentChangesCodec;
   private final HttpServerInventoryViewConfig config;
 
   @Inject
@@ -122,6 +124,7 @@ public class HttpServerInventoryView implements ServerInventoryView, FilteredSer
   {
     this.httpClient = httpClient;
     this.smileMapper = smileMapper;
+    this.segmentChangesCodec = new SegmentChangeRequestsSnapshotCodec(smileMapper);
     this.druidNodeDiscoveryProvider = druidNodeDiscoveryProvider;
     this.defaultFilter = defaultFilter;
     this.finalPredicate = defaultFilter;
@@ -497,17 +500,32 @@ public class HttpServerInventoryView implements ServerInventoryView, FilteredSer
 
       try {
         HostAndPort hostAndPort = HostAndPort.fromString(druidServer.getHost());
-        this.syncer = new ChangeRequestHttpSyncer<>(
-            smileMapper,
-            httpClient,
-            executor,
-            new URL(druidServer.getScheme(), hostAndPort.getHostText(), hostAndPort.getPort(), "/"),
-            "/druid-internal/v1/segments",
-            SEGMENT_LIST_RESP_TYPE_REF,
-            config.getServerTimeout(),
-            config.getServerUnstabilityTimeout(),
-            createSyncListener()
-        );
+        final URL serverURL = new URL(druidServer.getScheme(), hostAndPort.getHostText(), hostAndPort.getPort(), "/");
+        if (config.isUseCompactSegmentFormat()) {
+          this.syncer = new ChangeRequestHttpSyncer<>(
+              httpClient,
+              executor,
+              serverURL,
+              "/druid-internal/v1/segments",
+              SegmentChangeRequestsSnapshotCodec.MEDIA_TYPE,
+              segmentChangesCodec::decode,
+              config.getServerTimeout(),
+              config.getServerUnstabilityTimeout(),
+              createSyncListener()
+          );
+        } else {
+          this.syncer = new ChangeRequestHttpSyncer<>(
+              smileMapper,
+              httpClient,
+              executor,
+              serverURL,
+              "/druid-internal/v1/segments",
+              SEGMENT_LIST_RESP_TYPE_REF,
+              config.getServerTimeout(),
+              config.getServerUnstabilityTimeout(),
+              createSyncListener()
+          );
+        }
       }
       catch (MalformedURLException ex) {
         throw new IAE(ex, "Failed to construct server URL.");
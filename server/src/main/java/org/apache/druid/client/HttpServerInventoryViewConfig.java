@@ -43,11 +43,17 @@ public class HttpServerInventoryViewConfig
   @JsonProperty
   private final int numThreads;
 
+  // Whether to ask data nodes for the compact binary segment list format, see SegmentChangeRequestsSnapshotCodec.
+  // Off by default because data nodes that don't know about it yet reject such requests.
+  @JsonProperty
+  private final boolean useCompactSegmentFormat;
+
   @JsonCreator
   public HttpServerInventoryViewConfig(
       @JsonProperty("serverTimeout") Period serverTimeout,
       @JsonProperty("serverUnstabilityTimeout") Period serverUnstabilityTimeout,
-      @JsonProperty("numThreads") Integer numThreads
+      @JsonProperty("numThreads") Integer numThreads,
+      @JsonProperty("useCompactSegmentFormat") Boolean useCompactSegmentFormat
   )
   {
     this.serverTimeout = serverTimeout != null
@@ -59,6 +65,7 @@ public class HttpServerInventoryViewConfig
                          : TimeUnit.MINUTES.toMillis(1);
 
     this.numThreads = numThreads != null ? numThreads.intValue() : 5;
+    this.useCompactSegmentFormat = useCompactSegmentFormat != null && useCompactSegmentFormat;
 
     Preconditions.checkArgument(this.serverTimeout > 0, "server timeout must be > 0 ms");
     Preconditions.checkArgument(this.numThreads > 1, "numThreads must be > 1");
@@ -78,4 +85,9 @@ public class HttpServerInventoryViewConfig
   {
     return numThreads;
   }
+
+  public boolean isUseCompactSegmentFormat()
+  {
+    return useCompactSegmentFormat;
+  }
 }
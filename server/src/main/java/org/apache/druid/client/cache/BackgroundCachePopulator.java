@@ -37,6 +37,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 public class BackgroundCachePopulator implements CachePopulator
 {
@@ -65,15 +66,19 @@ public class BackgroundCachePopulator implements CachePopulator
       final Sequence<T> sequence,
       final Function<T, CacheType> cacheFn,
       final Cache cache,
-      final Cache.NamedKey cacheKey
+      final List<Cache.NamedKey> cacheKeys,
+      final ToIntFunction<T> cacheKeyIndexFn
   )
   {
-    final List<ListenableFuture<CacheType>> cacheFutures = new ArrayList<>();
+    final List<List<ListenableFuture<CacheType>>> cacheFutures = new ArrayList<>(cacheKeys.size());
+    for (int i = 0; i < cacheKeys.size(); i++) {
+      cacheFutures.add(new ArrayList<>());
+    }
 
     final Sequence<T> wrappedSequence = Sequences.map(
         sequence,
         input -> {
-          cacheFutures.add(exec.submit(() -> cacheFn.apply(input)));
+          cacheFutures.get(cacheKeyIndexFn.applyAsInt(input)).add(exec.submit(() -> cacheFn.apply(input)));
           return input;
         }
     );
@@ -81,26 +86,30 @@ public class BackgroundCachePopulator implements CachePopulator
     return Sequences.withEffect(
         wrappedSequence,
         () -> {
-          Futures.addCallback(
-              Futures.allAsList(cacheFutures),
-              new FutureCallback<List<CacheType>>()
-              {
-                @Override
-                public void onSuccess(List<CacheType> results)
+          for (int i = 0; i < cacheKeys.size(); i++) {
+            final Cache.NamedKey cacheKey = cacheKeys.get(i);
+            final List<ListenableFuture<CacheType>> keyCacheFutures = cacheFutures.get(i);
+            Futures.addCallback(
+                Futures.allAsList(keyCacheFutures),
+                new FutureCallback<List<CacheType>>()
                 {
-                  populateCache(cache, cacheKey, results);
-                  // Help out GC by making sure all references are gone
-                  cacheFutures.clear();
-                }
+                  @Override
+                  public void onSuccess(List<CacheType> results)
+                  {
+                    populateCache(cache, cacheKey, results);
+                    // Help out GC by making sure all references are gone
+                    keyCacheFutures.clear();
+                  }
 
-                @Override
-                public void onFailure(Throwable t)
-                {
-                  log.error(t, "Background caching failed");
-                }
-              },
-              exec
-          );
+                  @Override
+                  public void onFailure(Throwable t)
+                  {
+                    log.error(t, "Background caching failed");
+                  }
+                },
+                exec
+            );
+          }
         },
         Execs.directExecutor()
     );
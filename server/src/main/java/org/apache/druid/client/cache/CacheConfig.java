@@ -60,6 +60,17 @@ public class CacheConfig
   @JsonProperty
   private int resultLevelCacheLimit = Integer.MAX_VALUE;
 
+  /**
+   * Whether data nodes cache segment-level results separately for each bucket of the query granularity, if the query
+   * type supports it, so that queries over overlapping intervals can reuse the buckets they have in common.
+   */
+  @JsonProperty
+  private boolean useGranularityBucketCache = false;
+
+  @JsonProperty
+  @Min(1)
+  private int maxGranularityBucketsPerSegment = 1000;
+
   public boolean isPopulateCache()
   {
     return populateCache;
@@ -100,6 +111,16 @@ public class CacheConfig
     return resultLevelCacheLimit;
   }
 
+  public boolean isUseGranularityBucketCache()
+  {
+    return useGranularityBucketCache;
+  }
+
+  public int getMaxGranularityBucketsPerSegment()
+  {
+    return maxGranularityBucketsPerSegment;
+  }
+
   public boolean isQueryCacheable(Query query)
   {
     return isQueryCacheable(query.getType());
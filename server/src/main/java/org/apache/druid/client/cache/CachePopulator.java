@@ -21,14 +21,34 @@ package org.apache.druid.client.cache;
 
 import org.apache.druid.java.util.common.guava.Sequence;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 public interface CachePopulator
 {
-  <T, CacheType> Sequence<T> wrap(
+  default <T, CacheType> Sequence<T> wrap(
       Sequence<T> sequence,
       Function<T, CacheType> cacheFn,
       Cache cache,
       Cache.NamedKey cacheKey
+  )
+  {
+    return wrap(sequence, cacheFn, cache, Collections.singletonList(cacheKey), result -> 0);
+  }
+
+  /**
+   * Like {@link #wrap(Sequence, Function, Cache, Cache.NamedKey)}, but splits the results between several cache
+   * entries: each result is cached under the key at the index returned by cacheKeyIndexFn. Every key is populated
+   * once the sequence is done, with an empty entry if no results belong to it, and the size of every entry is checked
+   * separately.
+   */
+  <T, CacheType> Sequence<T> wrap(
+      Sequence<T> sequence,
+      Function<T, CacheType> cacheFn,
+      Cache cache,
+      List<Cache.NamedKey> cacheKeys,
+      ToIntFunction<T> cacheKeyIndexFn
   );
 }
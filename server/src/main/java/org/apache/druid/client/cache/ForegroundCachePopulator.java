@@ -29,8 +29,9 @@ import org.apache.druid.java.util.common.logger.Logger;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.List;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 public class ForegroundCachePopulator implements CachePopulator
 {
@@ -57,15 +58,19 @@ public class ForegroundCachePopulator implements CachePopulator
       final Sequence<T> sequence,
       final Function<T, CacheType> cacheFn,
       final Cache cache,
-      final Cache.NamedKey cacheKey
+      final List<Cache.NamedKey> cacheKeys,
+      final ToIntFunction<T> cacheKeyIndexFn
   )
   {
-    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    final AtomicBoolean tooBig = new AtomicBoolean(false);
-    final JsonGenerator jsonGenerator;
+    final ByteArrayOutputStream[] bytes = new ByteArrayOutputStream[cacheKeys.size()];
+    final JsonGenerator[] jsonGenerators = new JsonGenerator[cacheKeys.size()];
+    final boolean[] tooBig = new boolean[cacheKeys.size()];
 
     try {
-      jsonGenerator = objectMapper.getFactory().createGenerator(bytes);
+      for (int i = 0; i < cacheKeys.size(); i++) {
+        bytes[i] = new ByteArrayOutputStream();
+        jsonGenerators[i] = objectMapper.getFactory().createGenerator(bytes[i]);
+      }
     }
     catch (IOException e) {
       throw new RuntimeException(e);
@@ -75,15 +80,16 @@ public class ForegroundCachePopulator implements CachePopulator
         Sequences.map(
             sequence,
             input -> {
-              if (!tooBig.get()) {
-                synchronized (lock) {
+              final int i = cacheKeyIndexFn.applyAsInt(input);
+              synchronized (lock) {
+                if (!tooBig[i]) {
                   try {
-                    jsonGenerator.writeObject(cacheFn.apply(input));
+                    jsonGenerators[i].writeObject(cacheFn.apply(input));
 
                     // Not flushing jsonGenerator before checking this, but should be ok since Jackson buffers are
                     // typically just a few KB, and we don't want to waste cycles flushing.
-                    if (maxEntrySize > 0 && bytes.size() > maxEntrySize) {
-                      tooBig.set(true);
+                    if (maxEntrySize > 0 && bytes[i].size() > maxEntrySize) {
+                      tooBig[i] = true;
                     }
                   }
                   catch (IOException e) {
@@ -101,22 +107,26 @@ public class ForegroundCachePopulator implements CachePopulator
           public void after(final boolean isDone, final Throwable thrown) throws Exception
           {
             synchronized (lock) {
-              jsonGenerator.close();
+              for (JsonGenerator jsonGenerator : jsonGenerators) {
+                jsonGenerator.close();
+              }
 
               if (isDone) {
-                // Check tooBig, then check maxEntrySize one more time, after closing/flushing jsonGenerator.
-                if (tooBig.get() || (maxEntrySize > 0 && bytes.size() > maxEntrySize)) {
-                  cachePopulatorStats.incrementOversized();
-                  return;
-                }
+                for (int i = 0; i < cacheKeys.size(); i++) {
+                  // Check tooBig, then check maxEntrySize one more time, after closing/flushing jsonGenerator.
+                  if (tooBig[i] || (maxEntrySize > 0 && bytes[i].size() > maxEntrySize)) {
+                    cachePopulatorStats.incrementOversized();
+                    continue;
+                  }
 
-                try {
-                  cache.put(cacheKey, bytes.toByteArray());
-                  cachePopulatorStats.incrementOk();
-                }
-                catch (Exception e) {
-                  log.warn(e, "Unable to write to cache");
-                  cachePopulatorStats.incrementError();
+                  try {
+                    cache.put(cacheKeys.get(i), bytes[i].toByteArray());
+                    cachePopulatorStats.incrementOk();
+                  }
+                  catch (Exception e) {
+                    log.warn(e, "Unable to write to cache");
+                    cachePopulatorStats.incrementError();
+                  }
                 }
               }
             }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+/**
+ * A probabilistic estimate of how often keys have been accessed recently, used by {@link OffHeapCache} as the TinyLFU
+ * admission filter. This is a count-min sketch with four rows of 4-bit counters sharing a single table. Once the
+ * number of increments reaches ten times the expected number of entries, all counters are halved, so that the
+ * estimates favor recent accesses.
+ *
+ * Not thread-safe.
+ */
+class FrequencySketch
+{
+  private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L,
+      0xb492b66fbe98f273L,
+      0x9ae16a3b2f90404fL,
+      0xcbf29ce484222325L
+  };
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final int MAX_COUNT = 15;
+
+  private final long[] table;
+  private final int counterMask;
+  private final int sampleSize;
+  private int size;
+
+  FrequencySketch(int expectedEntries)
+  {
+    // Four counters per entry, sixteen counters per long.
+    final int numCounters = Integer.highestOneBit(Math.max(expectedEntries, 16) - 1) << 3;
+    this.table = new long[numCounters >>> 4];
+    this.counterMask = numCounters - 1;
+    this.sampleSize = 10 * Math.max(expectedEntries, 16);
+  }
+
+  int frequency(int hash)
+  {
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < SEEDS.length; i++) {
+      final int counter = counterIndex(hash, i);
+      frequency = Math.min(frequency, (int) ((table[counter >>> 4] >>> ((counter & 15) << 2)) & MAX_COUNT));
+    }
+    return frequency;
+  }
+
+  void increment(int hash)
+  {
+    boolean incremented = false;
+    for (int i = 0; i < SEEDS.length; i++) {
+      final int counter = counterIndex(hash, i);
+      final int shift = (counter & 15) << 2;
+      if (((table[counter >>> 4] >>> shift) & MAX_COUNT) < MAX_COUNT) {
+        table[counter >>> 4] += 1L << shift;
+        incremented = true;
+      }
+    }
+    if (incremented && ++size == sampleSize) {
+      reset();
+    }
+  }
+
+  private void reset()
+  {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size /= 2;
+  }
+
+  private int counterIndex(int hash, int row)
+  {
+    long h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 32;
+    return (int) h & counterMask;
+  }
+}
@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.primitives.Ints;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.lifecycle.LifecycleStop;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
+import org.apache.druid.utils.JvmUtils;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local cache keeping LZ4 compressed values in direct memory, so that large caches don't add to garbage collection
+ * pauses. Only the keys and a small amount of bookkeeping per entry live on heap.
+ *
+ * The cache is split into {@link Slab}s, each owning a fixed-size direct buffer and the entries whose keys hash to it.
+ * Values are appended to the buffer of a slab as a circular log and evicted oldest first when room is needed for a new
+ * value. A new value is only admitted if it has been requested at least as often as the oldest value it would evict,
+ * following the TinyLFU admission policy, so that one-off values don't push out frequently used ones.
+ */
+public class OffHeapCache implements Cache
+{
+  private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+  private static final LZ4FastDecompressor LZ4_DECOMPRESSOR = LZ4_FACTORY.fastDecompressor();
+  private static final LZ4Compressor LZ4_COMPRESSOR = LZ4_FACTORY.fastCompressor();
+  private static final long MAX_DEFAULT_BYTES = 1024 * 1024 * 1024;
+  private static final int MAX_SLAB_BYTES = 1 << 30;
+  // Used to size the frequency sketches, which are kept large enough for collisions not to distort small slabs.
+  private static final int EXPECTED_ENTRY_BYTES = 4096;
+  private static final int MIN_EXPECTED_ENTRIES = 1024;
+
+  private final Slab[] slabs;
+  private final OffHeapCacheConfig config;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong evictionBytes = new AtomicLong();
+  private final AtomicLong rejectionCount = new AtomicLong();
+  private final AtomicLong priorEvictionBytes = new AtomicLong();
+  private final AtomicLong priorRejectionCount = new AtomicLong();
+
+  public static OffHeapCache create(final OffHeapCacheConfig config)
+  {
+    final long sizeInBytes = config.getSizeInBytes() >= 0
+                             ? config.getSizeInBytes()
+                             : Math.min(MAX_DEFAULT_BYTES, JvmUtils.getRuntimeInfo().getDirectMemorySizeBytes() / 4);
+    final int numSlabs = Ints.checkedCast(
+        Math.max(config.getConcurrencyLevel(), (sizeInBytes + MAX_SLAB_BYTES - 1) / MAX_SLAB_BYTES)
+    );
+    return new OffHeapCache(config, numSlabs, Ints.checkedCast(sizeInBytes / numSlabs));
+  }
+
+  private OffHeapCache(OffHeapCacheConfig config, int numSlabs, int slabSizeInBytes)
+  {
+    this.config = config;
+    this.slabs = new Slab[numSlabs];
+    for (int i = 0; i < numSlabs; i++) {
+      slabs[i] = new Slab(slabSizeInBytes);
+    }
+  }
+
+  @Nullable
+  @Override
+  public byte[] get(NamedKey key)
+  {
+    final int hash = hash(key);
+    final byte[] compressed = slabFor(hash).get(key, hash);
+    if (compressed == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return decompress(compressed);
+  }
+
+  @Override
+  public void put(NamedKey key, byte[] value)
+  {
+    final int hash = hash(key);
+    slabFor(hash).put(key, hash, compress(value));
+  }
+
+  @Override
+  public Map<NamedKey, byte[]> getBulk(Iterable<NamedKey> keys)
+  {
+    final Map<NamedKey, byte[]> results = new HashMap<>();
+    for (NamedKey key : keys) {
+      final byte[] value = get(key);
+      if (value != null) {
+        results.put(key, value);
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public void close(String namespace)
+  {
+    if (config.isEvictOnClose()) {
+      for (Slab slab : slabs) {
+        slab.removeNamespace(namespace);
+      }
+    }
+  }
+
+  @Override
+  @LifecycleStop
+  public void close()
+  {
+    for (Slab slab : slabs) {
+      slab.close();
+    }
+  }
+
+  @Override
+  public CacheStats getStats()
+  {
+    long numEntries = 0;
+    long sizeInBytes = 0;
+    for (Slab slab : slabs) {
+      synchronized (slab) {
+        numEntries += slab.index.size();
+        sizeInBytes += slab.liveBytes;
+      }
+    }
+    return new CacheStats(
+        hitCount.get(),
+        missCount.get(),
+        numEntries,
+        sizeInBytes,
+        evictionCount.get(),
+        0,
+        0
+    );
+  }
+
+  @Override
+  public boolean isLocal()
+  {
+    return true;
+  }
+
+  @Override
+  public void doMonitor(ServiceEmitter emitter)
+  {
+    final long newEvictionBytes = evictionBytes.get();
+    final long newRejectionCount = rejectionCount.get();
+    final long oldEvictionBytes = priorEvictionBytes.getAndSet(newEvictionBytes);
+    final long oldRejectionCount = priorRejectionCount.getAndSet(newRejectionCount);
+
+    final ServiceMetricEvent.Builder builder = ServiceMetricEvent.builder();
+    emitter.emit(builder.build("query/cache/offheap/delta/evictionBytes", newEvictionBytes - oldEvictionBytes));
+    emitter.emit(builder.build("query/cache/offheap/total/evictionBytes", newEvictionBytes));
+    emitter.emit(builder.build("query/cache/offheap/delta/rejections", newRejectionCount - oldRejectionCount));
+    emitter.emit(builder.build("query/cache/offheap/total/rejections", newRejectionCount));
+  }
+
+  @VisibleForTesting
+  long getRejectionCount()
+  {
+    return rejectionCount.get();
+  }
+
+  private Slab slabFor(int hash)
+  {
+    return slabs[Math.floorMod(hash, slabs.length)];
+  }
+
+  private static int hash(NamedKey key)
+  {
+    final int hash = key.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  private static byte[] decompress(byte[] bytes)
+  {
+    final int decompressedLen = ByteBuffer.wrap(bytes).getInt();
+    final byte[] out = new byte[decompressedLen];
+    LZ4_DECOMPRESSOR.decompress(bytes, Integer.BYTES, out, 0, out.length);
+    return out;
+  }
+
+  private static byte[] compress(byte[] value)
+  {
+    final byte[] out = new byte[Integer.BYTES + LZ4_COMPRESSOR.maxCompressedLength(value.length)];
+    ByteBuffer.wrap(out).putInt(value.length);
+    final int compressedSize = LZ4_COMPRESSOR.compress(value, 0, value.length, out, Integer.BYTES);
+    final byte[] result = new byte[Integer.BYTES + compressedSize];
+    System.arraycopy(out, 0, result, 0, result.length);
+    return result;
+  }
+
+  private static class Entry
+  {
+    private final NamedKey key;
+    private final int hash;
+    private final int offset;
+    private final int length;
+    private boolean removed = false;
+
+    Entry(NamedKey key, int hash, int offset, int length)
+    {
+      this.key = key;
+      this.hash = hash;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  /**
+   * A direct buffer used as a circular log of values, with the entries stored in it in the order they were written.
+   * The free space of the buffer starts at writePosition and ends at the offset of the oldest entry, wrapping around
+   * the end of the buffer. Removed entries keep their space until they are the oldest.
+   */
+  private class Slab
+  {
+    private final int capacity;
+    private final Map<NamedKey, Entry> index = new HashMap<>();
+    private final ArrayDeque<Entry> log = new ArrayDeque<>();
+    private final FrequencySketch sketch;
+    @Nullable
+    private ByteBuffer buffer;
+    private int writePosition = 0;
+    private long liveBytes = 0;
+
+    Slab(int capacity)
+    {
+      this.capacity = capacity;
+      this.buffer = ByteBuffer.allocateDirect(capacity);
+      this.sketch = new FrequencySketch(Math.max(capacity / EXPECTED_ENTRY_BYTES, MIN_EXPECTED_ENTRIES));
+    }
+
+    @Nullable
+    synchronized byte[] get(NamedKey key, int hash)
+    {
+      sketch.increment(hash);
+      final Entry entry = index.get(key);
+      if (entry == null || buffer == null) {
+        return null;
+      }
+      final byte[] bytes = new byte[entry.length];
+      final ByteBuffer view = buffer.duplicate();
+      view.position(entry.offset);
+      view.get(bytes);
+      return bytes;
+    }
+
+    synchronized void put(NamedKey key, int hash, byte[] value)
+    {
+      sketch.increment(hash);
+      final Entry previous = index.remove(key);
+      if (previous != null) {
+        remove(previous);
+      }
+
+      // Values larger than a quarter of the slab would evict too many others.
+      if (buffer == null || value.length > capacity / 4) {
+        rejectionCount.incrementAndGet();
+        return;
+      }
+
+      if (!makeRoom(value.length, hash)) {
+        rejectionCount.incrementAndGet();
+        return;
+      }
+
+      final ByteBuffer view = buffer.duplicate();
+      view.position(writePosition);
+      view.put(value);
+
+      final Entry entry = new Entry(key, hash, writePosition, value.length);
+      writePosition += value.length;
+      log.addLast(entry);
+      index.put(key, entry);
+      liveBytes += value.length;
+    }
+
+    /**
+     * Evicts the oldest entries until there's a contiguous free region of the given length at writePosition, which
+     * may move to the start of the buffer. Returns false without evicting anything if the new value isn't admitted.
+     */
+    private boolean makeRoom(int length, int hash)
+    {
+      boolean admitted = false;
+      while (true) {
+        final Entry oldest = log.peekFirst();
+        if (oldest == null) {
+          writePosition = 0;
+          return true;
+        }
+        if (oldest.offset >= writePosition) {
+          if (oldest.offset - writePosition >= length) {
+            return true;
+          }
+        } else {
+          if (capacity - writePosition >= length) {
+            return true;
+          }
+          if (oldest.offset >= length) {
+            writePosition = 0;
+            return true;
+          }
+        }
+
+        if (!oldest.removed) {
+          if (!admitted && sketch.frequency(hash) < sketch.frequency(oldest.hash)) {
+            return false;
+          }
+          admitted = true;
+          index.remove(oldest.key);
+          remove(oldest);
+          evictionCount.incrementAndGet();
+          evictionBytes.addAndGet(oldest.length);
+        }
+        log.removeFirst();
+      }
+    }
+
+    private void remove(Entry entry)
+    {
+      entry.removed = true;
+      liveBytes -= entry.length;
+    }
+
+    synchronized void removeNamespace(String namespace)
+    {
+      final Iterator<Entry> iterator = index.values().iterator();
+      while (iterator.hasNext()) {
+        final Entry entry = iterator.next();
+        if (entry.key.namespace.equals(namespace)) {
+          iterator.remove();
+          remove(entry);
+        }
+      }
+    }
+
+    synchronized void close()
+    {
+      if (buffer != null) {
+        index.clear();
+        log.clear();
+        liveBytes = 0;
+        ByteBufferUtils.free(buffer);
+        buffer = null;
+      }
+    }
+  }
+}
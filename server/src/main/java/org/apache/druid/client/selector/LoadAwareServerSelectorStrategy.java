@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.selector;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.apache.druid.client.DirectDruidClient;
+import org.apache.druid.timeline.DataSegment;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks servers based on the {@link ServerLoad} they report with every query response, so that a replica with a long
+ * processing queue is avoided. A single server is picked with "power of two choices": out of two random replicas
+ * the less loaded one is taken, which spreads load much better than picking randomly while not sending every query
+ * to the replica that was the least loaded when it last responded.
+ *
+ * The cost of a server is the estimated wait in its processing queue plus the recent average processing task time for
+ * each query this broker has in flight to it, since those are not reflected in the last report yet. If the load of any
+ * of the compared servers is unknown or older than {@link #getMaxLoadAgeMillis}, servers are compared by the number
+ * of open connections like {@link ConnectionCountServerSelectorStrategy} does.
+ */
+public class LoadAwareServerSelectorStrategy implements ServerSelectorStrategy
+{
+  private static final long DEFAULT_MAX_LOAD_AGE_MILLIS = 30_000;
+
+  private final long maxLoadAgeMillis;
+
+  @JsonCreator
+  public LoadAwareServerSelectorStrategy(@JsonProperty("maxLoadAgeMillis") @Nullable Long maxLoadAgeMillis)
+  {
+    this.maxLoadAgeMillis = maxLoadAgeMillis == null ? DEFAULT_MAX_LOAD_AGE_MILLIS : maxLoadAgeMillis;
+  }
+
+  @JsonProperty
+  public long getMaxLoadAgeMillis()
+  {
+    return maxLoadAgeMillis;
+  }
+
+  @Override
+  public QueryableDruidServer pick(Set<QueryableDruidServer> servers, DataSegment segment)
+  {
+    final int size = servers.size();
+    if (size == 1) {
+      return servers.iterator().next();
+    }
+
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final int first = random.nextInt(size);
+    int second = random.nextInt(size - 1);
+    if (second >= first) {
+      second++;
+    }
+
+    QueryableDruidServer firstServer = null;
+    QueryableDruidServer secondServer = null;
+    final Iterator<QueryableDruidServer> iterator = servers.iterator();
+    for (int i = 0; firstServer == null || secondServer == null; i++) {
+      final QueryableDruidServer server = iterator.next();
+      if (i == first) {
+        firstServer = server;
+      } else if (i == second) {
+        secondServer = server;
+      }
+    }
+
+    final Map<QueryableDruidServer, Double> costs = computeCosts(ImmutableList.of(firstServer, secondServer));
+    return costs.get(firstServer) <= costs.get(secondServer) ? firstServer : secondServer;
+  }
+
+  @Override
+  public List<QueryableDruidServer> pick(Set<QueryableDruidServer> servers, DataSegment segment, int numServersToPick)
+  {
+    if (servers.size() <= numServersToPick) {
+      return ImmutableList.copyOf(servers);
+    }
+    final List<QueryableDruidServer> list = Lists.newArrayList(servers);
+    // Shuffle first so that ties, e. g. when no server reported its load yet, are broken randomly by the stable sort.
+    Collections.shuffle(list, ThreadLocalRandom.current());
+    final Map<QueryableDruidServer, Double> costs = computeCosts(list);
+    list.sort(Comparator.comparingDouble(costs::get));
+    return ImmutableList.copyOf(list.subList(0, numServersToPick));
+  }
+
+  private Map<QueryableDruidServer, Double> computeCosts(List<QueryableDruidServer> servers)
+  {
+    final List<ServerLoad> loads = new ArrayList<>(servers.size());
+    boolean allLoadsKnown = true;
+    for (QueryableDruidServer server : servers) {
+      final ServerLoad load = server.getClient().getServerLoad(maxLoadAgeMillis);
+      allLoadsKnown &= load != null;
+      loads.add(load);
+    }
+
+    final Map<QueryableDruidServer, Double> costs = new IdentityHashMap<>(servers.size());
+    for (int i = 0; i < servers.size(); i++) {
+      final DirectDruidClient client = servers.get(i).getClient();
+      final double cost;
+      if (allLoadsKnown) {
+        final ServerLoad load = loads.get(i);
+        cost = load.getEstimatedWaitMicros() + (double) client.getNumOpenConnections() * load.getRecentTaskTimeMicros();
+      } else {
+        cost = client.getNumOpenConnections();
+      }
+      costs.put(servers.get(i), cost);
+    }
+    return costs;
+  }
+}
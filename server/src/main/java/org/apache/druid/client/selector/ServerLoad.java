@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.selector;
+
+import org.apache.druid.java.util.common.StringUtils;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Snapshot of how busy the query processing pool of a data server is. Data servers send it along with every query
+ * response in the {@link #HEADER} header, brokers keep the latest one per server in
+ * {@link org.apache.druid.client.DirectDruidClient#getServerLoad} and use it in {@link
+ * LoadAwareServerSelectorStrategy}.
+ */
+public class ServerLoad
+{
+  public static final String HEADER = "X-Druid-Server-Load";
+
+  private final int queuedTasks;
+  private final int activeTasks;
+  private final int numThreads;
+  private final long recentTaskTimeMicros;
+
+  public ServerLoad(int queuedTasks, int activeTasks, int numThreads, long recentTaskTimeMicros)
+  {
+    this.queuedTasks = queuedTasks;
+    this.activeTasks = activeTasks;
+    this.numThreads = numThreads;
+    this.recentTaskTimeMicros = recentTaskTimeMicros;
+  }
+
+  /**
+   * Parses a value written by {@link #toHeaderValue}. Returns null if the header is absent or malformed, e. g. when it
+   * was sent by a newer version that added fields.
+   */
+  @Nullable
+  public static ServerLoad fromHeaderValue(@Nullable String value)
+  {
+    if (value == null) {
+      return null;
+    }
+    final String[] parts = value.split(",");
+    if (parts.length != 4) {
+      return null;
+    }
+    try {
+      final ServerLoad load = new ServerLoad(
+          Integer.parseInt(parts[0]),
+          Integer.parseInt(parts[1]),
+          Integer.parseInt(parts[2]),
+          Long.parseLong(parts[3])
+      );
+      return load.numThreads > 0 ? load : null;
+    }
+    catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  public String toHeaderValue()
+  {
+    return StringUtils.format("%d,%d,%d,%d", queuedTasks, activeTasks, numThreads, recentTaskTimeMicros);
+  }
+
+  /** Number of processing tasks waiting for a processing thread. */
+  public int getQueuedTasks()
+  {
+    return queuedTasks;
+  }
+
+  /** Number of processing threads currently busy. */
+  public int getActiveTasks()
+  {
+    return activeTasks;
+  }
+
+  public int getNumThreads()
+  {
+    return numThreads;
+  }
+
+  /**
+   * Moving average of the run time of recent processing tasks, across all queries. It is a pool-wide figure: most tasks
+   * process a single segment, but it isn't broken down per segment.
+   */
+  public long getRecentTaskTimeMicros()
+  {
+    return recentTaskTimeMicros;
+  }
+
+  public double getUtilization()
+  {
+    return (double) activeTasks / numThreads;
+  }
+
+  /**
+   * Rough estimate of how long a newly submitted processing task would wait for a processing thread: the work ahead of
+   * it spread across all threads, with every task taking the recent average time.
+   */
+  public double getEstimatedWaitMicros()
+  {
+    return (double) (queuedTasks + activeTasks) / numThreads * recentTaskTimeMicros;
+  }
+
+  @Override
+  public boolean equals(Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ServerLoad that = (ServerLoad) o;
+    return queuedTasks == that.queuedTasks &&
+           activeTasks == that.activeTasks &&
+           numThreads == that.numThreads &&
+           recentTaskTimeMicros == that.recentTaskTimeMicros;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return Objects.hash(queuedTasks, activeTasks, numThreads, recentTaskTimeMicros);
+  }
+
+  @Override
+  public String toString()
+  {
+    return "ServerLoad{" +
+           "queuedTasks=" + queuedTasks +
+           ", activeTasks=" + activeTasks +
+           ", numThreads=" + numThreads +
+           ", recentTaskTimeMicros=" + recentTaskTimeMicros +
+           '}';
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.guice;
+
+import com.google.inject.Binder;
+import com.google.inject.Module;
+import com.google.inject.Provides;
+import org.apache.druid.client.BrokerParallelMergeConfig;
+import org.apache.druid.guice.annotations.Merging;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.lifecycle.Lifecycle;
+import org.apache.druid.java.util.common.logger.Logger;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Provides the pool the Broker merges data node results on in parallel, see
+ * {@link org.apache.druid.client.CachingClusteredClient}.
+ */
+public class BrokerProcessingModule implements Module
+{
+  private static final Logger log = new Logger(BrokerProcessingModule.class);
+
+  @Override
+  public void configure(Binder binder)
+  {
+    JsonConfigProvider.bind(binder, "druid.broker.parallelMerge", BrokerParallelMergeConfig.class);
+  }
+
+  @Provides
+  @LazySingleton
+  @Merging
+  public ForkJoinPool getMergeProcessingPool(BrokerParallelMergeConfig config, Lifecycle lifecycle)
+  {
+    // Threads are only started once the first query is merged in parallel.
+    final ForkJoinPool pool = new ForkJoinPool(
+        config.getParallelism(),
+        forkJoinPool -> {
+          final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+          thread.setDaemon(true);
+          thread.setName(StringUtils.format("Broker-Merge-%d", thread.getPoolIndex()));
+          return thread;
+        },
+        (thread, e) -> log.error(e, "Unhandled exception in thread [%s]", thread),
+        true
+    );
+
+    // The lifecycle handler is the only owner of the pool's shutdown
+    lifecycle.addHandler(
+        new Lifecycle.Handler()
+        {
+          @Override
+          public void start()
+          {
+          }
+
+          @Override
+          public void stop()
+          {
+            pool.shutdownNow();
+          }
+        }
+    );
+
+    return pool;
+  }
+}
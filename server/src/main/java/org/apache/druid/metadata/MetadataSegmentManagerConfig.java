@@ -22,6 +22,8 @@ package org.apache.druid.metadata;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.joda.time.Period;
 
+import javax.annotation.Nullable;
+
 /**
  */
 public class MetadataSegmentManagerConfig
@@ -29,8 +31,23 @@ public class MetadataSegmentManagerConfig
   @JsonProperty
   private Period pollDuration = new Period("PT1M");
 
+  /**
+   * If set, only the ids of used segments are fetched on each poll, and segment payloads are fetched only for new
+   * segments. All payloads are re-fetched no more often than once in this period, to pick up changes of payloads of
+   * already known segments. If null, all payloads are fetched on every poll.
+   */
+  @JsonProperty
+  @Nullable
+  private Period fullPollDuration = null;
+
   public Period getPollDuration()
   {
     return pollDuration;
   }
+
+  @Nullable
+  public Period getFullPollDuration()
+  {
+    return fullPollDuration;
+  }
 }
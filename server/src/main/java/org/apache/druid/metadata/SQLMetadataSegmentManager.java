@@ -44,11 +44,13 @@ import org.apache.druid.timeline.VersionedIntervalTimeline;
 import org.apache.druid.utils.CollectionUtils;
 import org.joda.time.Duration;
 import org.joda.time.Interval;
+import org.joda.time.Period;
 import org.skife.jdbi.v2.BaseResultSetMapper;
 import org.skife.jdbi.v2.Batch;
 import org.skife.jdbi.v2.FoldController;
 import org.skife.jdbi.v2.Folder3;
 import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.Query;
 import org.skife.jdbi.v2.StatementContext;
 import org.skife.jdbi.v2.TransactionCallback;
 import org.skife.jdbi.v2.TransactionStatus;
@@ -62,6 +64,8 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -131,6 +135,18 @@ public class SQLMetadataSegmentManager implements MetadataSegmentManager
   private long currentStartOrder = -1;
   private ScheduledExecutorService exec = null;
 
+  /**
+   * The time of the last successful full poll, see {@link MetadataSegmentManagerConfig#getFullPollDuration()}. Accessed
+   * only while holding {@link #pollLock}.
+   */
+  private long lastFullPollMillis = 0;
+
+  /**
+   * The number of segment ids bound to a single "SELECT payload ... WHERE id IN (...)" statement in {@link
+   * #doIncrementalPoll}.
+   */
+  private static final int INCREMENTAL_POLL_BATCH_SIZE = 100;
+
   @Inject
   public SQLMetadataSegmentManager(
       ObjectMapper jsonMapper,
@@ -465,7 +481,7 @@ public class SQLMetadataSegmentManager implements MetadataSegmentManager
   }
 
   /**
-   * This method does not update {@code dataSourcesSnapshot}, see the comments in {@code doPoll()} about
+   * This method does not update {@code dataSourcesSnapshot}, see the comments in {@code doFullPoll()} about
    * snapshot update. The segment removal will be reflected after next poll cyccle runs.
    */
   @Override
@@ -652,6 +668,27 @@ public class SQLMetadataSegmentManager implements MetadataSegmentManager
   }
 
   private void doPoll()
+  {
+    final DataSourcesSnapshot snapshot = dataSourcesSnapshot;
+    final Period fullPollDuration = config.get().getFullPollDuration();
+    final long nowMillis = System.currentTimeMillis();
+    if (snapshot == null
+        || fullPollDuration == null
+        || nowMillis - lastFullPollMillis >= fullPollDuration.toStandardDuration().getMillis()) {
+      if (doFullPoll()) {
+        lastFullPollMillis = nowMillis;
+      }
+    } else {
+      doIncrementalPoll(snapshot);
+    }
+  }
+
+  /**
+   * Fetches and deserializes the payloads of all used segments and replaces {@link #dataSourcesSnapshot}.
+   *
+   * @return true if the snapshot was updated
+   */
+  private boolean doFullPoll()
   {
     log.debug("Starting polling of segment table");
 
@@ -693,7 +730,7 @@ public class SQLMetadataSegmentManager implements MetadataSegmentManager
 
     if (segments == null || segments.isEmpty()) {
       log.warn("No segments found in the database!");
-      return;
+      return false;
     }
 
     log.info("Polled and found %,d segments in the database", segments.size());
@@ -724,6 +761,145 @@ public class SQLMetadataSegmentManager implements MetadataSegmentManager
         v -> v.toImmutableDruidDataSource()
     );
     dataSourcesSnapshot = new DataSourcesSnapshot(updatedDataSources);
+    return true;
+  }
+
+  /**
+   * Fetches only the ids of used segments, and then the payloads of those segments which are not yet in the given
+   * snapshot. Segments which are no longer used are dropped from the snapshot. Only the dataSources which have changed
+   * are rebuilt, and if nothing has changed, the snapshot (along with its overshadowed segments) is kept as is.
+   *
+   * Changes of payloads of already known segments are not noticed by this method, they are picked up by the next
+   * {@link #doFullPoll()}.
+   */
+  private void doIncrementalPoll(DataSourcesSnapshot snapshot)
+  {
+    log.debug("Starting incremental polling of segment table");
+
+    final Map<String, ImmutableDruidDataSource> currentDataSources = snapshot.getDataSourcesMap();
+    final Set<SegmentId> usedSegmentIds = new HashSet<>();
+    final List<String> newSegmentIds = connector.inReadOnlyTransaction(
+        (handle, status) -> handle
+            .createQuery(StringUtils.format("SELECT id, dataSource FROM %s WHERE used=true", getSegmentsTable()))
+            .setFetchSize(connector.getStreamingFetchSize())
+            .fold(
+                new ArrayList<>(),
+                new Folder3<List<String>, Map<String, Object>>()
+                {
+                  @Override
+                  public List<String> fold(
+                      List<String> newIds,
+                      Map<String, Object> row,
+                      FoldController foldController,
+                      StatementContext statementContext
+                  )
+                  {
+                    final String id = MapUtils.getString(row, "id");
+                    final String dataSourceName = MapUtils.getString(row, "datasource");
+                    final SegmentId segmentId = SegmentId.tryParse(dataSourceName, id);
+                    final ImmutableDruidDataSource dataSource = currentDataSources.get(dataSourceName);
+                    if (segmentId != null && dataSource != null && dataSource.getSegment(segmentId) != null) {
+                      usedSegmentIds.add(segmentId);
+                    } else {
+                      // Either a new segment, or an id which can't be parsed unambiguously; fetch the payload to know.
+                      newIds.add(id);
+                    }
+                    return newIds;
+                  }
+                }
+            )
+    );
+
+    if (usedSegmentIds.isEmpty() && newSegmentIds.isEmpty()) {
+      log.warn("No segments found in the database!");
+      return;
+    }
+
+    final List<DataSegment> newSegments = new ArrayList<>();
+    for (List<String> batch : Lists.partition(newSegmentIds, INCREMENTAL_POLL_BATCH_SIZE)) {
+      newSegments.addAll(fetchUsedSegmentPayloads(batch));
+    }
+
+    final Map<String, List<DataSegment>> changedDataSources = new HashMap<>();
+    for (DataSegment segment : newSegments) {
+      final ImmutableDruidDataSource dataSource = currentDataSources.get(segment.getDataSource());
+      final boolean known = dataSource != null && dataSource.getSegment(segment.getId()) != null;
+      if (usedSegmentIds.add(segment.getId()) && !known) {
+        changedDataSources.computeIfAbsent(segment.getDataSource(), ds -> new ArrayList<>()).add(segment);
+      }
+    }
+    for (ImmutableDruidDataSource dataSource : currentDataSources.values()) {
+      for (DataSegment segment : dataSource.getSegments()) {
+        if (!usedSegmentIds.contains(segment.getId())) {
+          changedDataSources.computeIfAbsent(dataSource.getName(), ds -> new ArrayList<>());
+          break;
+        }
+      }
+    }
+
+    if (changedDataSources.isEmpty()) {
+      log.debug("Polled %,d segments in the database, no changes found", usedSegmentIds.size());
+      return;
+    }
+
+    final ImmutableMap<String, String> dataSourceProperties =
+        ImmutableMap.of("created", DateTimes.nowUtc().toString());
+    final Map<String, ImmutableDruidDataSource> updatedDataSources = new HashMap<>(currentDataSources);
+    changedDataSources.forEach((dataSourceName, addedSegments) -> {
+      final DruidDataSource dataSource = new DruidDataSource(dataSourceName, dataSourceProperties);
+      final ImmutableDruidDataSource currentDataSource = currentDataSources.get(dataSourceName);
+      if (currentDataSource != null) {
+        currentDataSource.getSegments()
+                         .stream()
+                         .filter(segment -> usedSegmentIds.contains(segment.getId()))
+                         .forEach(dataSource::addSegmentIfAbsent);
+      }
+      addedSegments.forEach(dataSource::addSegmentIfAbsent);
+      if (dataSource.isEmpty()) {
+        updatedDataSources.remove(dataSourceName);
+      } else {
+        updatedDataSources.put(dataSourceName, dataSource.toImmutableDruidDataSource());
+      }
+    });
+
+    log.info(
+        "Polled %,d segments in the database incrementally, %,d dataSources changed",
+        usedSegmentIds.size(),
+        changedDataSources.size()
+    );
+    dataSourcesSnapshot = new DataSourcesSnapshot(updatedDataSources);
+  }
+
+  private List<DataSegment> fetchUsedSegmentPayloads(List<String> segmentIds)
+  {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < segmentIds.size(); i++) {
+      sb.append(i == 0 ? ":id" : ", :id").append(i);
+    }
+    return connector.inReadOnlyTransaction(
+        (handle, status) -> {
+          final Query<Map<String, Object>> query = handle.createQuery(
+              StringUtils.format("SELECT payload FROM %s WHERE used=true AND id IN (%s)", getSegmentsTable(), sb)
+          );
+          for (int i = 0; i < segmentIds.size(); i++) {
+            query.bind("id" + i, segmentIds.get(i));
+          }
+          return query
+              .map((index, r, ctx) -> {
+                try {
+                  return jsonMapper.readValue(r.getBytes("payload"), DataSegment.class);
+                }
+                catch (IOException e) {
+                  log.makeAlert(e, "Failed to read segment from db.").emit();
+                  return null;
+                }
+              })
+              .list()
+              .stream()
+              .filter(Objects::nonNull)
+              .collect(Collectors.toList());
+        }
+    );
   }
 
   /**
@@ -54,6 +54,8 @@ public class RealtimeTuningConfig implements TuningConfig, AppenderatorConfig
   private static final long defaultHandoffConditionTimeout = 0;
   private static final long defaultAlertTimeout = 0;
   private static final String defaultDedupColumn = null;
+  private static final boolean defaultOffheapFacts = false;
+  private static final long defaultMaxOffheapFactsBytes = 0;
 
   private static File createNewBasePersistDirectory()
   {
@@ -90,7 +92,9 @@ public class RealtimeTuningConfig implements TuningConfig, AppenderatorConfig
         defaultHandoffConditionTimeout,
         defaultAlertTimeout,
         null,
-        defaultDedupColumn
+        defaultDedupColumn,
+        defaultOffheapFacts,
+        defaultMaxOffheapFactsBytes
     );
   }
 
@@ -114,6 +118,8 @@ public class RealtimeTuningConfig implements TuningConfig, AppenderatorConfig
   private final SegmentWriteOutMediumFactory segmentWriteOutMediumFactory;
   @Nullable
   private final String dedupColumn;
+  private final boolean offheapFacts;
+  private final long maxOffheapFactsBytes;
 
   @JsonCreator
   public RealtimeTuningConfig(
@@ -136,7 +142,9 @@ public class RealtimeTuningConfig implements TuningConfig, AppenderatorConfig
       @JsonProperty("handoffConditionTimeout") Long handoffConditionTimeout,
       @JsonProperty("alertTimeout") Long alertTimeout,
       @JsonProperty("segmentWriteOutMediumFactory") @Nullable SegmentWriteOutMediumFactory segmentWriteOutMediumFactory,
-      @JsonProperty("dedupColumn") @Nullable String dedupColumn
+      @JsonProperty("dedupColumn") @Nullable String dedupColumn,
+      @JsonProperty("offheapFacts") @Nullable Boolean offheapFacts,
+      @JsonProperty("maxOffheapFactsBytes") @Nullable Long maxOffheapFactsBytes
   )
   {
     this.maxRowsInMemory = maxRowsInMemory == null ? defaultMaxRowsInMemory : maxRowsInMemory;
@@ -171,6 +179,9 @@ public class RealtimeTuningConfig implements TuningConfig, AppenderatorConfig
     Preconditions.checkArgument(this.alertTimeout >= 0, "alertTimeout must be >= 0");
     this.segmentWriteOutMediumFactory = segmentWriteOutMediumFactory;
     this.dedupColumn = dedupColumn == null ? defaultDedupColumn : dedupColumn;
+    this.offheapFacts = offheapFacts == null ? defaultOffheapFacts : offheapFacts;
+    this.maxOffheapFactsBytes = maxOffheapFactsBytes == null ? defaultMaxOffheapFactsBytes : maxOffheapFactsBytes;
+    Preconditions.checkArgument(this.maxOffheapFactsBytes >= 0, "maxOffheapFactsBytes must be >= 0");
   }
 
   @Override
@@ -301,6 +312,20 @@ public class RealtimeTuningConfig implements TuningConfig, AppenderatorConfig
     return dedupColumn;
   }
 
+  @Override
+  @JsonProperty
+  public boolean isOffheapFacts()
+  {
+    return offheapFacts;
+  }
+
+  @Override
+  @JsonProperty
+  public long getMaxOffheapFactsBytes()
+  {
+    return maxOffheapFactsBytes;
+  }
+
   public RealtimeTuningConfig withVersioningPolicy(VersioningPolicy policy)
   {
     return new RealtimeTuningConfig(
@@ -322,7 +347,9 @@ public class RealtimeTuningConfig implements TuningConfig, AppenderatorConfig
         handoffConditionTimeout,
         alertTimeout,
         segmentWriteOutMediumFactory,
-        dedupColumn
+        dedupColumn,
+        offheapFacts,
+        maxOffheapFactsBytes
     );
   }
 
@@ -347,7 +374,9 @@ public class RealtimeTuningConfig implements TuningConfig, AppenderatorConfig
         handoffConditionTimeout,
         alertTimeout,
         segmentWriteOutMediumFactory,
-        dedupColumn
+        dedupColumn,
+        offheapFacts,
+        maxOffheapFactsBytes
     );
   }
 }
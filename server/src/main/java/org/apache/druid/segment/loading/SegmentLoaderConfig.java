@@ -24,9 +24,13 @@ import com.google.common.collect.Lists;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.utils.JvmUtils;
 import org.hibernate.validator.constraints.NotEmpty;
+import org.joda.time.Period;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -52,6 +56,34 @@ public class SegmentLoaderConfig
   @JsonProperty("numBootstrapThreads")
   private Integer numBootstrapThreads = null;
 
+  @JsonProperty("numDownloadThreads")
+  private Integer numDownloadThreads = null;
+
+  /**
+   * Upper bound on the total size of segments being downloaded into a single location at once. Zero means unbounded.
+   */
+  @JsonProperty("maxDownloadingBytesPerLocation")
+  private long maxDownloadingBytesPerLocation = 0;
+
+  /**
+   * Whether the columns of loaded segments are deserialized on first access rather than when the segment is loaded.
+   */
+  @JsonProperty("lazyLoadColumns")
+  private boolean lazyLoadColumns = false;
+
+  /**
+   * Segments whose interval ends no earlier than this period before now are read into the page cache after they are
+   * loaded and before they are announced. Null disables the warmup.
+   */
+  @JsonProperty("warmupPeriod")
+  private Period warmupPeriod = null;
+
+  /**
+   * If not empty, only segments of these dataSources are warmed up.
+   */
+  @JsonProperty("warmupDataSources")
+  private Set<String> warmupDataSources = Collections.emptySet();
+
   @JsonProperty
   private File infoDir = null;
 
@@ -88,6 +120,32 @@ public class SegmentLoaderConfig
     return numBootstrapThreads == null ? numLoadingThreads : numBootstrapThreads;
   }
 
+  public int getNumDownloadThreads()
+  {
+    return numDownloadThreads == null ? getNumLoadingThreads() : numDownloadThreads;
+  }
+
+  public long getMaxDownloadingBytesPerLocation()
+  {
+    return maxDownloadingBytesPerLocation;
+  }
+
+  public boolean isLazyLoadColumns()
+  {
+    return lazyLoadColumns;
+  }
+
+  @Nullable
+  public Period getWarmupPeriod()
+  {
+    return warmupPeriod;
+  }
+
+  public Set<String> getWarmupDataSources()
+  {
+    return warmupDataSources;
+  }
+
   public File getInfoDir()
   {
     if (infoDir == null) {
@@ -112,6 +170,11 @@ public class SegmentLoaderConfig
     retVal.locations = Lists.newArrayList(locations);
     retVal.deleteOnRemove = this.deleteOnRemove;
     retVal.infoDir = this.infoDir;
+    retVal.numDownloadThreads = this.numDownloadThreads;
+    retVal.maxDownloadingBytesPerLocation = this.maxDownloadingBytesPerLocation;
+    retVal.lazyLoadColumns = this.lazyLoadColumns;
+    retVal.warmupPeriod = this.warmupPeriod;
+    retVal.warmupDataSources = this.warmupDataSources;
     return retVal;
   }
 
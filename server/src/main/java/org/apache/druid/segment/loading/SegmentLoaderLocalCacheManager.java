@@ -97,7 +97,8 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
           new StorageLocation(
               locationConfig.getPath(),
               locationConfig.getMaxSize(),
-              locationConfig.getFreeSpacePercent()
+              locationConfig.getFreeSpacePercent(),
+              config.getMaxDownloadingBytesPerLocation()
           )
       );
     }
@@ -148,7 +149,7 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
       factory = new MMappedQueryableSegmentizerFactory(indexIO);
     }
 
-    return factory.factorize(segment, segmentFiles);
+    return factory.factorize(segment, segmentFiles, config.isLazyLoadColumns());
   }
 
   @Override
@@ -180,11 +181,12 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
   private StorageLocation loadSegmentWithRetry(DataSegment segment, String storageDirStr) throws SegmentLoadingException
   {
     for (StorageLocation loc : locations) {
-      if (loc.canHandle(segment)) {
+      if (reserveForDownload(loc, segment)) {
         File storageDir = new File(loc.getPath(), storageDirStr);
 
         try {
           loadInLocationWithStartMarker(segment, storageDir);
+          loc.addSegment(segment);
           return loc;
         }
         catch (SegmentLoadingException e) {
@@ -198,11 +200,25 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
 
           cleanupCacheFiles(loc.getPath(), storageDir);
         }
+        finally {
+          loc.releaseDownload(segment);
+        }
       }
     }
     throw new SegmentLoadingException("Failed to load segment %s in all locations.", segment.getId());
   }
 
+  private static boolean reserveForDownload(StorageLocation loc, DataSegment segment) throws SegmentLoadingException
+  {
+    try {
+      return loc.reserveForDownload(segment);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SegmentLoadingException(e, "Interrupted while waiting to download segment[%s]", segment.getId());
+    }
+  }
+
   private void loadInLocationWithStartMarker(DataSegment segment, File storageDir) throws SegmentLoadingException
   {
     // We use a marker to prevent the case where a segment is downloaded, but before the download completes,
@@ -36,14 +36,26 @@ class StorageLocation
   private final File path;
   private final long maxSize;
   private final long freeSpaceToKeep;
+  private final long maxDownloadingBytes;
   private final Set<DataSegment> segments;
 
   private volatile long currSize = 0;
 
+  /**
+   * Total size of the segments currently being downloaded into this location, see {@link #reserveForDownload}.
+   */
+  private long downloadingBytes = 0;
+
   StorageLocation(File path, long maxSize, @Nullable Double freeSpacePercent)
+  {
+    this(path, maxSize, freeSpacePercent, 0);
+  }
+
+  StorageLocation(File path, long maxSize, @Nullable Double freeSpacePercent, long maxDownloadingBytes)
   {
     this.path = path;
     this.maxSize = maxSize;
+    this.maxDownloadingBytes = maxDownloadingBytes;
 
     if (freeSpacePercent != null) {
       long totalSpaceInPartition = path.getTotalSpace();
@@ -114,8 +126,37 @@ class StorageLocation
     return true;
   }
 
+  /**
+   * Reserves space for downloading the given segment into this location. Blocks while the total size of the downloads
+   * in progress would exceed maxDownloadingBytes, but always lets a single download through so that segments larger
+   * than the limit can still be loaded. Every successful reservation must be followed by {@link #releaseDownload}.
+   *
+   * @return false if the segment doesn't fit into this location, true once the space is reserved
+   */
+  synchronized boolean reserveForDownload(DataSegment segment) throws InterruptedException
+  {
+    while (true) {
+      if (!canHandle(segment)) {
+        return false;
+      }
+      if (maxDownloadingBytes <= 0
+          || downloadingBytes == 0
+          || downloadingBytes + segment.getSize() <= maxDownloadingBytes) {
+        downloadingBytes += segment.getSize();
+        return true;
+      }
+      wait();
+    }
+  }
+
+  synchronized void releaseDownload(DataSegment segment)
+  {
+    downloadingBytes -= segment.getSize();
+    notifyAll();
+  }
+
   synchronized long available()
   {
-    return maxSize - currSize;
+    return maxSize - currSize - downloadingBytes;
   }
 }
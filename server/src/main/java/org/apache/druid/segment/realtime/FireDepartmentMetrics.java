@@ -40,6 +40,8 @@ public class FireDepartmentMetrics
   private final AtomicLong failedHandoffs = new AtomicLong(0);
   private final AtomicLong mergeTimeMillis = new AtomicLong(0);
   private final AtomicLong mergeCpuTime = new AtomicLong(0);
+  private final AtomicLong mergeTiers = new AtomicLong(0);
+  private final AtomicLong mergeTierTimeMillis = new AtomicLong(0);
   private final AtomicLong persistCpuTime = new AtomicLong(0);
   private final AtomicLong handOffCount = new AtomicLong(0);
   private final AtomicLong sinkCount = new AtomicLong(0);
@@ -111,6 +113,16 @@ public class FireDepartmentMetrics
     mergeCpuTime.addAndGet(mergeTime);
   }
 
+  public void incrementMergeTiers()
+  {
+    mergeTiers.incrementAndGet();
+  }
+
+  public void incrementMergeTierTimeMillis(long millis)
+  {
+    mergeTierTimeMillis.addAndGet(millis);
+  }
+
   public void incrementPersistCpuTime(long persistTime)
   {
     persistCpuTime.addAndGet(persistTime);
@@ -196,6 +208,16 @@ public class FireDepartmentMetrics
     return mergeCpuTime.get();
   }
 
+  public long mergeTiers()
+  {
+    return mergeTiers.get();
+  }
+
+  public long mergeTierTimeMillis()
+  {
+    return mergeTierTimeMillis.get();
+  }
+
   public long persistCpuTime()
   {
     return persistCpuTime.get();
@@ -237,6 +259,8 @@ public class FireDepartmentMetrics
     retVal.failedHandoffs.set(failedHandoffs.get());
     retVal.mergeTimeMillis.set(mergeTimeMillis.get());
     retVal.mergeCpuTime.set(mergeCpuTime.get());
+    retVal.mergeTiers.set(mergeTiers.get());
+    retVal.mergeTierTimeMillis.set(mergeTierTimeMillis.get());
     retVal.persistCpuTime.set(persistCpuTime.get());
     retVal.handOffCount.set(handOffCount.get());
     retVal.sinkCount.set(sinkCount.get());
@@ -267,6 +291,8 @@ public class FireDepartmentMetrics
     failedHandoffs.addAndGet(otherSnapshot.failedHandoffs());
     mergeTimeMillis.addAndGet(otherSnapshot.mergeTimeMillis());
     mergeCpuTime.addAndGet(otherSnapshot.mergeCpuTime());
+    mergeTiers.addAndGet(otherSnapshot.mergeTiers());
+    mergeTierTimeMillis.addAndGet(otherSnapshot.mergeTierTimeMillis());
     persistCpuTime.addAndGet(otherSnapshot.persistCpuTime());
     handOffCount.addAndGet(otherSnapshot.handOffCount());
     sinkCount.addAndGet(otherSnapshot.sinkCount());
@@ -111,6 +111,10 @@ public class RealtimeMetricsMonitor extends AbstractMonitor
       emitter.emit(builder.build("ingest/handoff/failed", metrics.failedHandoffs() - previous.failedHandoffs()));
       emitter.emit(builder.build("ingest/merge/time", metrics.mergeTimeMillis() - previous.mergeTimeMillis()));
       emitter.emit(builder.build("ingest/merge/cpu", metrics.mergeCpuTime() - previous.mergeCpuTime()));
+      emitter.emit(builder.build("ingest/merge/tiers", metrics.mergeTiers() - previous.mergeTiers()));
+      emitter.emit(
+          builder.build("ingest/merge/tierTime", metrics.mergeTierTimeMillis() - previous.mergeTierTimeMillis())
+      );
       emitter.emit(builder.build("ingest/handoff/count", metrics.handOffCount() - previous.handOffCount()));
       emitter.emit(builder.build("ingest/sink/count", metrics.sinkCount()));
       emitter.emit(builder.build("ingest/events/messageGap", metrics.messageGap()));
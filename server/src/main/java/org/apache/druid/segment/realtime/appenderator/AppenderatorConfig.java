@@ -40,6 +40,25 @@ public interface AppenderatorConfig
    */
   long getMaxBytesInMemory();
 
+  /**
+   * Whether rows in memory are kept in direct memory rather than on heap, see
+   * {@link org.apache.druid.segment.incremental.IncrementalIndex.Builder#setOffheapFacts}. Only applies with rollup.
+   */
+  default boolean isOffheapFacts()
+  {
+    return false;
+  }
+
+  /**
+   * Maximum number of bytes of direct memory taken by the rows in memory of a segment before persisting to local
+   * storage, if {@link #isOffheapFacts()}. These bytes don't count towards {@link #getMaxBytesInMemory()}. 0 for no
+   * limit.
+   */
+  default long getMaxOffheapFactsBytes()
+  {
+    return 0;
+  }
+
   int getMaxPendingPersists();
 
   /**
@@ -73,4 +92,23 @@ public interface AppenderatorConfig
 
   @Nullable
   SegmentWriteOutMediumFactory getSegmentWriteOutMediumFactory();
+
+  /**
+   * Number of segments merged and pushed to deep storage concurrently by {@link Appenderator#push}. Every concurrent
+   * merge needs its own memory and disk space, so this also bounds the resources used by merging.
+   */
+  default int getNumPushThreads()
+  {
+    return 1;
+  }
+
+  /**
+   * Maximum number of indexes merged at once when a segment is pushed. Segments made of more intermediate persists
+   * are merged in tiers, see {@link org.apache.druid.segment.IndexMerger#mergeQueryableIndex}. Null for no limit.
+   */
+  @Nullable
+  default Integer getMaxMergeFanIn()
+  {
+    return null;
+  }
 }
@@ -26,6 +26,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -59,6 +60,7 @@ import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryRunnerFactoryConglomerate;
 import org.apache.druid.query.QuerySegmentWalker;
 import org.apache.druid.query.SegmentDescriptor;
+import org.apache.druid.segment.BaseProgressIndicator;
 import org.apache.druid.segment.IndexIO;
 import org.apache.druid.segment.IndexMerger;
 import org.apache.druid.segment.QueryableIndex;
@@ -75,6 +77,7 @@ import org.apache.druid.segment.realtime.plumber.Sink;
 import org.apache.druid.server.coordination.DataSegmentAnnouncer;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.VersionedIntervalTimeline;
+import org.apache.druid.utils.JvmUtils;
 import org.joda.time.Interval;
 
 import javax.annotation.Nullable;
@@ -88,6 +91,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -146,6 +150,8 @@ public class AppenderatorImpl implements Appenderator
 
   private volatile ListeningExecutorService persistExecutor = null;
   private volatile ListeningExecutorService pushExecutor = null;
+  // Merges and pushes sinks in parallel on behalf of the pushExecutor; null if tuningConfig.getNumPushThreads() is 1.
+  private volatile ListeningExecutorService mergeExecutor = null;
   // use intermediate executor so that deadlock conditions can be prevented
   // where persist and push Executor try to put tasks in each other queues
   // thus creating circular dependency
@@ -389,6 +395,8 @@ public class AppenderatorImpl implements Appenderator
           identifier.getVersion(),
           tuningConfig.getMaxRowsInMemory(),
           maxBytesTuningConfig,
+          tuningConfig.isOffheapFacts(),
+          tuningConfig.getMaxOffheapFactsBytes(),
           tuningConfig.isReportParseExceptions(),
           null
       );
@@ -618,17 +626,20 @@ public class AppenderatorImpl implements Appenderator
         // segments.
         persistAll(committer),
         (Function<Object, SegmentsAndMetadata>) commitMetadata -> {
-          final List<DataSegment> dataSegments = new ArrayList<>();
-
+          final Map<SegmentIdWithShardSpec, Sink> sinksToPush = new HashMap<>();
           for (Map.Entry<SegmentIdWithShardSpec, Sink> entry : theSinks.entrySet()) {
             if (droppingSinks.contains(entry.getKey())) {
               log.info("Skipping push of currently-dropping sink[%s]", entry.getKey());
-              continue;
+            } else {
+              sinksToPush.put(entry.getKey(), entry.getValue());
             }
+          }
 
-            final DataSegment dataSegment = mergeAndPush(entry.getKey(), entry.getValue(), useUniquePath);
-            if (dataSegment != null) {
-              dataSegments.add(dataSegment);
+          final List<DataSegment> dataSegments = new ArrayList<>();
+          final Map<SegmentIdWithShardSpec, DataSegment> pushedSegments = mergeAndPushAll(sinksToPush, useUniquePath);
+          for (Map.Entry<SegmentIdWithShardSpec, DataSegment> entry : pushedSegments.entrySet()) {
+            if (entry.getValue() != null) {
+              dataSegments.add(entry.getValue());
             } else {
               log.warn("mergeAndPush[%s] returned null, skipping.", entry.getKey());
             }
@@ -640,6 +651,53 @@ public class AppenderatorImpl implements Appenderator
     );
   }
 
+  /**
+   * Calls {@link #mergeAndPush} for each of the given sinks. If {@link #mergeExecutor} is set, up to {@link
+   * AppenderatorConfig#getNumPushThreads()} sinks are merged and pushed at a time, so that merging of one sink overlaps
+   * with pushing another one to deep storage. Waits until all sinks are either pushed or failed, so that it's still
+   * safe to use {@link #pushBarrier()}. Must only be run in the pushExecutor.
+   *
+   * @return the results of {@link #mergeAndPush} (possibly null), in the iteration order of the given map
+   */
+  private Map<SegmentIdWithShardSpec, DataSegment> mergeAndPushAll(
+      final Map<SegmentIdWithShardSpec, Sink> sinksToPush,
+      final boolean useUniquePath
+  )
+  {
+    final Map<SegmentIdWithShardSpec, DataSegment> pushedSegments = new LinkedHashMap<>();
+    final ListeningExecutorService exec = mergeExecutor;
+    if (exec == null || sinksToPush.size() <= 1) {
+      sinksToPush.forEach(
+          (identifier, sink) -> pushedSegments.put(identifier, mergeAndPush(identifier, sink, useUniquePath))
+      );
+      return pushedSegments;
+    }
+
+    final Map<SegmentIdWithShardSpec, ListenableFuture<DataSegment>> futures = new LinkedHashMap<>();
+    sinksToPush.forEach(
+        (identifier, sink) -> futures.put(
+            identifier,
+            exec.submit(() -> mergeAndPush(identifier, sink, useUniquePath))
+        )
+    );
+    try {
+      // Unlike allAsList(), successfulAsList() doesn't fail fast, so no merge is left running when this method exits.
+      Futures.successfulAsList(futures.values()).get();
+      for (Map.Entry<SegmentIdWithShardSpec, ListenableFuture<DataSegment>> entry : futures.entrySet()) {
+        pushedSegments.put(entry.getKey(), entry.getValue().get());
+      }
+    }
+    catch (InterruptedException e) {
+      futures.values().forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+    return pushedSegments;
+  }
+
   /**
    * Insert a barrier into the merge-and-push queue. When this future resolves, all pending pushes will have finished.
    * This is useful if we're going to do something that would otherwise potentially break currently in-progress
@@ -654,7 +712,7 @@ public class AppenderatorImpl implements Appenderator
 
   /**
    * Merge segment, push to deep storage. Should only be used on segments that have been fully persisted. Must only
-   * be run in the single-threaded pushExecutor.
+   * be run in the single-threaded pushExecutor, or in the mergeExecutor on its behalf, see {@link #mergeAndPushAll}.
    *
    * @param identifier    sink identifier
    * @param sink          sink to push
@@ -713,6 +771,8 @@ public class AppenderatorImpl implements Appenderator
       final File mergedFile;
       List<QueryableIndex> indexes = new ArrayList<>();
       Closer closer = Closer.create();
+      final long mergeThreadCpuTime = JvmUtils.safeGetThreadCpuTime();
+      final Stopwatch mergeStopwatch = Stopwatch.createStarted();
       try {
         for (FireHydrant fireHydrant : sink) {
           Pair<Segment, Closeable> segmentAndCloseable = fireHydrant.getAndIncrementSegment();
@@ -722,14 +782,36 @@ public class AppenderatorImpl implements Appenderator
           closer.register(segmentAndCloseable.rhs);
         }
 
-        mergedFile = indexMerger.mergeQueryableIndex(
-            indexes,
-            schema.getGranularitySpec().isRollup(),
-            schema.getAggregators(),
-            mergedTarget,
-            tuningConfig.getIndexSpec(),
-            tuningConfig.getSegmentWriteOutMediumFactory()
-        );
+        final Integer maxMergeFanIn = tuningConfig.getMaxMergeFanIn();
+        if (maxMergeFanIn != null) {
+          mergedFile = indexMerger.mergeQueryableIndex(
+              indexes,
+              schema.getGranularitySpec().isRollup(),
+              schema.getAggregators(),
+              mergedTarget,
+              tuningConfig.getIndexSpec(),
+              new BaseProgressIndicator()
+              {
+                @Override
+                public void mergeTierCompleted(int tier, int numIndexes, int numMergedIndexes, long millis)
+                {
+                  metrics.incrementMergeTiers();
+                  metrics.incrementMergeTierTimeMillis(millis);
+                }
+              },
+              tuningConfig.getSegmentWriteOutMediumFactory(),
+              maxMergeFanIn
+          );
+        } else {
+          mergedFile = indexMerger.mergeQueryableIndex(
+              indexes,
+              schema.getGranularitySpec().isRollup(),
+              schema.getAggregators(),
+              mergedTarget,
+              tuningConfig.getIndexSpec(),
+              tuningConfig.getSegmentWriteOutMediumFactory()
+          );
+        }
       }
       catch (Throwable t) {
         throw closer.rethrow(t);
@@ -737,6 +819,8 @@ public class AppenderatorImpl implements Appenderator
       finally {
         closer.close();
       }
+      metrics.incrementMergeCpuTime(JvmUtils.safeGetThreadCpuTime() - mergeThreadCpuTime);
+      metrics.incrementMergeTimeMillis(mergeStopwatch.elapsed(TimeUnit.MILLISECONDS));
 
       // Retry pushing segments because uploading to deep storage might fail especially for cloud storage types
       final DataSegment segment = RetryUtils.retry(
@@ -801,12 +885,17 @@ public class AppenderatorImpl implements Appenderator
           pushExecutor == null || pushExecutor.awaitTermination(365, TimeUnit.DAYS),
           "pushExecutor not terminated"
       );
+      Preconditions.checkState(
+          mergeExecutor == null || mergeExecutor.awaitTermination(365, TimeUnit.DAYS),
+          "mergeExecutor not terminated"
+      );
       Preconditions.checkState(
           intermediateTempExecutor == null || intermediateTempExecutor.awaitTermination(365, TimeUnit.DAYS),
           "intermediateTempExecutor not terminated"
       );
       persistExecutor = null;
       pushExecutor = null;
+      mergeExecutor = null;
       intermediateTempExecutor = null;
     }
     catch (InterruptedException e) {
@@ -920,6 +1009,12 @@ public class AppenderatorImpl implements Appenderator
           )
       );
     }
+    if (mergeExecutor == null && tuningConfig.getNumPushThreads() > 1) {
+      // the number of threads bounds the number of concurrent merges, and so the memory and disk space they use
+      mergeExecutor = MoreExecutors.listeningDecorator(
+          Execs.multiThreaded(tuningConfig.getNumPushThreads(), "appenderator_merge_push_%d")
+      );
+    }
     if (intermediateTempExecutor == null) {
       // use single threaded executor with SynchronousQueue so that all abandon operations occur sequentially
       intermediateTempExecutor = MoreExecutors.listeningDecorator(
@@ -938,6 +1033,9 @@ public class AppenderatorImpl implements Appenderator
     if (pushExecutor != null) {
       pushExecutor.shutdownNow();
     }
+    if (mergeExecutor != null) {
+      mergeExecutor.shutdownNow();
+    }
     if (intermediateTempExecutor != null) {
       intermediateTempExecutor.shutdownNow();
     }
@@ -1055,6 +1153,8 @@ public class AppenderatorImpl implements Appenderator
             identifier.getVersion(),
             tuningConfig.getMaxRowsInMemory(),
             maxBytesTuningConfig,
+            tuningConfig.isOffheapFacts(),
+            tuningConfig.getMaxOffheapFactsBytes(),
             tuningConfig.isReportParseExceptions(),
             null,
             hydrants
@@ -258,6 +258,8 @@ public class RealtimePlumber implements Plumber
           versioningPolicy.getVersion(sinkInterval),
           config.getMaxRowsInMemory(),
           TuningConfigs.getMaxBytesInMemoryOrDefault(config.getMaxBytesInMemory()),
+          config.isOffheapFacts(),
+          config.getMaxOffheapFactsBytes(),
           config.isReportParseExceptions(),
           config.getDedupColumn()
       );
@@ -720,6 +722,8 @@ public class RealtimePlumber implements Plumber
           versioningPolicy.getVersion(sinkInterval),
           config.getMaxRowsInMemory(),
           TuningConfigs.getMaxBytesInMemoryOrDefault(config.getMaxBytesInMemory()),
+          config.isOffheapFacts(),
+          config.getMaxOffheapFactsBytes(),
           config.isReportParseExceptions(),
           config.getDedupColumn(),
           hydrants
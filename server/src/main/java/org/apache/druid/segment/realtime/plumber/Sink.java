@@ -27,6 +27,7 @@ import org.apache.druid.data.input.InputRow;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.segment.IndexMerger;
 import org.apache.druid.segment.QueryableIndex;
 import org.apache.druid.segment.ReferenceCountingSegment;
 import org.apache.druid.segment.column.ColumnCapabilitiesImpl;
@@ -64,6 +65,8 @@ public class Sink implements Iterable<FireHydrant>
   private final String version;
   private final int maxRowsInMemory;
   private final long maxBytesInMemory;
+  private final boolean offheapFacts;
+  private final long maxOffheapFactsBytes;
   private final boolean reportParseExceptions;
   private final CopyOnWriteArrayList<FireHydrant> hydrants = new CopyOnWriteArrayList<>();
   private final LinkedHashSet<String> dimOrder = new LinkedHashSet<>();
@@ -80,6 +83,8 @@ public class Sink implements Iterable<FireHydrant>
       String version,
       int maxRowsInMemory,
       long maxBytesInMemory,
+      boolean offheapFacts,
+      long maxOffheapFactsBytes,
       boolean reportParseExceptions,
       String dedupColumn
   )
@@ -90,6 +95,8 @@ public class Sink implements Iterable<FireHydrant>
     this.version = version;
     this.maxRowsInMemory = maxRowsInMemory;
     this.maxBytesInMemory = maxBytesInMemory;
+    this.offheapFacts = offheapFacts;
+    this.maxOffheapFactsBytes = maxOffheapFactsBytes;
     this.reportParseExceptions = reportParseExceptions;
     this.dedupColumn = dedupColumn;
 
@@ -103,6 +110,8 @@ public class Sink implements Iterable<FireHydrant>
       String version,
       int maxRowsInMemory,
       long maxBytesInMemory,
+      boolean offheapFacts,
+      long maxOffheapFactsBytes,
       boolean reportParseExceptions,
       String dedupColumn,
       List<FireHydrant> hydrants
@@ -114,6 +123,8 @@ public class Sink implements Iterable<FireHydrant>
     this.version = version;
     this.maxRowsInMemory = maxRowsInMemory;
     this.maxBytesInMemory = maxBytesInMemory;
+    this.offheapFacts = offheapFacts;
+    this.maxOffheapFactsBytes = maxOffheapFactsBytes;
     this.reportParseExceptions = reportParseExceptions;
     this.dedupColumn = dedupColumn;
 
@@ -334,6 +345,8 @@ public class Sink implements Iterable<FireHydrant>
         .setReportParseExceptions(reportParseExceptions)
         .setMaxRowCount(maxRowsInMemory)
         .setMaxBytesInMemory(maxBytesInMemory)
+        .setOffheapFacts(offheapFacts)
+        .setMaxOffheapFactsBytes(maxOffheapFactsBytes)
         .buildOnheap();
 
     final FireHydrant old;
@@ -352,9 +365,18 @@ public class Sink implements Iterable<FireHydrant>
               ReferenceCountingSegment segment = lastHydrant.getIncrementedSegment();
               try {
                 QueryableIndex oldIndex = segment.asQueryableIndex();
+                // Intermediate persists may omit bitmap indexes, which the new index should still build
+                final Set<String> omittedBitmapIndexes = IndexMerger.getOmittedBitmapIndexes(oldIndex.getMetadata());
                 for (String dim : oldIndex.getAvailableDimensions()) {
                   dimOrder.add(dim);
-                  oldCapabilities.put(dim, (ColumnCapabilitiesImpl) oldIndex.getColumnHolder(dim).getCapabilities());
+                  ColumnCapabilitiesImpl capabilities =
+                      (ColumnCapabilitiesImpl) oldIndex.getColumnHolder(dim).getCapabilities();
+                  if (omittedBitmapIndexes.contains(dim)) {
+                    final ColumnCapabilitiesImpl withBitmapIndexes = new ColumnCapabilitiesImpl().setIsComplete(true);
+                    withBitmapIndexes.merge(capabilities);
+                    capabilities = withBitmapIndexes.setHasBitmapIndexes(true);
+                  }
+                  oldCapabilities.put(dim, capabilities);
                 }
               }
               finally {
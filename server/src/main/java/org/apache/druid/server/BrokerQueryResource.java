@@ -62,6 +62,7 @@ public class BrokerQueryResource extends QueryResource
       AuthConfig authConfig,
       AuthorizerMapper authorizerMapper,
       GenericQueryMetricsFactory queryMetricsFactory,
+      ServerLoadReporter serverLoadReporter,
       TimelineServerView brokerServerView
   )
   {
@@ -72,7 +73,8 @@ public class BrokerQueryResource extends QueryResource
         queryManager,
         authConfig,
         authorizerMapper,
-        queryMetricsFactory
+        queryMetricsFactory,
+        serverLoadReporter
     );
     this.brokerServerView = brokerServerView;
   }
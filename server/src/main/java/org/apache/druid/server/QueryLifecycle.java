@@ -345,6 +345,11 @@ public class QueryLifecycle
     return baseQuery;
   }
 
+  public QueryToolChest getToolChest()
+  {
+    return toolChest;
+  }
+
   private void transition(final State from, final State to)
   {
     if (state != from) {
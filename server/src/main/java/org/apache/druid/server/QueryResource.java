@@ -30,6 +30,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.io.CountingOutputStream;
 import com.google.inject.Inject;
 import org.apache.druid.client.DirectDruidClient;
+import org.apache.druid.client.selector.ServerLoad;
 import org.apache.druid.guice.LazySingleton;
 import org.apache.druid.guice.annotations.Json;
 import org.apache.druid.guice.annotations.Smile;
@@ -42,6 +43,7 @@ import org.apache.druid.query.GenericQueryMetricsFactory;
 import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryInterruptedException;
+import org.apache.druid.query.QueryToolChest;
 import org.apache.druid.server.metrics.QueryCountStatsProvider;
 import org.apache.druid.server.security.Access;
 import org.apache.druid.server.security.AuthConfig;
@@ -94,6 +96,7 @@ public class QueryResource implements QueryCountStatsProvider
   protected final QueryManager queryManager;
   protected final AuthConfig authConfig;
   protected final AuthorizerMapper authorizerMapper;
+  protected final ServerLoadReporter serverLoadReporter;
 
   private final GenericQueryMetricsFactory queryMetricsFactory;
   private final AtomicLong successfulQueryCount = new AtomicLong();
@@ -108,7 +111,8 @@ public class QueryResource implements QueryCountStatsProvider
       QueryManager queryManager,
       AuthConfig authConfig,
       AuthorizerMapper authorizerMapper,
-      GenericQueryMetricsFactory queryMetricsFactory
+      GenericQueryMetricsFactory queryMetricsFactory,
+      ServerLoadReporter serverLoadReporter
   )
   {
     this.queryLifecycleFactory = queryLifecycleFactory;
@@ -120,6 +124,7 @@ public class QueryResource implements QueryCountStatsProvider
     this.authConfig = authConfig;
     this.authorizerMapper = authorizerMapper;
     this.queryMetricsFactory = queryMetricsFactory;
+    this.serverLoadReporter = serverLoadReporter;
   }
 
   @DELETE
@@ -205,7 +210,11 @@ public class QueryResource implements QueryCountStatsProvider
         boolean serializeDateTimeAsLong =
             QueryContexts.isSerializeDateTimeAsLong(query, false)
             || (!shouldFinalize && QueryContexts.isSerializeDateTimeAsLongInner(query, false));
-        final ObjectWriter jsonWriter = context.newOutputWriter(serializeDateTimeAsLong);
+        final ObjectWriter jsonWriter = context.newOutputWriter(
+            queryLifecycle.getToolChest(),
+            query,
+            serializeDateTimeAsLong
+        );
         Response.ResponseBuilder builder = Response
             .ok(
                 new StreamingOutput()
@@ -250,6 +259,11 @@ public class QueryResource implements QueryCountStatsProvider
           responseContext.remove(HEADER_ETAG);
         }
 
+        final ServerLoad serverLoad = serverLoadReporter.getServerLoad();
+        if (serverLoad != null) {
+          builder.header(ServerLoad.HEADER, serverLoad.toHeaderValue());
+        }
+
         DirectDruidClient.removeMagicResponseContextFields(responseContext);
 
         //Limit the response-context header, see https://github.com/apache/incubator-druid/issues/2331
@@ -386,6 +400,13 @@ public class QueryResource implements QueryCountStatsProvider
       return isPretty ? mapper.writerWithDefaultPrettyPrinter() : mapper.writer();
     }
 
+    ObjectWriter newOutputWriter(QueryToolChest toolChest, Query query, boolean serializeDateTimeAsLong)
+    {
+      ObjectMapper mapper = serializeDateTimeAsLong ? serializeDateTimeAsLongInputMapper : inputMapper;
+      mapper = toolChest.decorateObjectMapper(mapper, query);
+      return isPretty ? mapper.writerWithDefaultPrettyPrinter() : mapper.writer();
+    }
+
     Response ok(Object object) throws IOException
     {
       return Response.ok(newOutputWriter(false).writeValueAsString(object), contentType).build();
@@ -20,23 +20,35 @@
 package org.apache.druid.server;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Ordering;
 import com.google.inject.Inject;
 import org.apache.druid.common.guava.SettableSupplier;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.io.smoosh.SmooshedFileMapper;
 import org.apache.druid.java.util.emitter.EmittingLogger;
+import org.apache.druid.segment.QueryableIndex;
 import org.apache.druid.segment.ReferenceCountingSegment;
 import org.apache.druid.segment.Segment;
+import org.apache.druid.segment.SimpleQueryableIndex;
 import org.apache.druid.segment.loading.SegmentLoader;
 import org.apache.druid.segment.loading.SegmentLoadingException;
 import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.TimelineObjectHolder;
 import org.apache.druid.timeline.VersionedIntervalTimeline;
 import org.apache.druid.timeline.partition.PartitionChunk;
 import org.apache.druid.timeline.partition.PartitionHolder;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 /**
@@ -136,6 +148,17 @@ public class SegmentManager
     return segmentLoader.isSegmentLoaded(segment);
   }
 
+  /**
+   * Downloads the files of the given segment to the local segment cache without loading the segment, so that a
+   * following {@link #loadSegment} call only has to map them.
+   *
+   * @throws SegmentLoadingException if the segment files could not be downloaded
+   */
+  public void fetchSegmentFiles(final DataSegment segment) throws SegmentLoadingException
+  {
+    segmentLoader.getSegmentFiles(segment);
+  }
+
   @Nullable
   public VersionedIntervalTimeline<String, ReferenceCountingSegment> getTimeline(String dataSource)
   {
@@ -189,6 +212,91 @@ public class SegmentManager
     return resultSupplier.get();
   }
 
+  /**
+   * Reads the files of a loaded segment into the page cache, so that the first queries to it don't have to fault
+   * every page in from disk. See {@link SmooshedFileMapper#warmup}.
+   *
+   * @return number of bytes read, 0 if the segment is not loaded or not memory mapped
+   */
+  public long warmupSegment(final DataSegment segment) throws IOException
+  {
+    final VersionedIntervalTimeline<String, ReferenceCountingSegment> timeline = getTimeline(segment.getDataSource());
+    if (timeline == null) {
+      return 0;
+    }
+    final PartitionHolder<ReferenceCountingSegment> entry = timeline.findEntry(
+        segment.getInterval(),
+        segment.getVersion()
+    );
+    final PartitionChunk<ReferenceCountingSegment> chunk =
+        entry == null ? null : entry.getChunk(segment.getShardSpec().getPartitionNum());
+    if (chunk == null || !chunk.getObject().increment()) {
+      return 0;
+    }
+    try {
+      final SmooshedFileMapper fileMapper = getFileMapper(chunk.getObject());
+      return fileMapper == null ? 0 : fileMapper.warmup();
+    }
+    finally {
+      chunk.getObject().decrement();
+    }
+  }
+
+  /**
+   * Estimates which fraction of each column of the given dataSource is in the page cache, by sampling up to
+   * maxSegments randomly chosen segments, see {@link SmooshedFileMapper#sampleResidency}.
+   *
+   * @return map of column name to the average resident fraction across the sampled segments
+   */
+  public Map<String, Double> sampleResidency(String dataSource, int maxSegments, int samplesPerColumn)
+      throws IOException
+  {
+    final VersionedIntervalTimeline<String, ReferenceCountingSegment> timeline = getTimeline(dataSource);
+    if (timeline == null) {
+      return Collections.emptyMap();
+    }
+
+    final List<ReferenceCountingSegment> segments = new ArrayList<>();
+    for (TimelineObjectHolder<String, ReferenceCountingSegment> holder : timeline.lookup(Intervals.ETERNITY)) {
+      Iterables.addAll(segments, holder.getObject().payloads());
+    }
+    Collections.shuffle(segments, ThreadLocalRandom.current());
+
+    final Map<String, double[]> sums = new HashMap<>();
+    for (ReferenceCountingSegment segment : segments.subList(0, Math.min(maxSegments, segments.size()))) {
+      if (!segment.increment()) {
+        continue;
+      }
+      try {
+        final SmooshedFileMapper fileMapper = getFileMapper(segment);
+        if (fileMapper == null) {
+          continue;
+        }
+        // Internal files are named after the columns, plus a few small ones like index.drd.
+        for (String column : fileMapper.getInternalFilenames()) {
+          final Double residency = fileMapper.sampleResidency(column, samplesPerColumn);
+          if (residency != null) {
+            final double[] sum = sums.computeIfAbsent(column, k -> new double[2]);
+            sum[0] += residency;
+            sum[1]++;
+          }
+        }
+      }
+      finally {
+        segment.decrement();
+      }
+    }
+
+    return sums.entrySet().stream().collect(Collectors.toMap(Entry::getKey, e -> e.getValue()[0] / e.getValue()[1]));
+  }
+
+  @Nullable
+  private static SmooshedFileMapper getFileMapper(Segment segment)
+  {
+    final QueryableIndex index = segment.asQueryableIndex();
+    return index instanceof SimpleQueryableIndex ? ((SimpleQueryableIndex) index).getFileMapper() : null;
+  }
+
   private Segment getAdapter(final DataSegment segment) throws SegmentLoadingException
   {
     final Segment adapter;
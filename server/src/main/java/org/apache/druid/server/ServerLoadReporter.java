@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server;
+
+import com.google.inject.Inject;
+import org.apache.druid.client.selector.ServerLoad;
+import org.apache.druid.guice.annotations.Processing;
+import org.apache.druid.query.ExecutorLoadStats;
+import org.apache.druid.query.MetricsEmittingExecutorService;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the {@link ServerLoad} of the processing pool, which {@link QueryResource} attaches to query responses.
+ */
+public class ServerLoadReporter
+{
+  @Nullable
+  private final ExecutorLoadStats loadStats;
+
+  @Inject
+  public ServerLoadReporter(@Processing ExecutorService exec)
+  {
+    if (exec instanceof MetricsEmittingExecutorService) {
+      this.loadStats = ((MetricsEmittingExecutorService) exec).getLoadStats();
+    } else {
+      this.loadStats = exec instanceof ExecutorLoadStats ? (ExecutorLoadStats) exec : null;
+    }
+  }
+
+  /**
+   * Returns null if the processing pool doesn't expose its load, e. g. on processes that don't process segments.
+   */
+  @Nullable
+  public ServerLoad getServerLoad()
+  {
+    if (loadStats == null) {
+      return null;
+    }
+    return new ServerLoad(
+        loadStats.getQueueSize(),
+        loadStats.getActiveCount(),
+        loadStats.getNumThreads(),
+        TimeUnit.NANOSECONDS.toMicros(loadStats.getRecentTaskTimeNanos())
+    );
+  }
+}
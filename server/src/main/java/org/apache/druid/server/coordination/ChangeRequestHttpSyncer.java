@@ -40,6 +40,7 @@ import org.jboss.netty.handler.codec.http.HttpMethod;
 import org.joda.time.Duration;
 
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.List;
@@ -62,12 +63,12 @@ public class ChangeRequestHttpSyncer<T>
 
   private static final long MAX_RETRY_BACKOFF = TimeUnit.MINUTES.toMillis(2);
 
-  private final ObjectMapper smileMapper;
   private final HttpClient httpClient;
   private final ScheduledExecutorService executor;
   private final URL baseServerURL;
   private final String baseRequestPath;
-  private final TypeReference<ChangeRequestsSnapshot<T>> responseTypeReferences;
+  private final String mediaType;
+  private final ResponseDecoder<T> responseDecoder;
   private final long serverTimeoutMS;
   private final long serverUnstabilityTimeout;
   private final long serverHttpTimeout;
@@ -102,12 +103,41 @@ public class ChangeRequestHttpSyncer<T>
       Listener<T> listener
   )
   {
-    this.smileMapper = smileMapper;
+    this(
+        httpClient,
+        executor,
+        baseServerURL,
+        baseRequestPath,
+        SmileMediaTypes.APPLICATION_JACKSON_SMILE,
+        stream -> smileMapper.readValue(stream, responseTypeReferences),
+        serverTimeoutMS,
+        serverUnstabilityTimeout,
+        listener
+    );
+  }
+
+  /**
+   * Creates a syncer that asks the server for the given media type and reads the responses with the given decoder,
+   * e. g. {@link SegmentChangeRequestsSnapshotCodec#MEDIA_TYPE}.
+   */
+  public ChangeRequestHttpSyncer(
+      HttpClient httpClient,
+      ScheduledExecutorService executor,
+      URL baseServerURL,
+      String baseRequestPath,
+      String mediaType,
+      ResponseDecoder<T> responseDecoder,
+      long serverTimeoutMS,
+      long serverUnstabilityTimeout,
+      Listener<T> listener
+  )
+  {
     this.httpClient = httpClient;
     this.executor = executor;
     this.baseServerURL = baseServerURL;
     this.baseRequestPath = baseRequestPath;
-    this.responseTypeReferences = responseTypeReferences;
+    this.mediaType = mediaType;
+    this.responseDecoder = responseDecoder;
     this.serverTimeoutMS = serverTimeoutMS;
     this.serverUnstabilityTimeout = serverUnstabilityTimeout;
     this.serverHttpTimeout = serverTimeoutMS + HTTP_TIMEOUT_EXTRA_MS;
@@ -201,8 +231,8 @@ public class ChangeRequestHttpSyncer<T>
 
       ListenableFuture<InputStream> syncRequestFuture = httpClient.go(
           new Request(HttpMethod.GET, new URL(baseServerURL, req))
-              .addHeader(HttpHeaders.Names.ACCEPT, SmileMediaTypes.APPLICATION_JACKSON_SMILE)
-              .addHeader(HttpHeaders.Names.CONTENT_TYPE, SmileMediaTypes.APPLICATION_JACKSON_SMILE),
+              .addHeader(HttpHeaders.Names.ACCEPT, mediaType)
+              .addHeader(HttpHeaders.Names.CONTENT_TYPE, mediaType),
           responseHandler,
           Duration.millis(serverHttpTimeout)
       );
@@ -234,7 +264,7 @@ public class ChangeRequestHttpSyncer<T>
 
                   log.debug("Received sync response from [%s]", logIdentity);
 
-                  ChangeRequestsSnapshot<T> changes = smileMapper.readValue(stream, responseTypeReferences);
+                  ChangeRequestsSnapshot<T> changes = responseDecoder.decode(stream);
 
                   log.debug("Finished reading sync response from [%s]", logIdentity);
 
@@ -411,6 +441,15 @@ public class ChangeRequestHttpSyncer<T>
     return false;
   }
 
+  /**
+   * Reads a {@link ChangeRequestsSnapshot} from the body of a response in the media type the syncer asks the server
+   * for.
+   */
+  public interface ResponseDecoder<T>
+  {
+    ChangeRequestsSnapshot<T> decode(InputStream stream) throws IOException;
+  }
+
   /**
    * Concurrency guarantees: all calls to {@link #fullSync} and {@link #deltaSync} (that is done within the {@link
    * #executor}) are linearizable.
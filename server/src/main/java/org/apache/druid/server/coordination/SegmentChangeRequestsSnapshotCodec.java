@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.coordination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.timeline.DataSegment;
+import org.joda.time.Interval;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link ChangeRequestsSnapshot}s of {@link DataSegmentChangeRequest}s, used by
+ * {@link org.apache.druid.server.http.SegmentListerResource#getSegments} when the client asks for {@link #MEDIA_TYPE}.
+ *
+ * A full sync of a historical serving hundreds of thousands of segments repeats the same dataSource, version,
+ * dimension and metric strings over and over. This format writes each such string (and each dimension/metric list)
+ * once per response and refers back to it by index afterwards. Interval starts are delta encoded against the previous
+ * segment, which makes them small since segments are usually announced in time order. The remaining fields (load
+ * spec, shard spec, etc.) are written by the given mapper, so any field added to {@link DataSegment} later is still
+ * carried over.
+ *
+ * Layout: format version byte, reset flag byte, then either the reset cause or the counter, the hash and the requests.
+ * Each request is a tag byte followed by the segment for loads and drops, or by the request serialized with the mapper
+ * for any other request type.
+ */
+public class SegmentChangeRequestsSnapshotCodec
+{
+  public static final String MEDIA_TYPE = "application/x-druid-segment-changes";
+
+  private static final byte FORMAT_VERSION = 1;
+
+  private static final byte TAG_OTHER = 0;
+  private static final byte TAG_LOAD = 1;
+  private static final byte TAG_DROP = 2;
+
+  // Reference values for interned strings and lists, anything above REF_NEW is an index into the table + REF_OFFSET.
+  private static final int REF_NULL = 0;
+  private static final int REF_NEW = 1;
+  private static final int REF_OFFSET = 2;
+
+  private final ObjectMapper mapper;
+
+  public SegmentChangeRequestsSnapshotCodec(ObjectMapper mapper)
+  {
+    this.mapper = mapper;
+  }
+
+  public void encode(ChangeRequestsSnapshot<DataSegmentChangeRequest> snapshot, OutputStream outputStream)
+      throws IOException
+  {
+    final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+    out.writeByte(FORMAT_VERSION);
+    out.writeBoolean(snapshot.isResetCounter());
+
+    if (snapshot.isResetCounter()) {
+      out.writeUTF(snapshot.getResetCause());
+    } else {
+      out.writeLong(snapshot.getCounter().getCounter());
+      out.writeLong(snapshot.getCounter().getHash());
+
+      final List<DataSegmentChangeRequest> requests = snapshot.getRequests();
+      writeVLong(out, requests.size());
+
+      final Map<Object, Integer> table = new HashMap<>();
+      long prevStart = 0;
+      for (DataSegmentChangeRequest request : requests) {
+        final DataSegment segment;
+        if (request instanceof SegmentChangeRequestLoad) {
+          out.writeByte(TAG_LOAD);
+          segment = ((SegmentChangeRequestLoad) request).getSegment();
+        } else if (request instanceof SegmentChangeRequestDrop) {
+          out.writeByte(TAG_DROP);
+          segment = ((SegmentChangeRequestDrop) request).getSegment();
+        } else {
+          out.writeByte(TAG_OTHER);
+          writeBytes(out, mapper.writerFor(DataSegmentChangeRequest.class).writeValueAsBytes(request));
+          continue;
+        }
+
+        writeInterned(out, table, segment.getDataSource());
+        writeInterned(out, table, segment.getVersion());
+        final Interval interval = segment.getInterval();
+        writeZigZag(out, interval.getStartMillis() - prevStart);
+        writeVLong(out, interval.getEndMillis() - interval.getStartMillis());
+        prevStart = interval.getStartMillis();
+        writeInterned(out, table, segment.getDimensions());
+        writeInterned(out, table, segment.getMetrics());
+
+        final ObjectNode rest = mapper.valueToTree(segment);
+        rest.remove("dataSource");
+        rest.remove("version");
+        rest.remove("interval");
+        rest.remove("dimensions");
+        rest.remove("metrics");
+        rest.remove("identifier");
+        writeBytes(out, mapper.writeValueAsBytes(rest));
+      }
+    }
+    out.flush();
+  }
+
+  public ChangeRequestsSnapshot<DataSegmentChangeRequest> decode(InputStream inputStream) throws IOException
+  {
+    final DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+    final byte version = in.readByte();
+    if (version != FORMAT_VERSION) {
+      throw new IAE("Unknown segment changes format version[%d]", version);
+    }
+
+    if (in.readBoolean()) {
+      return ChangeRequestsSnapshot.fail(in.readUTF());
+    }
+
+    final ChangeRequestHistory.Counter counter = new ChangeRequestHistory.Counter(in.readLong(), in.readLong());
+    final int numRequests = Math.toIntExact(readVLong(in));
+    final List<DataSegmentChangeRequest> requests = new ArrayList<>(numRequests);
+
+    final List<Object> table = new ArrayList<>();
+    long prevStart = 0;
+    for (int i = 0; i < numRequests; i++) {
+      final byte tag = in.readByte();
+      if (tag == TAG_OTHER) {
+        requests.add(mapper.readValue(readBytes(in), DataSegmentChangeRequest.class));
+        continue;
+      }
+      if (tag != TAG_LOAD && tag != TAG_DROP) {
+        throw new IAE("Unknown segment change request tag[%d]", tag);
+      }
+
+      final String dataSource = (String) readInterned(in, table, false);
+      final String segmentVersion = (String) readInterned(in, table, false);
+      final long start = prevStart + readZigZag(in);
+      final long end = start + readVLong(in);
+      prevStart = start;
+      final String dimensions = (String) readInterned(in, table, true);
+      final String metrics = (String) readInterned(in, table, true);
+
+      // Going through the mapper rather than a DataSegment constructor, so that injected values like the load spec
+      // pruning setting on brokers are honored exactly as with the JSON/Smile formats.
+      final ObjectNode node = (ObjectNode) mapper.readTree(readBytes(in));
+      node.put("dataSource", dataSource);
+      node.put("version", segmentVersion);
+      node.put("interval", Intervals.utc(start, end).toString());
+      if (dimensions != null) {
+        node.put("dimensions", dimensions);
+      }
+      if (metrics != null) {
+        node.put("metrics", metrics);
+      }
+      final DataSegment segment = mapper.treeToValue(node, DataSegment.class);
+
+      requests.add(tag == TAG_LOAD ? new SegmentChangeRequestLoad(segment) : new SegmentChangeRequestDrop(segment));
+    }
+
+    return ChangeRequestsSnapshot.success(counter, requests);
+  }
+
+  private static void writeInterned(DataOutputStream out, Map<Object, Integer> table, @Nullable Object value)
+      throws IOException
+  {
+    if (value == null) {
+      writeVLong(out, REF_NULL);
+      return;
+    }
+
+    final Integer index = table.get(value);
+    if (index != null) {
+      writeVLong(out, index + REF_OFFSET);
+      return;
+    }
+
+    writeVLong(out, REF_NEW);
+    if (value instanceof String) {
+      writeBytes(out, StringUtils.toUtf8((String) value));
+    } else {
+      final List<?> list = (List<?>) value;
+      writeVLong(out, list.size());
+      for (Object element : list) {
+        writeInterned(out, table, element);
+      }
+    }
+    // Registered after the elements of a list, the decoder adds them to its table in the same order.
+    table.put(value, table.size());
+  }
+
+  /**
+   * Lists are returned joined with commas, which is how {@link DataSegment} serializes and deserializes dimensions and
+   * metrics.
+   */
+  @Nullable
+  private static Object readInterned(DataInputStream in, List<Object> table, boolean isList) throws IOException
+  {
+    final int ref = Math.toIntExact(readVLong(in));
+    if (ref == REF_NULL) {
+      return null;
+    } else if (ref != REF_NEW) {
+      return table.get(ref - REF_OFFSET);
+    }
+
+    final Object value;
+    if (isList) {
+      final int size = Math.toIntExact(readVLong(in));
+      final List<String> list = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        list.add((String) readInterned(in, table, false));
+      }
+      value = String.join(",", list);
+    } else {
+      value = StringUtils.fromUtf8(readBytes(in));
+    }
+    table.add(value);
+    return value;
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException
+  {
+    writeVLong(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException
+  {
+    final byte[] bytes = new byte[Math.toIntExact(readVLong(in))];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static void writeZigZag(DataOutputStream out, long value) throws IOException
+  {
+    writeVLong(out, (value << 1) ^ (value >> 63));
+  }
+
+  private static long readZigZag(DataInputStream in) throws IOException
+  {
+    final long value = readVLong(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Writes 7 bits per byte, least significant group first, the high bit of every byte but the last is set.
+   */
+  private static void writeVLong(DataOutputStream out, long value) throws IOException
+  {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  private static long readVLong(DataInputStream in) throws IOException
+  {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = in.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+}
@@ -34,6 +34,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import com.google.inject.Inject;
 import org.apache.druid.guice.ManageLifecycle;
+import org.apache.druid.java.util.common.DateTimes;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.concurrent.Execs;
 import org.apache.druid.java.util.common.lifecycle.LifecycleStart;
@@ -42,7 +43,9 @@ import org.apache.druid.java.util.emitter.EmittingLogger;
 import org.apache.druid.segment.loading.SegmentLoaderConfig;
 import org.apache.druid.segment.loading.SegmentLoadingException;
 import org.apache.druid.server.SegmentManager;
+import org.apache.druid.server.coordinator.DruidCoordinator;
 import org.apache.druid.timeline.DataSegment;
+import org.joda.time.Period;
 
 import java.io.File;
 import java.io.IOException;
@@ -51,6 +54,7 @@ import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
@@ -58,10 +62,13 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -83,6 +90,20 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
   private final DataSegmentServerAnnouncer serverAnnouncer;
   private final SegmentManager segmentManager;
   private final ScheduledExecutorService exec;
+
+  /**
+   * Segments requested through {@link #processBatch} that are not in the local segment cache yet are loaded in two
+   * stages: their files are downloaded on this executor, most recent segments first, and then they are loaded and
+   * announced on {@link #exec}. This way downloading the next segments overlaps with memory mapping and announcing the
+   * downloaded ones, and a slow download doesn't hold up segments that are already cached.
+   *
+   * Only {@link SegmentDownloadTask}s may be {@link ThreadPoolExecutor#execute}d here, because of the priority queue.
+   */
+  private final ThreadPoolExecutor downloadExec;
+  private final AtomicLong downloadSequence = new AtomicLong();
+  private final AtomicInteger pendingDownloads = new AtomicInteger();
+  private final AtomicInteger pendingLoads = new AtomicInteger();
+  private final AtomicLong downloadedBytes = new AtomicLong();
   private final ConcurrentSkipListSet<DataSegment> segmentsToDelete;
 
   private volatile boolean started = false;
@@ -136,6 +157,15 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     this.segmentManager = segmentManager;
 
     this.exec = exec;
+    this.downloadExec = new ThreadPoolExecutor(
+        config.getNumDownloadThreads(),
+        config.getNumDownloadThreads(),
+        1,
+        TimeUnit.MINUTES,
+        new PriorityBlockingQueue<>(),
+        Execs.makeThreadFactory("SegmentDownloader-%s")
+    );
+    this.downloadExec.allowCoreThreadTimeOut(true);
     this.segmentsToDelete = new ConcurrentSkipListSet<>();
 
     requestStatuses = CacheBuilder.newBuilder().maximumSize(config.getStatusQueueMaxSize()).initialCapacity(8).build();
@@ -179,6 +209,7 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
         throw new RuntimeException(e);
       }
       finally {
+        downloadExec.shutdownNow();
         started = false;
       }
       log.info("Stopped.");
@@ -238,6 +269,8 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
          .emit();
     }
 
+    // Load the most recent segments first, as they are likely to be queried most.
+    cachedSegments.sort(DruidCoordinator.SEGMENT_COMPARATOR_RECENT_FIRST);
     addSegments(
         cachedSegments,
         new DataSegmentChangeCallback()
@@ -283,6 +316,44 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
           );
         }
       }
+
+      if (shouldWarmup(segment)) {
+        warmupSegment(segment);
+      }
+    }
+  }
+
+  private boolean shouldWarmup(DataSegment segment)
+  {
+    final Period warmupPeriod = config.getWarmupPeriod();
+    if (warmupPeriod == null) {
+      return false;
+    }
+    final Set<String> warmupDataSources = config.getWarmupDataSources();
+    if (!warmupDataSources.isEmpty() && !warmupDataSources.contains(segment.getDataSource())) {
+      return false;
+    }
+    return !segment.getInterval().getEnd().isBefore(DateTimes.nowUtc().minus(warmupPeriod));
+  }
+
+  /**
+   * Reads the segment into the page cache before it is announced, so that this server doesn't serve its first queries
+   * from disk. Failing to do so is not fatal, the segment is just served cold.
+   */
+  private void warmupSegment(DataSegment segment)
+  {
+    final long startMillis = System.currentTimeMillis();
+    try {
+      final long bytes = segmentManager.warmupSegment(segment);
+      log.debug(
+          "Warmed up segment[%s], read [%,d] bytes in [%,d] ms.",
+          segment.getId(),
+          bytes,
+          System.currentTimeMillis() - startMillis
+      );
+    }
+    catch (IOException e) {
+      log.warn(e, "Failed to warm up segment[%s].", segment.getId());
     }
   }
 
@@ -524,12 +595,13 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
               public void addSegment(DataSegment segment, DataSegmentChangeCallback callback)
               {
                 requestStatuses.put(changeRequest, new AtomicReference<>(Status.PENDING));
-                exec.submit(
-                    () -> SegmentLoadDropHandler.this.addSegment(
-                        ((SegmentChangeRequestLoad) changeRequest).getSegment(),
-                        () -> resolveWaitingFutures()
-                    )
-                );
+                final DataSegment segmentToLoad = ((SegmentChangeRequestLoad) changeRequest).getSegment();
+                if (segmentManager.isSegmentCached(segmentToLoad)) {
+                  scheduleLoad(segmentToLoad);
+                } else {
+                  pendingDownloads.incrementAndGet();
+                  downloadExec.execute(new SegmentDownloadTask(segmentToLoad, downloadSequence.getAndIncrement()));
+                }
               }
 
               @Override
@@ -550,6 +622,41 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     }
   }
 
+  private void scheduleLoad(DataSegment segment)
+  {
+    pendingLoads.incrementAndGet();
+    exec.submit(
+        () -> {
+          pendingLoads.decrementAndGet();
+          addSegment(segment, () -> resolveWaitingFutures());
+        }
+    );
+  }
+
+  /**
+   * Returns the number of segments waiting to be downloaded, see {@link #downloadExec}.
+   */
+  public int getPendingDownloadCount()
+  {
+    return pendingDownloads.get();
+  }
+
+  /**
+   * Returns the number of segments waiting to be loaded and announced after they have been downloaded.
+   */
+  public int getPendingLoadCount()
+  {
+    return pendingLoads.get();
+  }
+
+  /**
+   * Returns the total size of the segments downloaded by {@link #downloadExec} so far.
+   */
+  public long getDownloadedBytes()
+  {
+    return downloadedBytes.get();
+  }
+
   private void updateRequestStatus(DataSegmentChangeRequest changeRequest, Status result)
   {
     if (result == null) {
@@ -575,6 +682,42 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     }
   }
 
+  private class SegmentDownloadTask implements Runnable, Comparable<SegmentDownloadTask>
+  {
+    private final DataSegment segment;
+    private final long sequence;
+
+    SegmentDownloadTask(DataSegment segment, long sequence)
+    {
+      this.segment = segment;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public void run()
+    {
+      pendingDownloads.decrementAndGet();
+      try {
+        segmentManager.fetchSegmentFiles(segment);
+        downloadedBytes.addAndGet(segment.getSize());
+      }
+      catch (Exception e) {
+        // Loading the segment downloads it again if needed, and reports the failure if it happens again.
+        log.warn(e, "Failed to download segment[%s], retrying while loading it.", segment.getId());
+      }
+      finally {
+        scheduleLoad(segment);
+      }
+    }
+
+    @Override
+    public int compareTo(SegmentDownloadTask other)
+    {
+      final int compare = DruidCoordinator.SEGMENT_COMPARATOR_RECENT_FIRST.compare(segment, other.segment);
+      return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+    }
+  }
+
   private static class BackgroundSegmentAnnouncer implements AutoCloseable
   {
     private static final EmittingLogger log = new EmittingLogger(BackgroundSegmentAnnouncer.class);
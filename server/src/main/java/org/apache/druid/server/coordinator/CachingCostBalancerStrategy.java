@@ -20,12 +20,12 @@
 package org.apache.druid.server.coordinator;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import org.apache.druid.server.coordinator.cost.ClusterCostCache;
+import org.apache.druid.server.coordinator.cost.ServerCostCache;
 import org.apache.druid.timeline.DataSegment;
 
-import java.util.Set;
+import java.util.Collections;
 
 
 public class CachingCostBalancerStrategy extends CostBalancerStrategy
@@ -58,8 +58,15 @@ public class CachingCostBalancerStrategy extends CostBalancerStrategy
 
     double cost = clusterCostCache.computeCost(serverName, proposalSegment);
 
-    // add segments that will be loaded to the cost
-    cost += costCacheForLoadingSegments(server).computeCost(serverName, proposalSegment);
+    // minus the cost of the segment with itself, when it is already served by this server
+    if (server.isServingSegment(proposalSegment)) {
+      cost -= ServerCostCache.computeJointCost(proposalSegment, Collections.singleton(proposalSegment));
+    }
+
+    // add segments that will be loaded to the cost, and subtract the ones that are marked to be dropped. These are
+    // usually few, so their costs are computed directly rather than through a cache.
+    cost += ServerCostCache.computeJointCost(proposalSegment, server.getPeon().getSegmentsToLoad());
+    cost -= ServerCostCache.computeJointCost(proposalSegment, server.getPeon().getSegmentsMarkedToDrop());
 
     if (server.getAvailableSize() <= 0) {
       return Double.POSITIVE_INFINITY;
@@ -68,10 +75,4 @@ public class CachingCostBalancerStrategy extends CostBalancerStrategy
     return cost * (server.getMaxSize() / server.getAvailableSize());
   }
 
-  private ClusterCostCache costCacheForLoadingSegments(ServerHolder server)
-  {
-    final Set<DataSegment> loadingSegments = server.getPeon().getSegmentsToLoad();
-    return ClusterCostCache.builder(ImmutableMap.of(server.getServer().getName(), loadingSegments)).build();
-  }
-
 }
@@ -30,14 +30,15 @@ import org.apache.druid.server.coordinator.CostBalancerStrategy;
 import org.apache.druid.timeline.DataSegment;
 import org.joda.time.Interval;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.ListIterator;
 import java.util.NavigableMap;
-import java.util.NavigableSet;
 import java.util.TreeMap;
-import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -112,13 +113,13 @@ public class SegmentsCostCache
   private static final long BUCKET_INTERVAL = TimeUnit.DAYS.toMillis(15);
   private static final DurationGranularity BUCKET_GRANULARITY = new DurationGranularity(BUCKET_INTERVAL, 0);
 
-  private static final Comparator<DataSegment> SEGMENT_INTERVAL_COMPARATOR =
-      Comparator.comparing(DataSegment::getInterval, Comparators.intervalsByStartThenEnd());
+  private static final Comparator<DataSegment> SEGMENT_COMPARATOR =
+      Comparator.comparing(DataSegment::getInterval, Comparators.intervalsByStartThenEnd())
+                .thenComparing(Comparator.naturalOrder());
 
   private static final Comparator<Bucket> BUCKET_INTERVAL_COMPARATOR =
       Comparator.comparing(Bucket::getInterval, Comparators.intervalsByStartThenEnd());
 
-  private static final Ordering<DataSegment> SEGMENT_ORDERING = Ordering.from(SEGMENT_INTERVAL_COMPARATOR);
   private static final Ordering<Bucket> BUCKET_ORDERING = Ordering.from(BUCKET_INTERVAL_COMPARATOR);
 
   private final ArrayList<Bucket> sortedBuckets;
@@ -159,6 +160,19 @@ public class SegmentsCostCache
     return cost;
   }
 
+  /**
+   * Computes the joint cost of two segments directly, in the same units as {@link #cost}. Used for small sets of
+   * segments, like the ones queued for loading on a server, for which building a cache doesn't pay off.
+   */
+  public static double computeJointCost(DataSegment segmentA, DataSegment segmentB)
+  {
+    final long referenceMillis = segmentA.getInterval().getStartMillis();
+    final double t1 = (segmentA.getInterval().getEndMillis() - referenceMillis) / MILLIS_FACTOR;
+    final double start = (segmentB.getInterval().getStartMillis() - referenceMillis) / MILLIS_FACTOR;
+    final double end = (segmentB.getInterval().getEndMillis() - referenceMillis) / MILLIS_FACTOR;
+    return CostBalancerStrategy.intervalCost(t1, start, end);
+  }
+
   public static Builder builder()
   {
     return new Builder();
@@ -213,18 +227,23 @@ public class SegmentsCostCache
   {
     private final Interval interval;
     private final Interval calculationInterval;
-    private final ArrayList<DataSegment> sortedSegments;
+    private final long[] startMillis;
+    private final long[] endMillis;
     private final double[] leftSum;
     private final double[] rightSum;
 
-    Bucket(Interval interval, ArrayList<DataSegment> sortedSegments, double[] leftSum, double[] rightSum)
+    Bucket(Interval interval, long[] startMillis, long[] endMillis, double[] leftSum, double[] rightSum)
     {
       this.interval = Preconditions.checkNotNull(interval, "interval");
-      this.sortedSegments = Preconditions.checkNotNull(sortedSegments, "sortedSegments");
+      this.startMillis = Preconditions.checkNotNull(startMillis, "startMillis");
+      this.endMillis = Preconditions.checkNotNull(endMillis, "endMillis");
       this.leftSum = Preconditions.checkNotNull(leftSum, "leftSum");
       this.rightSum = Preconditions.checkNotNull(rightSum, "rightSum");
-      Preconditions.checkArgument(sortedSegments.size() == leftSum.length && sortedSegments.size() == rightSum.length);
-      Preconditions.checkArgument(SEGMENT_ORDERING.isOrdered(sortedSegments));
+      Preconditions.checkArgument(
+          startMillis.length == endMillis.length
+          && startMillis.length == leftSum.length
+          && startMillis.length == rightSum.length
+      );
       this.calculationInterval = new Interval(
           interval.getStart().minus(LIFE_THRESHOLD),
           interval.getEnd().plus(LIFE_THRESHOLD)
@@ -243,29 +262,54 @@ public class SegmentsCostCache
 
     double cost(DataSegment dataSegment)
     {
-      // cost is calculated relatively to bucket start (which is considered as 0)
-      double t0 = convertStart(dataSegment, interval);
-      double t1 = convertEnd(dataSegment, interval);
-
       // avoid calculation for segments outside of LIFE_THRESHOLD
       if (!inCalculationInterval(dataSegment)) {
         throw new ISE("Segment is not within calculation interval");
       }
 
-      int index = Collections.binarySearch(sortedSegments, dataSegment, SEGMENT_INTERVAL_COMPARATOR);
-      index = (index >= 0) ? index : -index - 1;
-      return addLeftCost(dataSegment, t0, t1, index) + rightCost(dataSegment, t0, t1, index);
+      final long start = dataSegment.getInterval().getStartMillis();
+      final long end = dataSegment.getInterval().getEndMillis();
+
+      // cost is calculated relatively to bucket start (which is considered as 0)
+      double t0 = toLocalInterval(start, interval);
+      double t1 = toLocalInterval(end, interval);
+
+      int index = lowerBound(start, end);
+      return addLeftCost(start, end, t0, t1, index) + rightCost(start, end, t0, t1, index);
+    }
+
+    /**
+     * Returns the index of the first segment whose interval is not less than [start, end) in
+     * {@link Comparators#intervalsByStartThenEnd()} order.
+     */
+    private int lowerBound(long start, long end)
+    {
+      int low = 0;
+      int high = startMillis.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (startMillis[mid] < start || (startMillis[mid] == start && endMillis[mid] < end)) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
     }
 
-    private double addLeftCost(DataSegment dataSegment, double t0, double t1, int index)
+    private boolean overlaps(int index, long start, long end)
+    {
+      return startMillis[index] < end && start < endMillis[index];
+    }
+
+    private double addLeftCost(long segmentStart, long segmentEnd, double t0, double t1, int index)
     {
       double leftCost = 0.0;
       // add to cost all left-overlapping segments
       int leftIndex = index - 1;
-      while (leftIndex >= 0
-             && sortedSegments.get(leftIndex).getInterval().overlaps(dataSegment.getInterval())) {
-        double start = convertStart(sortedSegments.get(leftIndex), interval);
-        double end = convertEnd(sortedSegments.get(leftIndex), interval);
+      while (leftIndex >= 0 && overlaps(leftIndex, segmentStart, segmentEnd)) {
+        double start = toLocalInterval(startMillis[leftIndex], interval);
+        double end = toLocalInterval(endMillis[leftIndex], interval);
         leftCost += CostBalancerStrategy.intervalCost(end - start, t0 - start, t1 - start);
         --leftIndex;
       }
@@ -276,35 +320,24 @@ public class SegmentsCostCache
       return leftCost;
     }
 
-    private double rightCost(DataSegment dataSegment, double t0, double t1, int index)
+    private double rightCost(long segmentStart, long segmentEnd, double t0, double t1, int index)
     {
       double rightCost = 0.0;
       // add all right-overlapping segments
       int rightIndex = index;
-      while (rightIndex < sortedSegments.size() &&
-             sortedSegments.get(rightIndex).getInterval().overlaps(dataSegment.getInterval())) {
-        double start = convertStart(sortedSegments.get(rightIndex), interval);
-        double end = convertEnd(sortedSegments.get(rightIndex), interval);
+      while (rightIndex < startMillis.length && overlaps(rightIndex, segmentStart, segmentEnd)) {
+        double start = toLocalInterval(startMillis[rightIndex], interval);
+        double end = toLocalInterval(endMillis[rightIndex], interval);
         rightCost += CostBalancerStrategy.intervalCost(t1 - t0, start - t0, end - t0);
         ++rightIndex;
       }
       // add right-non-overlapping segments
-      if (rightIndex < sortedSegments.size()) {
+      if (rightIndex < startMillis.length) {
         rightCost += rightSum[rightIndex] * (FastMath.exp(t0) - FastMath.exp(t1));
       }
       return rightCost;
     }
 
-    private static double convertStart(DataSegment dataSegment, Interval interval)
-    {
-      return toLocalInterval(dataSegment.getInterval().getStartMillis(), interval);
-    }
-
-    private static double convertEnd(DataSegment dataSegment, Interval interval)
-    {
-      return toLocalInterval(dataSegment.getInterval().getEndMillis(), interval);
-    }
-
     private static double toLocalInterval(long millis, Interval interval)
     {
       return (millis - interval.getStartMillis()) / MILLIS_FACTOR;
@@ -315,10 +348,25 @@ public class SegmentsCostCache
       return new Builder(interval);
     }
 
+    /**
+     * Keeps the segments of a bucket in an array, whose prefix is sorted by {@link #SEGMENT_COMPARATOR} and may
+     * contain segments marked as removed, followed by the unsorted segments added since the last compaction. This
+     * makes additions O(1) and removals O(log n) amortized, compared to maintaining the pre-computed sums of a sorted
+     * set on every update. The sums are computed only when a bucket that has changed since the previous build is
+     * built again, so that rebuilding a large cache after a few updates only costs as much as the changed buckets.
+     */
     static class Builder
     {
+      private static final int INITIAL_CAPACITY = 16;
+
       private final Interval interval;
-      private final NavigableSet<SegmentAndSum> segments = new TreeSet<>();
+      private final BitSet removed = new BitSet();
+      private DataSegment[] segments = new DataSegment[INITIAL_CAPACITY];
+      private int size = 0;
+      private int sortedSize = 0;
+      private int numRemoved = 0;
+      @Nullable
+      private Bucket bucket = null;
 
       public Builder(Interval interval)
       {
@@ -331,113 +379,129 @@ public class SegmentsCostCache
           throw new ISE("Failed to add segment to bucket: interval is not covered by this bucket");
         }
 
-        // all values are pre-computed relatively to bucket start (which is considered as 0)
-        double t0 = convertStart(dataSegment, interval);
-        double t1 = convertEnd(dataSegment, interval);
-
-        double leftValue = FastMath.exp(t0) - FastMath.exp(t1);
-        double rightValue = FastMath.exp(-t1) - FastMath.exp(-t0);
-
-        SegmentAndSum segmentAndSum = new SegmentAndSum(dataSegment, leftValue, rightValue);
-
-        // left/right value should be added to left/right sums for elements greater/lower than current segment
-        segments.tailSet(segmentAndSum).forEach(v -> v.leftSum += leftValue);
-        segments.headSet(segmentAndSum).forEach(v -> v.rightSum += rightValue);
-
-        // leftSum_i = leftValue_i + \sum leftValue_j = leftValue_i + leftSum_{i-1} , j < i
-        SegmentAndSum lower = segments.lower(segmentAndSum);
-        if (lower != null) {
-          segmentAndSum.leftSum = leftValue + lower.leftSum;
-        }
-
-        // rightSum_i = rightValue_i + \sum rightValue_j = rightValue_i + rightSum_{i+1} , j > i
-        SegmentAndSum higher = segments.higher(segmentAndSum);
-        if (higher != null) {
-          segmentAndSum.rightSum = rightValue + higher.rightSum;
+        if (size == segments.length) {
+          segments = Arrays.copyOf(segments, size * 2);
         }
+        segments[size++] = dataSegment;
+        bucket = null;
 
-        if (!segments.add(segmentAndSum)) {
-          throw new ISE("expect new segment");
+        // bounds the cost of searching the unsorted segments on removal, while keeping sorting amortized
+        if (size - sortedSize > Math.max(sortedSize, INITIAL_CAPACITY)) {
+          compact();
         }
         return this;
       }
 
       public Builder removeSegment(DataSegment dataSegment)
       {
-        SegmentAndSum segmentAndSum = new SegmentAndSum(dataSegment, 0.0, 0.0);
-
-        if (!segments.remove(segmentAndSum)) {
-          return this;
+        int index = Arrays.binarySearch(segments, 0, sortedSize, dataSegment, SEGMENT_COMPARATOR);
+        if (index >= 0 && !removed.get(index)) {
+          removed.set(index);
+          ++numRemoved;
+          bucket = null;
         }
 
-        double t0 = convertStart(dataSegment, interval);
-        double t1 = convertEnd(dataSegment, interval);
-
-        double leftValue = FastMath.exp(t0) - FastMath.exp(t1);
-        double rightValue = FastMath.exp(-t1) - FastMath.exp(-t0);
-
-        segments.tailSet(segmentAndSum).forEach(v -> v.leftSum -= leftValue);
-        segments.headSet(segmentAndSum).forEach(v -> v.rightSum -= rightValue);
+        for (int i = size - 1; i >= sortedSize; --i) {
+          if (segments[i].equals(dataSegment)) {
+            segments[i] = segments[--size];
+            segments[size] = null;
+            bucket = null;
+          }
+        }
         return this;
       }
 
       public boolean isEmpty()
       {
-        return segments.isEmpty();
+        return size == numRemoved;
       }
 
       public Bucket build()
       {
-        ArrayList<DataSegment> segmentsList = new ArrayList<>(segments.size());
-        double[] leftSum = new double[segments.size()];
-        double[] rightSum = new double[segments.size()];
-        int i = 0;
-        for (SegmentAndSum segmentAndSum : segments) {
-          segmentsList.add(segmentAndSum.dataSegment);
-          leftSum[i] = segmentAndSum.leftSum;
-          rightSum[i] = segmentAndSum.rightSum;
-          ++i;
+        if (bucket != null) {
+          return bucket;
         }
-        long bucketEndMillis = segmentsList
-            .stream()
-            .mapToLong(s -> s.getInterval().getEndMillis())
-            .max()
-            .orElseGet(interval::getEndMillis);
-        return new Bucket(Intervals.utc(interval.getStartMillis(), bucketEndMillis), segmentsList, leftSum, rightSum);
-      }
-    }
-  }
 
-  static class SegmentAndSum implements Comparable<SegmentAndSum>
-  {
-    private final DataSegment dataSegment;
-    private double leftSum;
-    private double rightSum;
+        if (sortedSize < size || numRemoved > 0) {
+          compact();
+        }
 
-    SegmentAndSum(DataSegment dataSegment, double leftSum, double rightSum)
-    {
-      this.dataSegment = dataSegment;
-      this.leftSum = leftSum;
-      this.rightSum = rightSum;
-    }
+        long[] startMillis = new long[size];
+        long[] endMillis = new long[size];
+        double[] leftSum = new double[size];
+        double[] rightSum = new double[size];
+        long bucketEndMillis = (size == 0) ? interval.getEndMillis() : Long.MIN_VALUE;
+        for (int i = 0; i < size; ++i) {
+          startMillis[i] = segments[i].getInterval().getStartMillis();
+          endMillis[i] = segments[i].getInterval().getEndMillis();
+          bucketEndMillis = Math.max(bucketEndMillis, endMillis[i]);
+        }
 
-    @Override
-    public int compareTo(SegmentAndSum o)
-    {
-      int c = Comparators.intervalsByStartThenEnd().compare(dataSegment.getInterval(), o.dataSegment.getInterval());
-      return (c != 0) ? c : dataSegment.compareTo(o.dataSegment);
-    }
+        // all values are pre-computed relatively to bucket start (which is considered as 0)
+        // leftSum_i = leftValue_i + \sum leftValue_j = leftValue_i + leftSum_{i-1} , j < i
+        double sum = 0.0;
+        for (int i = 0; i < size; ++i) {
+          double t0 = toLocalInterval(startMillis[i], interval);
+          double t1 = toLocalInterval(endMillis[i], interval);
+          sum += FastMath.exp(t0) - FastMath.exp(t1);
+          leftSum[i] = sum;
+        }
 
-    @Override
-    public boolean equals(Object obj)
-    {
-      throw new UnsupportedOperationException("Use SegmentAndSum.compareTo()");
-    }
+        // rightSum_i = rightValue_i + \sum rightValue_j = rightValue_i + rightSum_{i+1} , j > i
+        sum = 0.0;
+        for (int i = size - 1; i >= 0; --i) {
+          double t0 = toLocalInterval(startMillis[i], interval);
+          double t1 = toLocalInterval(endMillis[i], interval);
+          sum += FastMath.exp(-t1) - FastMath.exp(-t0);
+          rightSum[i] = sum;
+        }
 
-    @Override
-    public int hashCode()
-    {
-      throw new UnsupportedOperationException();
+        bucket = new Bucket(
+            Intervals.utc(interval.getStartMillis(), bucketEndMillis),
+            startMillis,
+            endMillis,
+            leftSum,
+            rightSum
+        );
+        return bucket;
+      }
+
+      /**
+       * Sorts the segments added since the last compaction and merges them with the sorted ones, dropping the
+       * segments marked as removed and the ones that were added more than once.
+       */
+      private void compact()
+      {
+        Arrays.sort(segments, sortedSize, size, SEGMENT_COMPARATOR);
+
+        DataSegment[] merged = new DataSegment[Math.max(INITIAL_CAPACITY, size - numRemoved)];
+        int mergedSize = 0;
+        int i = 0;
+        int j = sortedSize;
+        while (i < sortedSize || j < size) {
+          if (i < sortedSize && removed.get(i)) {
+            ++i;
+            continue;
+          }
+
+          DataSegment next;
+          if (j == size || (i < sortedSize && SEGMENT_COMPARATOR.compare(segments[i], segments[j]) <= 0)) {
+            next = segments[i++];
+          } else {
+            next = segments[j++];
+          }
+
+          if (mergedSize == 0 || !merged[mergedSize - 1].equals(next)) {
+            merged[mergedSize++] = next;
+          }
+        }
+
+        segments = merged;
+        size = mergedSize;
+        sortedSize = mergedSize;
+        removed.clear();
+        numRemoved = 0;
+      }
     }
   }
 }
@@ -51,6 +51,20 @@ public class ServerCostCache
     return (costCache == null) ? 0.0 : costCache.cost(segment);
   }
 
+  /**
+   * Computes the cost of placing the given segment together with the given other segments without building a cache,
+   * counting the segments of the same data source twice, like {@link #computeCost} does.
+   */
+  public static double computeJointCost(DataSegment segment, Iterable<DataSegment> segments)
+  {
+    double cost = 0.0;
+    for (DataSegment other : segments) {
+      final double jointCost = SegmentsCostCache.computeJointCost(segment, other);
+      cost += segment.getDataSource().equals(other.getDataSource()) ? 2 * jointCost : jointCost;
+    }
+    return cost;
+  }
+
   public static Builder builder()
   {
     return new Builder();
@@ -34,6 +34,7 @@ import org.apache.druid.server.coordination.BatchDataSegmentAnnouncer;
 import org.apache.druid.server.coordination.ChangeRequestHistory;
 import org.apache.druid.server.coordination.ChangeRequestsSnapshot;
 import org.apache.druid.server.coordination.DataSegmentChangeRequest;
+import org.apache.druid.server.coordination.SegmentChangeRequestsSnapshotCodec;
 import org.apache.druid.server.coordination.SegmentLoadDropHandler;
 import org.apache.druid.server.coordinator.HttpLoadQueuePeon;
 import org.apache.druid.server.http.security.StateResourceFilter;
@@ -66,6 +67,7 @@ public class SegmentListerResource
 
   protected final ObjectMapper jsonMapper;
   protected final ObjectMapper smileMapper;
+  private final SegmentChangeRequestsSnapshotCodec segmentChangesCodec;
   private final BatchDataSegmentAnnouncer announcer;
   private final SegmentLoadDropHandler loadDropRequestHandler;
 
@@ -79,6 +81,7 @@ public class SegmentListerResource
   {
     this.jsonMapper = jsonMapper;
     this.smileMapper = smileMapper;
+    this.segmentChangesCodec = new SegmentChangeRequestsSnapshotCodec(smileMapper);
     this.announcer = announcer;
     this.loadDropRequestHandler = loadDropRequestHandler;
   }
@@ -111,8 +114,16 @@ public class SegmentListerResource
    * @throws IOException
    */
   @GET
-  @Produces({MediaType.APPLICATION_JSON, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
-  @Consumes({MediaType.APPLICATION_JSON, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
+  @Produces({
+      MediaType.APPLICATION_JSON,
+      SmileMediaTypes.APPLICATION_JACKSON_SMILE,
+      SegmentChangeRequestsSnapshotCodec.MEDIA_TYPE
+  })
+  @Consumes({
+      MediaType.APPLICATION_JSON,
+      SmileMediaTypes.APPLICATION_JACKSON_SMILE,
+      SegmentChangeRequestsSnapshotCodec.MEDIA_TYPE
+  })
   public void getSegments(
       @QueryParam("counter") long counter,
       @QueryParam("hash") long hash,
@@ -130,6 +141,7 @@ public class SegmentListerResource
       return;
     }
 
+    final boolean isCompact = SegmentChangeRequestsSnapshotCodec.MEDIA_TYPE.equals(req.getHeader("Accept"));
     final ResponseContext context = createContext(req.getHeader("Accept"));
     final ListenableFuture<ChangeRequestsSnapshot<DataSegmentChangeRequest>> future = announcer.getSegmentChangesSince(
         new ChangeRequestHistory.Counter(
@@ -179,8 +191,13 @@ public class SegmentListerResource
             try {
               HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
               response.setStatus(HttpServletResponse.SC_OK);
-              context.inputMapper.writerWithType(HttpServerInventoryView.SEGMENT_LIST_RESP_TYPE_REF)
-                                 .writeValue(asyncContext.getResponse().getOutputStream(), result);
+              if (isCompact) {
+                response.setContentType(SegmentChangeRequestsSnapshotCodec.MEDIA_TYPE);
+                segmentChangesCodec.encode(result, response.getOutputStream());
+              } else {
+                context.inputMapper.writerWithType(HttpServerInventoryView.SEGMENT_LIST_RESP_TYPE_REF)
+                                   .writeValue(asyncContext.getResponse().getOutputStream(), result);
+              }
               asyncContext.complete();
             }
             catch (Exception ex) {
@@ -39,6 +39,9 @@ public class HistoricalMetricsMonitor extends AbstractMonitor
   private final SegmentManager segmentManager;
   private final SegmentLoadDropHandler segmentLoadDropMgr;
 
+  private long lastDownloadedBytes = 0;
+  private long lastMonitorNanos = -1;
+
   @Inject
   public HistoricalMetricsMonitor(
       DruidServerConfig serverConfig,
@@ -104,6 +107,33 @@ public class HistoricalMetricsMonitor extends AbstractMonitor
       emitter.emit(builder.build("segment/count", count));
     }
 
+    emitDownloadMetrics(emitter);
+
     return true;
   }
+
+  private void emitDownloadMetrics(ServiceEmitter emitter)
+  {
+    final int pendingDownloads = segmentLoadDropMgr.getPendingDownloadCount();
+    final int pendingLoads = segmentLoadDropMgr.getPendingLoadCount();
+    final long downloadedBytes = segmentLoadDropMgr.getDownloadedBytes();
+    final long now = System.nanoTime();
+
+    final ServiceMetricEvent.Builder builder =
+        new ServiceMetricEvent.Builder().setDimension("tier", serverConfig.getTier())
+                                        .setDimension("priority", String.valueOf(serverConfig.getPriority()));
+
+    emitter.emit(builder.build("segment/download/queued", pendingDownloads));
+    emitter.emit(builder.build("segment/load/queued", pendingLoads));
+
+    final long downloadedBytesDelta = downloadedBytes - lastDownloadedBytes;
+    emitter.emit(builder.build("segment/download/bytes", downloadedBytesDelta));
+    if (lastMonitorNanos >= 0 && now > lastMonitorNanos) {
+      final double bytesPerSecond = downloadedBytesDelta * 1e9 / (now - lastMonitorNanos);
+      emitter.emit(builder.build("segment/download/bytesPerSecond", bytesPerSecond));
+    }
+
+    lastDownloadedBytes = downloadedBytes;
+    lastMonitorNanos = now;
+  }
 }
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.metrics;
+
+import com.google.inject.Inject;
+import org.apache.druid.client.DruidServerConfig;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
+import org.apache.druid.java.util.metrics.AbstractMonitor;
+import org.apache.druid.query.DruidMetrics;
+import org.apache.druid.server.SegmentManager;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reports which fraction of the columns of each dataSource is in the page cache, by sampling a few pages of a few
+ * randomly chosen segments per dataSource on every run, see {@link SegmentManager#sampleResidency}.
+ */
+public class SegmentPageCacheMonitor extends AbstractMonitor
+{
+  private static final Logger log = new Logger(SegmentPageCacheMonitor.class);
+
+  static final int MAX_SEGMENTS_PER_DATASOURCE = 10;
+  static final int SAMPLES_PER_COLUMN = 16;
+
+  private final DruidServerConfig serverConfig;
+  private final SegmentManager segmentManager;
+
+  @Inject
+  public SegmentPageCacheMonitor(DruidServerConfig serverConfig, SegmentManager segmentManager)
+  {
+    this.serverConfig = serverConfig;
+    this.segmentManager = segmentManager;
+  }
+
+  @Override
+  public boolean doMonitor(ServiceEmitter emitter)
+  {
+    for (String dataSource : segmentManager.getDataSourceCounts().keySet()) {
+      final Map<String, Double> residency;
+      try {
+        residency = segmentManager.sampleResidency(dataSource, MAX_SEGMENTS_PER_DATASOURCE, SAMPLES_PER_COLUMN);
+      }
+      catch (IOException e) {
+        log.warn(e, "Failed to sample page cache residency of dataSource[%s].", dataSource);
+        continue;
+      }
+
+      for (Map.Entry<String, Double> entry : residency.entrySet()) {
+        emitter.emit(
+            new ServiceMetricEvent.Builder()
+                .setDimension(DruidMetrics.DATASOURCE, dataSource)
+                .setDimension("column", entry.getKey())
+                .setDimension("tier", serverConfig.getTier())
+                .setDimension("priority", String.valueOf(serverConfig.getPriority()))
+                .build("segment/pageCache/residentRatio", entry.getValue())
+        );
+      }
+    }
+    return true;
+  }
+}
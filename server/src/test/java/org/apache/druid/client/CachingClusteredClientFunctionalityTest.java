@@ -49,6 +49,7 @@ import org.apache.druid.query.QueryToolChestWarehouse;
 import org.apache.druid.query.aggregation.CountAggregatorFactory;
 import org.apache.druid.query.select.SelectQueryConfig;
 import org.apache.druid.server.coordination.ServerType;
+import org.apache.druid.server.metrics.NoopServiceEmitter;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.VersionedIntervalTimeline;
 import org.apache.druid.timeline.partition.NoneShardSpec;
@@ -69,6 +70,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  */
@@ -314,7 +316,10 @@ public class CachingClusteredClientFunctionalityTest
           {
             return 0L;
           }
-        }
+        },
+        new BrokerParallelMergeConfig(),
+        ForkJoinPool.commonPool(),
+        new NoopServiceEmitter()
     );
   }
 
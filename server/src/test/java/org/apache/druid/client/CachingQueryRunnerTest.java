@@ -64,6 +64,7 @@ import org.apache.druid.query.topn.TopNQueryConfig;
 import org.apache.druid.query.topn.TopNQueryQueryToolChest;
 import org.apache.druid.query.topn.TopNResultValue;
 import org.joda.time.DateTime;
+import org.joda.time.Interval;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -74,6 +75,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -198,6 +200,103 @@ public class CachingQueryRunnerTest
     }
   }
 
+  @Test(timeout = 60_000L)
+  public void testTimeseriesGranularityBucketCache() throws InterruptedException
+  {
+    final TimeseriesQuery query = Druids.newTimeseriesQueryBuilder()
+                                        .dataSource(QueryRunnerTestHelper.dataSource)
+                                        .granularity(QueryRunnerTestHelper.dayGran)
+                                        .intervals(QueryRunnerTestHelper.firstToThird)
+                                        .aggregators(Collections.singletonList(QueryRunnerTestHelper.rowsCount))
+                                        .build();
+    final QueryToolChest toolChest = new TimeseriesQueryQueryToolChest(
+        QueryRunnerTestHelper.noopIntervalChunkingQueryRunnerDecorator()
+    );
+    final Cache cache = MapCache.create(1024 * 1024);
+    final List<Interval> queriedIntervals = new ArrayList<>();
+
+    // Returns a row per day of the queried interval, with the day of month as row count.
+    final QueryRunner<Result<TimeseriesResultValue>> base = (queryPlus, responseContext) -> {
+      final Interval interval = Iterables.getOnlyElement(queryPlus.getQuery().getIntervals());
+      queriedIntervals.add(interval);
+      final List<Result<TimeseriesResultValue>> results = new ArrayList<>();
+      for (Interval day : Granularities.DAY.getIterable(interval)) {
+        results.add(makeTimeseriesResult(day.getStart().toString()));
+      }
+      return Sequences.simple(results);
+    };
+
+    final CacheConfig cacheConfig = new CacheConfig()
+    {
+      @Override
+      public boolean isPopulateCache()
+      {
+        return true;
+      }
+
+      @Override
+      public boolean isUseCache()
+      {
+        return true;
+      }
+
+      @Override
+      public boolean isUseGranularityBucketCache()
+      {
+        return true;
+      }
+    };
+
+    final CachingQueryRunner<Result<TimeseriesResultValue>> firstRunner = new CachingQueryRunner<>(
+        "segment",
+        new SegmentDescriptor(Intervals.of("2011-04-01/2011-04-03"), "version", 0),
+        objectMapper,
+        cache,
+        toolChest,
+        base,
+        cachePopulator,
+        cacheConfig
+    );
+    Assert.assertEquals(
+        Arrays.asList(makeTimeseriesResult("2011-04-01"), makeTimeseriesResult("2011-04-02")),
+        firstRunner.run(QueryPlus.wrap(query), new HashMap<>()).toList()
+    );
+    Assert.assertEquals(Collections.singletonList(Intervals.of("2011-04-01/2011-04-03")), queriedIntervals);
+
+    // Wait for background updates to happen, one cache entry per day.
+    while (cache.getStats().getNumEntries() < 2) {
+      Thread.sleep(10);
+    }
+
+    // The interval shifted by a day only needs to compute the last day, the other one is cached.
+    queriedIntervals.clear();
+    final CachingQueryRunner<Result<TimeseriesResultValue>> secondRunner = new CachingQueryRunner<>(
+        "segment",
+        new SegmentDescriptor(Intervals.of("2011-04-02/2011-04-04"), "version", 0),
+        objectMapper,
+        cache,
+        toolChest,
+        base,
+        cachePopulator,
+        cacheConfig
+    );
+    // Cached counts are deserialized as integers, so compare the string representations.
+    Assert.assertEquals(
+        Arrays.asList(makeTimeseriesResult("2011-04-02"), makeTimeseriesResult("2011-04-03")).toString(),
+        secondRunner.run(QueryPlus.wrap(query), new HashMap<>()).toList().toString()
+    );
+    Assert.assertEquals(Collections.singletonList(Intervals.of("2011-04-03/2011-04-04")), queriedIntervals);
+  }
+
+  private static Result<TimeseriesResultValue> makeTimeseriesResult(String time)
+  {
+    final DateTime timestamp = DateTimes.of(time);
+    return new Result<>(
+        timestamp,
+        new TimeseriesResultValue(ImmutableMap.of("rows", (long) timestamp.getDayOfMonth()))
+    );
+  }
+
   private void testCloseAndPopulate(
       List<Result> expectedRes,
       List<Result> expectedCacheRes,
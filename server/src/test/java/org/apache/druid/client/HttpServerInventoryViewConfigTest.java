@@ -39,6 +39,7 @@ public class HttpServerInventoryViewConfigTest
     Assert.assertEquals(TimeUnit.MINUTES.toMillis(4), config.getServerTimeout());
     Assert.assertEquals(TimeUnit.MINUTES.toMillis(1), config.getServerUnstabilityTimeout());
     Assert.assertEquals(5, config.getNumThreads());
+    Assert.assertFalse(config.isUseCompactSegmentFormat());
   }
 
   @Test
@@ -47,7 +48,8 @@ public class HttpServerInventoryViewConfigTest
     String json = "{\n"
                   + "  \"serverTimeout\": \"PT2M\",\n"
                   + "  \"serverUnstabilityTimeout\": \"PT3M\",\n"
-                  + "  \"numThreads\": 7\n"
+                  + "  \"numThreads\": 7,\n"
+                  + "  \"useCompactSegmentFormat\": true\n"
                   + "}";
 
     HttpServerInventoryViewConfig config = TestHelper.makeJsonMapper().readValue(json, HttpServerInventoryViewConfig.class);
@@ -55,5 +57,6 @@ public class HttpServerInventoryViewConfigTest
     Assert.assertEquals(TimeUnit.MINUTES.toMillis(2), config.getServerTimeout());
     Assert.assertEquals(TimeUnit.MINUTES.toMillis(3), config.getServerUnstabilityTimeout());
     Assert.assertEquals(7, config.getNumThreads());
+    Assert.assertTrue(config.isUseCompactSegmentFormat());
   }
 }
@@ -182,7 +182,7 @@ public class HttpServerInventoryViewTest
         httpClient,
         druidNodeDiscoveryProvider,
         (pair) -> !pair.rhs.getDataSource().equals("non-loading-datasource"),
-        new HttpServerInventoryViewConfig(null, null, null)
+        new HttpServerInventoryViewConfig(null, null, null, null)
     );
 
     CountDownLatch initializeCallback1 = new CountDownLatch(1);
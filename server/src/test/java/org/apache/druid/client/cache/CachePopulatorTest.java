@@ -123,6 +123,43 @@ public class CachePopulatorTest
     Assert.assertEquals(1, stats.snapshot().getNumOversized());
   }
 
+  @Test
+  public void testForegroundPopulatorMultipleKeys()
+  {
+    final CachePopulator populator = new ForegroundCachePopulator(objectMapper, stats, 30);
+    final List<String> strings = ImmutableList.of("foo", "bar", "baralararararararaarararararaa", "baz");
+
+    Assert.assertEquals(strings, wrapAndReturnByFirstLetter(populator, strings));
+    Assert.assertEquals(ImmutableList.of("foo"), readFromCache(makeKey(1)));
+    Assert.assertEquals(ImmutableList.of(), readFromCache(makeKey(2)));
+    Assert.assertNull(readFromCache(makeKey(3)));
+
+    Assert.assertEquals(2, stats.snapshot().getNumOk());
+    Assert.assertEquals(0, stats.snapshot().getNumError());
+    Assert.assertEquals(1, stats.snapshot().getNumOversized());
+  }
+
+  @Test(timeout = 60000L)
+  public void testBackgroundPopulatorMultipleKeys() throws InterruptedException
+  {
+    final CachePopulator populator = new BackgroundCachePopulator(exec, objectMapper, stats, 30);
+    final List<String> strings = ImmutableList.of("foo", "bar", "baralararararararaarararararaa", "baz");
+
+    Assert.assertEquals(strings, wrapAndReturnByFirstLetter(populator, strings));
+
+    // Wait for background updates to happen.
+    while (cache.getStats().getNumEntries() < 2 || stats.snapshot().getNumOversized() < 1) {
+      Thread.sleep(100);
+    }
+
+    Assert.assertEquals(ImmutableList.of("foo"), readFromCache(makeKey(1)));
+    Assert.assertEquals(ImmutableList.of(), readFromCache(makeKey(2)));
+    Assert.assertNull(readFromCache(makeKey(3)));
+    Assert.assertEquals(2, stats.snapshot().getNumOk());
+    Assert.assertEquals(0, stats.snapshot().getNumError());
+    Assert.assertEquals(1, stats.snapshot().getNumOversized());
+  }
+
   private static Cache.NamedKey makeKey(final int n)
   {
     return new Cache.NamedKey("test", Ints.toByteArray(n));
@@ -137,6 +174,20 @@ public class CachePopulatorTest
     return populator.wrap(Sequences.simple(strings), s -> ImmutableMap.of("s", s), cache, key).toList();
   }
 
+  /**
+   * Caches strings starting with "f" under key 1, none under key 2, and strings starting with "b" under key 3.
+   */
+  private List<String> wrapAndReturnByFirstLetter(final CachePopulator populator, final List<String> strings)
+  {
+    return populator.wrap(
+        Sequences.simple(strings),
+        s -> ImmutableMap.of("s", s),
+        cache,
+        ImmutableList.of(makeKey(1), makeKey(2), makeKey(3)),
+        s -> s.startsWith("f") ? 0 : 2
+    ).toList();
+  }
+
   private List<String> readFromCache(final Cache.NamedKey key)
   {
     final byte[] bytes = cache.get(key);
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import org.apache.druid.java.util.common.StringUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+public class OffHeapCacheTest
+{
+  private static final byte[] HI = StringUtils.toUtf8("hiiiiiiiiiiiiiiiiiii");
+  private static final byte[] HO = StringUtils.toUtf8("hooooooooooooooooooo");
+
+  private final Random random = new Random(3478178);
+  private OffHeapCache cache;
+
+  @Before
+  public void setUp()
+  {
+    cache = OffHeapCache.create(makeConfig(4096));
+  }
+
+  @After
+  public void tearDown()
+  {
+    cache.close();
+  }
+
+  @Test
+  public void testPutAndGet()
+  {
+    Assert.assertNull(cache.get(new Cache.NamedKey("a", HI)));
+    cache.put(new Cache.NamedKey("a", HI), Ints.toByteArray(1));
+    cache.put(new Cache.NamedKey("a", HO), HO);
+
+    Assert.assertEquals(1, Ints.fromByteArray(cache.get(new Cache.NamedKey("a", HI))));
+    Assert.assertArrayEquals(HO, cache.get(new Cache.NamedKey("a", HO)));
+    Assert.assertNull(cache.get(new Cache.NamedKey("b", HI)));
+
+    cache.put(new Cache.NamedKey("a", HI), Ints.toByteArray(2));
+    Assert.assertEquals(2, Ints.fromByteArray(cache.get(new Cache.NamedKey("a", HI))));
+
+    final CacheStats stats = cache.getStats();
+    Assert.assertEquals(3, stats.getNumHits());
+    Assert.assertEquals(2, stats.getNumMisses());
+    Assert.assertEquals(2, stats.getNumEntries());
+  }
+
+  @Test
+  public void testGetBulk()
+  {
+    final Cache.NamedKey key1 = new Cache.NamedKey("a", HI);
+    final Cache.NamedKey key2 = new Cache.NamedKey("a", HO);
+    final Cache.NamedKey missing = new Cache.NamedKey("b", HI);
+    cache.put(key1, Ints.toByteArray(1));
+    cache.put(key2, Ints.toByteArray(2));
+
+    final Map<Cache.NamedKey, byte[]> results = cache.getBulk(ImmutableList.of(key1, key2, missing));
+    Assert.assertEquals(2, results.size());
+    Assert.assertEquals(1, Ints.fromByteArray(results.get(key1)));
+    Assert.assertEquals(2, Ints.fromByteArray(results.get(key2)));
+  }
+
+  @Test
+  public void testCloseNamespace()
+  {
+    cache.put(new Cache.NamedKey("a", HI), HI);
+    cache.put(new Cache.NamedKey("b", HI), HI);
+
+    cache.close("a");
+
+    Assert.assertNull(cache.get(new Cache.NamedKey("a", HI)));
+    Assert.assertArrayEquals(HI, cache.get(new Cache.NamedKey("b", HI)));
+  }
+
+  @Test
+  public void testEviction()
+  {
+    // Incompressible values of 900 bytes, so that four of them fit.
+    for (int i = 0; i < 10; i++) {
+      cache.put(new Cache.NamedKey("a", Ints.toByteArray(i)), randomBytes(900));
+    }
+
+    for (int i = 0; i < 6; i++) {
+      Assert.assertNull(cache.get(new Cache.NamedKey("a", Ints.toByteArray(i))));
+    }
+    for (int i = 6; i < 10; i++) {
+      Assert.assertNotNull(cache.get(new Cache.NamedKey("a", Ints.toByteArray(i))));
+    }
+    Assert.assertEquals(6, cache.getStats().getNumEvictions());
+    Assert.assertEquals(4, cache.getStats().getNumEntries());
+  }
+
+  @Test
+  public void testAdmission()
+  {
+    final Cache.NamedKey hot = new Cache.NamedKey("a", Ints.toByteArray(0));
+    final byte[] hotValue = randomBytes(900);
+    cache.put(hot, hotValue);
+    for (int i = 1; i < 4; i++) {
+      cache.put(new Cache.NamedKey("a", Ints.toByteArray(i)), randomBytes(900));
+    }
+    for (int i = 0; i < 5; i++) {
+      Assert.assertArrayEquals(hotValue, cache.get(hot));
+    }
+
+    // A value requested less often than the oldest one is not admitted.
+    final Cache.NamedKey cold = new Cache.NamedKey("a", Ints.toByteArray(4));
+    cache.put(cold, randomBytes(900));
+    Assert.assertNull(cache.get(cold));
+    Assert.assertArrayEquals(hotValue, cache.get(hot));
+    Assert.assertEquals(1, cache.getRejectionCount());
+
+    // A value requested more often evicts it.
+    final Cache.NamedKey popular = new Cache.NamedKey("a", Ints.toByteArray(5));
+    for (int i = 0; i < 10; i++) {
+      Assert.assertNull(cache.get(popular));
+    }
+    final byte[] popularValue = randomBytes(900);
+    cache.put(popular, popularValue);
+    Assert.assertArrayEquals(popularValue, cache.get(popular));
+    Assert.assertNull(cache.get(hot));
+  }
+
+  @Test
+  public void testTooLarge()
+  {
+    cache.put(new Cache.NamedKey("a", HI), randomBytes(2048));
+    Assert.assertNull(cache.get(new Cache.NamedKey("a", HI)));
+    Assert.assertEquals(1, cache.getRejectionCount());
+  }
+
+  @Test
+  public void testClose()
+  {
+    cache.put(new Cache.NamedKey("a", HI), HI);
+    cache.close();
+    Assert.assertNull(cache.get(new Cache.NamedKey("a", HI)));
+  }
+
+  private byte[] randomBytes(int length)
+  {
+    final byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+
+  private static OffHeapCacheConfig makeConfig(long sizeInBytes)
+  {
+    return new OffHeapCacheConfig()
+    {
+      @Override
+      public long getSizeInBytes()
+      {
+        return sizeInBytes;
+      }
+
+      @Override
+      public int getConcurrencyLevel()
+      {
+        return 1;
+      }
+
+      @Override
+      public boolean isEvictOnClose()
+      {
+        return true;
+      }
+    };
+  }
+}
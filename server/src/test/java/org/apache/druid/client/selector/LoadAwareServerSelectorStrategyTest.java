@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.selector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.druid.client.DirectDruidClient;
+import org.apache.druid.client.DruidServer;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.server.coordination.ServerType;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+
+public class LoadAwareServerSelectorStrategyTest
+{
+  private final LoadAwareServerSelectorStrategy strategy = new LoadAwareServerSelectorStrategy(null);
+
+  @Test
+  public void testPicksLessLoadedServer()
+  {
+    final QueryableDruidServer idle = makeServer("idle", new ServerLoad(0, 1, 8, 10_000), 0);
+    final QueryableDruidServer busy = makeServer("busy", new ServerLoad(100, 8, 8, 10_000), 0);
+    final Set<QueryableDruidServer> servers = ImmutableSet.of(idle, busy);
+
+    for (int i = 0; i < 100; i++) {
+      Assert.assertSame(idle, strategy.pick(servers, null));
+    }
+  }
+
+  @Test
+  public void testCountsOpenConnections()
+  {
+    // Same reported load, but this broker already has queries in flight to the first server.
+    final QueryableDruidServer inFlight = makeServer("inFlight", new ServerLoad(4, 8, 8, 10_000), 10);
+    final QueryableDruidServer other = makeServer("other", new ServerLoad(4, 8, 8, 10_000), 0);
+
+    Assert.assertSame(other, strategy.pick(ImmutableSet.of(inFlight, other), null));
+  }
+
+  @Test
+  public void testFallsBackToConnectionCountWithoutLoad()
+  {
+    final QueryableDruidServer unknown = makeServer("unknown", null, 1);
+    final QueryableDruidServer busy = makeServer("busy", new ServerLoad(100, 8, 8, 10_000), 0);
+
+    for (int i = 0; i < 100; i++) {
+      Assert.assertSame(busy, strategy.pick(ImmutableSet.of(unknown, busy), null));
+    }
+  }
+
+  @Test
+  public void testPickMultiple()
+  {
+    final QueryableDruidServer server1 = makeServer("server1", new ServerLoad(10, 8, 8, 1000), 0);
+    final QueryableDruidServer server2 = makeServer("server2", new ServerLoad(0, 0, 8, 1000), 0);
+    final QueryableDruidServer server3 = makeServer("server3", new ServerLoad(50, 8, 8, 1000), 0);
+    final QueryableDruidServer server4 = makeServer("server4", new ServerLoad(1, 2, 8, 1000), 0);
+
+    Assert.assertEquals(
+        ImmutableList.of(server2, server4),
+        strategy.pick(ImmutableSet.of(server1, server2, server3, server4), null, 2)
+    );
+  }
+
+  @Test
+  public void testServerLoadHeader()
+  {
+    final ServerLoad load = new ServerLoad(3, 7, 8, 12345);
+    Assert.assertEquals(load, ServerLoad.fromHeaderValue(load.toHeaderValue()));
+    Assert.assertEquals(10.0 / 8 * 12345, load.getEstimatedWaitMicros(), 0.001);
+
+    Assert.assertNull(ServerLoad.fromHeaderValue(null));
+    Assert.assertNull(ServerLoad.fromHeaderValue("1,2,3"));
+    Assert.assertNull(ServerLoad.fromHeaderValue("1,2,x,4"));
+    Assert.assertNull(ServerLoad.fromHeaderValue("1,2,0,4"));
+  }
+
+  @Test
+  public void testSerde() throws Exception
+  {
+    final ObjectMapper mapper = new DefaultObjectMapper();
+    final ServerSelectorStrategy fromJson = mapper.readValue(
+        "{\"type\": \"loadAware\", \"maxLoadAgeMillis\": 5000}",
+        ServerSelectorStrategy.class
+    );
+    Assert.assertTrue(fromJson instanceof LoadAwareServerSelectorStrategy);
+    Assert.assertEquals(5000, ((LoadAwareServerSelectorStrategy) fromJson).getMaxLoadAgeMillis());
+  }
+
+  private static QueryableDruidServer makeServer(String name, @Nullable ServerLoad load, int openConnections)
+  {
+    final DirectDruidClient client = EasyMock.createMock(DirectDruidClient.class);
+    EasyMock.expect(client.getServerLoad(EasyMock.anyLong())).andReturn(load).anyTimes();
+    EasyMock.expect(client.getNumOpenConnections()).andReturn(openConnections).anyTimes();
+    EasyMock.replay(client);
+    return new QueryableDruidServer(
+        new DruidServer(name, name, null, 0, ServerType.HISTORICAL, DruidServer.DEFAULT_TIER, 0),
+        client
+    );
+  }
+}
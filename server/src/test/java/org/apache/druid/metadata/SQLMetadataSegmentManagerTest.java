@@ -25,6 +25,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import org.apache.druid.client.DataSourcesSnapshot;
 import org.apache.druid.java.util.common.DateTimes;
 import org.apache.druid.java.util.common.Intervals;
 import org.apache.druid.java.util.common.StringUtils;
@@ -35,6 +36,7 @@ import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.partition.NoneShardSpec;
 import org.hamcrest.core.IsInstanceOf;
 import org.joda.time.Interval;
+import org.joda.time.Period;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -1019,6 +1021,89 @@ public class SQLMetadataSegmentManagerTest
     );
   }
 
+  @Test
+  public void testIncrementalPoll()
+  {
+    final SQLMetadataSegmentManager incrementalManager = new SQLMetadataSegmentManager(
+        jsonMapper,
+        Suppliers.ofInstance(
+            new MetadataSegmentManagerConfig()
+            {
+              @Override
+              public Period getFullPollDuration()
+              {
+                return Period.hours(1);
+              }
+            }
+        ),
+        derbyConnectorRule.metadataTablesConfigSupplier(),
+        derbyConnectorRule.getConnector()
+    );
+    incrementalManager.start();
+    try {
+      incrementalManager.poll();
+      final DataSourcesSnapshot snapshot = incrementalManager.getDataSourcesSnapshot();
+      Assert.assertEquals(
+          ImmutableSet.of(segment1, segment2),
+          ImmutableSet.copyOf(incrementalManager.iterateAllSegments())
+      );
+
+      // Nothing has changed, the snapshot is kept as is
+      incrementalManager.poll();
+      Assert.assertSame(snapshot, incrementalManager.getDataSourcesSnapshot());
+
+      final DataSegment newSegment = new DataSegment(
+          "newDataSource",
+          Intervals.of("2017-10-15T00:00:00.000/2017-10-16T00:00:00.000"),
+          "2017-10-15T20:19:12.565Z",
+          ImmutableMap.of(
+              "type", "s3_zip",
+              "bucket", "test",
+              "key", "newDataSource/index/y=2017/m=10/d=15/2017-10-16T20:19:12.565Z/0/index.zip"
+          ),
+          ImmutableList.of("dim1", "dim2", "dim3"),
+          ImmutableList.of("count", "value"),
+          NoneShardSpec.instance(),
+          0,
+          1234L
+      );
+      publisher.publishSegment(newSegment);
+      publisher.publishSegment(
+          "corrupt-segment-id",
+          "corrupt-datasource",
+          "corrupt-create-date",
+          "corrupt-start-date",
+          "corrupt-end-date",
+          true,
+          "corrupt-version",
+          true,
+          StringUtils.toUtf8("corrupt-payload")
+      );
+      Assert.assertTrue(incrementalManager.removeSegment(segment2.getId().toString()));
+      incrementalManager.poll();
+
+      Assert.assertEquals(
+          ImmutableSet.of(segment1, newSegment),
+          ImmutableSet.copyOf(incrementalManager.iterateAllSegments())
+      );
+      Assert.assertSame(
+          snapshot.getDataSource("wikipedia").getSegment(segment1.getId()),
+          incrementalManager.getDataSource("wikipedia").getSegment(segment1.getId())
+      );
+
+      Assert.assertTrue(incrementalManager.removeSegment(newSegment.getId().toString()));
+      incrementalManager.poll();
+      Assert.assertNull(incrementalManager.getDataSource("newDataSource"));
+      Assert.assertEquals(
+          ImmutableSet.of(segment1),
+          ImmutableSet.copyOf(incrementalManager.iterateAllSegments())
+      );
+    }
+    finally {
+      incrementalManager.stop();
+    }
+  }
+
   @Test
   public void testStopAndStart()
   {
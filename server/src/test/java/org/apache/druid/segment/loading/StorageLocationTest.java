@@ -21,6 +21,7 @@ package org.apache.druid.segment.loading;
 
 import com.google.common.collect.ImmutableMap;
 import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.concurrent.Execs;
 import org.apache.druid.timeline.DataSegment;
 import org.easymock.EasyMock;
 import org.junit.Assert;
@@ -28,6 +29,10 @@ import org.junit.Test;
 
 import java.io.File;
 import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  */
@@ -94,6 +99,66 @@ public class StorageLocationTest
     verifyLoc(expectedAvail, loc);
   }
 
+  @Test
+  public void testReservedDownloadsCountAgainstAvailable() throws InterruptedException
+  {
+    final StorageLocation loc = new StorageLocation(new File("/tmp"), 1000L, null, 0);
+    final DataSegment segment = makeSegment("2012-01-01/2012-01-02", 100);
+
+    Assert.assertTrue(loc.reserveForDownload(segment));
+    Assert.assertEquals(900L, loc.available());
+    Assert.assertFalse(loc.canHandle(makeSegment("2013/2014", 901)));
+    Assert.assertFalse(loc.reserveForDownload(makeSegment("2013/2014", 901)));
+
+    // the downloaded segment is added before its reservation is released, see SegmentLoaderLocalCacheManager
+    loc.addSegment(segment);
+    loc.releaseDownload(segment);
+    Assert.assertEquals(900L, loc.available());
+  }
+
+  @Test
+  public void testSegmentLargerThanDownloadLimitIsLetThrough() throws InterruptedException
+  {
+    final StorageLocation loc = new StorageLocation(new File("/tmp"), 1000L, null, 50);
+    final DataSegment segment = makeSegment("2012-01-01/2012-01-02", 100);
+
+    Assert.assertTrue(loc.reserveForDownload(segment));
+    Assert.assertEquals(900L, loc.available());
+    loc.releaseDownload(segment);
+    Assert.assertEquals(1000L, loc.available());
+  }
+
+  @Test(timeout = 60_000L)
+  public void testReserveForDownloadWaitsForRelease() throws Exception
+  {
+    final StorageLocation loc = new StorageLocation(new File("/tmp"), 1000L, null, 150);
+    final DataSegment first = makeSegment("2012-01-01/2012-01-02", 100);
+    final DataSegment second = makeSegment("2012-01-02/2012-01-03", 100);
+
+    Assert.assertTrue(loc.reserveForDownload(first));
+
+    final ExecutorService exec = Execs.singleThreaded("StorageLocationTest-%d");
+    try {
+      final Future<Boolean> secondReserved = exec.submit(() -> loc.reserveForDownload(second));
+      try {
+        secondReserved.get(100, TimeUnit.MILLISECONDS);
+        Assert.fail("Expected the second download to wait for the first one");
+      }
+      catch (TimeoutException e) {
+        // expected
+      }
+
+      loc.releaseDownload(first);
+      Assert.assertTrue(secondReserved.get());
+      Assert.assertEquals(900L, loc.available());
+      loc.releaseDownload(second);
+      Assert.assertEquals(1000L, loc.available());
+    }
+    finally {
+      exec.shutdownNow();
+    }
+  }
+
   private void verifyLoc(long maxSize, StorageLocation loc)
   {
     Assert.assertEquals(maxSize, loc.available());
@@ -80,6 +80,8 @@ public class AppenderatorPlumberTest
         null,
         null,
         null,
+        null,
+        null,
         null
     );
 
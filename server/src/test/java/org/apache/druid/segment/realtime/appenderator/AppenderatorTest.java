@@ -150,6 +150,39 @@ public class AppenderatorTest
     }
   }
 
+  @Test
+  public void testPushWithMultipleThreads() throws Exception
+  {
+    try (final AppenderatorTester tester = new AppenderatorTester(100, -1, null, false, 2)) {
+      final Appenderator appenderator = tester.getAppenderator();
+      final ConcurrentMap<String, String> commitMetadata = new ConcurrentHashMap<>();
+      final Supplier<Committer> committerSupplier = committerSupplierFromConcurrentMap(commitMetadata);
+
+      appenderator.startJob();
+      commitMetadata.put("x", "1");
+      appenderator.add(IDENTIFIERS.get(0), ir("2000", "foo", 1), committerSupplier);
+      appenderator.add(IDENTIFIERS.get(1), ir("2000", "bar", 2), committerSupplier);
+      appenderator.add(IDENTIFIERS.get(2), ir("2001", "baz", 4), committerSupplier);
+      commitMetadata.put("x", "2");
+      appenderator.add(IDENTIFIERS.get(2), ir("2001", "qux", 8), committerSupplier);
+
+      final SegmentsAndMetadata segmentsAndMetadata = appenderator.push(
+          appenderator.getSegments(),
+          committerSupplier.get(),
+          false
+      ).get();
+      Assert.assertEquals(ImmutableMap.of("x", "2"), (Map<String, String>) segmentsAndMetadata.getCommitMetadata());
+      Assert.assertEquals(
+          IDENTIFIERS,
+          sorted(Lists.transform(segmentsAndMetadata.getSegments(), SegmentIdWithShardSpec::fromDataSegment))
+      );
+      Assert.assertEquals(sorted(tester.getPushedSegments()), sorted(segmentsAndMetadata.getSegments()));
+
+      appenderator.clear();
+      Assert.assertTrue(appenderator.getSegments().isEmpty());
+    }
+  }
+
   @Test
   public void testMaxBytesInMemory() throws Exception
   {
@@ -121,6 +121,17 @@ public class AppenderatorTester implements AutoCloseable
       final File basePersistDirectory,
       final boolean enablePushFailure
   )
+  {
+    this(maxRowsInMemory, maxSizeInBytes, basePersistDirectory, enablePushFailure, 1);
+  }
+
+  public AppenderatorTester(
+      final int maxRowsInMemory,
+      long maxSizeInBytes,
+      final File basePersistDirectory,
+      final boolean enablePushFailure,
+      final int numPushThreads
+  )
   {
     objectMapper = new DefaultObjectMapper();
     objectMapper.registerSubtypes(LinearShardSpec.class);
@@ -167,8 +178,17 @@ public class AppenderatorTester implements AutoCloseable
         null,
         null,
         null,
+        null,
+        null,
         null
-    );
+    )
+    {
+      @Override
+      public int getNumPushThreads()
+      {
+        return numPushThreads;
+      }
+    };
 
     metrics = new FireDepartmentMetrics();
     queryExecutor = Execs.singleThreaded("queryExecutor(%d)");
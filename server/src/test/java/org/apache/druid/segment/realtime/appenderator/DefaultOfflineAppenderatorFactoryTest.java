@@ -151,6 +151,8 @@ public class DefaultOfflineAppenderatorFactoryTest
         null,
         null,
         null,
+        null,
+        null,
         null
     );
 
@@ -214,6 +214,8 @@ public class RealtimePlumberSchoolTest
         null,
         null,
         null,
+        null,
+        null,
         null
     );
 
@@ -275,6 +277,8 @@ public class RealtimePlumberSchoolTest
         DateTimes.of("2014-12-01T12:34:56.789").toString(),
         tuningConfig.getMaxRowsInMemory(),
         TuningConfigs.getMaxBytesInMemoryOrDefault(tuningConfig.getMaxBytesInMemory()),
+        tuningConfig.isOffheapFacts(),
+        tuningConfig.getMaxOffheapFactsBytes(),
         tuningConfig.isReportParseExceptions(),
         tuningConfig.getDedupColumn()
     );
@@ -321,6 +325,8 @@ public class RealtimePlumberSchoolTest
         DateTimes.of("2014-12-01T12:34:56.789").toString(),
         tuningConfig.getMaxRowsInMemory(),
         TuningConfigs.getMaxBytesInMemoryOrDefault(tuningConfig.getMaxBytesInMemory()),
+        tuningConfig.isOffheapFacts(),
+        tuningConfig.getMaxOffheapFactsBytes(),
         tuningConfig.isReportParseExceptions(),
         tuningConfig.getDedupColumn()
     );
@@ -377,6 +383,8 @@ public class RealtimePlumberSchoolTest
         DateTimes.of("2014-12-01T12:34:56.789").toString(),
         tuningConfig.getMaxRowsInMemory(),
         TuningConfigs.getMaxBytesInMemoryOrDefault(tuningConfig.getMaxBytesInMemory()),
+        tuningConfig.isOffheapFacts(),
+        tuningConfig.getMaxOffheapFactsBytes(),
         tuningConfig.isReportParseExceptions(),
         tuningConfig.getDedupColumn()
     );
@@ -82,6 +82,8 @@ public class SinkTest
         null,
         null,
         null,
+        null,
+        null,
         null
     );
     final Sink sink = new Sink(
@@ -91,6 +93,8 @@ public class SinkTest
         version,
         tuningConfig.getMaxRowsInMemory(),
         TuningConfigs.getMaxBytesInMemoryOrDefault(tuningConfig.getMaxBytesInMemory()),
+        tuningConfig.isOffheapFacts(),
+        tuningConfig.getMaxOffheapFactsBytes(),
         tuningConfig.isReportParseExceptions(),
         tuningConfig.getDedupColumn()
     );
@@ -237,7 +241,9 @@ public class SinkTest
         null,
         null,
         null,
-        "dedupColumn"
+        "dedupColumn",
+        null,
+        null
     );
     final Sink sink = new Sink(
         interval,
@@ -246,6 +252,8 @@ public class SinkTest
         version,
         tuningConfig.getMaxRowsInMemory(),
         TuningConfigs.getMaxBytesInMemoryOrDefault(tuningConfig.getMaxBytesInMemory()),
+        tuningConfig.isOffheapFacts(),
+        tuningConfig.getMaxOffheapFactsBytes(),
         tuningConfig.isReportParseExceptions(),
         tuningConfig.getDedupColumn()
     );
@@ -142,7 +142,8 @@ public class QueryResourceTest
         queryManager,
         new AuthConfig(),
         null,
-        new DefaultGenericQueryMetricsFactory(jsonMapper)
+        new DefaultGenericQueryMetricsFactory(jsonMapper),
+        new ServerLoadReporter(Execs.directExecutor())
     );
   }
 
@@ -364,7 +365,8 @@ public class QueryResourceTest
         queryManager,
         new AuthConfig(),
         authMapper,
-        new DefaultGenericQueryMetricsFactory(jsonMapper)
+        new DefaultGenericQueryMetricsFactory(jsonMapper),
+        new ServerLoadReporter(Execs.directExecutor())
     );
 
 
@@ -478,7 +480,8 @@ public class QueryResourceTest
         queryManager,
         new AuthConfig(),
         authMapper,
-        new DefaultGenericQueryMetricsFactory(jsonMapper)
+        new DefaultGenericQueryMetricsFactory(jsonMapper),
+        new ServerLoadReporter(Execs.directExecutor())
     );
 
     final String queryString = "{\"queryType\":\"timeBoundary\", \"dataSource\":\"allow\","
@@ -600,7 +603,8 @@ public class QueryResourceTest
         queryManager,
         new AuthConfig(),
         authMapper,
-        new DefaultGenericQueryMetricsFactory(jsonMapper)
+        new DefaultGenericQueryMetricsFactory(jsonMapper),
+        new ServerLoadReporter(Execs.directExecutor())
     );
 
     final String queryString = "{\"queryType\":\"timeBoundary\", \"dataSource\":\"allow\","
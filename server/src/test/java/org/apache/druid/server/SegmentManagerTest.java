@@ -121,7 +121,8 @@ public class SegmentManagerTest
     @Override
     public QueryableIndex asQueryableIndex()
     {
-      throw new UnsupportedOperationException();
+      // not memory mapped, like incremental index segments
+      return null;
     }
 
     @Override
@@ -229,6 +230,19 @@ public class SegmentManagerTest
     assertResult(segments);
   }
 
+  @Test
+  public void testWarmupAndSampleResidencyOfNotMappedSegments() throws Exception
+  {
+    for (DataSegment segment : segments) {
+      Assert.assertTrue(segmentManager.loadSegment(segment));
+    }
+
+    Assert.assertEquals(0, segmentManager.warmupSegment(segments.get(0)));
+    Assert.assertEquals(0, segmentManager.warmupSegment(segments.get(0).withVersion("unknown")));
+    Assert.assertEquals(ImmutableMap.of(), segmentManager.sampleResidency("small_source", 10, 4));
+    Assert.assertEquals(ImmutableMap.of(), segmentManager.sampleResidency("unknown_source", 10, 4));
+  }
+
   @Test
   public void testDropSegment() throws SegmentLoadingException, ExecutionException, InterruptedException
   {
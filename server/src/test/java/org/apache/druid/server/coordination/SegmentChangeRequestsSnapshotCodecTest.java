@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.coordination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.client.HttpServerInventoryView;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.segment.TestHelper;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.partition.NumberedShardSpec;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SegmentChangeRequestsSnapshotCodecTest
+{
+  private final ObjectMapper mapper = TestHelper.makeJsonMapper();
+  private final SegmentChangeRequestsSnapshotCodec codec = new SegmentChangeRequestsSnapshotCodec(mapper);
+
+  @Test
+  public void testRoundTrip() throws Exception
+  {
+    final List<DataSegmentChangeRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      requests.add(new SegmentChangeRequestLoad(makeSegment("ds" + (i % 3), i, i % 4)));
+    }
+    // out of time order and without dimensions or metrics
+    requests.add(new SegmentChangeRequestDrop(
+        DataSegment.builder()
+                   .dataSource("ds0")
+                   .interval(Intervals.of("2000-01-01/2000-02-01"))
+                   .version("v0")
+                   .size(0)
+                   .build()
+    ));
+    requests.add(new SegmentChangeRequestNoop());
+
+    final ChangeRequestsSnapshot<DataSegmentChangeRequest> snapshot = ChangeRequestsSnapshot.success(
+        new ChangeRequestHistory.Counter(42, 1234567L),
+        requests
+    );
+    final ChangeRequestsSnapshot<DataSegmentChangeRequest> decoded = roundTrip(snapshot);
+
+    Assert.assertFalse(decoded.isResetCounter());
+    Assert.assertEquals(42, decoded.getCounter().getCounter());
+    Assert.assertEquals(1234567L, decoded.getCounter().getHash());
+    Assert.assertEquals(requests.size(), decoded.getRequests().size());
+
+    for (int i = 0; i < requests.size(); i++) {
+      final DataSegmentChangeRequest expected = requests.get(i);
+      final DataSegmentChangeRequest actual = decoded.getRequests().get(i);
+      Assert.assertEquals(expected.getClass(), actual.getClass());
+      if (expected instanceof SegmentChangeRequestLoad) {
+        assertSegmentEquals(
+            ((SegmentChangeRequestLoad) expected).getSegment(),
+            ((SegmentChangeRequestLoad) actual).getSegment()
+        );
+      } else if (expected instanceof SegmentChangeRequestDrop) {
+        assertSegmentEquals(
+            ((SegmentChangeRequestDrop) expected).getSegment(),
+            ((SegmentChangeRequestDrop) actual).getSegment()
+        );
+      }
+    }
+  }
+
+  @Test
+  public void testResetCounter() throws Exception
+  {
+    final ChangeRequestsSnapshot<DataSegmentChangeRequest> decoded = roundTrip(
+        ChangeRequestsSnapshot.fail("counter is too old")
+    );
+
+    Assert.assertTrue(decoded.isResetCounter());
+    Assert.assertEquals("counter is too old", decoded.getResetCause());
+  }
+
+  @Test
+  public void testSmallerThanSmile() throws Exception
+  {
+    final List<DataSegmentChangeRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      requests.add(new SegmentChangeRequestLoad(makeSegment("wikipedia", i, 0)));
+    }
+    final ChangeRequestsSnapshot<DataSegmentChangeRequest> snapshot = ChangeRequestsSnapshot.success(
+        new ChangeRequestHistory.Counter(1),
+        requests
+    );
+
+    final ObjectMapper smileMapper = TestHelper.makeSmileMapper();
+    final ByteArrayOutputStream compact = new ByteArrayOutputStream();
+    new SegmentChangeRequestsSnapshotCodec(smileMapper).encode(snapshot, compact);
+    final int smileSize = smileMapper.writerWithType(HttpServerInventoryView.SEGMENT_LIST_RESP_TYPE_REF)
+                                     .writeValueAsBytes(snapshot)
+                                     .length;
+
+    Assert.assertTrue(
+        compact.size() + " vs " + smileSize,
+        compact.size() < smileSize
+    );
+  }
+
+  private ChangeRequestsSnapshot<DataSegmentChangeRequest> roundTrip(
+      ChangeRequestsSnapshot<DataSegmentChangeRequest> snapshot
+  ) throws Exception
+  {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    codec.encode(snapshot, out);
+    return codec.decode(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private static DataSegment makeSegment(String dataSource, int hour, int partition)
+  {
+    final DateTime start = DateTimes.of("2019-01-01").plusHours(hour);
+    return new DataSegment(
+        dataSource,
+        new Interval(start, start.plusHours(1)),
+        "2019-02-01T00:00:00.000Z",
+        ImmutableMap.of("type", "local", "path", "/tmp/" + dataSource + "/" + hour + "/" + partition + "/index.zip"),
+        ImmutableList.of("page", "language", "user"),
+        ImmutableList.of("count", "added"),
+        new NumberedShardSpec(partition, 4),
+        9,
+        1000L + hour
+    );
+  }
+
+  private static void assertSegmentEquals(DataSegment expected, DataSegment actual)
+  {
+    Assert.assertEquals(expected.getId(), actual.getId());
+    Assert.assertEquals(expected.getLoadSpec(), actual.getLoadSpec());
+    Assert.assertEquals(expected.getDimensions(), actual.getDimensions());
+    Assert.assertEquals(expected.getMetrics(), actual.getMetrics());
+    Assert.assertEquals(expected.getShardSpec(), actual.getShardSpec());
+    Assert.assertEquals(expected.getBinaryVersion(), actual.getBinaryVersion());
+    Assert.assertEquals(expected.getSize(), actual.getSize());
+  }
+}
@@ -49,6 +49,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -317,6 +319,14 @@ public class SegmentLoadDropHandlerTest
     );
   }
 
+  private DataSegment makeSegmentNotInCache(Interval interval)
+  {
+    final DataSegment segment = makeSegment("test", "1", interval);
+    return segment.withLoadSpec(
+        ImmutableMap.of("version", "1", "interval", interval, "cacheDir", new File(infoDir, "notInCache"))
+    );
+  }
+
   private void writeSegmentToCache(final DataSegment segment)
   {
     if (!infoDir.exists()) {
@@ -424,6 +434,96 @@ public class SegmentLoadDropHandlerTest
     Assert.assertTrue(infoDir.delete());
   }
 
+  @Test(timeout = 60_000L)
+  public void testSegmentsNotInCacheAreDownloadedMostRecentFirst() throws Exception
+  {
+    final CountDownLatch firstDownloadStarted = new CountDownLatch(1);
+    final CountDownLatch firstDownloadAllowed = new CountDownLatch(1);
+    final List<DataSegment> downloadedSegments = new CopyOnWriteArrayList<>();
+    final SegmentManager downloadingSegmentManager = new SegmentManager(
+        new CacheTestSegmentLoader()
+        {
+          @Override
+          public File getSegmentFiles(DataSegment segment)
+          {
+            downloadedSegments.add(segment);
+            if (downloadedSegments.size() == 1) {
+              firstDownloadStarted.countDown();
+              try {
+                firstDownloadAllowed.await();
+              }
+              catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+            }
+            return null;
+          }
+        }
+    );
+    final ScheduledExecutorService loadingExec = Execs.scheduledSingleThreaded("SegmentLoadDropHandlerTest-%d");
+    final SegmentLoadDropHandler handler = new SegmentLoadDropHandler(
+        jsonMapper,
+        new SegmentLoaderConfig()
+        {
+          @Override
+          public File getInfoDir()
+          {
+            return infoDir;
+          }
+
+          @Override
+          public int getNumDownloadThreads()
+          {
+            return 1;
+          }
+        },
+        announcer,
+        EasyMock.createNiceMock(DataSegmentServerAnnouncer.class),
+        downloadingSegmentManager,
+        loadingExec
+    );
+    handler.start();
+
+    final DataSegment first = makeSegmentNotInCache(Intervals.of("2011-04-01/P1D"));
+    final DataSegment oldest = makeSegmentNotInCache(Intervals.of("2011-03-01/P1D"));
+    final DataSegment newest = makeSegmentNotInCache(Intervals.of("2011-05-01/P1D"));
+    final DataSegment cached = makeSegment("test", "1", Intervals.of("2011-06-01/P1D"));
+
+    // the first download holds up the download stage, so the next ones are queued
+    handler.processBatch(ImmutableList.of(new SegmentChangeRequestLoad(first)));
+    firstDownloadStarted.await();
+    handler.processBatch(
+        ImmutableList.of(
+            new SegmentChangeRequestLoad(oldest),
+            new SegmentChangeRequestLoad(newest),
+            new SegmentChangeRequestLoad(cached)
+        )
+    );
+    Assert.assertEquals(2, handler.getPendingDownloadCount());
+
+    // cached segments skip the download stage
+    while (!segmentsAnnouncedByMe.contains(cached)) {
+      Thread.sleep(10);
+    }
+    Assert.assertFalse(segmentsAnnouncedByMe.contains(first));
+
+    firstDownloadAllowed.countDown();
+    while (segmentsAnnouncedByMe.size() < 4) {
+      Thread.sleep(10);
+    }
+
+    Assert.assertEquals(ImmutableList.of(first, newest, oldest), downloadedSegments);
+    Assert.assertEquals(0, handler.getPendingDownloadCount());
+    Assert.assertEquals(0, handler.getPendingLoadCount());
+    Assert.assertEquals(3 * first.getSize(), handler.getDownloadedBytes());
+
+    handler.stop();
+    loadingExec.shutdownNow();
+    for (DataSegment segment : ImmutableList.of(first, oldest, newest, cached)) {
+      deleteSegmentFromCache(segment);
+    }
+  }
+
   @Test(timeout = 60_000L)
   public void testProcessBatch() throws Exception
   {
@@ -167,6 +167,65 @@ public class SegmentsCostCacheTest
     Assert.assertEquals(0.7065117101966677, cost, EPSILON);
   }
 
+  @Test
+  public void incrementalUpdatesTest()
+  {
+    List<DataSegment> dataSegments = new ArrayList<>(1000);
+    Random random = new Random(1);
+    for (int i = 0; i < 1000; ++i) {
+      dataSegments.add(createSegment(DATA_SOURCE, shifted1HInterval(REFERENCE_TIME, random.nextInt(2000)), 100));
+    }
+    DataSegment referenceSegment = createSegment("ANOTHER_DATA_SOURCE", shifted1HInterval(REFERENCE_TIME, 1000), 100);
+
+    SegmentsCostCache.Builder updatedBuilder = SegmentsCostCache.builder();
+    dataSegments.forEach(updatedBuilder::addSegment);
+    SegmentsCostCache initialCache = updatedBuilder.build();
+
+    // remove every third segment and add some twice, building in between so that both sorted and unsorted
+    // segments are updated
+    for (int i = 0; i < dataSegments.size(); i += 3) {
+      updatedBuilder.removeSegment(dataSegments.get(i));
+      if (i % 100 == 0) {
+        updatedBuilder.build();
+      }
+    }
+    for (int i = 1; i < dataSegments.size(); i += 30) {
+      updatedBuilder.addSegment(dataSegments.get(i));
+    }
+
+    SegmentsCostCache.Builder expectedBuilder = SegmentsCostCache.builder();
+    for (int i = 0; i < dataSegments.size(); ++i) {
+      if (i % 3 != 0) {
+        expectedBuilder.addSegment(dataSegments.get(i));
+      }
+    }
+
+    double expectedCost = expectedBuilder.build().cost(referenceSegment);
+    Assert.assertEquals(expectedCost, updatedBuilder.build().cost(referenceSegment), EPSILON);
+    Assert.assertNotEquals(expectedCost, initialCache.cost(referenceSegment), EPSILON);
+  }
+
+  @Test
+  public void jointCostTest()
+  {
+    DataSegment segmentA = createSegment(DATA_SOURCE, shifted1HInterval(REFERENCE_TIME, 0), 100);
+    DataSegment segmentB = createSegment(DATA_SOURCE, shifted1HInterval(REFERENCE_TIME, -2), 100);
+
+    SegmentsCostCache.Builder cacheBuilder = SegmentsCostCache.builder();
+    cacheBuilder.addSegment(segmentA);
+
+    Assert.assertEquals(
+        cacheBuilder.build().cost(segmentB),
+        SegmentsCostCache.computeJointCost(segmentB, segmentA),
+        EPSILON
+    );
+    Assert.assertEquals(
+        SegmentsCostCache.computeJointCost(segmentA, segmentB),
+        SegmentsCostCache.computeJointCost(segmentB, segmentA),
+        EPSILON
+    );
+  }
+
   private static Interval shifted1HInterval(DateTime REFERENCE_TIME, int shiftInHours)
   {
     return new Interval(
@@ -91,6 +91,11 @@ public class HistoricalMetricsMonitorTest extends EasyMockSupport
     EasyMock.expect(segmentManager.getDataSourceCounts()).andReturn(ImmutableMap.of(dataSource, 1L));
     EasyMock.expect(druidServerConfig.getTier()).andReturn(tier).once();
     EasyMock.expect(druidServerConfig.getPriority()).andReturn(priority).once();
+    EasyMock.expect(segmentLoadDropMgr.getPendingDownloadCount()).andReturn(3).once();
+    EasyMock.expect(segmentLoadDropMgr.getPendingLoadCount()).andReturn(2).once();
+    EasyMock.expect(segmentLoadDropMgr.getDownloadedBytes()).andReturn(100L).once();
+    EasyMock.expect(druidServerConfig.getTier()).andReturn(tier).once();
+    EasyMock.expect(druidServerConfig.getPriority()).andReturn(priority).once();
 
     final HistoricalMetricsMonitor monitor = new HistoricalMetricsMonitor(
         druidServerConfig,
@@ -100,7 +105,7 @@ public class HistoricalMetricsMonitorTest extends EasyMockSupport
 
     final Capture<ServiceEventBuilder<ServiceMetricEvent>> eventCapture = EasyMock.newCapture(CaptureType.ALL);
     serviceEmitter.emit(EasyMock.capture(eventCapture));
-    EasyMock.expectLastCall().times(5);
+    EasyMock.expectLastCall().times(8);
 
     EasyMock.replay(druidServerConfig, segmentManager, segmentLoadDropMgr, serviceEmitter);
     monitor.doMonitor(serviceEmitter);
@@ -165,5 +170,27 @@ public class HistoricalMetricsMonitorTest extends EasyMockSupport
         "priority", String.valueOf(priority),
         "dataSource", dataSource
     ), events.get(4));
+
+    Assert.assertEquals(ImmutableMap.<String, Object>of(
+        "metric", "segment/download/queued",
+        "value", 3,
+        "tier", tier,
+        "priority", String.valueOf(priority)
+    ), events.get(5));
+
+    Assert.assertEquals(ImmutableMap.<String, Object>of(
+        "metric", "segment/load/queued",
+        "value", 2,
+        "tier", tier,
+        "priority", String.valueOf(priority)
+    ), events.get(6));
+
+    // No download rate is reported until the second run, as there is no previous observation to compare with.
+    Assert.assertEquals(ImmutableMap.<String, Object>of(
+        "metric", "segment/download/bytes",
+        "value", 100L,
+        "tier", tier,
+        "priority", String.valueOf(priority)
+    ), events.get(7));
   }
 }
@@ -35,6 +35,7 @@ import org.apache.druid.client.selector.ServerSelectorStrategy;
 import org.apache.druid.client.selector.TierSelectorStrategy;
 import org.apache.druid.discovery.LookupNodeService;
 import org.apache.druid.discovery.NodeType;
+import org.apache.druid.guice.BrokerProcessingModule;
 import org.apache.druid.guice.CacheModule;
 import org.apache.druid.guice.DruidProcessingModule;
 import org.apache.druid.guice.Jerseys;
@@ -81,6 +82,7 @@ public class CliBroker extends ServerRunnable
   {
     return ImmutableList.of(
         new DruidProcessingModule(),
+        new BrokerProcessingModule(),
         new QueryableModule(),
         new QueryRunnerFactoryModule(),
         binder -> {
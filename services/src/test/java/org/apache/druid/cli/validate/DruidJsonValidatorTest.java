@@ -174,6 +174,8 @@ public class DruidJsonValidatorTest
                 null,
                 null,
                 null,
+                null,
+                null,
                 null
             )
         ),